@@ -7,6 +7,10 @@
 -- Connect to database
 -- \c legal_cms_db;
 
+-- Trigram matching for party-name search. The application also creates it (and the trigram
+-- indexes below) at startup; see PostgresSchemaInitializer.
+CREATE EXTENSION IF NOT EXISTS pg_trgm;
+
 -- Users table
 CREATE TABLE IF NOT EXISTS users (
     id BIGSERIAL PRIMARY KEY,
@@ -60,7 +64,141 @@ CREATE TABLE IF NOT EXISTS documents (
     file_url VARCHAR(1000) NOT NULL,
     document_type VARCHAR(50) NOT NULL CHECK (document_type IN ('ORDER', 'PETITION', 'JUDGMENT')),
     uploaded_by_id BIGINT NOT NULL REFERENCES users(id),
-    uploaded_at TIMESTAMP DEFAULT CURRENT_TIMESTAMP
+    content_hash VARCHAR(64),
+    uploaded_at TIMESTAMP DEFAULT CURRENT_TIMESTAMP,
+    page_count INTEGER,
+    has_thumbnail BOOLEAN,
+    processed_at TIMESTAMP
+);
+
+-- Content-addressed document blobs; documents refer to them by content_hash
+CREATE TABLE IF NOT EXISTS document_blobs (
+    content_hash VARCHAR(64) PRIMARY KEY,
+    size_bytes BIGINT NOT NULL,
+    created_at TIMESTAMP DEFAULT CURRENT_TIMESTAMP,
+    last_referenced_at TIMESTAMP DEFAULT CURRENT_TIMESTAMP,
+    storage_tier VARCHAR(10) DEFAULT 'HOT' CHECK (storage_tier IN ('HOT', 'COLD'))
+);
+
+-- Resumable, chunked uploads; chunks are written into {blob-root}/sessions/<id>.part
+CREATE TABLE IF NOT EXISTS upload_sessions (
+    id VARCHAR(36) PRIMARY KEY,
+    case_id BIGINT NOT NULL REFERENCES cases(id) ON DELETE CASCADE,
+    document_type VARCHAR(50) NOT NULL,
+    file_name VARCHAR(500) NOT NULL,
+    total_size BIGINT NOT NULL,
+    chunk_size BIGINT NOT NULL,
+    expected_sha256 VARCHAR(64),
+    status VARCHAR(20) NOT NULL,
+    created_by VARCHAR(255) NOT NULL,
+    document_id BIGINT,
+    created_at TIMESTAMP DEFAULT CURRENT_TIMESTAMP,
+    updated_at TIMESTAMP DEFAULT CURRENT_TIMESTAMP,
+    expires_at TIMESTAMP NOT NULL
+);
+
+CREATE TABLE IF NOT EXISTS upload_session_chunks (
+    session_id VARCHAR(36) NOT NULL REFERENCES upload_sessions(id) ON DELETE CASCADE,
+    chunk_index INTEGER NOT NULL,
+    size_bytes BIGINT NOT NULL,
+    sha256 VARCHAR(64) NOT NULL,
+    received_at TIMESTAMP DEFAULT CURRENT_TIMESTAMP,
+    PRIMARY KEY (session_id, chunk_index)
+);
+
+-- Background post-processing of stored documents (text, page count, thumbnail); one job per document
+CREATE TABLE IF NOT EXISTS document_processing_jobs (
+    id BIGSERIAL PRIMARY KEY,
+    document_id BIGINT NOT NULL UNIQUE REFERENCES documents(id) ON DELETE CASCADE,
+    status VARCHAR(20) NOT NULL CHECK (status IN ('PENDING', 'COMPLETED', 'SKIPPED', 'FAILED')),
+    attempts INTEGER NOT NULL DEFAULT 0,
+    next_attempt_at TIMESTAMP NOT NULL DEFAULT CURRENT_TIMESTAMP,
+    claimed_by VARCHAR(255),
+    claim_expires_at TIMESTAMP,
+    error_message VARCHAR(1000),
+    created_at TIMESTAMP DEFAULT CURRENT_TIMESTAMP,
+    updated_at TIMESTAMP DEFAULT CURRENT_TIMESTAMP
+);
+
+CREATE TABLE IF NOT EXISTS document_texts (
+    document_id BIGINT PRIMARY KEY REFERENCES documents(id) ON DELETE CASCADE,
+    content TEXT,
+    truncated BOOLEAN NOT NULL DEFAULT FALSE,
+    title VARCHAR(500),
+    author VARCHAR(255),
+    extracted_at TIMESTAMP DEFAULT CURRENT_TIMESTAMP,
+    -- Full-text search; the title ranks above the body
+    search_vector TSVECTOR GENERATED ALWAYS AS (
+        setweight(to_tsvector('english', coalesce(title, '')), 'A') ||
+        to_tsvector('english', coalesce(content, ''))) STORED
+);
+
+-- Small JPEG previews of first pages
+CREATE TABLE IF NOT EXISTS document_thumbnails (
+    document_id BIGINT PRIMARY KEY REFERENCES documents(id) ON DELETE CASCADE,
+    image BYTEA NOT NULL,
+    width INTEGER NOT NULL,
+    height INTEGER NOT NULL,
+    created_at TIMESTAMP DEFAULT CURRENT_TIMESTAMP
+);
+
+-- Court orders waiting to be downloaded into documents; a durable queue drained by every replica
+CREATE TABLE IF NOT EXISTS order_ingestion_jobs (
+    id BIGSERIAL PRIMARY KEY,
+    case_id BIGINT NOT NULL REFERENCES cases(id) ON DELETE CASCADE,
+    order_url VARCHAR(1000) NOT NULL,
+    status VARCHAR(50) NOT NULL CHECK (status IN ('PENDING', 'COMPLETED', 'DUPLICATE', 'FAILED')),
+    attempts INTEGER NOT NULL DEFAULT 0,
+    next_attempt_at TIMESTAMP NOT NULL DEFAULT CURRENT_TIMESTAMP,
+    claimed_by VARCHAR(255),
+    claim_expires_at TIMESTAMP,
+    document_id BIGINT,
+    content_hash VARCHAR(64),
+    error_message VARCHAR(1000),
+    created_at TIMESTAMP DEFAULT CURRENT_TIMESTAMP,
+    updated_at TIMESTAMP DEFAULT CURRENT_TIMESTAMP,
+    UNIQUE (case_id, order_url)
+);
+
+-- Court sync runs: one row per sync job, with its per-case checkpoints in court_sync_run_items
+CREATE TABLE IF NOT EXISTS court_sync_runs (
+    id BIGSERIAL PRIMARY KEY,
+    trigger_type VARCHAR(50) NOT NULL CHECK (trigger_type IN ('SCHEDULED', 'MANUAL')),
+    status VARCHAR(50) NOT NULL CHECK (status IN ('RUNNING', 'PAUSED', 'COMPLETED', 'FAILED')),
+    triggered_by VARCHAR(255),
+    total_cases INTEGER NOT NULL DEFAULT 0,
+    write_chunks INTEGER NOT NULL DEFAULT 0,
+    write_statements INTEGER NOT NULL DEFAULT 0,
+    active_millis BIGINT NOT NULL DEFAULT 0,
+    error_message VARCHAR(1000),
+    created_at TIMESTAMP DEFAULT CURRENT_TIMESTAMP,
+    finished_at TIMESTAMP
+);
+
+CREATE TABLE IF NOT EXISTS court_sync_run_items (
+    id BIGSERIAL PRIMARY KEY,
+    run_id BIGINT NOT NULL REFERENCES court_sync_runs(id) ON DELETE CASCADE,
+    case_id BIGINT NOT NULL,
+    court_name VARCHAR(255),
+    status VARCHAR(50) NOT NULL DEFAULT 'PENDING' CHECK (status IN ('PENDING', 'UPDATED', 'UNCHANGED', 'FAILED', 'SKIPPED')),
+    latency_ms BIGINT,
+    error_message VARCHAR(1000),
+    processed_at TIMESTAMP,
+    claimed_by VARCHAR(255),
+    claim_expires_at TIMESTAMP,
+    UNIQUE (run_id, case_id)
+);
+
+-- Court sync schedule: when each case is next due for a lookup, drained in due order
+CREATE TABLE IF NOT EXISTS case_sync_state (
+    case_id BIGINT PRIMARY KEY REFERENCES cases(id) ON DELETE CASCADE,
+    next_sync_due_at TIMESTAMP NOT NULL,
+    last_synced_at TIMESTAMP,
+    last_changed_at TIMESTAMP,
+    volatility DOUBLE PRECISION NOT NULL DEFAULT 0,
+    consecutive_failures INTEGER NOT NULL DEFAULT 0,
+    status_digest VARCHAR(64),
+    last_order_url VARCHAR(1000)
 );
 
 -- Indexes for performance
@@ -69,10 +207,43 @@ CREATE INDEX idx_cases_cnr_number ON cases(cnr_number);
 CREATE INDEX idx_cases_assigned_advocate ON cases(assigned_advocate_id);
 CREATE INDEX idx_cases_next_hearing_date ON cases(next_hearing_date);
 CREATE INDEX idx_parties_case_id ON parties(case_id);
-CREATE INDEX idx_hearings_case_id ON hearings(case_id);
+-- Hearing history is deduplicated per case and date; also serves per-case listings by date
+CREATE UNIQUE INDEX uq_hearings_case_date ON hearings(case_id, hearing_date);
 CREATE INDEX idx_documents_case_id ON documents(case_id);
 CREATE INDEX idx_users_email ON users(email);
 
+-- Resuming a run walks its pending checkpoints in case id order
+CREATE INDEX idx_court_sync_run_items_status ON court_sync_run_items(run_id, status, case_id);
+CREATE INDEX idx_court_sync_runs_status ON court_sync_runs(status);
+CREATE INDEX idx_case_sync_state_due ON case_sync_state(next_sync_due_at);
+CREATE INDEX idx_order_ingestion_jobs_due ON order_ingestion_jobs(status, next_attempt_at);
+-- Ingested orders are deduplicated by content within a case
+CREATE INDEX idx_documents_case_content_hash ON documents(case_id, content_hash);
+-- Blob references: garbage collection checks whether any document still has a blob's content
+CREATE INDEX idx_documents_content_hash ON documents(content_hash);
+CREATE INDEX idx_document_blobs_referenced ON document_blobs(last_referenced_at);
+CREATE INDEX idx_document_blobs_tier ON document_blobs(storage_tier, content_hash);
+
+-- Document processing queue
+CREATE INDEX idx_document_processing_jobs_due ON document_processing_jobs(status, next_attempt_at);
+-- Documents stored before processing existed, queued a batch at a time
+CREATE INDEX idx_documents_unprocessed ON documents(id) WHERE processed_at IS NULL;
+-- Full-text search of document contents
+CREATE INDEX idx_document_texts_search ON document_texts USING gin (search_vector);
+
+-- Abandoned upload cleanup
+CREATE INDEX idx_upload_sessions_expiry ON upload_sessions(status, expires_at);
+
+-- Keyset pagination: each listing filter walks its index in id order
+CREATE INDEX idx_cases_status_id ON cases(status, id);
+CREATE INDEX idx_cases_court_name_id ON cases(court_name, id);
+CREATE INDEX idx_cases_advocate_id ON cases(assigned_advocate_id, id);
+CREATE INDEX idx_cases_updated_at ON cases(updated_at);
+
+-- Party-name search: substring LIKE on lower(name) is answered from these trigram indexes
+CREATE INDEX idx_parties_petitioner_trgm ON parties USING gin (lower(petitioner_name) gin_trgm_ops);
+CREATE INDEX idx_parties_respondent_trgm ON parties USING gin (lower(respondent_name) gin_trgm_ops);
+
 -- Insert default admin user
 -- Password: admin123 (BCrypt hash)
 INSERT INTO users (full_name, email, password, role, is_active, created_at, updated_at)
@@ -0,0 +1,29 @@
+package com.legalcms.client;
+
+import com.legalcms.dto.CaseStatusResponse;
+import com.legalcms.dto.CourtDataRequest;
+import com.legalcms.dto.CourtDataResponse;
+
+import java.util.concurrent.CompletableFuture;
+
+/**
+ * Upstream court data source (court API, third-party aggregator or scraper).
+ * Implementations are called without caching; CourtIntegrationService adds caching and request coalescing.
+ *
+ * Lookups are asynchronous so a slow upstream never pins a thread per call. Futures complete
+ * exceptionally with CourtRecordNotFoundException for unknown cases, and with
+ * CourtUnavailableException when the upstream cannot be reached or is shedding load.
+ * The implementation is chosen with app.court-client.type (mock or http).
+ */
+public interface CourtClient {
+
+    /**
+     * Fails with CourtRecordNotFoundException if the court has no case with that number.
+     */
+    CompletableFuture<CourtDataResponse> fetchCnrNumber(CourtDataRequest request);
+
+    /**
+     * Fails with CourtRecordNotFoundException if the court does not know the CNR number.
+     */
+    CompletableFuture<CaseStatusResponse> fetchCaseStatus(String cnrNumber);
+}
@@ -0,0 +1,11 @@
+package com.legalcms.client;
+
+/**
+ * The court system answered, but has no record for the requested case or CNR number.
+ */
+public class CourtRecordNotFoundException extends RuntimeException {
+
+    public CourtRecordNotFoundException(String message) {
+        super(message);
+    }
+}
@@ -0,0 +1,16 @@
+package com.legalcms.client;
+
+/**
+ * The court system could not be reached, kept failing after retries, or is being shielded by the
+ * circuit breaker or bulkhead. Callers should try again later.
+ */
+public class CourtUnavailableException extends RuntimeException {
+
+    public CourtUnavailableException(String message) {
+        super(message);
+    }
+
+    public CourtUnavailableException(String message, Throwable cause) {
+        super(message, cause);
+    }
+}
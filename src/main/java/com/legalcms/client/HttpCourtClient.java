@@ -0,0 +1,239 @@
+package com.legalcms.client;
+
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.legalcms.config.CourtClientProperties;
+import com.legalcms.dto.CaseStatusResponse;
+import com.legalcms.dto.CourtDataRequest;
+import com.legalcms.dto.CourtDataResponse;
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.Gauge;
+import io.micrometer.core.instrument.MeterRegistry;
+import jakarta.annotation.PreDestroy;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnProperty;
+import org.springframework.stereotype.Component;
+
+import java.io.IOException;
+import java.net.URI;
+import java.net.URLEncoder;
+import java.net.http.HttpClient;
+import java.net.http.HttpRequest;
+import java.net.http.HttpResponse;
+import java.nio.charset.StandardCharsets;
+import java.time.Duration;
+import java.util.Map;
+import java.util.Optional;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.CompletionException;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Semaphore;
+import java.util.concurrent.ThreadLocalRandom;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+
+/**
+ * HTTP Court Client
+ *
+ * Non-blocking client for a JSON court API or aggregator (app.court-client.type: http):
+ * - GET {baseUrl}/cases/{cnr}/status and GET {baseUrl}/cnr?caseNumber=&year=&courtName=
+ * - one shared JDK HttpClient, whose keep-alive connection pool is reused across lookups
+ * - connect and per-attempt request timeouts
+ * - timeouts, connection errors, 429 and 5xx are retried with full-jitter exponential backoff;
+ *   a Retry-After header on 429/503 is honoured (capped at retryMaxDelay)
+ * - a circuit breaker per upstream host fails lookups fast while that host is down
+ * - a bulkhead caps lookups in flight and rejects the excess instead of queueing it
+ *
+ * 404 completes with CourtRecordNotFoundException; every other failure with CourtUnavailableException.
+ */
+@Component
+@Slf4j
+@ConditionalOnProperty(value = "app.court-client.type", havingValue = "http")
+public class HttpCourtClient implements CourtClient {
+
+    private final CourtClientProperties.Http settings;
+    private final ObjectMapper objectMapper;
+    private final String baseUrl;
+    private final ExecutorService ioExecutor;
+    private final HttpClient httpClient;
+    private final Semaphore bulkhead;
+    private final Map<String, CircuitBreaker> circuitBreakers = new ConcurrentHashMap<>();
+
+    private final Counter retries;
+    private final Counter bulkheadRejections;
+    private final Counter circuitRejections;
+
+    public HttpCourtClient(CourtClientProperties properties, ObjectMapper objectMapper, MeterRegistry meterRegistry) {
+        this.settings = properties.getHttp();
+        this.objectMapper = objectMapper;
+        if (settings.getBaseUrl() == null || settings.getBaseUrl().isBlank()) {
+            throw new IllegalStateException("app.court-client.http.base-url is required when app.court-client.type is http");
+        }
+        this.baseUrl = settings.getBaseUrl().replaceAll("/+$", "");
+
+        AtomicInteger threadCount = new AtomicInteger();
+        this.ioExecutor = Executors.newFixedThreadPool(Math.max(1, settings.getIoThreads()), runnable -> {
+            Thread thread = new Thread(runnable, "court-http-" + threadCount.incrementAndGet());
+            thread.setDaemon(true);
+            return thread;
+        });
+        this.httpClient = HttpClient.newBuilder()
+                .version(HttpClient.Version.HTTP_1_1)
+                .connectTimeout(settings.getConnectTimeout())
+                .followRedirects(HttpClient.Redirect.NORMAL)
+                .executor(ioExecutor)
+                .build();
+        this.bulkhead = new Semaphore(Math.max(1, settings.getMaxInFlight()));
+
+        this.retries = Counter.builder("court.client.retries")
+                .description("Court lookup attempts retried after a timeout, 429 or 5xx")
+                .register(meterRegistry);
+        this.bulkheadRejections = Counter.builder("court.client.rejected")
+                .description("Court lookups rejected without calling the upstream")
+                .tag("reason", "bulkhead")
+                .register(meterRegistry);
+        this.circuitRejections = Counter.builder("court.client.rejected")
+                .description("Court lookups rejected without calling the upstream")
+                .tag("reason", "circuit_open")
+                .register(meterRegistry);
+        Gauge.builder("court.client.in_flight", bulkhead, permits -> settings.getMaxInFlight() - permits.availablePermits())
+                .description("Court lookups currently in flight")
+                .register(meterRegistry);
+    }
+
+    @Override
+    public CompletableFuture<CourtDataResponse> fetchCnrNumber(CourtDataRequest request) {
+        log.info("Fetching CNR for case number: {} at court: {}", request.getCaseNumber(), request.getCourtName());
+        URI uri = URI.create(baseUrl + "/cnr?caseNumber=" + encode(request.getCaseNumber())
+                + "&year=" + encode(request.getYear())
+                + "&courtName=" + encode(request.getCourtName()));
+        return get(uri, CourtDataResponse.class, "case " + request.getCaseNumber() + "/" + request.getYear());
+    }
+
+    @Override
+    public CompletableFuture<CaseStatusResponse> fetchCaseStatus(String cnrNumber) {
+        log.info("Fetching case status for CNR: {}", cnrNumber);
+        URI uri = URI.create(baseUrl + "/cases/" + encode(cnrNumber) + "/status");
+        return get(uri, CaseStatusResponse.class, "CNR " + cnrNumber);
+    }
+
+    @PreDestroy
+    public void shutdown() {
+        ioExecutor.shutdownNow();
+    }
+
+    private <T> CompletableFuture<T> get(URI uri, Class<T> type, String subject) {
+        if (!bulkhead.tryAcquire()) {
+            bulkheadRejections.increment();
+            return CompletableFuture.failedFuture(
+                    new CourtUnavailableException("Too many court lookups in flight; try again shortly"));
+        }
+
+        CompletableFuture<T> result = new CompletableFuture<>();
+        result.whenComplete((value, error) -> bulkhead.release());
+        attempt(uri, type, subject, 1, result);
+        return result;
+    }
+
+    private <T> void attempt(URI uri, Class<T> type, String subject, int attemptNumber, CompletableFuture<T> result) {
+        CircuitBreaker circuitBreaker = circuitBreakers.computeIfAbsent(uri.getHost(), host ->
+                new CircuitBreaker(settings.getCircuitFailureThreshold(), settings.getCircuitOpenDuration()));
+        if (!circuitBreaker.tryAcquire()) {
+            circuitRejections.increment();
+            result.completeExceptionally(new CourtUnavailableException(
+                    "Court host " + uri.getHost() + " is failing; lookups are paused briefly"));
+            return;
+        }
+
+        HttpRequest.Builder request = HttpRequest.newBuilder(uri)
+                .timeout(settings.getRequestTimeout())
+                .header("Accept", "application/json")
+                .GET();
+        if (settings.getApiKey() != null && !settings.getApiKey().isBlank()) {
+            request.header(settings.getApiKeyHeader(), settings.getApiKey());
+        }
+
+        httpClient.sendAsync(request.build(), HttpResponse.BodyHandlers.ofByteArray())
+                .whenComplete((response, error) -> {
+                    if (error != null) {
+                        circuitBreaker.onFailure();
+                        Throwable cause = error instanceof CompletionException && error.getCause() != null
+                                ? error.getCause() : error;
+                        retryOrFail(uri, type, subject, attemptNumber, result,
+                                new CourtUnavailableException("Court lookup for " + subject + " failed: " + cause, cause),
+                                null);
+                        return;
+                    }
+                    handleResponse(uri, type, subject, attemptNumber, result, circuitBreaker, response);
+                });
+    }
+
+    private <T> void handleResponse(URI uri, Class<T> type, String subject, int attemptNumber, CompletableFuture<T> result,
+                                    CircuitBreaker circuitBreaker, HttpResponse<byte[]> response) {
+        int status = response.statusCode();
+        if (status >= 500) {
+            circuitBreaker.onFailure();
+        } else {
+            // The host answered, even if only to refuse: it is up
+            circuitBreaker.onSuccess();
+        }
+
+        if (status == 200) {
+            try {
+                result.complete(objectMapper.readValue(response.body(), type));
+            } catch (IOException e) {
+                result.completeExceptionally(new CourtUnavailableException("Unreadable court response for " + subject, e));
+            }
+        } else if (status == 404) {
+            result.completeExceptionally(new CourtRecordNotFoundException("Court has no record of " + subject));
+        } else if (status == 429 || status >= 500) {
+            retryOrFail(uri, type, subject, attemptNumber, result,
+                    new CourtUnavailableException("Court returned HTTP " + status + " for " + subject),
+                    retryAfter(response));
+        } else {
+            result.completeExceptionally(new CourtUnavailableException("Court rejected lookup for " + subject
+                    + " with HTTP " + status));
+        }
+    }
+
+    private <T> void retryOrFail(URI uri, Class<T> type, String subject, int attemptNumber, CompletableFuture<T> result,
+                                 CourtUnavailableException error, Duration retryAfter) {
+        if (attemptNumber >= settings.getMaxAttempts() || ioExecutor.isShutdown()) {
+            result.completeExceptionally(error);
+            return;
+        }
+
+        long delayMillis = retryAfter != null
+                ? Math.min(retryAfter.toMillis(), settings.getRetryMaxDelay().toMillis())
+                : backoffMillis(attemptNumber);
+        log.warn("{} (attempt {}/{}); retrying in {} ms", error.getMessage(), attemptNumber, settings.getMaxAttempts(), delayMillis);
+        retries.increment();
+        CompletableFuture.delayedExecutor(delayMillis, TimeUnit.MILLISECONDS, ioExecutor)
+                .execute(() -> attempt(uri, type, subject, attemptNumber + 1, result));
+    }
+
+    // Full jitter: uniform in [0, min(maxDelay, baseDelay * 2^(attempt - 1))]
+    private long backoffMillis(int attemptNumber) {
+        long ceiling = Math.min(settings.getRetryMaxDelay().toMillis(),
+                settings.getRetryBaseDelay().toMillis() << Math.min(attemptNumber - 1, 20));
+        return ThreadLocalRandom.current().nextLong(ceiling + 1);
+    }
+
+    private static Duration retryAfter(HttpResponse<?> response) {
+        return response.headers().firstValue("Retry-After")
+                .flatMap(value -> {
+                    try {
+                        return Optional.of(Duration.ofSeconds(Math.max(0, Long.parseLong(value.trim()))));
+                    } catch (NumberFormatException e) {
+                        // HTTP-date form is not worth parsing here; fall back to the backoff
+                        return Optional.empty();
+                    }
+                })
+                .orElse(null);
+    }
+
+    private static String encode(String value) {
+        return URLEncoder.encode(value, StandardCharsets.UTF_8);
+    }
+}
@@ -0,0 +1,76 @@
+package com.legalcms.client;
+
+import com.legalcms.dto.CaseStatusResponse;
+import com.legalcms.dto.CourtDataRequest;
+import com.legalcms.dto.CourtDataResponse;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnProperty;
+import org.springframework.stereotype.Component;
+
+import java.time.LocalDate;
+import java.util.concurrent.CompletableFuture;
+
+/**
+ * Mock Court Client
+ * Returns mock data - replace with actual API calls to LegalKart, Attestr, or custom scraper.
+ */
+@Component
+@Slf4j
+@ConditionalOnProperty(value = "app.court-client.type", havingValue = "mock", matchIfMissing = true)
+public class MockCourtClient implements CourtClient {
+
+    @Override
+    public CompletableFuture<CourtDataResponse> fetchCnrNumber(CourtDataRequest request) {
+        log.info("Fetching CNR for case number: {} at court: {}", 
+                request.getCaseNumber(), request.getCourtName());
+
+        // TODO: Integrate with actual court API or scraping service
+        // Example integrations:
+        // 1. LegalKart API: https://legalkart.com/api/...
+        // 2. Attestr API: https://attestr.com/api/...
+        // 3. Custom scraper service for Patna High Court
+
+        // Mock response - replace with actual API call
+        String mockCnrNumber = "BIHC01-" + request.getCaseNumber().replace("/", "-") + "-" + request.getYear();
+
+        return CompletableFuture.completedFuture(CourtDataResponse.builder()
+                .cnrNumber(mockCnrNumber)
+                .caseNumber(request.getCaseNumber())
+                .courtName(request.getCourtName())
+                .build());
+    }
+
+    @Override
+    public CompletableFuture<CaseStatusResponse> fetchCaseStatus(String cnrNumber) {
+        log.info("Fetching case status for CNR: {}", cnrNumber);
+
+        // TODO: Integrate with actual court status API
+        // This should fetch:
+        // - Next hearing date
+        // - Case stage/status
+        // - Latest order document URL
+
+        // Mock response - replace with actual API call
+        return CompletableFuture.completedFuture(CaseStatusResponse.builder()
+                .cnrNumber(cnrNumber)
+                .nextHearingDate(LocalDate.now().plusDays(30))
+                .caseStage("Arguments Stage")
+                .lastOrderUrl("https://example.com/orders/" + cnrNumber + ".pdf")
+                .build());
+    }
+
+    /**
+     * Integration points for future implementation:
+     * 
+     * 1. Patna High Court e-Courts API
+     *    - Base URL: https://services.ecourts.gov.in/ecourtindia_v6/
+     *    - Requires authentication
+     * 
+     * 2. LegalKart API (if available)
+     *    - Commercial API for court data
+     * 
+     * 3. Custom Scraper Service
+     *    - Deploy separate scraper microservice
+     *    - Return structured JSON data
+     */
+}
@@ -0,0 +1,59 @@
+package com.legalcms.config;
+
+import com.github.benmanes.caffeine.cache.Caffeine;
+import io.micrometer.core.instrument.binder.cache.CaffeineCacheMetrics;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.actuate.metrics.cache.CacheMeterBinderProvider;
+import org.springframework.cache.Cache;
+import org.springframework.cache.CacheManager;
+import org.springframework.cache.annotation.EnableCaching;
+import org.springframework.cache.caffeine.CaffeineCacheManager;
+import org.springframework.cache.transaction.TransactionAwareCacheManagerProxy;
+import org.springframework.context.annotation.Bean;
+import org.springframework.context.annotation.Configuration;
+import org.springframework.core.Ordered;
+
+import java.util.List;
+
+/**
+ * Cache Configuration
+ *
+ * The caching interceptor runs outside the transaction interceptor, and the cache manager is
+ * transaction-aware, so evictions triggered inside a transaction only happen after it commits.
+ * A read that loaded the old row before that commit could still put it back afterwards, so each
+ * cache is wrapped in an {@link InvalidationGuardedCache} that drops such puts.
+ * Hit/miss/eviction statistics are published through actuator metrics (cache.gets, cache.evictions).
+ */
+@Configuration
+@EnableCaching(order = Ordered.HIGHEST_PRECEDENCE)
+public class CacheConfig {
+
+    public static final String CASES = "cases";
+
+    @Value("${app.cache.cases-spec}")
+    private String casesSpec;
+
+    @Bean
+    public CacheManager cacheManager() {
+        CaffeineCacheManager caffeineCacheManager = new CaffeineCacheManager() {
+            @Override
+            protected Cache adaptCaffeineCache(String name,
+                                               com.github.benmanes.caffeine.cache.Cache<Object, Object> cache) {
+                return new InvalidationGuardedCache(super.adaptCaffeineCache(name, cache));
+            }
+        };
+        caffeineCacheManager.setCaffeine(Caffeine.from(casesSpec));
+        caffeineCacheManager.setCacheNames(List.of(CASES));
+        caffeineCacheManager.setAllowNullValues(false);
+        return new TransactionAwareCacheManagerProxy(caffeineCacheManager);
+    }
+
+    // Actuator only binds metrics for CaffeineCache itself, not for decorators around it
+    @Bean
+    @SuppressWarnings("unchecked")
+    public CacheMeterBinderProvider<InvalidationGuardedCache> invalidationGuardedCacheMeterBinderProvider() {
+        return (cache, tags) -> new CaffeineCacheMetrics<>(
+                (com.github.benmanes.caffeine.cache.Cache<Object, Object>) cache.getNativeCache(),
+                cache.getName(), tags);
+    }
+}
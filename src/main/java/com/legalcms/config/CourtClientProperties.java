@@ -0,0 +1,89 @@
+package com.legalcms.config;
+
+import lombok.Data;
+import org.springframework.boot.context.properties.ConfigurationProperties;
+import org.springframework.stereotype.Component;
+
+import java.time.Duration;
+
+/**
+ * Court client settings, bound from app.court-client.* in application.yml.
+ */
+@Component
+@ConfigurationProperties(prefix = "app.court-client")
+@Data
+public class CourtClientProperties {
+
+    // Upstream implementation: "mock" (built-in sample data) or "http"
+    private String type = "mock";
+
+    private Cache cache = new Cache();
+
+    private Http http = new Http();
+
+    private Batch batch = new Batch();
+
+    @Data
+    public static class Cache {
+
+        // Case status changes with each hearing, so it is only reused briefly
+        private Duration caseStatusTtl = Duration.ofMinutes(10);
+
+        // A case's CNR number never changes once assigned
+        private Duration cnrTtl = Duration.ofHours(24);
+
+        // "Not found" answers are remembered briefly so repeated bad lookups do not reach the court
+        private Duration notFoundTtl = Duration.ofMinutes(2);
+
+        // Upper bound on entries per cache (case status and CNR are cached separately)
+        private long maximumSize = 50000;
+    }
+
+    @Data
+    public static class Http {
+
+        // Court API / aggregator root, e.g. https://court-gateway.example.com/api
+        private String baseUrl;
+
+        // Sent in apiKeyHeader when set
+        private String apiKey;
+
+        private String apiKeyHeader = "X-API-Key";
+
+        private Duration connectTimeout = Duration.ofSeconds(2);
+
+        // Per attempt, from sending the request to the end of the response body
+        private Duration requestTimeout = Duration.ofSeconds(5);
+
+        // Attempts per lookup, including the first; timeouts, 429 and 5xx are retried
+        private int maxAttempts = 3;
+
+        private Duration retryBaseDelay = Duration.ofMillis(200);
+
+        private Duration retryMaxDelay = Duration.ofSeconds(5);
+
+        // Bulkhead: lookups in flight at once; further lookups fail fast instead of queueing
+        private int maxInFlight = 64;
+
+        // Consecutive failures that open a host's circuit, and how long it stays open
+        private int circuitFailureThreshold = 5;
+
+        private Duration circuitOpenDuration = Duration.ofSeconds(30);
+
+        // Threads completing HTTP responses and scheduling retries
+        private int ioThreads = 4;
+    }
+
+    /**
+     * Batch lookup endpoints (/api/court/batch/*).
+     */
+    @Data
+    public static class Batch {
+
+        // Items accepted per batch request
+        private int maxItems = 500;
+
+        // Lookups in flight at once across all batch requests; court rate limits apply on top
+        private int maxConcurrency = 8;
+    }
+}
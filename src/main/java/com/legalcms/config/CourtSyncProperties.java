@@ -0,0 +1,77 @@
+package com.legalcms.config;
+
+import lombok.Data;
+import org.springframework.boot.context.properties.ConfigurationProperties;
+import org.springframework.stereotype.Component;
+
+import java.time.Duration;
+import java.util.HashMap;
+import java.util.Map;
+
+/**
+ * Court sync tuning, bound from app.court-sync.* in application.yml.
+ */
+@Component
+@ConfigurationProperties(prefix = "app.court-sync")
+@Data
+public class CourtSyncProperties {
+
+    private boolean enabled = true;
+
+    // Full sweep over every active case; "-" disables it in favour of the incremental queue
+    private String cron = "-";
+
+    // Upper bound on court lookups in flight at once, across all courts
+    private int maxConcurrency = 16;
+
+    // Lookups per second allowed against a court that has no entry in rateLimits
+    private double defaultRatePerSecond = 5.0;
+
+    // Lookups per second per court name, e.g. "Patna High Court": 10
+    private Map<String, Double> rateLimits = new HashMap<>();
+
+    // Changed cases written per UPDATE statement / transaction
+    private int writeChunkSize = 500;
+
+    private Incremental incremental = new Incremental();
+
+    private Cluster cluster = new Cluster();
+
+    public double rateFor(String courtName) {
+        return rateLimits.getOrDefault(courtName, defaultRatePerSecond);
+    }
+
+    /**
+     * Continuous, priority-driven sync of the cases whose next sync is due.
+     */
+    @Data
+    public static class Incremental {
+
+        private boolean enabled = true;
+
+        // Delay between two drains of the due queue
+        private long pollDelayMs = 60000;
+
+        // Maximum due cases taken from the queue per drain
+        private int batchSize = 500;
+    }
+
+    /**
+     * How replicas share court sync work.
+     */
+    @Data
+    public static class Cluster {
+
+        // Identity in work claims; defaults to host-pid-random
+        private String nodeId;
+
+        // Run checkpoints claimed by a node at a time
+        private int claimSize = 200;
+
+        // After this long, claimed but unfinished work is considered abandoned and may be stolen
+        private Duration claimLease = Duration.ofMinutes(10);
+
+        // How often each node looks for running runs to help with (and resumes them after a restart)
+        private long joinPollDelayMs = 30000;
+    }
+}
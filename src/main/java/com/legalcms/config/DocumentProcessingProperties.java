@@ -0,0 +1,45 @@
+package com.legalcms.config;
+
+import lombok.Data;
+import org.springframework.boot.context.properties.ConfigurationProperties;
+import org.springframework.stereotype.Component;
+
+import java.time.Duration;
+
+/**
+ * Document post-processing tuning (text, page count, thumbnail), bound from
+ * app.document-processing.* in application.yml.
+ */
+@Component
+@ConfigurationProperties(prefix = "app.document-processing")
+@Data
+public class DocumentProcessingProperties {
+
+    // Process stored documents in the background
+    private boolean enabled = true;
+
+    // Documents processed at once per replica; rendering is CPU- and memory-heavy
+    private int maxConcurrency = 2;
+
+    // Delay between two polls of the job queue; new documents are also picked up as soon as they commit
+    private long pollDelayMs = 30000;
+
+    // Documents stored before processing existed that are queued per poll
+    private int backlogBatchSize = 200;
+
+    // After this long, a claimed but unfinished job is considered abandoned and may be taken by another node
+    private Duration claimLease = Duration.ofMinutes(10);
+
+    // Attempts before a job is given up as FAILED; retries back off exponentially from retryBaseDelay
+    private int maxAttempts = 3;
+
+    private Duration retryBaseDelay = Duration.ofMinutes(1);
+
+    // Text is extracted from at most this many pages, and kept up to maxTextLength characters
+    private int maxTextPages = 500;
+
+    private int maxTextLength = 1_000_000;
+
+    // Width in pixels of the first-page thumbnail
+    private int thumbnailWidth = 240;
+}
@@ -0,0 +1,144 @@
+package com.legalcms.config;
+
+import com.github.benmanes.caffeine.cache.Caffeine;
+import org.springframework.cache.Cache;
+
+import java.time.Duration;
+import java.util.concurrent.Callable;
+import java.util.concurrent.atomic.AtomicLong;
+
+/**
+ * Cache decorator that keeps a stale read from being cached after the entry was invalidated.
+ *
+ * A cache-aside read misses, loads from the database and then puts the value. When a writer
+ * commits and evicts the key between that load and the put, the put would bring the old value
+ * back for the whole TTL. To prevent it:
+ * - every miss hands the reading thread a ticket, the current value of an invalidation sequence
+ * - every evict records the sequence number at which its key was invalidated
+ * - a put is dropped when its key was invalidated after the ticket was taken
+ * Invalidation records are kept for longer than any read can take; when one has to be dropped
+ * early (size bound) or the whole cache is cleared, puts with older tickets are dropped too.
+ */
+public class InvalidationGuardedCache implements Cache {
+
+    private static final Duration INVALIDATION_RETENTION = Duration.ofMinutes(10);
+    private static final long MAX_TRACKED_INVALIDATIONS = 100_000;
+
+    private final Cache delegate;
+    private final AtomicLong sequence = new AtomicLong();
+    // Tickets at or below this may have missed an invalidation that is no longer recorded
+    private final AtomicLong forgottenUpTo = new AtomicLong();
+    private final com.github.benmanes.caffeine.cache.Cache<Object, Long> invalidations;
+    private final ThreadLocal<Ticket> lastMiss = new ThreadLocal<>();
+
+    private record Ticket(Object key, long sequence) {
+    }
+
+    public InvalidationGuardedCache(Cache delegate) {
+        this.delegate = delegate;
+        this.invalidations = Caffeine.newBuilder()
+                .expireAfterWrite(INVALIDATION_RETENTION)
+                .maximumSize(MAX_TRACKED_INVALIDATIONS)
+                .<Object, Long>evictionListener((key, invalidatedAt, cause) ->
+                        forgottenUpTo.accumulateAndGet(invalidatedAt, Math::max))
+                .build();
+    }
+
+    @Override
+    public String getName() {
+        return delegate.getName();
+    }
+
+    @Override
+    public Object getNativeCache() {
+        return delegate.getNativeCache();
+    }
+
+    @Override
+    public ValueWrapper get(Object key) {
+        ValueWrapper value = delegate.get(key);
+        if (value == null) {
+            lastMiss.set(new Ticket(key, sequence.get()));
+        }
+        return value;
+    }
+
+    @Override
+    public <T> T get(Object key, Class<T> type) {
+        T value = delegate.get(key, type);
+        if (value == null) {
+            lastMiss.set(new Ticket(key, sequence.get()));
+        }
+        return value;
+    }
+
+    // Loads under the native cache's per-key lock, which evictions wait for
+    @Override
+    public <T> T get(Object key, Callable<T> valueLoader) {
+        return delegate.get(key, valueLoader);
+    }
+
+    @Override
+    public void put(Object key, Object value) {
+        Ticket ticket = lastMiss.get();
+        if (ticket == null || !ticket.key().equals(key)) {
+            // Not the result of a read that just missed; a value the caller knows to be current
+            delegate.put(key, value);
+            return;
+        }
+        lastMiss.remove();
+        putIfCurrent(key, value, ticket.sequence());
+    }
+
+    @Override
+    public ValueWrapper putIfAbsent(Object key, Object value) {
+        ValueWrapper existing = delegate.get(key);
+        if (existing != null) {
+            return existing;
+        }
+        put(key, value);
+        return null;
+    }
+
+    private void putIfCurrent(Object key, Object value, long ticket) {
+        // Serialized with evict() of the same key on the record's map entry
+        invalidations.asMap().compute(key, (k, invalidatedAt) -> {
+            if ((invalidatedAt == null || invalidatedAt <= ticket) && forgottenUpTo.get() <= ticket) {
+                delegate.put(k, value);
+            }
+            return invalidatedAt;
+        });
+        // clear() does not take the per-key lock; undo a put that raced with it
+        if (forgottenUpTo.get() > ticket) {
+            delegate.evict(key);
+        }
+    }
+
+    @Override
+    public void evict(Object key) {
+        invalidations.asMap().compute(key, (k, previous) -> {
+            long invalidatedAt = sequence.incrementAndGet();
+            delegate.evict(k);
+            return invalidatedAt;
+        });
+    }
+
+    @Override
+    public boolean evictIfPresent(Object key) {
+        boolean present = delegate.get(key) != null;
+        evict(key);
+        return present;
+    }
+
+    @Override
+    public void clear() {
+        forgottenUpTo.accumulateAndGet(sequence.incrementAndGet(), Math::max);
+        delegate.clear();
+    }
+
+    @Override
+    public boolean invalidate() {
+        clear();
+        return true;
+    }
+}
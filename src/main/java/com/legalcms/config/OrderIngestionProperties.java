@@ -0,0 +1,57 @@
+package com.legalcms.config;
+
+import lombok.Data;
+import org.springframework.boot.context.properties.ConfigurationProperties;
+import org.springframework.stereotype.Component;
+import org.springframework.util.unit.DataSize;
+
+import java.time.Duration;
+import java.util.ArrayList;
+import java.util.List;
+
+/**
+ * Court order ingestion tuning, bound from app.order-ingestion.* in application.yml.
+ */
+@Component
+@ConfigurationProperties(prefix = "app.order-ingestion")
+@Data
+public class OrderIngestionProperties {
+
+    // Queue the order URLs court sync reports, and download them in the background
+    private boolean enabled = true;
+
+    // Downloads in flight per replica; jobs are only claimed while a download slot is free
+    private int maxConcurrency = 4;
+
+    // Delay between two polls of the job queue
+    private long pollDelayMs = 10000;
+
+    // After this long, a claimed but unfinished job is considered abandoned and may be taken by another node
+    private Duration claimLease = Duration.ofMinutes(10);
+
+    // Attempts before a job is given up as FAILED; retries back off exponentially from retryBaseDelay
+    private int maxAttempts = 5;
+
+    private Duration retryBaseDelay = Duration.ofMinutes(1);
+
+    private Duration connectTimeout = Duration.ofSeconds(5);
+
+    // Whole download, headers to last byte, across redirects
+    private Duration requestTimeout = Duration.ofMinutes(2);
+
+    // Court hosts orders may be downloaded from: exact names, or "*.example.gov.in" for any subdomain.
+    // Order URLs come from court responses, so nothing else is fetched, redirects included
+    private List<String> allowedHosts = new ArrayList<>();
+
+    // Redirects followed per download; each target is checked like the original URL
+    private int maxRedirects = 3;
+
+    // Allow hosts resolving to loopback, link-local or private addresses; only for local stubs
+    private boolean allowPrivateNetworks = false;
+
+    // Larger orders are rejected without retrying
+    private DataSize maxFileSize = DataSize.ofMegabytes(50);
+
+    // User the ingested documents are recorded as uploaded by
+    private String systemUserEmail = "admin@legalcms.com";
+}
@@ -0,0 +1,150 @@
+package com.legalcms.config;
+
+import lombok.RequiredArgsConstructor;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.SmartInitializingSingleton;
+import org.springframework.context.annotation.DependsOn;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.stereotype.Component;
+
+import java.sql.Connection;
+import java.sql.PreparedStatement;
+import java.sql.ResultSet;
+import java.sql.SQLException;
+import java.sql.Statement;
+import java.util.List;
+
+/**
+ * PostgreSQL Schema Initializer
+ *
+ * Hibernate's ddl-auto creates tables and columns, but not PostgreSQL extensions, GIN / expression
+ * indexes or the indexes of tables that grow large, and database/schema.sql is not run by the
+ * application. This creates them
+ * once the schema update has run and before schedulers and the web server start:
+ * - required extensions; startup fails with instructions when one is missing and the database
+ *   user may not create it, rather than queries failing later
+ * - indexes, built CONCURRENTLY so a first start on a large table does not block writes; an
+ *   index left invalid by an interrupted build is dropped and rebuilt
+ * - replicas starting together take turns through a session advisory lock
+ */
+@Component
+@DependsOn("entityManagerFactory")
+@RequiredArgsConstructor
+@Slf4j
+public class PostgresSchemaInitializer implements SmartInitializingSingleton {
+
+    // Advisory lock key (arbitrary, but unique within this database)
+    private static final long SCHEMA_INIT_LOCK = 7_310_003L;
+
+    private static final List<Extension> EXTENSIONS = List.of(
+            new Extension("pg_trgm", "party-name search"));
+
+    private static final List<IndexDefinition> INDEXES = List.of(
+            // Party-name search: substring LIKE on lower(name) is answered from trigram indexes
+            new IndexDefinition("idx_parties_petitioner_trgm",
+                    "ON parties USING gin (lower(petitioner_name) gin_trgm_ops)"),
+            new IndexDefinition("idx_parties_respondent_trgm",
+                    "ON parties USING gin (lower(respondent_name) gin_trgm_ops)"),
+            // Full-text search of document contents
+            new IndexDefinition("idx_document_texts_search",
+                    "ON document_texts USING gin (search_vector)"),
+            // Documents stored before processing existed, queued a batch at a time
+            new IndexDefinition("idx_documents_unprocessed",
+                    "ON documents (id) WHERE processed_at IS NULL"),
+            // Blob dedup and garbage collection look documents up by content hash, in a case or anywhere
+            new IndexDefinition("idx_documents_case_content_hash",
+                    "ON documents (case_id, content_hash)"),
+            new IndexDefinition("idx_documents_content_hash",
+                    "ON documents (content_hash)"),
+            // Work queues polled for due items, and the item lookup that resumes a court sync run
+            new IndexDefinition("idx_court_sync_run_items_status",
+                    "ON court_sync_run_items (run_id, status, case_id)"),
+            new IndexDefinition("idx_case_sync_state_due",
+                    "ON case_sync_state (next_sync_due_at)"),
+            new IndexDefinition("idx_order_ingestion_jobs_due",
+                    "ON order_ingestion_jobs (status, next_attempt_at)"),
+            new IndexDefinition("idx_document_processing_jobs_due",
+                    "ON document_processing_jobs (status, next_attempt_at)"),
+            new IndexDefinition("idx_upload_sessions_expiry",
+                    "ON upload_sessions (status, expires_at)"));
+
+    private final JdbcTemplate jdbcTemplate;
+
+    private record Extension(String name, String usedBy) {
+    }
+
+    private record IndexDefinition(String name, String definition) {
+    }
+
+    @Override
+    public void afterSingletonsInstantiated() {
+        jdbcTemplate.execute((Connection connection) -> {
+            try (Statement statement = connection.createStatement()) {
+                statement.execute("SELECT pg_advisory_lock(" + SCHEMA_INIT_LOCK + ")");
+                try {
+                    for (Extension extension : EXTENSIONS) {
+                        ensureExtension(connection, extension);
+                    }
+                    for (IndexDefinition index : INDEXES) {
+                        ensureIndex(connection, index);
+                    }
+                } finally {
+                    statement.execute("SELECT pg_advisory_unlock(" + SCHEMA_INIT_LOCK + ")");
+                }
+            }
+            return null;
+        });
+    }
+
+    private void ensureExtension(Connection connection, Extension extension) throws SQLException {
+        if (exists(connection, "SELECT 1 FROM pg_extension WHERE extname = ?", extension.name())) {
+            return;
+        }
+        try (Statement statement = connection.createStatement()) {
+            statement.execute("CREATE EXTENSION IF NOT EXISTS " + extension.name());
+            log.info("Created PostgreSQL extension {}", extension.name());
+        } catch (SQLException e) {
+            throw new IllegalStateException("PostgreSQL extension " + extension.name() + " is required for "
+                    + extension.usedBy() + " but is not installed, and the application's database user cannot "
+                    + "create it (" + e.getMessage() + "). Run 'CREATE EXTENSION " + extension.name() + ";' as a "
+                    + "superuser in the application's database, then restart.", e);
+        }
+    }
+
+    private void ensureIndex(Connection connection, IndexDefinition index) throws SQLException {
+        Boolean valid = indexValidity(connection, index.name());
+        if (Boolean.TRUE.equals(valid)) {
+            return;
+        }
+        try (Statement statement = connection.createStatement()) {
+            if (valid != null) {
+                log.warn("Rebuilding invalid index {}", index.name());
+                statement.execute("DROP INDEX CONCURRENTLY IF EXISTS " + index.name());
+            }
+            long start = System.currentTimeMillis();
+            statement.execute("CREATE INDEX CONCURRENTLY IF NOT EXISTS " + index.name() + " " + index.definition());
+            log.info("Created index {} in {} ms", index.name(), System.currentTimeMillis() - start);
+        }
+    }
+
+    // null when the index does not exist
+    private static Boolean indexValidity(Connection connection, String indexName) throws SQLException {
+        try (PreparedStatement statement = connection.prepareStatement(
+                "SELECT i.indisvalid FROM pg_class c JOIN pg_index i ON i.indexrelid = c.oid "
+                        + "WHERE c.relname = ? AND pg_table_is_visible(c.oid)")) {
+            statement.setString(1, indexName);
+            try (ResultSet rs = statement.executeQuery()) {
+                return rs.next() ? rs.getBoolean(1) : null;
+            }
+        }
+    }
+
+    private static boolean exists(Connection connection, String sql, String parameter) throws SQLException {
+        try (PreparedStatement statement = connection.prepareStatement(sql)) {
+            statement.setString(1, parameter);
+            try (ResultSet rs = statement.executeQuery()) {
+                return rs.next();
+            }
+        }
+    }
+}
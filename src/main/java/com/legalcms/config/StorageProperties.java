@@ -0,0 +1,103 @@
+package com.legalcms.config;
+
+import lombok.Data;
+import org.springframework.boot.context.properties.ConfigurationProperties;
+import org.springframework.stereotype.Component;
+import org.springframework.util.unit.DataSize;
+
+import java.time.Duration;
+
+/**
+ * Document storage settings, bound from app.storage.* in application.yml.
+ */
+@Component
+@ConfigurationProperties(prefix = "app.storage")
+@Data
+public class StorageProperties {
+
+    // Where blobs are kept: "local" (under blobRoot) or "s3" (any S3-compatible object store)
+    private String backend = "local";
+
+    // Local root of the blob store; staging and upload session files live here with either backend
+    private String blobRoot = "uploads/blobs";
+
+    private S3 s3 = new S3();
+
+    private Gc gc = new Gc();
+
+    private Tiering tiering = new Tiering();
+
+    private Upload upload = new Upload();
+
+    /**
+     * S3-compatible object store (AWS S3, MinIO, ...), used when backend is "s3".
+     */
+    @Data
+    public static class S3 {
+
+        // e.g. https://s3.ap-south-1.amazonaws.com or http://localhost:9000
+        private String endpoint;
+
+        private String region = "us-east-1";
+
+        private String bucket;
+
+        private String accessKey;
+
+        private String secretKey;
+
+        // Prepended to every object key, e.g. "documents/"
+        private String keyPrefix = "";
+
+        private Duration connectTimeout = Duration.ofSeconds(5);
+
+        private Duration requestTimeout = Duration.ofMinutes(5);
+    }
+
+    /**
+     * Garbage collection of blobs no document refers to any more.
+     */
+    @Data
+    public static class Gc {
+
+        private boolean enabled = true;
+
+        private String cron = "0 30 3 * * ?";
+
+        // Blobs (and stray files) younger than this are never collected, so uploads in progress are safe
+        private Duration gracePeriod = Duration.ofHours(24);
+
+        // Blobs deleted per transaction
+        private int batchSize = 500;
+    }
+
+    /**
+     * Moves blobs only documents of DISPOSED cases refer to into gzip-compressed cold storage.
+     */
+    @Data
+    public static class Tiering {
+
+        private boolean enabled = true;
+
+        private String cron = "0 0 4 * * ?";
+
+        // Blobs examined per batch
+        private int batchSize = 100;
+    }
+
+    /**
+     * Resumable, chunked uploads (/api/documents/uploads).
+     */
+    @Data
+    public static class Upload {
+
+        private DataSize chunkSize = DataSize.ofMegabytes(8);
+
+        private DataSize maxFileSize = DataSize.ofGigabytes(2);
+
+        // An open session without a new chunk for this long is abandoned and deleted
+        private Duration sessionTtl = Duration.ofHours(24);
+
+        private long cleanupPollDelayMs = 900000;
+    }
+}
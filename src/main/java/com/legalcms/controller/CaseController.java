@@ -1,19 +1,36 @@
 package com.legalcms.controller;
 
+import com.legalcms.dto.CaseImportResponse;
 import com.legalcms.dto.CaseRequest;
 import com.legalcms.dto.CaseResponse;
+import com.legalcms.dto.CaseSuggestionResponse;
+import com.legalcms.dto.CursorPageResponse;
+import com.legalcms.model.CaseStatus;
+import com.legalcms.service.CaseExportService;
+import com.legalcms.service.CaseImportService;
 import com.legalcms.service.CaseService;
+import com.legalcms.util.ETagUtil;
+import com.legalcms.util.ResourceVersion;
 import io.swagger.v3.oas.annotations.Operation;
 import io.swagger.v3.oas.annotations.security.SecurityRequirement;
 import io.swagger.v3.oas.annotations.tags.Tag;
 import jakarta.validation.Valid;
 import lombok.RequiredArgsConstructor;
+import org.springframework.format.annotation.DateTimeFormat;
+import org.springframework.http.CacheControl;
+import org.springframework.http.HttpHeaders;
 import org.springframework.http.HttpStatus;
+import org.springframework.http.MediaType;
 import org.springframework.http.ResponseEntity;
 import org.springframework.security.access.prepost.PreAuthorize;
 import org.springframework.security.core.Authentication;
 import org.springframework.web.bind.annotation.*;
+import org.springframework.web.context.request.WebRequest;
+import org.springframework.web.servlet.mvc.method.annotation.StreamingResponseBody;
 
+import java.io.InputStream;
+import java.time.LocalDate;
+import java.time.LocalDateTime;
 import java.util.List;
 
 @RestController
@@ -23,7 +40,12 @@ import java.util.List;
 @Tag(name = "Case Management", description = "Endpoints for managing legal cases")
 public class CaseController {
 
+    private static final MediaType TEXT_CSV = MediaType.parseMediaType("text/csv");
+    private static final MediaType APPLICATION_NDJSON = MediaType.parseMediaType("application/x-ndjson");
+
     private final CaseService caseService;
+    private final CaseImportService caseImportService;
+    private final CaseExportService caseExportService;
 
     @PostMapping
     @PreAuthorize("hasRole('ADMIN') or hasRole('ADVOCATE')")
@@ -41,27 +63,103 @@ public class CaseController {
         return ResponseEntity.status(HttpStatus.CREATED).body(response);
     }
 
+    @PostMapping(value = "/import", consumes = {"text/csv", "application/x-ndjson"})
+    @PreAuthorize("hasRole('ADMIN')")
+    @Operation(summary = "Bulk import cases", description = "Stream cases as CSV (header row with CaseRequest field names) " +
+            "or NDJSON. Rows are validated and written in batches; invalid rows are reported without aborting the import.")
+    public ResponseEntity<CaseImportResponse> importCases(
+            @RequestHeader(HttpHeaders.CONTENT_TYPE) String contentType,
+            InputStream body) {
+        CaseImportService.ImportFormat format = MediaType.parseMediaType(contentType).isCompatibleWith(TEXT_CSV)
+                ? CaseImportService.ImportFormat.CSV
+                : CaseImportService.ImportFormat.NDJSON;
+        CaseImportResponse response = caseImportService.importCases(body, format);
+        return ResponseEntity.ok(response);
+    }
+
+    @GetMapping("/export")
+    @PreAuthorize("hasRole('ADMIN')")
+    @Operation(summary = "Export cases", description = "Streams all matching cases with advocate and parties as NDJSON (default) or CSV")
+    public ResponseEntity<StreamingResponseBody> exportCases(
+            @RequestParam(defaultValue = "NDJSON") CaseExportService.ExportFormat format,
+            @RequestParam(required = false) CaseStatus status,
+            @RequestParam(required = false) String courtName,
+            @RequestParam(required = false) @DateTimeFormat(iso = DateTimeFormat.ISO.DATE_TIME) LocalDateTime updatedSince) {
+        StreamingResponseBody body = out -> caseExportService.exportCases(out, format, status, courtName, updatedSince);
+        boolean csv = format == CaseExportService.ExportFormat.CSV;
+        return ResponseEntity.ok()
+                .contentType(csv ? TEXT_CSV : APPLICATION_NDJSON)
+                .header(HttpHeaders.CONTENT_DISPOSITION,
+                        "attachment; filename=\"cases." + (csv ? "csv" : "ndjson") + "\"")
+                .body(body);
+    }
+
     @GetMapping
-    @Operation(summary = "Get all cases", description = "Returns all legal cases with pagination")
-    public ResponseEntity<List<CaseResponse>> getAllCases() {
-        List<CaseResponse> cases = caseService.getAllCases();
-        return ResponseEntity.ok(cases);
+    @Operation(summary = "Get all cases", description = "Returns legal cases with keyset pagination, newest first. " +
+            "Pass nextCursor from the previous page as cursor to continue.")
+    public ResponseEntity<CursorPageResponse<CaseResponse>> getAllCases(
+            @RequestParam(required = false) CaseStatus status,
+            @RequestParam(required = false) String courtName,
+            @RequestParam(required = false) Long advocateId,
+            @RequestParam(required = false) String cursor,
+            @RequestParam(required = false) Integer size,
+            WebRequest webRequest) {
+        ResourceVersion version = caseService.getCasesVersion(status, courtName, advocateId, cursor, size);
+        if (ETagUtil.isNotModified(webRequest, version)) {
+            return null;
+        }
+        CursorPageResponse<CaseResponse> cases = caseService.getAllCases(status, courtName, advocateId, cursor, size);
+        return conditionalOk(version, cases);
     }
 
     @GetMapping("/my")
     @PreAuthorize("hasRole('ADVOCATE')")
-    @Operation(summary = "Get my cases", description = "Returns cases assigned to logged-in advocate")
-    public ResponseEntity<List<CaseResponse>> getMyCases(Authentication authentication) {
+    @Operation(summary = "Get my cases", description = "Returns cases assigned to logged-in advocate with keyset pagination")
+    public ResponseEntity<CursorPageResponse<CaseResponse>> getMyCases(
+            Authentication authentication,
+            @RequestParam(required = false) CaseStatus status,
+            @RequestParam(required = false) String courtName,
+            @RequestParam(required = false) String cursor,
+            @RequestParam(required = false) Integer size,
+            WebRequest webRequest) {
         String email = authentication.getName();
-        List<CaseResponse> cases = caseService.getMyCases(email);
+        ResourceVersion version = caseService.getMyCasesVersion(email, status, courtName, cursor, size);
+        if (ETagUtil.isNotModified(webRequest, version)) {
+            return null;
+        }
+        CursorPageResponse<CaseResponse> cases = caseService.getMyCases(email, status, courtName, cursor, size);
+        return conditionalOk(version, cases);
+    }
+
+    @GetMapping("/suggest")
+    @Operation(summary = "Suggest cases", description = "As-you-type lookup of cases by case number, CNR or party name prefix (max 20 results)")
+    public ResponseEntity<List<CaseSuggestionResponse>> suggestCases(
+            @RequestParam String q,
+            @RequestParam(required = false) Integer limit) {
+        List<CaseSuggestionResponse> suggestions = caseService.suggestCases(q, limit);
+        return ResponseEntity.ok(suggestions);
+    }
+
+    @GetMapping("/hearings")
+    @Operation(summary = "Get cases by hearing date", description = "Returns cases whose next hearing falls within the given date range, with keyset pagination")
+    public ResponseEntity<CursorPageResponse<CaseResponse>> getCasesWithHearingsBetween(
+            @RequestParam @DateTimeFormat(iso = DateTimeFormat.ISO.DATE) LocalDate from,
+            @RequestParam @DateTimeFormat(iso = DateTimeFormat.ISO.DATE) LocalDate to,
+            @RequestParam(required = false) String cursor,
+            @RequestParam(required = false) Integer size) {
+        CursorPageResponse<CaseResponse> cases = caseService.getCasesWithHearingsBetween(from, to, cursor, size);
         return ResponseEntity.ok(cases);
     }
 
     @GetMapping("/{caseId}")
     @Operation(summary = "Get case by ID", description = "Returns full case details by ID (for Case Detail Page)")
-    public ResponseEntity<CaseResponse> getCaseById(@PathVariable Long caseId) {
+    public ResponseEntity<CaseResponse> getCaseById(@PathVariable Long caseId, WebRequest webRequest) {
+        ResourceVersion version = caseService.getCaseVersion(caseId);
+        if (ETagUtil.isNotModified(webRequest, version)) {
+            return null;
+        }
         CaseResponse response = caseService.getCaseById(caseId);
-        return ResponseEntity.ok(response);
+        return conditionalOk(version, response);
     }
 
     @PutMapping("/{caseId}")
@@ -82,11 +180,23 @@ public class CaseController {
 
     @GetMapping("/search")
     @Operation(summary = "Search cases", description = "Search cases by case number, CNR number, or party name")
-    public ResponseEntity<List<CaseResponse>> searchCases(
+    public ResponseEntity<CursorPageResponse<CaseResponse>> searchCases(
             @RequestParam(required = false) String caseNumber,
             @RequestParam(required = false) String cnrNumber,
-            @RequestParam(required = false) String partyName) {
-        List<CaseResponse> cases = caseService.searchCases(caseNumber, cnrNumber, partyName);
+            @RequestParam(required = false) String partyName,
+            @RequestParam(required = false) String cursor,
+            @RequestParam(required = false) Integer size) {
+        CursorPageResponse<CaseResponse> cases = caseService.searchCases(caseNumber, cnrNumber, partyName, cursor, size);
         return ResponseEntity.ok(cases);
     }
+
+    private <T> ResponseEntity<T> conditionalOk(ResourceVersion version, T body) {
+        ResponseEntity.BodyBuilder builder = ResponseEntity.ok()
+                .eTag(version.getETag())
+                .cacheControl(CacheControl.noCache());
+        if (version.getLastModified() != null) {
+            builder.lastModified(ETagUtil.toEpochMillis(version.getLastModified()));
+        }
+        return builder.body(body);
+    }
 }
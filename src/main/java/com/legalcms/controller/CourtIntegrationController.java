@@ -1,17 +1,22 @@
 package com.legalcms.controller;
 
+import com.legalcms.dto.BatchCaseStatusRequest;
+import com.legalcms.dto.BatchCnrRequest;
 import com.legalcms.dto.CaseStatusResponse;
 import com.legalcms.dto.CourtDataRequest;
 import com.legalcms.dto.CourtDataResponse;
+import com.legalcms.service.CourtBatchService;
 import com.legalcms.service.CourtIntegrationService;
 import io.swagger.v3.oas.annotations.Operation;
 import io.swagger.v3.oas.annotations.security.SecurityRequirement;
 import io.swagger.v3.oas.annotations.tags.Tag;
 import jakarta.validation.Valid;
 import lombok.RequiredArgsConstructor;
+import org.springframework.http.MediaType;
 import org.springframework.http.ResponseEntity;
 import org.springframework.security.access.prepost.PreAuthorize;
 import org.springframework.web.bind.annotation.*;
+import org.springframework.web.servlet.mvc.method.annotation.StreamingResponseBody;
 
 @RestController
 @RequestMapping("/api/court")
@@ -20,7 +25,10 @@ import org.springframework.web.bind.annotation.*;
 @Tag(name = "Court Integration", description = "Endpoints for integrating with court systems (Patna HC, Barh Civil Court)")
 public class CourtIntegrationController {
 
+    private static final MediaType APPLICATION_NDJSON = MediaType.parseMediaType("application/x-ndjson");
+
     private final CourtIntegrationService courtIntegrationService;
+    private final CourtBatchService courtBatchService;
 
     @PostMapping("/fetch-cnr")
     @PreAuthorize("hasRole('ADMIN') or hasRole('ADVOCATE')")
@@ -45,4 +53,32 @@ public class CourtIntegrationController {
         CaseStatusResponse response = courtIntegrationService.fetchCaseStatus(cnrNumber);
         return ResponseEntity.ok(response);
     }
+
+    @PostMapping("/batch/fetch-cnr")
+    @PreAuthorize("hasRole('ADMIN') or hasRole('ADVOCATE')")
+    @Operation(
+        summary = "Fetch CNR numbers in batch",
+        description = "Resolves up to app.court-client.batch.max-items case numbers concurrently and streams NDJSON: " +
+                      "one {index, status, result|error} line per item as it completes (status FOUND, NOT_FOUND or FAILED), " +
+                      "then a summary line. With updateCases, resolved CNRs are written onto the cases with the same " +
+                      "case number and court."
+    )
+    public ResponseEntity<StreamingResponseBody> fetchCnrNumbers(@Valid @RequestBody BatchCnrRequest request) {
+        courtBatchService.checkSize(request.getItems().size());
+        StreamingResponseBody body = out -> courtBatchService.resolveCnrNumbers(request, out);
+        return ResponseEntity.ok().contentType(APPLICATION_NDJSON).body(body);
+    }
+
+    @PostMapping("/batch/case-status")
+    @PreAuthorize("hasRole('ADMIN') or hasRole('ADVOCATE')")
+    @Operation(
+        summary = "Get case statuses in batch",
+        description = "Fetches the status of up to app.court-client.batch.max-items CNR numbers concurrently and streams " +
+                      "NDJSON: one {index, status, result|error} line per CNR as it completes, then a summary line."
+    )
+    public ResponseEntity<StreamingResponseBody> getCaseStatuses(@Valid @RequestBody BatchCaseStatusRequest request) {
+        courtBatchService.checkSize(request.getCnrNumbers().size());
+        StreamingResponseBody body = out -> courtBatchService.fetchCaseStatuses(request, out);
+        return ResponseEntity.ok().contentType(APPLICATION_NDJSON).body(body);
+    }
 }
@@ -0,0 +1,60 @@
+package com.legalcms.controller;
+
+import com.legalcms.dto.CourtSyncRunResponse;
+import com.legalcms.dto.CursorPageResponse;
+import com.legalcms.model.CourtSyncTrigger;
+import com.legalcms.service.CourtSyncRunService;
+import io.swagger.v3.oas.annotations.Operation;
+import io.swagger.v3.oas.annotations.security.SecurityRequirement;
+import io.swagger.v3.oas.annotations.tags.Tag;
+import lombok.RequiredArgsConstructor;
+import org.springframework.http.HttpStatus;
+import org.springframework.http.ResponseEntity;
+import org.springframework.security.access.prepost.PreAuthorize;
+import org.springframework.security.core.Authentication;
+import org.springframework.web.bind.annotation.*;
+
+@RestController
+@RequestMapping("/api/admin/court-sync/runs")
+@RequiredArgsConstructor
+@PreAuthorize("hasRole('ADMIN')")
+@SecurityRequirement(name = "Bearer Authentication")
+@Tag(name = "Court Sync Administration", description = "Trigger, pause, resume and inspect court sync runs")
+public class CourtSyncAdminController {
+
+    private final CourtSyncRunService courtSyncRunService;
+
+    @PostMapping
+    @Operation(summary = "Trigger court sync", description = "Starts a new sync run over all active cases with a CNR number")
+    public ResponseEntity<CourtSyncRunResponse> triggerRun(Authentication authentication) {
+        CourtSyncRunResponse response = courtSyncRunService.startRun(CourtSyncTrigger.MANUAL, authentication.getName());
+        return ResponseEntity.status(HttpStatus.ACCEPTED).body(response);
+    }
+
+    @GetMapping
+    @Operation(summary = "List court sync runs", description = "Newest first, keyset paginated via the returned nextCursor")
+    public ResponseEntity<CursorPageResponse<CourtSyncRunResponse>> getRuns(
+            @RequestParam(required = false) String cursor,
+            @RequestParam(required = false) Integer size) {
+        return ResponseEntity.ok(courtSyncRunService.getRuns(cursor, size));
+    }
+
+    @GetMapping("/{runId}")
+    @Operation(summary = "Inspect court sync run",
+            description = "Progress, throughput, lookup latency percentiles and failures per court")
+    public ResponseEntity<CourtSyncRunResponse> getRun(@PathVariable Long runId) {
+        return ResponseEntity.ok(courtSyncRunService.getRun(runId));
+    }
+
+    @PostMapping("/{runId}/pause")
+    @Operation(summary = "Pause court sync run", description = "Stops new lookups; lookups in flight finish and are checkpointed")
+    public ResponseEntity<CourtSyncRunResponse> pauseRun(@PathVariable Long runId) {
+        return ResponseEntity.ok(courtSyncRunService.pauseRun(runId));
+    }
+
+    @PostMapping("/{runId}/resume")
+    @Operation(summary = "Resume court sync run", description = "Continues a paused or failed run from its checkpoints")
+    public ResponseEntity<CourtSyncRunResponse> resumeRun(@PathVariable Long runId) {
+        return ResponseEntity.status(HttpStatus.ACCEPTED).body(courtSyncRunService.resumeRun(runId));
+    }
+}
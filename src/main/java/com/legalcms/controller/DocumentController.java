@@ -1,27 +1,34 @@
 package com.legalcms.controller;
 
+import com.legalcms.dto.CursorPageResponse;
+import com.legalcms.dto.DocumentMetadataResponse;
 import com.legalcms.dto.DocumentResponse;
-import com.legalcms.model.Document;
+import com.legalcms.dto.DocumentSearchResult;
 import com.legalcms.model.DocumentType;
 import com.legalcms.service.DocumentService;
+import com.legalcms.util.ETagUtil;
+import com.legalcms.util.FileRangeStreamer;
+import com.legalcms.util.ResourceVersion;
 import io.swagger.v3.oas.annotations.Operation;
 import io.swagger.v3.oas.annotations.security.SecurityRequirement;
 import io.swagger.v3.oas.annotations.tags.Tag;
+import jakarta.servlet.http.HttpServletRequest;
+import jakarta.servlet.http.HttpServletResponse;
 import lombok.RequiredArgsConstructor;
-import org.springframework.core.io.Resource;
-import org.springframework.core.io.UrlResource;
+import org.springframework.http.CacheControl;
 import org.springframework.http.HttpHeaders;
 import org.springframework.http.MediaType;
 import org.springframework.http.ResponseEntity;
 import org.springframework.security.access.prepost.PreAuthorize;
 import org.springframework.security.core.Authentication;
 import org.springframework.web.bind.annotation.*;
+import org.springframework.web.context.request.WebRequest;
 import org.springframework.web.multipart.MultipartFile;
 
 import java.io.IOException;
-import java.nio.file.Path;
-import java.nio.file.Paths;
+import java.time.Duration;
 import java.util.List;
+import java.util.Optional;
 
 @RestController
 @RequestMapping("/api/documents")
@@ -54,30 +61,84 @@ public class DocumentController {
 
     @GetMapping("/case/{caseId}")
     @Operation(summary = "Get documents by case", description = "Returns all documents linked to a specific case")
-    public ResponseEntity<List<DocumentResponse>> getDocumentsByCaseId(@PathVariable Long caseId) {
+    public ResponseEntity<List<DocumentResponse>> getDocumentsByCaseId(@PathVariable Long caseId, WebRequest webRequest) {
+        ResourceVersion version = documentService.getDocumentsVersion(caseId);
+        if (ETagUtil.isNotModified(webRequest, version)) {
+            return null;
+        }
         List<DocumentResponse> documents = documentService.getDocumentsByCaseId(caseId);
-        return ResponseEntity.ok(documents);
+        ResponseEntity.BodyBuilder builder = ResponseEntity.ok()
+                .eTag(version.getETag())
+                .cacheControl(CacheControl.noCache());
+        if (version.getLastModified() != null) {
+            builder.lastModified(ETagUtil.toEpochMillis(version.getLastModified()));
+        }
+        return builder.body(documents);
+    }
+
+    @GetMapping("/search")
+    @PreAuthorize("hasRole('ADMIN') or hasRole('ADVOCATE')")
+    @Operation(summary = "Search document contents", description = "Full-text search of the text extracted from " +
+            "documents, most relevant first, with highlighted snippets. Supports quoted phrases, OR and -excluded " +
+            "words. Advocates only see documents of their own cases. Pass nextCursor as cursor to continue.")
+    public ResponseEntity<CursorPageResponse<DocumentSearchResult>> searchDocuments(
+            @RequestParam("q") String query,
+            @RequestParam(required = false) Long caseId,
+            @RequestParam(required = false) DocumentType documentType,
+            @RequestParam(required = false) String cursor,
+            @RequestParam(required = false) Integer size,
+            Authentication authentication) {
+        return ResponseEntity.ok(documentService.searchDocuments(query, caseId, documentType,
+                authentication.getName(), cursor, size));
     }
 
     @GetMapping("/view/{documentId}")
-    @Operation(summary = "View document", description = "Stream PDF document for in-app viewing")
-    public ResponseEntity<Resource> viewDocument(@PathVariable Long documentId) {
-        try {
-            Document document = documentService.getDocumentById(documentId);
-            Path filePath = Paths.get(document.getFileUrl());
-            Resource resource = new UrlResource(filePath.toUri());
+    @Operation(summary = "View document", description = "Stream a document for in-app viewing. Supports single " +
+            "byte ranges (Range / If-Range, answered with 206) and conditional requests (ETag / Last-Modified, 304).")
+    public void viewDocument(@PathVariable Long documentId, WebRequest webRequest,
+                             HttpServletRequest request, HttpServletResponse response) throws IOException {
+        FileRangeStreamer.StoredFile file = documentService.getDocumentFile(documentId);
+        if (ETagUtil.isNotModified(webRequest, new ResourceVersion(file.eTag(), file.lastModified()))) {
+            return;
+        }
+        response.setHeader(HttpHeaders.CACHE_CONTROL, CacheControl.noCache().cachePrivate().getHeaderValue());
+        FileRangeStreamer.stream(file, request, response);
+    }
+
+    @GetMapping("/{documentId}/metadata")
+    @Operation(summary = "Get document metadata", description = "Processing status, page count, PDF title / author " +
+            "and extracted text size of a document. Fields are empty until background processing has run.")
+    public ResponseEntity<DocumentMetadataResponse> getDocumentMetadata(@PathVariable Long documentId,
+                                                                        WebRequest webRequest) {
+        ResourceVersion version = documentService.getMetadataVersion(documentId);
+        if (ETagUtil.isNotModified(webRequest, version)) {
+            return null;
+        }
+        return ResponseEntity.ok()
+                .eTag(version.getETag())
+                .lastModified(ETagUtil.toEpochMillis(version.getLastModified()))
+                .cacheControl(CacheControl.noCache().cachePrivate())
+                .body(documentService.getDocumentMetadata(documentId));
+    }
 
-            if (resource.exists() && resource.isReadable()) {
-                return ResponseEntity.ok()
-                        .contentType(MediaType.APPLICATION_PDF)
-                        .header(HttpHeaders.CONTENT_DISPOSITION,
-                                "inline; filename=\"" + document.getFileName() + "\"")
-                        .body(resource);
-            } else {
-                throw new RuntimeException("File not found or not readable");
-            }
-        } catch (IOException e) {
-            throw new RuntimeException("Error retrieving document: " + e.getMessage());
+    @GetMapping(value = "/{documentId}/thumbnail", produces = MediaType.IMAGE_JPEG_VALUE)
+    @Operation(summary = "Get document thumbnail", description = "Low-resolution JPEG preview of the first page. " +
+            "404 until background processing has rendered one. Thumbnails never change, so clients may cache them.")
+    public ResponseEntity<byte[]> getDocumentThumbnail(@PathVariable Long documentId, WebRequest webRequest) {
+        Optional<ResourceVersion> version = documentService.getThumbnailVersion(documentId);
+        if (version.isEmpty()) {
+            return ResponseEntity.notFound().build();
+        }
+        if (ETagUtil.isNotModified(webRequest, version.get())) {
+            return null;
         }
+        return documentService.getThumbnail(documentId)
+                .map(image -> ResponseEntity.ok()
+                        .eTag(version.get().getETag())
+                        .lastModified(ETagUtil.toEpochMillis(version.get().getLastModified()))
+                        .cacheControl(CacheControl.maxAge(Duration.ofDays(1)).cachePrivate())
+                        .contentType(MediaType.IMAGE_JPEG)
+                        .body(image))
+                .orElseGet(() -> ResponseEntity.notFound().build());
     }
 }
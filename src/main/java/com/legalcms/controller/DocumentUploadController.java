@@ -0,0 +1,71 @@
+package com.legalcms.controller;
+
+import com.legalcms.dto.DocumentResponse;
+import com.legalcms.dto.UploadSessionRequest;
+import com.legalcms.dto.UploadSessionResponse;
+import com.legalcms.service.ChunkedUploadService;
+import io.swagger.v3.oas.annotations.Operation;
+import io.swagger.v3.oas.annotations.security.SecurityRequirement;
+import io.swagger.v3.oas.annotations.tags.Tag;
+import jakarta.servlet.http.HttpServletRequest;
+import jakarta.validation.Valid;
+import lombok.RequiredArgsConstructor;
+import org.springframework.http.HttpStatus;
+import org.springframework.http.ResponseEntity;
+import org.springframework.security.access.prepost.PreAuthorize;
+import org.springframework.security.core.Authentication;
+import org.springframework.web.bind.annotation.*;
+
+import java.io.IOException;
+
+@RestController
+@RequestMapping("/api/documents/uploads")
+@RequiredArgsConstructor
+@SecurityRequirement(name = "Bearer Authentication")
+@PreAuthorize("hasRole('ADMIN') or hasRole('ADVOCATE')")
+@Tag(name = "Resumable Uploads", description = "Chunked, resumable uploads of large case documents")
+public class DocumentUploadController {
+
+    private final ChunkedUploadService chunkedUploadService;
+
+    @PostMapping
+    @Operation(summary = "Start resumable upload", description = "Opens an upload session and returns its chunk size")
+    public ResponseEntity<UploadSessionResponse> openSession(@Valid @RequestBody UploadSessionRequest request,
+                                                             Authentication authentication) {
+        UploadSessionResponse response = chunkedUploadService.openSession(request, authentication.getName());
+        return ResponseEntity.status(HttpStatus.CREATED).body(response);
+    }
+
+    @PutMapping("/{uploadId}/chunks")
+    @Operation(summary = "Upload chunk", description = "Raw chunk bytes at offset = index * chunkSize, with its " +
+            "SHA-256 (hex) in X-Chunk-SHA256. Chunks may be sent in parallel, in any order, and re-sent.")
+    public ResponseEntity<UploadSessionResponse> uploadChunk(@PathVariable String uploadId,
+                                                             @RequestParam long offset,
+                                                             @RequestHeader(value = "X-Chunk-SHA256", required = false) String chunkSha256,
+                                                             HttpServletRequest request,
+                                                             Authentication authentication) throws IOException {
+        UploadSessionResponse response = chunkedUploadService.writeChunk(uploadId, offset, chunkSha256,
+                request.getInputStream(), authentication.getName());
+        return ResponseEntity.ok(response);
+    }
+
+    @GetMapping("/{uploadId}")
+    @Operation(summary = "Get upload status", description = "Returns the chunks received so far, to resume an upload")
+    public ResponseEntity<UploadSessionResponse> getSession(@PathVariable String uploadId, Authentication authentication) {
+        return ResponseEntity.ok(chunkedUploadService.getSession(uploadId, authentication.getName()));
+    }
+
+    @PostMapping("/{uploadId}/complete")
+    @Operation(summary = "Complete upload", description = "Verifies the assembled file and stores it as a case document")
+    public ResponseEntity<DocumentResponse> complete(@PathVariable String uploadId, Authentication authentication) {
+        DocumentResponse response = chunkedUploadService.complete(uploadId, authentication.getName());
+        return ResponseEntity.status(HttpStatus.CREATED).body(response);
+    }
+
+    @DeleteMapping("/{uploadId}")
+    @Operation(summary = "Abort upload", description = "Discards an open upload session and its chunks")
+    public ResponseEntity<Void> abort(@PathVariable String uploadId, Authentication authentication) {
+        chunkedUploadService.abort(uploadId, authentication.getName());
+        return ResponseEntity.noContent().build();
+    }
+}
@@ -2,12 +2,16 @@ package com.legalcms.controller;
 
 import com.legalcms.dto.HearingResponse;
 import com.legalcms.service.HearingService;
+import com.legalcms.util.ETagUtil;
+import com.legalcms.util.ResourceVersion;
 import io.swagger.v3.oas.annotations.Operation;
 import io.swagger.v3.oas.annotations.security.SecurityRequirement;
 import io.swagger.v3.oas.annotations.tags.Tag;
 import lombok.RequiredArgsConstructor;
+import org.springframework.http.CacheControl;
 import org.springframework.http.ResponseEntity;
 import org.springframework.web.bind.annotation.*;
+import org.springframework.web.context.request.WebRequest;
 
 import java.util.List;
 
@@ -22,8 +26,15 @@ public class HearingController {
 
     @GetMapping("/case/{caseId}")
     @Operation(summary = "Get hearing history", description = "Returns all hearings for a specific case")
-    public ResponseEntity<List<HearingResponse>> getHearingsByCaseId(@PathVariable Long caseId) {
+    public ResponseEntity<List<HearingResponse>> getHearingsByCaseId(@PathVariable Long caseId, WebRequest webRequest) {
+        ResourceVersion version = hearingService.getHearingsVersion(caseId);
+        if (ETagUtil.isNotModified(webRequest, version)) {
+            return null;
+        }
         List<HearingResponse> hearings = hearingService.getHearingsByCaseId(caseId);
-        return ResponseEntity.ok(hearings);
+        return ResponseEntity.ok()
+                .eTag(version.getETag())
+                .cacheControl(CacheControl.noCache())
+                .body(hearings);
     }
 }
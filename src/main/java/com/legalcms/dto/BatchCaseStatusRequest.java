@@ -0,0 +1,22 @@
+package com.legalcms.dto;
+
+import jakarta.validation.constraints.NotBlank;
+import jakarta.validation.constraints.NotEmpty;
+import lombok.AllArgsConstructor;
+import lombok.Builder;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+import java.util.ArrayList;
+import java.util.List;
+
+@Data
+@NoArgsConstructor
+@AllArgsConstructor
+@Builder
+public class BatchCaseStatusRequest {
+
+    @NotEmpty(message = "At least one CNR number is required")
+    @Builder.Default
+    private List<@NotBlank(message = "CNR number is required") String> cnrNumbers = new ArrayList<>();
+}
@@ -0,0 +1,25 @@
+package com.legalcms.dto;
+
+import jakarta.validation.Valid;
+import jakarta.validation.constraints.NotEmpty;
+import lombok.AllArgsConstructor;
+import lombok.Builder;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+import java.util.ArrayList;
+import java.util.List;
+
+@Data
+@NoArgsConstructor
+@AllArgsConstructor
+@Builder
+public class BatchCnrRequest {
+
+    @NotEmpty(message = "At least one item is required")
+    @Builder.Default
+    private List<@Valid CourtDataRequest> items = new ArrayList<>();
+
+    // Write each resolved CNR onto the case with that case number and court
+    private boolean updateCases;
+}
@@ -0,0 +1,40 @@
+package com.legalcms.dto;
+
+import com.fasterxml.jackson.annotation.JsonPropertyOrder;
+import com.legalcms.model.CaseStatus;
+import lombok.AllArgsConstructor;
+import lombok.Builder;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+import java.time.LocalDate;
+import java.time.LocalDateTime;
+
+/**
+ * Flat, one-line-per-case shape used by the CSV export.
+ * Multiple parties are joined with "; " in the petitioners/respondents columns.
+ */
+@Data
+@NoArgsConstructor
+@AllArgsConstructor
+@Builder
+@JsonPropertyOrder({"id", "caseTitle", "caseType", "caseNumber", "cnrNumber", "courtName", "nextHearingDate",
+        "caseStage", "status", "advocateName", "advocateEmail", "petitioners", "respondents", "createdAt", "updatedAt"})
+public class CaseExportRow {
+
+    private Long id;
+    private String caseTitle;
+    private String caseType;
+    private String caseNumber;
+    private String cnrNumber;
+    private String courtName;
+    private LocalDate nextHearingDate;
+    private String caseStage;
+    private CaseStatus status;
+    private String advocateName;
+    private String advocateEmail;
+    private String petitioners;
+    private String respondents;
+    private LocalDateTime createdAt;
+    private LocalDateTime updatedAt;
+}
@@ -0,0 +1,17 @@
+package com.legalcms.dto;
+
+import lombok.AllArgsConstructor;
+import lombok.Builder;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+@Data
+@NoArgsConstructor
+@AllArgsConstructor
+@Builder
+public class CaseImportError {
+
+    private long rowNumber;
+    private String caseNumber;
+    private String message;
+}
@@ -0,0 +1,26 @@
+package com.legalcms.dto;
+
+import lombok.AllArgsConstructor;
+import lombok.Builder;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+import java.util.ArrayList;
+import java.util.List;
+
+@Data
+@NoArgsConstructor
+@AllArgsConstructor
+@Builder
+public class CaseImportResponse {
+
+    private long totalRows;
+    private long importedRows;
+    private long failedRows;
+
+    @Builder.Default
+    private List<CaseImportError> errors = new ArrayList<>();
+
+    // True when more rows failed than are listed in errors
+    private boolean errorsTruncated;
+}
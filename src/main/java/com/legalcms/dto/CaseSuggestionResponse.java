@@ -0,0 +1,18 @@
+package com.legalcms.dto;
+
+import lombok.AllArgsConstructor;
+import lombok.Builder;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+@Data
+@NoArgsConstructor
+@AllArgsConstructor
+@Builder
+public class CaseSuggestionResponse {
+
+    private Long caseId;
+    private String caseNumber;
+    private String caseTitle;
+    private String matchType; // CASE_NUMBER, CNR or PARTY
+}
@@ -0,0 +1,29 @@
+package com.legalcms.dto;
+
+import com.fasterxml.jackson.annotation.JsonInclude;
+import lombok.AllArgsConstructor;
+import lombok.Builder;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+/**
+ * One line of a streamed batch lookup: the outcome for the request item at {@code index}.
+ */
+@Data
+@NoArgsConstructor
+@AllArgsConstructor
+@Builder
+@JsonInclude(JsonInclude.Include.NON_NULL)
+public class CourtBatchItemResponse<T> {
+
+    public enum Status {
+        FOUND,
+        NOT_FOUND,
+        FAILED
+    }
+
+    private int index;
+    private Status status;
+    private T result;
+    private String error;
+}
@@ -0,0 +1,28 @@
+package com.legalcms.dto;
+
+import com.fasterxml.jackson.annotation.JsonInclude;
+import lombok.AllArgsConstructor;
+import lombok.Builder;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+/**
+ * Last line of a streamed batch lookup.
+ */
+@Data
+@NoArgsConstructor
+@AllArgsConstructor
+@Builder
+@JsonInclude(JsonInclude.Include.NON_NULL)
+public class CourtBatchSummary {
+
+    private int total;
+    private int found;
+    private int notFound;
+    private int failed;
+
+    // Cases whose CNR number was written; only set when updateCases was requested
+    private Integer casesUpdated;
+
+    private long durationMs;
+}
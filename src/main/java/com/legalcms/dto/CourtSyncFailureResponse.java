@@ -0,0 +1,20 @@
+package com.legalcms.dto;
+
+import lombok.AllArgsConstructor;
+import lombok.Builder;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+import java.time.LocalDateTime;
+
+@Data
+@NoArgsConstructor
+@AllArgsConstructor
+@Builder
+public class CourtSyncFailureResponse {
+
+    private Long caseId;
+    private String courtName;
+    private String errorMessage;
+    private LocalDateTime processedAt;
+}
@@ -0,0 +1,50 @@
+package com.legalcms.dto;
+
+import com.legalcms.model.CourtSyncRunStatus;
+import com.legalcms.model.CourtSyncTrigger;
+import lombok.AllArgsConstructor;
+import lombok.Builder;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+import java.time.LocalDateTime;
+import java.util.List;
+import java.util.Map;
+
+/**
+ * Progress and statistics of a court sync run.
+ * Latency percentiles, per-court failures and recent failures are only filled in when a single run is inspected.
+ */
+@Data
+@NoArgsConstructor
+@AllArgsConstructor
+@Builder
+public class CourtSyncRunResponse {
+
+    private Long id;
+    private CourtSyncTrigger triggerType;
+    private CourtSyncRunStatus status;
+    private String triggeredBy;
+
+    private int totalCases;
+    private long pending;
+    private long updated;
+    private long unchanged;
+    private long failed;
+    private long skipped;
+
+    private int writeChunks;
+    private int writeStatements;
+    private long activeMillis;
+    private Double throughputPerSecond;
+
+    private Double latencyP50Ms;
+    private Double latencyP95Ms;
+    private Double latencyP99Ms;
+    private Map<String, Long> failuresByCourt;
+    private List<CourtSyncFailureResponse> recentFailures;
+
+    private String errorMessage;
+    private LocalDateTime createdAt;
+    private LocalDateTime finishedAt;
+}
@@ -0,0 +1,25 @@
+package com.legalcms.dto;
+
+import lombok.AllArgsConstructor;
+import lombok.Builder;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+import java.util.List;
+
+/**
+ * One page of a keyset-paginated listing.
+ * Pass nextCursor back as the "cursor" parameter to fetch the following page;
+ * it is null once the last page has been returned.
+ */
+@Data
+@NoArgsConstructor
+@AllArgsConstructor
+@Builder
+public class CursorPageResponse<T> {
+
+    private List<T> items;
+    private int size;
+    private boolean hasMore;
+    private String nextCursor;
+}
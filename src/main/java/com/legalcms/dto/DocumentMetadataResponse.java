@@ -0,0 +1,33 @@
+package com.legalcms.dto;
+
+import com.legalcms.model.DocumentProcessingStatus;
+import lombok.AllArgsConstructor;
+import lombok.Builder;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+import java.time.LocalDateTime;
+
+@Data
+@NoArgsConstructor
+@AllArgsConstructor
+@Builder
+public class DocumentMetadataResponse {
+
+    private Long documentId;
+    private String fileName;
+
+    // PENDING until background processing has run; null for documents stored before processing existed
+    private DocumentProcessingStatus processingStatus;
+
+    private Integer pageCount;
+    private String title;
+    private String author;
+
+    // Characters of extracted text; truncated when the document was longer than the extraction limits
+    private Integer textLength;
+    private Boolean textTruncated;
+
+    private String thumbnailUrl;
+    private LocalDateTime processedAt;
+}
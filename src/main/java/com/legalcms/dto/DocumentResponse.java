@@ -21,4 +21,8 @@ public class DocumentResponse {
     private DocumentType documentType;
     private String uploadedByName;
     private LocalDateTime uploadedAt;
+
+    // Filled in by background processing; null until then
+    private Integer pageCount;
+    private String thumbnailUrl;
 }
@@ -0,0 +1,31 @@
+package com.legalcms.dto;
+
+import com.legalcms.model.DocumentType;
+import lombok.AllArgsConstructor;
+import lombok.Builder;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+import java.time.LocalDateTime;
+
+@Data
+@NoArgsConstructor
+@AllArgsConstructor
+@Builder
+public class DocumentSearchResult {
+
+    private Long documentId;
+    private Long caseId;
+    private String caseNumber;
+    private String fileName;
+    private DocumentType documentType;
+    private LocalDateTime uploadedAt;
+    private Integer pageCount;
+    private String title;
+
+    // HTML-escaped excerpts around the matches, with matched terms wrapped in <mark>...</mark>
+    private String snippet;
+
+    private float score;
+    private String thumbnailUrl;
+}
@@ -0,0 +1,35 @@
+package com.legalcms.dto;
+
+import com.legalcms.model.DocumentType;
+import jakarta.validation.constraints.NotBlank;
+import jakarta.validation.constraints.NotNull;
+import jakarta.validation.constraints.Pattern;
+import jakarta.validation.constraints.Positive;
+import lombok.AllArgsConstructor;
+import lombok.Builder;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+@Data
+@NoArgsConstructor
+@AllArgsConstructor
+@Builder
+public class UploadSessionRequest {
+
+    @NotNull(message = "Case ID is required")
+    private Long caseId;
+
+    @NotNull(message = "Document type is required")
+    private DocumentType documentType;
+
+    @NotBlank(message = "File name is required")
+    private String fileName;
+
+    @NotNull(message = "Total size is required")
+    @Positive(message = "Total size must be positive")
+    private Long totalSize;
+
+    // Optional SHA-256 (hex) of the whole file, verified when the upload is completed
+    @Pattern(regexp = "[0-9a-fA-F]{64}", message = "sha256 must be 64 hex characters")
+    private String sha256;
+}
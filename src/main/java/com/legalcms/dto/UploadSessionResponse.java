@@ -0,0 +1,36 @@
+package com.legalcms.dto;
+
+import com.legalcms.model.DocumentType;
+import com.legalcms.model.UploadSessionStatus;
+import lombok.AllArgsConstructor;
+import lombok.Builder;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.List;
+
+@Data
+@NoArgsConstructor
+@AllArgsConstructor
+@Builder
+public class UploadSessionResponse {
+
+    private String uploadId;
+    private Long caseId;
+    private DocumentType documentType;
+    private String fileName;
+    private long totalSize;
+
+    // Every chunk but the last is exactly chunkSize bytes and starts at offset = index * chunkSize
+    private long chunkSize;
+    private int totalChunks;
+
+    @Builder.Default
+    private List<Integer> receivedChunks = new ArrayList<>();
+
+    private UploadSessionStatus status;
+    private Long documentId;
+    private LocalDateTime expiresAt;
+}
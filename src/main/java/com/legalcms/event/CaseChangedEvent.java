@@ -0,0 +1,38 @@
+package com.legalcms.event;
+
+import lombok.AllArgsConstructor;
+import lombok.Builder;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+import java.util.ArrayList;
+import java.util.List;
+
+/**
+ * Published by CaseService whenever a case is created, updated or deleted.
+ * Listeners that maintain derived, in-memory views of cases should react with
+ * {@code @TransactionalEventListener} so they only observe committed changes.
+ */
+@Data
+@NoArgsConstructor
+@AllArgsConstructor
+@Builder
+public class CaseChangedEvent {
+
+    public enum ChangeType {
+        CREATED,
+        UPDATED,
+        DELETED
+    }
+
+    private Long caseId;
+    private ChangeType changeType;
+
+    // Searchable attributes after the change; empty for DELETED
+    private String caseNumber;
+    private String cnrNumber;
+    private String caseTitle;
+
+    @Builder.Default
+    private List<String> partyNames = new ArrayList<>();
+}
@@ -0,0 +1,41 @@
+package com.legalcms.event;
+
+import lombok.AllArgsConstructor;
+import lombok.Builder;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.List;
+
+/**
+ * Published by the court sync writer when the court reports a real change for a case, with the
+ * field-level diff against what was stored before. Published inside the chunk transaction, so
+ * listeners should use {@code @TransactionalEventListener} to only observe committed changes.
+ */
+@Data
+@NoArgsConstructor
+@AllArgsConstructor
+@Builder
+public class CourtStatusChangedEvent {
+
+    public enum Field {
+        NEXT_HEARING_DATE,
+        CASE_STAGE,
+        LAST_ORDER_URL
+    }
+
+    /**
+     * One changed field; values are in their normalized string form.
+     */
+    public record FieldChange(Field field, String previousValue, String currentValue) {
+    }
+
+    private Long caseId;
+    private String cnrNumber;
+    private LocalDateTime detectedAt;
+
+    @Builder.Default
+    private List<FieldChange> changes = new ArrayList<>();
+}
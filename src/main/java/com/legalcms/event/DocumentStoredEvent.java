@@ -0,0 +1,20 @@
+package com.legalcms.event;
+
+import lombok.AllArgsConstructor;
+import lombok.Builder;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+/**
+ * Published by DocumentService when a document is stored, inside the storing transaction;
+ * listeners should use {@code @TransactionalEventListener} to only see committed documents.
+ */
+@Data
+@NoArgsConstructor
+@AllArgsConstructor
+@Builder
+public class DocumentStoredEvent {
+
+    private Long documentId;
+    private Long caseId;
+}
@@ -14,7 +14,11 @@ import java.util.ArrayList;
 import java.util.List;
 
 @Entity
-@Table(name = "cases")
+@Table(name = "cases", indexes = {
+        // Keyset pagination of the case list by status, court or advocate (CaseRepository.findPage)
+        @Index(name = "idx_cases_status_id", columnList = "status, id"),
+        @Index(name = "idx_cases_court_name_id", columnList = "court_name, id"),
+        @Index(name = "idx_cases_advocate_id", columnList = "assigned_advocate_id, id")})
 @Data
 @NoArgsConstructor
 @AllArgsConstructor
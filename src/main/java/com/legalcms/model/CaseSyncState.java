@@ -0,0 +1,48 @@
+package com.legalcms.model;
+
+import jakarta.persistence.*;
+import lombok.AllArgsConstructor;
+import lombok.Builder;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+import java.time.LocalDateTime;
+
+/**
+ * Court sync schedule of one case: when it is next due and the history its priority is derived from.
+ * Rows are upserted in bulk by the sync writer.
+ */
+@Entity
+@Table(name = "case_sync_state")
+@Data
+@NoArgsConstructor
+@AllArgsConstructor
+@Builder
+public class CaseSyncState {
+
+    @Id
+    @Column(name = "case_id")
+    private Long caseId;
+
+    @Column(nullable = false)
+    private LocalDateTime nextSyncDueAt;
+
+    private LocalDateTime lastSyncedAt;
+
+    private LocalDateTime lastChangedAt;
+
+    // Exponentially decayed count of recent stage/hearing changes
+    @Column(nullable = false)
+    private double volatility;
+
+    @Column(nullable = false)
+    private int consecutiveFailures;
+
+    // Digest of the last court payload seen (CourtStatusDigest); an equal digest means nothing changed
+    @Column(length = 64)
+    private String statusDigest;
+
+    // Fields of that payload that are not stored on the case itself, kept for diffing
+    @Column(length = 1000)
+    private String lastOrderUrl;
+}
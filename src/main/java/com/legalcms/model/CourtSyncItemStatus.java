@@ -0,0 +1,9 @@
+package com.legalcms.model;
+
+public enum CourtSyncItemStatus {
+    PENDING,
+    UPDATED,
+    UNCHANGED,
+    FAILED,
+    SKIPPED
+}
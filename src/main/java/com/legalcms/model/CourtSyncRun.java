@@ -0,0 +1,55 @@
+package com.legalcms.model;
+
+import jakarta.persistence.*;
+import lombok.AllArgsConstructor;
+import lombok.Builder;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+import org.hibernate.annotations.CreationTimestamp;
+
+import java.time.LocalDateTime;
+
+@Entity
+@Table(name = "court_sync_runs")
+@Data
+@NoArgsConstructor
+@AllArgsConstructor
+@Builder
+public class CourtSyncRun {
+
+    @Id
+    @GeneratedValue(strategy = GenerationType.IDENTITY)
+    private Long id;
+
+    @Enumerated(EnumType.STRING)
+    @Column(nullable = false)
+    private CourtSyncTrigger triggerType;
+
+    @Enumerated(EnumType.STRING)
+    @Column(nullable = false)
+    private CourtSyncRunStatus status;
+
+    private String triggeredBy;
+
+    @Column(nullable = false)
+    private int totalCases;
+
+    @Column(nullable = false)
+    private int writeChunks;
+
+    @Column(nullable = false)
+    private int writeStatements;
+
+    // Time spent actively syncing, summed over every pass of the run on every node
+    @Column(nullable = false)
+    private long activeMillis;
+
+    @Column(length = 1000)
+    private String errorMessage;
+
+    @CreationTimestamp
+    @Column(updatable = false)
+    private LocalDateTime createdAt;
+
+    private LocalDateTime finishedAt;
+}
@@ -0,0 +1,51 @@
+package com.legalcms.model;
+
+import jakarta.persistence.*;
+import lombok.AllArgsConstructor;
+import lombok.Builder;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+import java.time.LocalDateTime;
+
+/**
+ * Per-case checkpoint of a court sync run. Rows are created and advanced with set-based JDBC
+ * statements; the entity mainly documents the table.
+ */
+@Entity
+@Table(name = "court_sync_run_items",
+        uniqueConstraints = @UniqueConstraint(columnNames = {"run_id", "case_id"}))
+@Data
+@NoArgsConstructor
+@AllArgsConstructor
+@Builder
+public class CourtSyncRunItem {
+
+    @Id
+    @GeneratedValue(strategy = GenerationType.IDENTITY)
+    private Long id;
+
+    @Column(name = "run_id", nullable = false)
+    private Long runId;
+
+    @Column(name = "case_id", nullable = false)
+    private Long caseId;
+
+    private String courtName;
+
+    @Enumerated(EnumType.STRING)
+    @Column(nullable = false)
+    private CourtSyncItemStatus status;
+
+    private Long latencyMs;
+
+    @Column(length = 1000)
+    private String errorMessage;
+
+    private LocalDateTime processedAt;
+
+    // Node working on the checkpoint, until claimExpiresAt
+    private String claimedBy;
+
+    private LocalDateTime claimExpiresAt;
+}
@@ -0,0 +1,8 @@
+package com.legalcms.model;
+
+public enum CourtSyncRunStatus {
+    RUNNING,
+    PAUSED,
+    COMPLETED,
+    FAILED
+}
@@ -0,0 +1,6 @@
+package com.legalcms.model;
+
+public enum CourtSyncTrigger {
+    SCHEDULED,
+    MANUAL
+}
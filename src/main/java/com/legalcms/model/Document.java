@@ -39,7 +39,18 @@ public class Document {
     @JoinColumn(name = "uploaded_by_id", nullable = false)
     private User uploadedBy;
 
+    // SHA-256 of the file; set for documents whose content is known, e.g. ingested court orders
+    @Column(length = 64)
+    private String contentHash;
+
     @CreationTimestamp
     @Column(updatable = false)
     private LocalDateTime uploadedAt;
+
+    // Set by background processing (DocumentProcessingService); null until the document is processed
+    private Integer pageCount;
+
+    private Boolean hasThumbnail;
+
+    private LocalDateTime processedAt;
 }
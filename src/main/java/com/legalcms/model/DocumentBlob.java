@@ -0,0 +1,43 @@
+package com.legalcms.model;
+
+import jakarta.persistence.*;
+import lombok.AllArgsConstructor;
+import lombok.Builder;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+import org.hibernate.annotations.ColumnDefault;
+
+import java.time.LocalDateTime;
+
+/**
+ * A blob of the content-addressed document store. Documents refer to it by content_hash; a blob
+ * no document refers to is garbage collected once lastReferencedAt is older than the grace period;
+ * one only documents of DISPOSED cases refer to is moved to the COLD tier.
+ * Rows are written with JDBC (DocumentBlobRepository); the entity mainly documents the table.
+ */
+@Entity
+@Table(name = "document_blobs")
+@Data
+@NoArgsConstructor
+@AllArgsConstructor
+@Builder
+public class DocumentBlob {
+
+    @Id
+    @Column(name = "content_hash", length = 64)
+    private String contentHash;
+
+    @Column(nullable = false)
+    private long sizeBytes;
+
+    private LocalDateTime createdAt;
+
+    // Last time a document was stored with this content
+    private LocalDateTime lastReferencedAt;
+
+    // Rows written before tiering existed have no tier and are HOT
+    @Enumerated(EnumType.STRING)
+    @Column(length = 10)
+    @ColumnDefault("'HOT'")
+    private StorageTier storageTier;
+}
@@ -0,0 +1,51 @@
+package com.legalcms.model;
+
+import jakarta.persistence.*;
+import lombok.AllArgsConstructor;
+import lombok.Builder;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+import java.time.LocalDateTime;
+
+/**
+ * Post-processing of one stored document. Jobs are queued in the transaction that stores the
+ * document and claimed, retried and finished with JDBC statements; the entity mainly documents the table.
+ */
+@Entity
+@Table(name = "document_processing_jobs")
+@Data
+@NoArgsConstructor
+@AllArgsConstructor
+@Builder
+public class DocumentProcessingJob {
+
+    @Id
+    @GeneratedValue(strategy = GenerationType.IDENTITY)
+    private Long id;
+
+    @Column(name = "document_id", nullable = false, unique = true)
+    private Long documentId;
+
+    @Enumerated(EnumType.STRING)
+    @Column(nullable = false)
+    private DocumentProcessingStatus status;
+
+    @Column(nullable = false)
+    private int attempts;
+
+    @Column(nullable = false)
+    private LocalDateTime nextAttemptAt;
+
+    // Node processing the document, until claimExpiresAt
+    private String claimedBy;
+
+    private LocalDateTime claimExpiresAt;
+
+    @Column(length = 1000)
+    private String errorMessage;
+
+    private LocalDateTime createdAt;
+
+    private LocalDateTime updatedAt;
+}
@@ -0,0 +1,9 @@
+package com.legalcms.model;
+
+public enum DocumentProcessingStatus {
+    PENDING,
+    COMPLETED,
+    // Not a PDF; nothing to extract
+    SKIPPED,
+    FAILED
+}
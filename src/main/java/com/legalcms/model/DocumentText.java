@@ -0,0 +1,48 @@
+package com.legalcms.model;
+
+import jakarta.persistence.*;
+import lombok.AllArgsConstructor;
+import lombok.Builder;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+import java.time.LocalDateTime;
+
+/**
+ * Text and metadata extracted from a document. Kept apart from documents so listing documents
+ * never reads the text. Rows are written with JDBC (DocumentArtifactRepository) and searched with
+ * JDBC (DocumentSearchRepository).
+ */
+@Entity
+@Table(name = "document_texts")
+@Data
+@NoArgsConstructor
+@AllArgsConstructor
+@Builder
+public class DocumentText {
+
+    @Id
+    @Column(name = "document_id")
+    private Long documentId;
+
+    @Column(columnDefinition = "TEXT")
+    private String content;
+
+    // True when the text was cut at maxTextPages / maxTextLength
+    private boolean truncated;
+
+    @Column(length = 500)
+    private String title;
+
+    @Column(length = 255)
+    private String author;
+
+    private LocalDateTime extractedAt;
+
+    // Full-text index of title and content, maintained by PostgreSQL on every write
+    @Column(columnDefinition = "tsvector GENERATED ALWAYS AS (" +
+            "setweight(to_tsvector('english', coalesce(title, '')), 'A') || " +
+            "to_tsvector('english', coalesce(content, ''))) STORED",
+            insertable = false, updatable = false)
+    private String searchVector;
+}
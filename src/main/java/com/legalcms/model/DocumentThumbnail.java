@@ -0,0 +1,35 @@
+package com.legalcms.model;
+
+import jakarta.persistence.*;
+import lombok.AllArgsConstructor;
+import lombok.Builder;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+import java.time.LocalDateTime;
+
+/**
+ * Low-resolution JPEG of a document's first page, a few KB, served to document lists instead of
+ * the document itself. Rows are written with JDBC (DocumentArtifactRepository).
+ */
+@Entity
+@Table(name = "document_thumbnails")
+@Data
+@NoArgsConstructor
+@AllArgsConstructor
+@Builder
+public class DocumentThumbnail {
+
+    @Id
+    @Column(name = "document_id")
+    private Long documentId;
+
+    @Column(nullable = false)
+    private byte[] image;
+
+    private int width;
+
+    private int height;
+
+    private LocalDateTime createdAt;
+}
@@ -9,7 +9,8 @@ import lombok.NoArgsConstructor;
 import java.time.LocalDate;
 
 @Entity
-@Table(name = "hearings")
+@Table(name = "hearings",
+        uniqueConstraints = @UniqueConstraint(name = "uq_hearings_case_date", columnNames = {"case_id", "hearing_date"}))
 @Data
 @NoArgsConstructor
 @AllArgsConstructor
@@ -0,0 +1,61 @@
+package com.legalcms.model;
+
+import jakarta.persistence.*;
+import lombok.AllArgsConstructor;
+import lombok.Builder;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+import java.time.LocalDateTime;
+
+/**
+ * One court order to download into the document store. Jobs are queued by the court sync writer
+ * and claimed, retried and finished with JDBC statements; the entity mainly documents the table.
+ */
+@Entity
+@Table(name = "order_ingestion_jobs",
+        uniqueConstraints = @UniqueConstraint(columnNames = {"case_id", "order_url"}))
+@Data
+@NoArgsConstructor
+@AllArgsConstructor
+@Builder
+public class OrderIngestionJob {
+
+    @Id
+    @GeneratedValue(strategy = GenerationType.IDENTITY)
+    private Long id;
+
+    @Column(name = "case_id", nullable = false)
+    private Long caseId;
+
+    @Column(name = "order_url", nullable = false, length = 1000)
+    private String orderUrl;
+
+    @Enumerated(EnumType.STRING)
+    @Column(nullable = false)
+    private OrderIngestionStatus status;
+
+    @Column(nullable = false)
+    private int attempts;
+
+    @Column(nullable = false)
+    private LocalDateTime nextAttemptAt;
+
+    // Node downloading the order, until claimExpiresAt
+    private String claimedBy;
+
+    private LocalDateTime claimExpiresAt;
+
+    // Document the order was stored as (or already existed as, for DUPLICATE)
+    private Long documentId;
+
+    @Column(length = 64)
+    private String contentHash;
+
+    @Column(length = 1000)
+    private String errorMessage;
+
+    private LocalDateTime createdAt;
+
+    private LocalDateTime updatedAt;
+}
@@ -0,0 +1,8 @@
+package com.legalcms.model;
+
+public enum OrderIngestionStatus {
+    PENDING,
+    COMPLETED,
+    DUPLICATE,
+    FAILED
+}
@@ -0,0 +1,8 @@
+package com.legalcms.model;
+
+public enum StorageTier {
+    // Stored as-is; local blobs can be served with sendfile
+    HOT,
+    // Gzip-compressed under cold/; documents of DISPOSED cases only
+    COLD
+}
@@ -0,0 +1,73 @@
+package com.legalcms.model;
+
+import jakarta.persistence.*;
+import lombok.AllArgsConstructor;
+import lombok.Builder;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+import org.hibernate.annotations.CreationTimestamp;
+import org.hibernate.annotations.UpdateTimestamp;
+
+import java.time.LocalDateTime;
+
+/**
+ * A resumable, chunked document upload. Chunks are written straight into the session's part file
+ * in the blob store; the chunks received so far are tracked in upload_session_chunks.
+ */
+@Entity
+@Table(name = "upload_sessions")
+@Data
+@NoArgsConstructor
+@AllArgsConstructor
+@Builder
+public class UploadSession {
+
+    @Id
+    @Column(length = 36)
+    private String id;
+
+    @Column(name = "case_id", nullable = false)
+    private Long caseId;
+
+    @Enumerated(EnumType.STRING)
+    @Column(nullable = false)
+    private DocumentType documentType;
+
+    @Column(nullable = false, length = 500)
+    private String fileName;
+
+    @Column(nullable = false)
+    private long totalSize;
+
+    @Column(nullable = false)
+    private long chunkSize;
+
+    // SHA-256 of the whole file, if the client declared it up front
+    @Column(length = 64)
+    private String expectedSha256;
+
+    @Enumerated(EnumType.STRING)
+    @Column(nullable = false)
+    private UploadSessionStatus status;
+
+    // Email of the uploader; only they may add chunks to the session
+    @Column(nullable = false)
+    private String createdBy;
+
+    private Long documentId;
+
+    @CreationTimestamp
+    @Column(updatable = false)
+    private LocalDateTime createdAt;
+
+    @UpdateTimestamp
+    private LocalDateTime updatedAt;
+
+    // Pushed out with every chunk; open sessions past it are abandoned and cleaned up
+    @Column(nullable = false)
+    private LocalDateTime expiresAt;
+
+    public int getTotalChunks() {
+        return (int) ((totalSize + chunkSize - 1) / chunkSize);
+    }
+}
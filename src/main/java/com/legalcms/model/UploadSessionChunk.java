@@ -0,0 +1,49 @@
+package com.legalcms.model;
+
+import jakarta.persistence.*;
+import lombok.AllArgsConstructor;
+import lombok.Builder;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+import java.io.Serializable;
+import java.time.LocalDateTime;
+
+/**
+ * A chunk received for an upload session. Rows are written with JDBC (UploadChunkRepository); the
+ * entity mainly documents the table.
+ */
+@Entity
+@Table(name = "upload_session_chunks")
+@IdClass(UploadSessionChunk.Key.class)
+@Data
+@NoArgsConstructor
+@AllArgsConstructor
+@Builder
+public class UploadSessionChunk {
+
+    @Id
+    @Column(name = "session_id", length = 36)
+    private String sessionId;
+
+    @Id
+    @Column(name = "chunk_index")
+    private int chunkIndex;
+
+    @Column(nullable = false)
+    private long sizeBytes;
+
+    // SHA-256 the client declared for the chunk and the server verified
+    @Column(nullable = false, length = 64)
+    private String sha256;
+
+    private LocalDateTime receivedAt;
+
+    @Data
+    @NoArgsConstructor
+    @AllArgsConstructor
+    public static class Key implements Serializable {
+        private String sessionId;
+        private int chunkIndex;
+    }
+}
@@ -0,0 +1,8 @@
+package com.legalcms.model;
+
+public enum UploadSessionStatus {
+    OPEN,
+    FINALIZING,
+    COMPLETED,
+    ABORTED
+}
@@ -3,14 +3,21 @@ package com.legalcms.repository;
 import com.legalcms.model.CaseEntity;
 import com.legalcms.model.CaseStatus;
 import com.legalcms.model.User;
+import jakarta.persistence.QueryHint;
+import org.hibernate.jpa.HibernateHints;
+import org.springframework.data.domain.Pageable;
 import org.springframework.data.jpa.repository.JpaRepository;
 import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.jpa.repository.QueryHints;
 import org.springframework.data.repository.query.Param;
 import org.springframework.stereotype.Repository;
 
 import java.time.LocalDate;
+import java.time.LocalDateTime;
+import java.util.Collection;
 import java.util.List;
 import java.util.Optional;
+import java.util.stream.Stream;
 
 @Repository
 public interface CaseRepository extends JpaRepository<CaseEntity, Long> {
@@ -25,24 +32,101 @@ public interface CaseRepository extends JpaRepository<CaseEntity, Long> {
 
     List<CaseEntity> findByCourtName(String courtName);
 
-    @Query("SELECT c FROM CaseEntity c WHERE c.nextHearingDate BETWEEN :startDate AND :endDate")
+    @Query("SELECT c FROM CaseEntity c LEFT JOIN FETCH c.assignedAdvocate WHERE c.id = :id")
+    Optional<CaseEntity> findWithAdvocateById(@Param("id") Long id);
+
+    @Query("SELECT c FROM CaseEntity c LEFT JOIN FETCH c.assignedAdvocate WHERE " +
+            "c.nextHearingDate BETWEEN :startDate AND :endDate AND " +
+            "(:afterId IS NULL OR c.id < :afterId) " +
+            "ORDER BY c.id DESC")
     List<CaseEntity> findCasesWithHearingsBetween(
             @Param("startDate") LocalDate startDate,
-            @Param("endDate") LocalDate endDate);
+            @Param("endDate") LocalDate endDate,
+            @Param("afterId") Long afterId,
+            Pageable pageable);
+
+    @Query("SELECT c FROM CaseEntity c LEFT JOIN FETCH c.assignedAdvocate WHERE " +
+            "(:afterId IS NULL OR c.id < :afterId) AND " +
+            "(:status IS NULL OR c.status = :status) AND " +
+            "(:courtName IS NULL OR c.courtName = :courtName) AND " +
+            "(:advocateId IS NULL OR c.assignedAdvocate.id = :advocateId) " +
+            "ORDER BY c.id DESC")
+    List<CaseEntity> findPage(
+            @Param("status") CaseStatus status,
+            @Param("courtName") String courtName,
+            @Param("advocateId") Long advocateId,
+            @Param("afterId") Long afterId,
+            Pageable pageable);
 
-    @Query("SELECT c FROM CaseEntity c JOIN c.parties p WHERE " +
-            "LOWER(p.petitionerName) LIKE LOWER(CONCAT('%', :partyName, '%')) OR " +
-            "LOWER(p.respondentName) LIKE LOWER(CONCAT('%', :partyName, '%'))")
-    List<CaseEntity> findByPartyName(@Param("partyName") String partyName);
+    @Query("SELECT c FROM CaseEntity c LEFT JOIN FETCH c.assignedAdvocate WHERE c.id IN :ids")
+    List<CaseEntity> findAllWithAdvocateByIdIn(@Param("ids") Collection<Long> ids);
 
-    @Query("SELECT c FROM CaseEntity c WHERE " +
+    @Query("SELECT c FROM CaseEntity c LEFT JOIN FETCH c.assignedAdvocate WHERE " +
             "(:caseNumber IS NULL OR c.caseNumber = :caseNumber) AND " +
             "(:cnrNumber IS NULL OR c.cnrNumber = :cnrNumber) AND " +
-            "(:courtName IS NULL OR LOWER(c.courtName) LIKE LOWER(CONCAT('%', :courtName, '%')))")
+            "(:courtName IS NULL OR LOWER(c.courtName) LIKE LOWER(CONCAT('%', :courtName, '%'))) AND " +
+            "(:afterId IS NULL OR c.id < :afterId) " +
+            "ORDER BY c.id DESC")
     List<CaseEntity> searchCases(
             @Param("caseNumber") String caseNumber,
             @Param("cnrNumber") String cnrNumber,
-            @Param("courtName") String courtName);
+            @Param("courtName") String courtName,
+            @Param("afterId") Long afterId,
+            Pageable pageable);
 
     List<CaseEntity> findByStatusAndCnrNumberIsNotNull(CaseStatus status);
+
+    @Query("SELECT c.caseNumber FROM CaseEntity c WHERE c.caseNumber IN :caseNumbers")
+    List<String> findExistingCaseNumbers(@Param("caseNumbers") Collection<String> caseNumbers);
+
+    @Query("SELECT c.cnrNumber FROM CaseEntity c WHERE c.cnrNumber IN :cnrNumbers")
+    List<String> findExistingCnrNumbers(@Param("cnrNumbers") Collection<String> cnrNumbers);
+
+    // The response embeds the assigned advocate, so its version is part of the case's
+    @Query("SELECT c.id AS id, c.updatedAt AS updatedAt, a.updatedAt AS advocateUpdatedAt " +
+            "FROM CaseEntity c LEFT JOIN c.assignedAdvocate a WHERE c.id = :id")
+    Optional<CaseVersion> findVersionById(@Param("id") Long id);
+
+    @Query("SELECT COUNT(c) AS count, MAX(c.id) AS maxId, MAX(c.updatedAt) AS lastUpdated, " +
+            "MAX(a.updatedAt) AS advocateLastUpdated FROM CaseEntity c LEFT JOIN c.assignedAdvocate a WHERE " +
+            "(:status IS NULL OR c.status = :status) AND " +
+            "(:courtName IS NULL OR c.courtName = :courtName) AND " +
+            "(:advocateId IS NULL OR c.assignedAdvocate.id = :advocateId)")
+    CaseCollectionVersion findCollectionVersion(
+            @Param("status") CaseStatus status,
+            @Param("courtName") String courtName,
+            @Param("advocateId") Long advocateId);
+
+    @QueryHints(@QueryHint(name = HibernateHints.HINT_FETCH_SIZE, value = "1000"))
+    @Query("SELECT c.id AS id, c.caseNumber AS caseNumber, c.cnrNumber AS cnrNumber, c.caseTitle AS caseTitle " +
+            "FROM CaseEntity c")
+    Stream<CaseSuggestionRow> streamSuggestionRows();
+
+    interface CaseVersion {
+        Long getId();
+
+        LocalDateTime getUpdatedAt();
+
+        LocalDateTime getAdvocateUpdatedAt();
+    }
+
+    interface CaseCollectionVersion {
+        Long getCount();
+
+        Long getMaxId();
+
+        LocalDateTime getLastUpdated();
+
+        LocalDateTime getAdvocateLastUpdated();
+    }
+
+    interface CaseSuggestionRow {
+        Long getId();
+
+        String getCaseNumber();
+
+        String getCnrNumber();
+
+        String getCaseTitle();
+    }
 }
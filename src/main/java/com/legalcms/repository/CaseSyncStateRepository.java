@@ -0,0 +1,12 @@
+package com.legalcms.repository;
+
+import com.legalcms.model.CaseSyncState;
+import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.stereotype.Repository;
+
+/**
+ * Reads of case sync schedules; the queue itself is claimed through SyncClaimRepository.
+ */
+@Repository
+public interface CaseSyncStateRepository extends JpaRepository<CaseSyncState, Long> {
+}
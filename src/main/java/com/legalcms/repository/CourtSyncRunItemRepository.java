@@ -0,0 +1,90 @@
+package com.legalcms.repository;
+
+import com.legalcms.model.CourtSyncRunItem;
+import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Modifying;
+import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.repository.query.Param;
+import org.springframework.stereotype.Repository;
+import org.springframework.transaction.annotation.Transactional;
+
+import java.time.LocalDateTime;
+import java.util.Collection;
+import java.util.List;
+
+@Repository
+public interface CourtSyncRunItemRepository extends JpaRepository<CourtSyncRunItem, Long> {
+
+    /**
+     * Snapshots the cases a run has to sync as PENDING checkpoints, in a single statement.
+     */
+    @Modifying
+    @Query(value = "INSERT INTO court_sync_run_items (run_id, case_id, court_name, status) " +
+                   "SELECT :runId, c.id, c.court_name, 'PENDING' FROM cases c " +
+                   "WHERE c.status = 'ACTIVE' AND c.cnr_number IS NOT NULL",
+           nativeQuery = true)
+    int snapshotActiveCases(@Param("runId") Long runId);
+
+    @Modifying
+    @Transactional
+    @Query(value = "UPDATE court_sync_run_items SET status = 'SKIPPED', processed_at = now() " +
+                   "WHERE run_id = :runId AND case_id IN (:caseIds) AND status = 'PENDING'",
+           nativeQuery = true)
+    int markSkipped(@Param("runId") Long runId, @Param("caseIds") Collection<Long> caseIds);
+
+    @Query(value = "SELECT i.run_id AS runId, i.status AS status, COUNT(*) AS count " +
+                   "FROM court_sync_run_items i WHERE i.run_id IN (:runIds) GROUP BY i.run_id, i.status",
+           nativeQuery = true)
+    List<StatusCount> countByStatus(@Param("runIds") Collection<Long> runIds);
+
+    @Query(value = "SELECT percentile_cont(0.5) WITHIN GROUP (ORDER BY latency_ms) AS p50, " +
+                   "percentile_cont(0.95) WITHIN GROUP (ORDER BY latency_ms) AS p95, " +
+                   "percentile_cont(0.99) WITHIN GROUP (ORDER BY latency_ms) AS p99 " +
+                   "FROM court_sync_run_items WHERE run_id = :runId AND latency_ms IS NOT NULL",
+           nativeQuery = true)
+    LatencyPercentiles findLatencyPercentiles(@Param("runId") Long runId);
+
+    @Query(value = "SELECT COALESCE(i.court_name, '') AS courtName, COUNT(*) AS failures " +
+                   "FROM court_sync_run_items i WHERE i.run_id = :runId AND i.status = 'FAILED' " +
+                   "GROUP BY i.court_name ORDER BY failures DESC",
+           nativeQuery = true)
+    List<CourtFailureCount> countFailuresByCourt(@Param("runId") Long runId);
+
+    @Query(value = "SELECT i.case_id AS caseId, i.court_name AS courtName, i.error_message AS errorMessage, " +
+                   "i.processed_at AS processedAt FROM court_sync_run_items i " +
+                   "WHERE i.run_id = :runId AND i.status = 'FAILED' ORDER BY i.processed_at DESC LIMIT :limit",
+           nativeQuery = true)
+    List<FailedItem> findRecentFailures(@Param("runId") Long runId, @Param("limit") int limit);
+
+    interface StatusCount {
+        Long getRunId();
+
+        String getStatus();
+
+        Long getCount();
+    }
+
+    interface LatencyPercentiles {
+        Double getP50();
+
+        Double getP95();
+
+        Double getP99();
+    }
+
+    interface CourtFailureCount {
+        String getCourtName();
+
+        Long getFailures();
+    }
+
+    interface FailedItem {
+        Long getCaseId();
+
+        String getCourtName();
+
+        String getErrorMessage();
+
+        LocalDateTime getProcessedAt();
+    }
+}
@@ -0,0 +1,52 @@
+package com.legalcms.repository;
+
+import com.legalcms.model.CourtSyncRun;
+import com.legalcms.model.CourtSyncRunStatus;
+import org.springframework.data.domain.Pageable;
+import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Modifying;
+import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.repository.query.Param;
+import org.springframework.stereotype.Repository;
+import org.springframework.transaction.annotation.Transactional;
+
+import java.util.List;
+
+@Repository
+public interface CourtSyncRunRepository extends JpaRepository<CourtSyncRun, Long> {
+
+    @Query("SELECT r FROM CourtSyncRun r WHERE (:afterId IS NULL OR r.id < :afterId) ORDER BY r.id DESC")
+    List<CourtSyncRun> findPage(@Param("afterId") Long afterId, Pageable pageable);
+
+    List<CourtSyncRun> findByStatusOrderByIdAsc(CourtSyncRunStatus status);
+
+    boolean existsByStatus(CourtSyncRunStatus status);
+
+    @Query("SELECT r.status FROM CourtSyncRun r WHERE r.id = :runId")
+    CourtSyncRunStatus findStatusById(@Param("runId") Long runId);
+
+    /**
+     * Moves a run between states only if it is still in the expected one, so concurrent nodes cannot both win.
+     */
+    @Modifying
+    @Transactional
+    @Query("UPDATE CourtSyncRun r SET r.status = :to WHERE r.id = :runId AND r.status = :from")
+    int transition(@Param("runId") Long runId, @Param("from") CourtSyncRunStatus from,
+                   @Param("to") CourtSyncRunStatus to);
+
+    @Modifying
+    @Transactional
+    @Query(value = "UPDATE court_sync_runs SET status = 'COMPLETED', finished_at = now() " +
+                   "WHERE id = :runId AND status = 'RUNNING' " +
+                   "AND NOT EXISTS (SELECT 1 FROM court_sync_run_items i WHERE i.run_id = :runId AND i.status = 'PENDING')",
+           nativeQuery = true)
+    int completeIfDone(@Param("runId") Long runId);
+
+    @Modifying
+    @Transactional
+    @Query("UPDATE CourtSyncRun r SET r.writeChunks = r.writeChunks + :chunks, " +
+           "r.writeStatements = r.writeStatements + :statements, r.activeMillis = r.activeMillis + :millis " +
+           "WHERE r.id = :runId")
+    int addPassStats(@Param("runId") Long runId, @Param("chunks") int chunks,
+                     @Param("statements") int statements, @Param("millis") long millis);
+}
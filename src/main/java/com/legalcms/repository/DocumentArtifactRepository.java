@@ -0,0 +1,107 @@
+package com.legalcms.repository;
+
+import lombok.RequiredArgsConstructor;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.stereotype.Repository;
+import org.springframework.transaction.annotation.Transactional;
+
+import java.time.LocalDateTime;
+import java.util.Optional;
+
+/**
+ * Artifacts of document post-processing: extracted text and metadata (document_texts), the
+ * first-page thumbnail (document_thumbnails) and the summary columns on documents that document
+ * lists show.
+ */
+@Repository
+@RequiredArgsConstructor
+public class DocumentArtifactRepository {
+
+    private static final String UPSERT_TEXT_SQL =
+            "INSERT INTO document_texts (document_id, content, truncated, title, author, extracted_at) " +
+            "VALUES (?, ?, ?, ?, ?, now()) " +
+            "ON CONFLICT (document_id) DO UPDATE SET content = EXCLUDED.content, truncated = EXCLUDED.truncated, " +
+            "title = EXCLUDED.title, author = EXCLUDED.author, extracted_at = EXCLUDED.extracted_at";
+
+    private static final String UPSERT_THUMBNAIL_SQL =
+            "INSERT INTO document_thumbnails (document_id, image, width, height, created_at) " +
+            "VALUES (?, ?, ?, ?, now()) " +
+            "ON CONFLICT (document_id) DO UPDATE SET image = EXCLUDED.image, width = EXCLUDED.width, " +
+            "height = EXCLUDED.height, created_at = EXCLUDED.created_at";
+
+    private static final String MARK_PROCESSED_SQL =
+            "UPDATE documents SET page_count = ?, has_thumbnail = ?, processed_at = now() WHERE id = ?";
+
+    // Documents with the same content share their artifacts
+    private static final String FIND_PROCESSED_TWIN_SQL =
+            "SELECT s.id FROM documents d JOIN documents s ON s.content_hash = d.content_hash AND s.id <> d.id " +
+            "WHERE d.id = ? AND s.processed_at IS NOT NULL ORDER BY s.id LIMIT 1";
+
+    private static final String COPY_TEXT_SQL =
+            "INSERT INTO document_texts (document_id, content, truncated, title, author, extracted_at) " +
+            "SELECT ?, content, truncated, title, author, now() FROM document_texts WHERE document_id = ? " +
+            "ON CONFLICT (document_id) DO NOTHING";
+
+    private static final String COPY_THUMBNAIL_SQL =
+            "INSERT INTO document_thumbnails (document_id, image, width, height, created_at) " +
+            "SELECT ?, image, width, height, now() FROM document_thumbnails WHERE document_id = ? " +
+            "ON CONFLICT (document_id) DO NOTHING";
+
+    private static final String COPY_PROCESSED_SQL =
+            "UPDATE documents t SET page_count = s.page_count, has_thumbnail = s.has_thumbnail, processed_at = now() " +
+            "FROM documents s WHERE s.id = ? AND t.id = ?";
+
+    private final JdbcTemplate jdbcTemplate;
+
+    public record ExtractedContent(int pageCount, String text, boolean truncated, String title, String author,
+                                   byte[] thumbnail, int thumbnailWidth, int thumbnailHeight) {
+    }
+
+    public record TextMetadata(String title, String author, int textLength, boolean truncated,
+                               LocalDateTime extractedAt) {
+    }
+
+    @Transactional
+    public void save(Long documentId, ExtractedContent content) {
+        jdbcTemplate.update(UPSERT_TEXT_SQL, documentId, content.text(), content.truncated(),
+                content.title(), content.author());
+        if (content.thumbnail() != null) {
+            jdbcTemplate.update(UPSERT_THUMBNAIL_SQL, documentId, content.thumbnail(),
+                    content.thumbnailWidth(), content.thumbnailHeight());
+        }
+        jdbcTemplate.update(MARK_PROCESSED_SQL, content.pageCount(), content.thumbnail() != null, documentId);
+    }
+
+    /**
+     * Marks a document with nothing to extract (not a PDF) as processed.
+     */
+    public void markSkipped(Long documentId) {
+        jdbcTemplate.update(MARK_PROCESSED_SQL, null, false, documentId);
+    }
+
+    public Optional<Long> findProcessedTwin(Long documentId) {
+        return jdbcTemplate.queryForList(FIND_PROCESSED_TWIN_SQL, Long.class, documentId).stream().findFirst();
+    }
+
+    @Transactional
+    public void copy(Long fromDocumentId, Long toDocumentId) {
+        jdbcTemplate.update(COPY_TEXT_SQL, toDocumentId, fromDocumentId);
+        jdbcTemplate.update(COPY_THUMBNAIL_SQL, toDocumentId, fromDocumentId);
+        jdbcTemplate.update(COPY_PROCESSED_SQL, fromDocumentId, toDocumentId);
+    }
+
+    public Optional<byte[]> findThumbnail(Long documentId) {
+        return jdbcTemplate.query("SELECT image FROM document_thumbnails WHERE document_id = ?",
+                (rs, rowNum) -> rs.getBytes("image"), documentId).stream().findFirst();
+    }
+
+    public Optional<TextMetadata> findTextMetadata(Long documentId) {
+        return jdbcTemplate.query(
+                "SELECT title, author, COALESCE(length(content), 0) AS text_length, truncated, extracted_at " +
+                "FROM document_texts WHERE document_id = ?",
+                (rs, rowNum) -> new TextMetadata(rs.getString("title"), rs.getString("author"),
+                        rs.getInt("text_length"), rs.getBoolean("truncated"),
+                        rs.getObject("extracted_at", LocalDateTime.class)),
+                documentId).stream().findFirst();
+    }
+}
@@ -0,0 +1,126 @@
+package com.legalcms.repository;
+
+import com.legalcms.model.StorageTier;
+import lombok.RequiredArgsConstructor;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.stereotype.Repository;
+
+import java.sql.Array;
+import java.sql.PreparedStatement;
+import java.time.Duration;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Optional;
+
+/**
+ * Bookkeeping of the content-addressed blob store (document_blobs).
+ *
+ * A blob's references are the documents rows with its content_hash. Storing a document touches
+ * its blob row in the same transaction; that row lock is what keeps the garbage collector, which
+ * deletes unreferenced rows with FOR UPDATE SKIP LOCKED, from removing a blob a concurrent upload
+ * is about to refer to.
+ */
+@Repository
+@RequiredArgsConstructor
+public class DocumentBlobRepository {
+
+    // New content is committed to the hot tier, even when a cold copy exists
+    private static final String TOUCH_SQL =
+            "INSERT INTO document_blobs (content_hash, size_bytes, created_at, last_referenced_at, storage_tier) " +
+            "VALUES (?, ?, now(), now(), 'HOT') " +
+            "ON CONFLICT (content_hash) DO UPDATE SET last_referenced_at = now(), storage_tier = 'HOT'";
+
+    private static final String DELETE_UNREFERENCED_SQL =
+            "DELETE FROM document_blobs b USING (" +
+            "  SELECT content_hash FROM document_blobs " +
+            "  WHERE last_referenced_at < now() - make_interval(secs => ?) " +
+            "  AND NOT EXISTS (SELECT 1 FROM documents d WHERE d.content_hash = document_blobs.content_hash) " +
+            "  LIMIT ? FOR UPDATE SKIP LOCKED) garbage " +
+            "WHERE b.content_hash = garbage.content_hash " +
+            // Re-checked on the locked row: a document may have been committed since the scan
+            "AND NOT EXISTS (SELECT 1 FROM documents d WHERE d.content_hash = b.content_hash) " +
+            "RETURNING b.content_hash";
+
+    private static final String FIND_TIERS_SQL =
+            "SELECT content_hash, COALESCE(storage_tier, 'HOT') AS storage_tier FROM document_blobs " +
+            "WHERE content_hash = ANY(?)";
+
+    // Referenced only by documents of DISPOSED cases
+    private static final String COLD_CANDIDATE_CONDITION =
+            "EXISTS (SELECT 1 FROM documents d WHERE d.content_hash = b.content_hash) " +
+            "AND NOT EXISTS (SELECT 1 FROM documents d JOIN cases c ON c.id = d.case_id " +
+            "  WHERE d.content_hash = b.content_hash AND c.status <> 'DISPOSED')";
+
+    private static final String FIND_COLD_CANDIDATES_SQL =
+            "SELECT b.content_hash FROM document_blobs b " +
+            "WHERE COALESCE(b.storage_tier, 'HOT') = 'HOT' AND b.content_hash > ? AND " + COLD_CANDIDATE_CONDITION +
+            " ORDER BY b.content_hash LIMIT ?";
+
+    private static final String MARK_COLD_SQL =
+            "UPDATE document_blobs b SET storage_tier = 'COLD' " +
+            "WHERE b.content_hash = ? AND COALESCE(b.storage_tier, 'HOT') = 'HOT' AND " + COLD_CANDIDATE_CONDITION;
+
+    private final JdbcTemplate jdbcTemplate;
+
+    /**
+     * Records that a document is being stored with this content; must run in that document's transaction.
+     */
+    public void touch(String contentHash, long sizeBytes) {
+        jdbcTemplate.update(TOUCH_SQL, contentHash, sizeBytes);
+    }
+
+    /**
+     * Deletes up to {@code limit} unreferenced blob rows not touched within {@code grace}. The rows stay
+     * locked until the caller's transaction ends, so their files must be removed before it commits.
+     *
+     * @return content hashes of the deleted rows
+     */
+    public List<String> deleteUnreferenced(Duration grace, int limit) {
+        return jdbcTemplate.queryForList(DELETE_UNREFERENCED_SQL, String.class, grace.toSeconds(), limit);
+    }
+
+    public record BlobInfo(long sizeBytes, StorageTier tier) {
+    }
+
+    public Optional<BlobInfo> find(String contentHash) {
+        return jdbcTemplate.query(
+                "SELECT size_bytes, COALESCE(storage_tier, 'HOT') AS storage_tier FROM document_blobs WHERE content_hash = ?",
+                (rs, rowNum) -> new BlobInfo(rs.getLong("size_bytes"), StorageTier.valueOf(rs.getString("storage_tier"))),
+                contentHash).stream().findFirst();
+    }
+
+    /**
+     * @return the tier recorded for each of the given hashes that has a blob row
+     */
+    public Map<String, StorageTier> findTiers(List<String> contentHashes) {
+        Map<String, StorageTier> tiers = new HashMap<>();
+        if (contentHashes.isEmpty()) {
+            return tiers;
+        }
+        jdbcTemplate.query(FIND_TIERS_SQL, (PreparedStatement ps) -> {
+            Array array = ps.getConnection().createArrayOf("varchar", contentHashes.toArray(String[]::new));
+            ps.setArray(1, array);
+        }, rs -> {
+            tiers.put(rs.getString("content_hash"), StorageTier.valueOf(rs.getString("storage_tier")));
+        });
+        return tiers;
+    }
+
+    /**
+     * Hot blobs only documents of DISPOSED cases refer to, in content hash order after {@code after}.
+     */
+    public List<String> findColdCandidates(String after, int limit) {
+        return jdbcTemplate.queryForList(FIND_COLD_CANDIDATES_SQL, String.class, after, limit);
+    }
+
+    /**
+     * Records that a blob now lives in the cold tier, if it is still hot and still only referenced
+     * by documents of DISPOSED cases. The row stays locked until the caller's transaction ends, so
+     * the hot copy must be removed before it commits; an upload of the same content waits on the
+     * lock in touch() and then recreates the hot copy.
+     */
+    public boolean markCold(String contentHash) {
+        return jdbcTemplate.update(MARK_COLD_SQL, contentHash) == 1;
+    }
+}
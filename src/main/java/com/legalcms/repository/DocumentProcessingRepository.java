@@ -0,0 +1,117 @@
+package com.legalcms.repository;
+
+import com.legalcms.model.DocumentProcessingStatus;
+import lombok.RequiredArgsConstructor;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.stereotype.Repository;
+import org.springframework.transaction.annotation.Transactional;
+
+import java.time.Duration;
+import java.util.List;
+import java.util.Optional;
+
+/**
+ * Durable queue of documents to post-process (document_processing_jobs).
+ *
+ * A job is queued in the transaction that stores its document, so it exists exactly when the
+ * document does. Replicas claim due jobs with FOR UPDATE SKIP LOCKED and a lease, the same way
+ * court orders are claimed.
+ */
+@Repository
+@RequiredArgsConstructor
+public class DocumentProcessingRepository {
+
+    private static final int MAX_ERROR_LENGTH = 1000;
+
+    private static final String ENQUEUE_SQL =
+            "INSERT INTO document_processing_jobs (document_id, status, attempts, next_attempt_at, created_at, updated_at) " +
+            "VALUES (?, 'PENDING', 0, now(), now(), now()) " +
+            "ON CONFLICT (document_id) DO NOTHING";
+
+    // Documents stored before processing existed have neither a job nor processed_at
+    private static final String ENQUEUE_UNPROCESSED_SQL =
+            "INSERT INTO document_processing_jobs (document_id, status, attempts, next_attempt_at, created_at, updated_at) " +
+            "SELECT d.id, 'PENDING', 0, now(), now(), now() FROM documents d " +
+            "WHERE d.processed_at IS NULL " +
+            "AND NOT EXISTS (SELECT 1 FROM document_processing_jobs j WHERE j.document_id = d.id) " +
+            "ORDER BY d.id DESC LIMIT ? " +
+            "ON CONFLICT (document_id) DO NOTHING";
+
+    private static final String CLAIM_SQL =
+            "UPDATE document_processing_jobs j SET claimed_by = ?, claim_expires_at = now() + make_interval(secs => ?), " +
+            "updated_at = now() " +
+            "FROM (SELECT id FROM document_processing_jobs " +
+            "      WHERE status = 'PENDING' AND next_attempt_at <= now() " +
+            "      AND (claim_expires_at IS NULL OR claim_expires_at < now()) " +
+            "      ORDER BY next_attempt_at LIMIT ? FOR UPDATE SKIP LOCKED) claimable " +
+            "WHERE j.id = claimable.id RETURNING j.id, j.document_id, j.attempts";
+
+    private static final String FINISH_SQL =
+            "UPDATE document_processing_jobs SET status = ?, attempts = attempts + 1, error_message = NULL, " +
+            "claimed_by = NULL, claim_expires_at = NULL, updated_at = now() WHERE id = ?";
+
+    private static final String RETRY_SQL =
+            "UPDATE document_processing_jobs SET attempts = attempts + 1, error_message = ?, " +
+            "next_attempt_at = now() + make_interval(secs => ?), claimed_by = NULL, claim_expires_at = NULL, " +
+            "updated_at = now() WHERE id = ?";
+
+    private static final String FAIL_SQL =
+            "UPDATE document_processing_jobs SET status = 'FAILED', attempts = attempts + 1, error_message = ?, " +
+            "claimed_by = NULL, claim_expires_at = NULL, updated_at = now() WHERE id = ?";
+
+    private final JdbcTemplate jdbcTemplate;
+
+    public record ClaimedJob(Long id, Long documentId, int attempts) {
+    }
+
+    /**
+     * Queues a document for processing; must run in the transaction that stores the document.
+     */
+    public void enqueue(Long documentId) {
+        jdbcTemplate.update(ENQUEUE_SQL, documentId);
+    }
+
+    /**
+     * Queues up to {@code limit} documents that were never queued, newest first.
+     *
+     * @return documents queued
+     */
+    public int enqueueUnprocessed(int limit) {
+        return jdbcTemplate.update(ENQUEUE_UNPROCESSED_SQL, limit);
+    }
+
+    @Transactional
+    public List<ClaimedJob> claim(String nodeId, int limit, Duration lease) {
+        return jdbcTemplate.query(CLAIM_SQL,
+                (rs, rowNum) -> new ClaimedJob(rs.getLong("id"), rs.getLong("document_id"), rs.getInt("attempts")),
+                nodeId, lease.toSeconds(), limit);
+    }
+
+    /**
+     * @param status COMPLETED or SKIPPED
+     */
+    public void finish(Long jobId, DocumentProcessingStatus status) {
+        jdbcTemplate.update(FINISH_SQL, status.name(), jobId);
+    }
+
+    public void retryLater(Long jobId, String errorMessage, Duration delay) {
+        jdbcTemplate.update(RETRY_SQL, truncate(errorMessage), delay.toSeconds(), jobId);
+    }
+
+    public void fail(Long jobId, String errorMessage) {
+        jdbcTemplate.update(FAIL_SQL, truncate(errorMessage), jobId);
+    }
+
+    public Optional<DocumentProcessingStatus> findStatus(Long documentId) {
+        return jdbcTemplate.queryForList("SELECT status FROM document_processing_jobs WHERE document_id = ?",
+                        String.class, documentId)
+                .stream().findFirst().map(DocumentProcessingStatus::valueOf);
+    }
+
+    private static String truncate(String message) {
+        if (message == null || message.length() <= MAX_ERROR_LENGTH) {
+            return message;
+        }
+        return message.substring(0, MAX_ERROR_LENGTH);
+    }
+}
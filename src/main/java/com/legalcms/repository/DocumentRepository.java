@@ -3,12 +3,35 @@ package com.legalcms.repository;
 import com.legalcms.model.Document;
 import com.legalcms.model.CaseEntity;
 import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.repository.query.Param;
 import org.springframework.stereotype.Repository;
 
+import java.time.LocalDateTime;
 import java.util.List;
 
 @Repository
 public interface DocumentRepository extends JpaRepository<Document, Long> {
 
     List<Document> findByCaseEntity(CaseEntity caseEntity);
+
+    @Query("SELECT COUNT(d) AS count, MAX(d.id) AS maxId, MAX(d.uploadedAt) AS lastUploaded, " +
+            "MAX(d.processedAt) AS lastProcessed, MAX(u.updatedAt) AS uploaderLastUpdated " +
+            "FROM Document d LEFT JOIN d.uploadedBy u WHERE d.caseEntity.id = :caseId")
+    DocumentCollectionVersion findCollectionVersionByCaseId(@Param("caseId") Long caseId);
+
+    @Query("SELECT d.id FROM Document d WHERE d.caseEntity.id = :caseId AND d.contentHash = :contentHash ORDER BY d.id")
+    List<Long> findIdsByCaseIdAndContentHash(@Param("caseId") Long caseId, @Param("contentHash") String contentHash);
+
+    interface DocumentCollectionVersion {
+        Long getCount();
+
+        Long getMaxId();
+
+        LocalDateTime getLastUploaded();
+
+        LocalDateTime getLastProcessed();
+
+        LocalDateTime getUploaderLastUpdated();
+    }
 }
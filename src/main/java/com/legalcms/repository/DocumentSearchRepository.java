@@ -0,0 +1,100 @@
+package com.legalcms.repository;
+
+import com.legalcms.model.DocumentType;
+import lombok.RequiredArgsConstructor;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.stereotype.Repository;
+
+import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.List;
+
+/**
+ * Full-text search over extracted document text (document_texts.search_vector, GIN-indexed).
+ *
+ * Matches are ranked with ts_rank_cd, normalised by document length so long documents do not win
+ * by size alone, and keyset-paginated on (score, documentId). Snippets are built with ts_headline,
+ * which re-parses the text, so it only runs for the rows of the returned page.
+ */
+@Repository
+@RequiredArgsConstructor
+public class DocumentSearchRepository {
+
+    // Highlighted terms are wrapped in STX / ETX; extracted text never contains them
+    public static final char HIGHLIGHT_START = '\u0002';
+    public static final char HIGHLIGHT_END = '\u0003';
+
+    private static final String HEADLINE_OPTIONS =
+            "StartSel=\"" + HIGHLIGHT_START + "\", StopSel=\"" + HIGHLIGHT_END + "\", " +
+            "MaxFragments=3, MaxWords=25, MinWords=10, FragmentDelimiter=\" ... \"";
+
+    // The query is bound where it is used rather than in a CTE, so the planner folds it to a
+    // constant and answers @@ from the GIN index
+    private static final String SEARCH_SQL_TEMPLATE =
+            "SELECT p.document_id, p.score, d.case_id, c.case_number, d.file_name, d.document_type, " +
+            "d.uploaded_at, d.page_count, d.has_thumbnail, t.title, " +
+            "ts_headline('english', t.content, websearch_to_tsquery('english', ?), ?) AS snippet " +
+            "FROM (" +
+            "  SELECT m.document_id, m.score FROM (" +
+            "    SELECT t.document_id, ts_rank_cd(t.search_vector, websearch_to_tsquery('english', ?), 1) AS score " +
+            "    FROM document_texts t JOIN documents d ON d.id = t.document_id " +
+            "    JOIN cases c ON c.id = d.case_id " +
+            "    WHERE t.search_vector @@ websearch_to_tsquery('english', ?)%s" +
+            "  ) m " +
+            "  WHERE m.score < CAST(? AS real) OR (m.score = CAST(? AS real) AND m.document_id < ?) " +
+            "  ORDER BY m.score DESC, m.document_id DESC LIMIT ?" +
+            ") p " +
+            "JOIN document_texts t ON t.document_id = p.document_id " +
+            "JOIN documents d ON d.id = p.document_id JOIN cases c ON c.id = d.case_id " +
+            "ORDER BY p.score DESC, p.document_id DESC";
+
+    private final JdbcTemplate jdbcTemplate;
+
+    public record DocumentMatch(Long documentId, float score, Long caseId, String caseNumber, String fileName,
+                                DocumentType documentType, LocalDateTime uploadedAt, Integer pageCount,
+                                boolean hasThumbnail, String title, String snippet) {
+    }
+
+    /**
+     * Finds documents whose text matches a web-search style query ("interim stay", quoted phrases,
+     * OR, -excluded). Optional filters narrow the search to one case, one document type, or the cases
+     * assigned to one advocate. Pass afterScore greater than any rank (e.g. Float.MAX_VALUE) for the
+     * first page.
+     */
+    public List<DocumentMatch> search(String query, Long caseId, DocumentType documentType, Long advocateId,
+                                      float afterScore, long afterId, int limit) {
+        StringBuilder filters = new StringBuilder();
+        List<Object> args = new ArrayList<>(List.of(query, HEADLINE_OPTIONS, query, query));
+        if (caseId != null) {
+            filters.append(" AND d.case_id = ?");
+            args.add(caseId);
+        }
+        if (documentType != null) {
+            filters.append(" AND d.document_type = ?");
+            args.add(documentType.name());
+        }
+        if (advocateId != null) {
+            filters.append(" AND c.assigned_advocate_id = ?");
+            args.add(advocateId);
+        }
+        args.add(afterScore);
+        args.add(afterScore);
+        args.add(afterId);
+        args.add(limit);
+
+        return jdbcTemplate.query(String.format(SEARCH_SQL_TEMPLATE, filters),
+                (rs, rowNum) -> new DocumentMatch(
+                        rs.getLong("document_id"),
+                        rs.getFloat("score"),
+                        rs.getLong("case_id"),
+                        rs.getString("case_number"),
+                        rs.getString("file_name"),
+                        DocumentType.valueOf(rs.getString("document_type")),
+                        rs.getObject("uploaded_at", LocalDateTime.class),
+                        (Integer) rs.getObject("page_count"),
+                        rs.getBoolean("has_thumbnail"),
+                        rs.getString("title"),
+                        rs.getString("snippet")),
+                args.toArray());
+    }
+}
@@ -0,0 +1,77 @@
+package com.legalcms.repository;
+
+import lombok.RequiredArgsConstructor;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.stereotype.Repository;
+
+import java.sql.Array;
+import java.sql.Date;
+import java.sql.PreparedStatement;
+import java.time.LocalDate;
+import java.util.List;
+import java.util.Objects;
+
+/**
+ * Appends hearing history in bulk.
+ *
+ * A whole batch is one INSERT ... SELECT FROM unnest(...) statement; ids come from the table's
+ * sequence inside that statement, so no id round trip is needed. Rows are deduplicated by
+ * (case_id, hearing_date): a hearing already on record, or repeated within the batch, is skipped.
+ */
+@Repository
+@RequiredArgsConstructor
+public class HearingHistoryRepository {
+
+    private static final String APPEND_HEARINGS_SQL =
+            "INSERT INTO hearings (case_id, hearing_date, stage, remarks) " +
+            "SELECT v.case_id, v.hearing_date, " +
+            "COALESCE(v.stage, (SELECT c.case_stage FROM cases c WHERE c.id = v.case_id)), v.remarks " +
+            "FROM unnest(?::bigint[], ?::date[], ?::varchar[], ?::text[]) AS v(case_id, hearing_date, stage, remarks) " +
+            "WHERE EXISTS (SELECT 1 FROM cases c WHERE c.id = v.case_id) " +
+            "ON CONFLICT (case_id, hearing_date) DO NOTHING";
+
+    private final JdbcTemplate jdbcTemplate;
+
+    // A null stage records the case's current stage
+    public record HearingEntry(Long caseId, LocalDate hearingDate, String stage, String remarks) {
+    }
+
+    /**
+     * @return number of hearings actually added
+     */
+    public int appendAll(List<HearingEntry> entries) {
+        if (entries.isEmpty()) {
+            return 0;
+        }
+        Long[] caseIds = new Long[entries.size()];
+        Date[] hearingDates = new Date[entries.size()];
+        String[] stages = new String[entries.size()];
+        String[] remarks = new String[entries.size()];
+        for (int i = 0; i < entries.size(); i++) {
+            HearingEntry entry = entries.get(i);
+            caseIds[i] = entry.caseId();
+            hearingDates[i] = Date.valueOf(entry.hearingDate());
+            stages[i] = entry.stage();
+            remarks[i] = entry.remarks();
+        }
+
+        Integer inserted = jdbcTemplate.execute(APPEND_HEARINGS_SQL, (PreparedStatement ps) -> {
+            List<Array> arrays = List.of(
+                    ps.getConnection().createArrayOf("bigint", caseIds),
+                    ps.getConnection().createArrayOf("date", hearingDates),
+                    ps.getConnection().createArrayOf("varchar", stages),
+                    ps.getConnection().createArrayOf("text", remarks));
+            try {
+                for (int i = 0; i < arrays.size(); i++) {
+                    ps.setArray(i + 1, arrays.get(i));
+                }
+                return ps.executeUpdate();
+            } finally {
+                for (Array array : arrays) {
+                    array.free();
+                }
+            }
+        });
+        return Objects.requireNonNullElse(inserted, 0);
+    }
+}
@@ -3,6 +3,8 @@ package com.legalcms.repository;
 import com.legalcms.model.Hearing;
 import com.legalcms.model.CaseEntity;
 import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.repository.query.Param;
 import org.springframework.stereotype.Repository;
 
 import java.util.List;
@@ -11,4 +13,13 @@ import java.util.List;
 public interface HearingRepository extends JpaRepository<Hearing, Long> {
 
     List<Hearing> findByCaseEntityOrderByHearingDateDesc(CaseEntity caseEntity);
+
+    @Query("SELECT COUNT(h) AS count, MAX(h.id) AS maxId FROM Hearing h WHERE h.caseEntity.id = :caseId")
+    HearingCollectionVersion findCollectionVersionByCaseId(@Param("caseId") Long caseId);
+
+    interface HearingCollectionVersion {
+        Long getCount();
+
+        Long getMaxId();
+    }
 }
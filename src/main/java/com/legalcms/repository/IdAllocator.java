@@ -0,0 +1,35 @@
+package com.legalcms.repository;
+
+import lombok.RequiredArgsConstructor;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.stereotype.Repository;
+
+import java.util.List;
+import java.util.Set;
+
+/**
+ * Reserves blocks of primary keys from a table's backing sequence in one round trip,
+ * so that JDBC batch writers can assign ids (and foreign keys to them) before inserting.
+ */
+@Repository
+@RequiredArgsConstructor
+public class IdAllocator {
+
+    private static final Set<String> ALLOWED_TABLES = Set.of("cases", "parties", "hearings", "documents");
+
+    private final JdbcTemplate jdbcTemplate;
+
+    public long[] allocate(String table, int count) {
+        if (!ALLOWED_TABLES.contains(table)) {
+            throw new IllegalArgumentException("No id sequence registered for table: " + table);
+        }
+        if (count <= 0) {
+            return new long[0];
+        }
+
+        List<Long> ids = jdbcTemplate.queryForList(
+                "SELECT nextval(pg_get_serial_sequence('" + table + "', 'id')) FROM generate_series(1, ?)",
+                Long.class, count);
+        return ids.stream().mapToLong(Long::longValue).toArray();
+    }
+}
@@ -0,0 +1,119 @@
+package com.legalcms.repository;
+
+import lombok.RequiredArgsConstructor;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.stereotype.Repository;
+import org.springframework.transaction.annotation.Transactional;
+
+import java.sql.Array;
+import java.sql.PreparedStatement;
+import java.time.Duration;
+import java.util.List;
+import java.util.Objects;
+
+/**
+ * Durable queue of court orders to ingest (order_ingestion_jobs).
+ *
+ * Jobs are enqueued in bulk and idempotently per (case, URL). Replicas claim due jobs with
+ * FOR UPDATE SKIP LOCKED and a lease, the same way court sync work is claimed, so a job is
+ * downloaded by one node at a time and picked up again if that node dies.
+ */
+@Repository
+@RequiredArgsConstructor
+public class OrderIngestionRepository {
+
+    private static final int MAX_ERROR_LENGTH = 1000;
+
+    private static final String ENQUEUE_SQL =
+            "INSERT INTO order_ingestion_jobs (case_id, order_url, status, attempts, next_attempt_at, created_at, updated_at) " +
+            "SELECT v.case_id, v.order_url, 'PENDING', 0, now(), now(), now() " +
+            "FROM unnest(?::bigint[], ?::varchar[]) AS v(case_id, order_url) " +
+            "WHERE EXISTS (SELECT 1 FROM cases c WHERE c.id = v.case_id) " +
+            "ON CONFLICT (case_id, order_url) DO NOTHING";
+
+    private static final String CLAIM_SQL =
+            "UPDATE order_ingestion_jobs j SET claimed_by = ?, claim_expires_at = now() + make_interval(secs => ?), " +
+            "updated_at = now() " +
+            "FROM (SELECT id FROM order_ingestion_jobs " +
+            "      WHERE status = 'PENDING' AND next_attempt_at <= now() " +
+            "      AND (claim_expires_at IS NULL OR claim_expires_at < now()) " +
+            "      ORDER BY next_attempt_at LIMIT ? FOR UPDATE SKIP LOCKED) claimable " +
+            "WHERE j.id = claimable.id RETURNING j.id, j.case_id, j.order_url, j.attempts";
+
+    private static final String FINISH_SQL =
+            "UPDATE order_ingestion_jobs SET status = ?, document_id = ?, content_hash = ?, attempts = attempts + 1, " +
+            "error_message = NULL, claimed_by = NULL, claim_expires_at = NULL, updated_at = now() WHERE id = ?";
+
+    private static final String RETRY_SQL =
+            "UPDATE order_ingestion_jobs SET attempts = attempts + 1, error_message = ?, " +
+            "next_attempt_at = now() + make_interval(secs => ?), claimed_by = NULL, claim_expires_at = NULL, " +
+            "updated_at = now() WHERE id = ?";
+
+    private static final String FAIL_SQL =
+            "UPDATE order_ingestion_jobs SET status = 'FAILED', attempts = attempts + 1, error_message = ?, " +
+            "claimed_by = NULL, claim_expires_at = NULL, updated_at = now() WHERE id = ?";
+
+    private final JdbcTemplate jdbcTemplate;
+
+    public record OrderRequest(Long caseId, String orderUrl) {
+    }
+
+    public record ClaimedJob(Long id, Long caseId, String orderUrl, int attempts) {
+    }
+
+    /**
+     * Queues orders not seen before for their case; must run in the caller's transaction to be
+     * committed with the sync results that reported them.
+     */
+    public int enqueueAll(List<OrderRequest> orders) {
+        if (orders.isEmpty()) {
+            return 0;
+        }
+        Long[] caseIds = orders.stream().map(OrderRequest::caseId).toArray(Long[]::new);
+        String[] urls = orders.stream().map(OrderRequest::orderUrl).toArray(String[]::new);
+
+        Integer inserted = jdbcTemplate.execute(ENQUEUE_SQL, (PreparedStatement ps) -> {
+            Array caseIdArray = ps.getConnection().createArrayOf("bigint", caseIds);
+            Array urlArray = ps.getConnection().createArrayOf("varchar", urls);
+            try {
+                ps.setArray(1, caseIdArray);
+                ps.setArray(2, urlArray);
+                return ps.executeUpdate();
+            } finally {
+                caseIdArray.free();
+                urlArray.free();
+            }
+        });
+        return Objects.requireNonNullElse(inserted, 0);
+    }
+
+    @Transactional
+    public List<ClaimedJob> claim(String nodeId, int limit, Duration lease) {
+        return jdbcTemplate.query(CLAIM_SQL,
+                (rs, rowNum) -> new ClaimedJob(rs.getLong("id"), rs.getLong("case_id"), rs.getString("order_url"),
+                        rs.getInt("attempts")),
+                nodeId, lease.toSeconds(), limit);
+    }
+
+    /**
+     * @param status COMPLETED or DUPLICATE
+     */
+    public void finish(Long jobId, String status, Long documentId, String contentHash) {
+        jdbcTemplate.update(FINISH_SQL, status, documentId, contentHash, jobId);
+    }
+
+    public void retryLater(Long jobId, String errorMessage, Duration delay) {
+        jdbcTemplate.update(RETRY_SQL, truncate(errorMessage), delay.toSeconds(), jobId);
+    }
+
+    public void fail(Long jobId, String errorMessage) {
+        jdbcTemplate.update(FAIL_SQL, truncate(errorMessage), jobId);
+    }
+
+    private static String truncate(String message) {
+        if (message == null || message.length() <= MAX_ERROR_LENGTH) {
+            return message;
+        }
+        return message.substring(0, MAX_ERROR_LENGTH);
+    }
+}
@@ -2,13 +2,67 @@ package com.legalcms.repository;
 
 import com.legalcms.model.Party;
 import com.legalcms.model.CaseEntity;
+import jakarta.persistence.QueryHint;
+import org.hibernate.jpa.HibernateHints;
 import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.jpa.repository.QueryHints;
+import org.springframework.data.repository.query.Param;
 import org.springframework.stereotype.Repository;
 
+import java.util.Collection;
 import java.util.List;
+import java.util.stream.Stream;
 
 @Repository
 public interface PartyRepository extends JpaRepository<Party, Long> {
 
     List<Party> findByCaseEntity(CaseEntity caseEntity);
+
+    @Query("SELECT p FROM Party p WHERE p.caseEntity.id IN :caseIds ORDER BY p.id")
+    List<Party> findByCaseIds(@Param("caseIds") Collection<Long> caseIds);
+
+    /**
+     * Finds cases with a petitioner or respondent name containing the (lower-cased, LIKE-escaped)
+     * pattern. The LIKE predicates are served by the pg_trgm GIN indexes on lower(name); matches
+     * are collapsed to one row per case, ranked by trigram similarity to the search term and
+     * keyset-paginated on (score, caseId). Pass afterScore greater than 1 for the first page.
+     */
+    @Query(value = "SELECT m.case_id AS caseId, m.score AS score FROM (" +
+            "SELECT p.case_id, MAX(GREATEST(" +
+            "similarity(lower(p.petitioner_name), :term), " +
+            "similarity(lower(p.respondent_name), :term))) AS score " +
+            "FROM parties p " +
+            "WHERE lower(p.petitioner_name) LIKE :pattern ESCAPE '\\' " +
+            "OR lower(p.respondent_name) LIKE :pattern ESCAPE '\\' " +
+            "GROUP BY p.case_id) m " +
+            "WHERE m.score < CAST(:afterScore AS real) " +
+            "OR (m.score = CAST(:afterScore AS real) AND m.case_id < :afterId) " +
+            "ORDER BY m.score DESC, m.case_id DESC " +
+            "LIMIT :limit", nativeQuery = true)
+    List<PartyNameMatch> findCaseMatchesByPartyName(
+            @Param("term") String term,
+            @Param("pattern") String pattern,
+            @Param("afterScore") float afterScore,
+            @Param("afterId") long afterId,
+            @Param("limit") int limit);
+
+    @QueryHints(@QueryHint(name = HibernateHints.HINT_FETCH_SIZE, value = "1000"))
+    @Query("SELECT p.caseEntity.id AS caseId, p.petitionerName AS petitionerName, " +
+            "p.respondentName AS respondentName FROM Party p")
+    Stream<PartyNameRow> streamNameRows();
+
+    interface PartyNameRow {
+        Long getCaseId();
+
+        String getPetitionerName();
+
+        String getRespondentName();
+    }
+
+    interface PartyNameMatch {
+        Long getCaseId();
+
+        Float getScore();
+    }
 }
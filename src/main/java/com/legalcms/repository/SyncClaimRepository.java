@@ -0,0 +1,104 @@
+package com.legalcms.repository;
+
+import lombok.RequiredArgsConstructor;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.stereotype.Repository;
+import org.springframework.transaction.annotation.Transactional;
+
+import java.time.Duration;
+import java.util.List;
+
+/**
+ * Cluster-safe claiming of court sync work.
+ *
+ * Every replica runs the same sync loops; they split the work instead of duplicating it by
+ * claiming rows with FOR UPDATE SKIP LOCKED and stamping them with a lease. A replica that dies
+ * simply stops renewing its work: once the lease passes, the rows become claimable again and
+ * another replica steals them. Operations only one replica should perform at a time are guarded
+ * by transaction-scoped Postgres advisory locks.
+ */
+@Repository
+@RequiredArgsConstructor
+public class SyncClaimRepository {
+
+    // Advisory lock keys (arbitrary, but unique within this database)
+    public static final long RUN_LIFECYCLE_LOCK = 7_310_001L;
+    public static final long SCHEDULE_SEED_LOCK = 7_310_002L;
+
+    private static final String CLAIM_DUE_CASES_SQL =
+            "UPDATE case_sync_state s SET next_sync_due_at = now() + make_interval(secs => ?) " +
+            "FROM (SELECT st.case_id FROM case_sync_state st JOIN cases c ON c.id = st.case_id " +
+            "      WHERE st.next_sync_due_at <= now() AND c.status = 'ACTIVE' AND c.cnr_number IS NOT NULL " +
+            "      ORDER BY st.next_sync_due_at LIMIT ? FOR UPDATE OF st SKIP LOCKED) due " +
+            "WHERE s.case_id = due.case_id RETURNING s.case_id";
+
+    private static final String CLAIM_RUN_ITEMS_SQL =
+            "UPDATE court_sync_run_items i SET claimed_by = ?, claim_expires_at = now() + make_interval(secs => ?) " +
+            "FROM (SELECT it.id FROM court_sync_run_items it " +
+            "      WHERE it.run_id = ? AND it.status = 'PENDING' " +
+            "      AND (it.claim_expires_at IS NULL OR it.claim_expires_at < now()) " +
+            "      ORDER BY it.case_id LIMIT ? FOR UPDATE SKIP LOCKED) claimable " +
+            "WHERE i.id = claimable.id RETURNING i.case_id";
+
+    private static final String RELEASE_RUN_CLAIMS_SQL =
+            "UPDATE court_sync_run_items SET claimed_by = NULL, claim_expires_at = NULL " +
+            "WHERE run_id = ? AND claimed_by = ? AND status = 'PENDING'";
+
+    private static final String SEED_SCHEDULES_SQL =
+            "INSERT INTO case_sync_state (case_id, next_sync_due_at, volatility, consecutive_failures) " +
+            "SELECT c.id, now(), 0, 0 FROM cases c " +
+            "WHERE c.status = 'ACTIVE' AND c.cnr_number IS NOT NULL " +
+            "AND NOT EXISTS (SELECT 1 FROM case_sync_state s WHERE s.case_id = c.id) " +
+            "ON CONFLICT (case_id) DO NOTHING";
+
+    private final JdbcTemplate jdbcTemplate;
+
+    /**
+     * Takes up to {@code limit} of the most overdue cases off the sync queue by pushing their due
+     * time out by {@code lease}; syncing them then stores their real next due time.
+     */
+    @Transactional
+    public List<Long> claimDueCases(int limit, Duration lease) {
+        return jdbcTemplate.queryForList(CLAIM_DUE_CASES_SQL, Long.class, lease.toSeconds(), limit);
+    }
+
+    /**
+     * Claims up to {@code limit} unclaimed (or abandoned) pending checkpoints of a run for one node.
+     */
+    @Transactional
+    public List<Long> claimRunItems(Long runId, String nodeId, int limit, Duration lease) {
+        List<Long> caseIds = jdbcTemplate.queryForList(CLAIM_RUN_ITEMS_SQL, Long.class,
+                nodeId, lease.toSeconds(), runId, limit);
+        caseIds.sort(null);
+        return caseIds;
+    }
+
+    /**
+     * Hands a node's unprocessed claims back so other nodes need not wait for the lease to pass.
+     */
+    @Transactional
+    public int releaseRunClaims(Long runId, String nodeId) {
+        return jdbcTemplate.update(RELEASE_RUN_CLAIMS_SQL, runId, nodeId);
+    }
+
+    /**
+     * Gives every syncable case without a schedule one that is due immediately. Only one node seeds
+     * at a time; the others skip rather than contend on the same inserts.
+     *
+     * @return cases seeded, or 0 if another node holds the seeding lock
+     */
+    @Transactional
+    public int seedMissingSchedules() {
+        if (!tryAdvisoryXactLock(SCHEDULE_SEED_LOCK)) {
+            return 0;
+        }
+        return jdbcTemplate.update(SEED_SCHEDULES_SQL);
+    }
+
+    /**
+     * Takes a transaction-scoped advisory lock without waiting; must be called inside a transaction.
+     */
+    public boolean tryAdvisoryXactLock(long key) {
+        return Boolean.TRUE.equals(jdbcTemplate.queryForObject("SELECT pg_try_advisory_xact_lock(?)", Boolean.class, key));
+    }
+}
@@ -0,0 +1,43 @@
+package com.legalcms.repository;
+
+import lombok.RequiredArgsConstructor;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.stereotype.Repository;
+
+import java.util.List;
+
+/**
+ * Chunks received per upload session (upload_session_chunks). Re-sending a chunk replaces its record,
+ * so clients can retry any chunk safely.
+ */
+@Repository
+@RequiredArgsConstructor
+public class UploadChunkRepository {
+
+    private static final String RECORD_SQL =
+            "INSERT INTO upload_session_chunks (session_id, chunk_index, size_bytes, sha256, received_at) " +
+            "VALUES (?, ?, ?, ?, now()) " +
+            "ON CONFLICT (session_id, chunk_index) DO UPDATE SET size_bytes = EXCLUDED.size_bytes, " +
+            "sha256 = EXCLUDED.sha256, received_at = EXCLUDED.received_at";
+
+    private final JdbcTemplate jdbcTemplate;
+
+    public void record(String sessionId, int chunkIndex, long sizeBytes, String sha256) {
+        jdbcTemplate.update(RECORD_SQL, sessionId, chunkIndex, sizeBytes, sha256);
+    }
+
+    public void forget(String sessionId, int chunkIndex) {
+        jdbcTemplate.update("DELETE FROM upload_session_chunks WHERE session_id = ? AND chunk_index = ?",
+                sessionId, chunkIndex);
+    }
+
+    public List<Integer> findReceivedIndexes(String sessionId) {
+        return jdbcTemplate.queryForList(
+                "SELECT chunk_index FROM upload_session_chunks WHERE session_id = ? ORDER BY chunk_index",
+                Integer.class, sessionId);
+    }
+
+    public int deleteBySession(String sessionId) {
+        return jdbcTemplate.update("DELETE FROM upload_session_chunks WHERE session_id = ?", sessionId);
+    }
+}
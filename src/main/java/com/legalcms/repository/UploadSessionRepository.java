@@ -0,0 +1,50 @@
+package com.legalcms.repository;
+
+import com.legalcms.model.UploadSession;
+import com.legalcms.model.UploadSessionStatus;
+import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Modifying;
+import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.repository.query.Param;
+import org.springframework.stereotype.Repository;
+import org.springframework.transaction.annotation.Transactional;
+
+import java.time.LocalDateTime;
+import java.util.Collection;
+import java.util.List;
+
+@Repository
+public interface UploadSessionRepository extends JpaRepository<UploadSession, String> {
+
+    @Modifying
+    @Transactional
+    @Query("UPDATE UploadSession s SET s.status = :to, s.updatedAt = CURRENT_TIMESTAMP " +
+           "WHERE s.id = :id AND s.status = :from")
+    int transition(@Param("id") String id, @Param("from") UploadSessionStatus from,
+                   @Param("to") UploadSessionStatus to);
+
+    /**
+     * Share-locks the session row while it is open. Held by chunk writers for the duration of their
+     * write, so a status change away from OPEN (an UPDATE) waits for them; callers need a transaction.
+     */
+    @Query(value = "SELECT count(*) FROM (SELECT 1 FROM upload_sessions WHERE id = :id AND status = 'OPEN' " +
+                   "FOR SHARE) locked", nativeQuery = true)
+    int lockOpen(@Param("id") String id);
+
+    @Modifying
+    @Transactional
+    @Query("UPDATE UploadSession s SET s.expiresAt = :expiresAt, s.updatedAt = CURRENT_TIMESTAMP " +
+           "WHERE s.id = :id AND s.status = com.legalcms.model.UploadSessionStatus.OPEN")
+    int extend(@Param("id") String id, @Param("expiresAt") LocalDateTime expiresAt);
+
+    @Modifying
+    @Transactional
+    @Query("UPDATE UploadSession s SET s.status = com.legalcms.model.UploadSessionStatus.COMPLETED, " +
+           "s.documentId = :documentId, s.updatedAt = CURRENT_TIMESTAMP " +
+           "WHERE s.id = :id AND s.status = com.legalcms.model.UploadSessionStatus.FINALIZING")
+    int complete(@Param("id") String id, @Param("documentId") Long documentId);
+
+    @Query("SELECT s.id FROM UploadSession s WHERE s.status IN :statuses AND s.expiresAt < :now")
+    List<String> findExpiredIds(@Param("statuses") Collection<UploadSessionStatus> statuses,
+                                @Param("now") LocalDateTime now);
+}
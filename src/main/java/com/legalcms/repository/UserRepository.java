@@ -3,8 +3,11 @@ package com.legalcms.repository;
 import com.legalcms.model.User;
 import com.legalcms.model.UserRole;
 import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.repository.query.Param;
 import org.springframework.stereotype.Repository;
 
+import java.util.Collection;
 import java.util.List;
 import java.util.Optional;
 
@@ -18,4 +21,7 @@ public interface UserRepository extends JpaRepository<User, Long> {
     List<User> findByRole(UserRole role);
 
     List<User> findByIsActive(Boolean isActive);
+
+    @Query("SELECT u.id FROM User u WHERE u.id IN :ids AND u.role = :role")
+    List<Long> findIdsByIdInAndRole(@Param("ids") Collection<Long> ids, @Param("role") UserRole role);
 }
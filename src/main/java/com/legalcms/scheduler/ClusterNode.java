@@ -0,0 +1,40 @@
+package com.legalcms.scheduler;
+
+import com.legalcms.config.CourtSyncProperties;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.stereotype.Component;
+
+import java.net.InetAddress;
+import java.net.UnknownHostException;
+import java.util.UUID;
+
+/**
+ * Identity of this replica in court sync claims (app.court-sync.cluster.node-id, or host-pid-random).
+ */
+@Component
+@Slf4j
+public class ClusterNode {
+
+    private final String id;
+
+    public ClusterNode(CourtSyncProperties properties) {
+        String configured = properties.getCluster().getNodeId();
+        this.id = configured != null && !configured.isBlank() ? configured : generateId();
+        log.info("Court sync cluster node id: {}", id);
+    }
+
+    public String getId() {
+        return id;
+    }
+
+    private static String generateId() {
+        String host;
+        try {
+            host = InetAddress.getLocalHost().getHostName();
+        } catch (UnknownHostException e) {
+            host = "unknown-host";
+        }
+        // The random suffix keeps a restarted process from inheriting its predecessor's claims
+        return host + "-" + ProcessHandle.current().pid() + "-" + UUID.randomUUID().toString().substring(0, 8);
+    }
+}
@@ -0,0 +1,61 @@
+package com.legalcms.scheduler;
+
+import com.legalcms.config.CourtSyncProperties;
+import lombok.RequiredArgsConstructor;
+import org.springframework.stereotype.Component;
+
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Per-court rate limiter for upstream court lookups.
+ * Each court gets evenly spaced permits at its configured rate; callers either block until their
+ * slot or reserve it and come back when it is due.
+ */
+@Component
+@RequiredArgsConstructor
+public class CourtRateLimiter {
+
+    private final CourtSyncProperties properties;
+    private final Map<String, Limiter> limiters = new ConcurrentHashMap<>();
+
+    public void acquire(String courtName) throws InterruptedException {
+        long waitNanos = reserve(courtName);
+        if (waitNanos > 0) {
+            TimeUnit.NANOSECONDS.sleep(waitNanos);
+        }
+    }
+
+    /**
+     * Reserves the court's next slot without waiting for it.
+     *
+     * @return nanoseconds until the reserved slot; zero or less when it may be used right away
+     */
+    public long reserve(String courtName) {
+        String key = courtName != null ? courtName : "";
+        return limiters
+                .computeIfAbsent(key, name -> new Limiter(properties.rateFor(name)))
+                .reserve();
+    }
+
+    private static final class Limiter {
+
+        private final long intervalNanos;
+        private long nextFreeNanos = System.nanoTime();
+
+        Limiter(double permitsPerSecond) {
+            if (permitsPerSecond <= 0) {
+                throw new IllegalArgumentException("Court rate limit must be positive");
+            }
+            this.intervalNanos = (long) (TimeUnit.SECONDS.toNanos(1) / permitsPerSecond);
+        }
+
+        synchronized long reserve() {
+            long now = System.nanoTime();
+            long slot = Math.max(nextFreeNanos, now);
+            nextFreeNanos = slot + intervalNanos;
+            return slot - now;
+        }
+    }
+}
@@ -0,0 +1,308 @@
+package com.legalcms.scheduler;
+
+import com.legalcms.config.CourtSyncProperties;
+import com.legalcms.dto.CaseStatusResponse;
+import com.legalcms.event.CourtStatusChangedEvent;
+import com.legalcms.event.CourtStatusChangedEvent.FieldChange;
+import com.legalcms.model.CaseEntity;
+import com.legalcms.model.CaseSyncState;
+import com.legalcms.model.CourtSyncItemStatus;
+import com.legalcms.service.CourtIntegrationService;
+import com.legalcms.util.CourtStatusDigest;
+import jakarta.annotation.PreDestroy;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.stereotype.Component;
+
+import java.time.LocalDate;
+import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.Comparator;
+import java.util.Iterator;
+import java.util.List;
+import java.util.Objects;
+import java.util.PriorityQueue;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.RejectedExecutionException;
+import java.util.concurrent.Semaphore;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicBoolean;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.function.BooleanSupplier;
+
+/**
+ * Court Sync Engine
+ *
+ * Syncs a stream of cases concurrently:
+ * - a worker pool, shared by all runs, caps court lookups in flight (app.court-sync.max-concurrency)
+ * - each case reserves its court's next rate-limiter slot as it is read; a case whose slot is
+ *   still ahead waits in a bounded read-ahead queue on the calling thread, so workers never sleep
+ *   on the limiter and cases of other courts go ahead of it
+ * - a response whose digest matches the one stored for the case is unchanged without comparing
+ *   any field; otherwise it is diffed field by field against the case
+ * - submission blocks once the pool is saturated, so queued work stays bounded; so does reading
+ *   ahead once the read-ahead queue is full of cases waiting for their court
+ * - every outcome, with the case's next due time from SyncPriorityPolicy, is handed to a
+ *   CourtSyncWriter batch, which persists it in chunks
+ * - submission stops as soon as the caller asks it to; work already in flight still completes
+ * - progress is reported in input order: a milestone is logged once every case
+ *   before it has finished, however the workers interleave
+ */
+@Component
+@Slf4j
+public class CourtSyncEngine {
+
+    private static final int PROGRESS_EVERY = 1000;
+    // Cases read ahead per worker while they wait for their court's rate-limiter slot
+    private static final int READ_AHEAD_PER_WORKER = 16;
+
+    private final CourtIntegrationService courtIntegrationService;
+    private final CourtRateLimiter courtRateLimiter;
+    private final SyncPriorityPolicy syncPriorityPolicy;
+    private final int concurrency;
+    private final ExecutorService workers;
+
+    public CourtSyncEngine(CourtIntegrationService courtIntegrationService,
+                           CourtRateLimiter courtRateLimiter,
+                           CourtSyncProperties properties,
+                           SyncPriorityPolicy syncPriorityPolicy) {
+        this.courtIntegrationService = courtIntegrationService;
+        this.courtRateLimiter = courtRateLimiter;
+        this.syncPriorityPolicy = syncPriorityPolicy;
+        this.concurrency = Math.max(1, properties.getMaxConcurrency());
+
+        AtomicInteger threadCount = new AtomicInteger();
+        this.workers = Executors.newFixedThreadPool(concurrency, runnable -> {
+            Thread thread = new Thread(runnable, "court-sync-" + threadCount.incrementAndGet());
+            thread.setDaemon(true);
+            return thread;
+        });
+    }
+
+    /**
+     * A case read from the stream whose court's rate-limiter slot is still ahead.
+     */
+    private record Deferred(CourtSyncTask task, int index, long dueNanos) {
+    }
+
+    /**
+     * @param tasks         cases to sync with their current schedule, consumed on the calling thread
+     * @param expected      number of cases the iterator is expected to yield, for progress reporting
+     * @param batch         receives one outcome per synced case
+     * @param stopRequested checked before each submission; once true no further cases are started
+     */
+    public CourtSyncSummary sync(Iterator<CourtSyncTask> tasks, int expected, CourtSyncWriter.Batch batch,
+                                 BooleanSupplier stopRequested) {
+        long start = System.currentTimeMillis();
+        int permits = concurrency * 2;
+        Semaphore inFlight = new Semaphore(permits);
+        AtomicBoolean cancelled = new AtomicBoolean();
+        PriorityQueue<Deferred> deferred = new PriorityQueue<>(Comparator.comparingLong(Deferred::dueNanos));
+        int maxDeferred = concurrency * READ_AHEAD_PER_WORKER;
+        ProgressTracker progress = new ProgressTracker(expected);
+        int read = 0;
+        int submitted = 0;
+
+        try {
+            while (!stopRequested.getAsBoolean()) {
+                Deferred next = deferred.peek();
+                if (next != null && next.dueNanos() - System.nanoTime() <= 0) {
+                    deferred.poll();
+                    dispatch(next.task(), next.index(), batch, inFlight, cancelled, progress);
+                    submitted++;
+                } else if (deferred.size() < maxDeferred && tasks.hasNext()) {
+                    int index = read++;
+                    CourtSyncTask task = tasks.next();
+                    long waitNanos = courtRateLimiter.reserve(task.caseEntity().getCourtName());
+                    if (waitNanos <= 0) {
+                        dispatch(task, index, batch, inFlight, cancelled, progress);
+                        submitted++;
+                    } else {
+                        deferred.add(new Deferred(task, index, System.nanoTime() + waitNanos));
+                    }
+                } else if (next != null) {
+                    // Everything read ahead is waiting for its court; wait here rather than on a worker
+                    TimeUnit.NANOSECONDS.sleep(next.dueNanos() - System.nanoTime());
+                } else {
+                    break;
+                }
+            }
+            if (stopRequested.getAsBoolean()) {
+                log.info("Court sync stop requested after {} cases ({} read ahead not started); "
+                        + "waiting for cases in flight", submitted, deferred.size());
+            }
+            while (!inFlight.tryAcquire(permits, 1, TimeUnit.MINUTES)) {
+                log.info("Court sync still running: {}/{} cases finished in order", progress.contiguous(), expected);
+            }
+            inFlight.release(permits);
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+            log.warn("Court sync interrupted; skipping cases not yet started");
+            cancelled.set(true);
+            // Lookups in flight are bounded by the court client's timeouts
+            inFlight.acquireUninterruptibly(permits);
+            inFlight.release(permits);
+        }
+        batch.close();
+
+        return CourtSyncSummary.builder()
+                .total(submitted)
+                .updated(batch.getUpdated())
+                .unchanged(batch.getUnchanged())
+                .failed(batch.getFailed())
+                .writeChunks(batch.getChunks())
+                .writeStatements(batch.getStatements())
+                .durationMs(System.currentTimeMillis() - start)
+                .build();
+    }
+
+    private void dispatch(CourtSyncTask task, int index, CourtSyncWriter.Batch batch, Semaphore inFlight,
+                          AtomicBoolean cancelled, ProgressTracker progress) throws InterruptedException {
+        inFlight.acquire();
+        CaseEntity caseEntity = task.caseEntity();
+        try {
+            workers.execute(() -> {
+                try {
+                    if (!cancelled.get()) {
+                        batch.add(syncSingleCase(task));
+                    }
+                } catch (Exception e) {
+                    log.error("Failed to sync case ID: {} - {}", caseEntity.getId(), e.getMessage());
+                    batch.add(CourtSyncWriter.CaseOutcome.failed(caseEntity.getId(), null, e.getMessage(),
+                            schedule(task, caseEntity.getNextHearingDate(), CourtSyncItemStatus.FAILED)));
+                } finally {
+                    progress.complete(index);
+                    inFlight.release();
+                }
+            });
+        } catch (RejectedExecutionException e) {
+            // Application shutting down
+            inFlight.release();
+            throw e;
+        }
+    }
+
+    @PreDestroy
+    public void shutdown() {
+        workers.shutdownNow();
+    }
+
+    private CourtSyncWriter.CaseOutcome syncSingleCase(CourtSyncTask task) {
+        CaseEntity caseEntity = task.caseEntity();
+        log.debug("Syncing case ID: {} with CNR: {}", caseEntity.getId(), caseEntity.getCnrNumber());
+
+        // Fetch latest status from court system
+        long fetchStart = System.nanoTime();
+        CaseStatusResponse courtStatus;
+        try {
+            courtStatus = courtIntegrationService.fetchCaseStatus(caseEntity.getCnrNumber());
+        } catch (RuntimeException e) {
+            long latencyMs = TimeUnit.NANOSECONDS.toMillis(System.nanoTime() - fetchStart);
+            log.error("Failed to sync case ID: {} - {}", caseEntity.getId(), e.getMessage());
+            return CourtSyncWriter.CaseOutcome.failed(caseEntity.getId(), latencyMs, e.getMessage(),
+                    schedule(task, caseEntity.getNextHearingDate(), CourtSyncItemStatus.FAILED));
+        }
+        long latencyMs = TimeUnit.NANOSECONDS.toMillis(System.nanoTime() - fetchStart);
+
+        CaseSyncState state = task.state();
+        String digest = CourtStatusDigest.digest(courtStatus);
+        String lastOrderUrl = CourtStatusDigest.normalizeText(courtStatus.getLastOrderUrl());
+        LocalDate nextHearingDate = courtStatus.getNextHearingDate() != null
+                ? courtStatus.getNextHearingDate() : caseEntity.getNextHearingDate();
+
+        if (state != null && digest.equals(state.getStatusDigest())) {
+            log.debug("Court status digest unchanged for case ID: {}", caseEntity.getId());
+            return CourtSyncWriter.CaseOutcome.unchanged(caseEntity.getId(), latencyMs,
+                    schedule(task, nextHearingDate, CourtSyncItemStatus.UNCHANGED),
+                    new CourtSyncWriter.StatusObservation(caseEntity.getCnrNumber(), digest, false, lastOrderUrl, List.of()));
+        }
+
+        List<FieldChange> changes = diff(caseEntity, state, courtStatus, lastOrderUrl);
+        CourtSyncWriter.StatusObservation observation =
+                new CourtSyncWriter.StatusObservation(caseEntity.getCnrNumber(), digest, true, lastOrderUrl, changes);
+
+        // Queue the update if changes detected; the writer flushes it with its chunk
+        if (!changes.isEmpty()) {
+            log.info("Case {} - court reported changes: {}", caseEntity.getCaseNumber(), changes);
+            // Only what the court changed is written; the rest keeps the stored value, not this snapshot's
+            return CourtSyncWriter.CaseOutcome.updated(
+                caseEntity.getId(),
+                changed(changes, CourtStatusChangedEvent.Field.CASE_STAGE) ? courtStatus.getCaseStage() : null,
+                changed(changes, CourtStatusChangedEvent.Field.NEXT_HEARING_DATE) ? courtStatus.getNextHearingDate() : null,
+                latencyMs,
+                schedule(task, nextHearingDate, CourtSyncItemStatus.UPDATED),
+                observation
+            );
+        }
+
+        log.debug("No changes detected for case ID: {}", caseEntity.getId());
+        return CourtSyncWriter.CaseOutcome.unchanged(caseEntity.getId(), latencyMs,
+                schedule(task, nextHearingDate, CourtSyncItemStatus.UNCHANGED), observation);
+    }
+
+    private static boolean changed(List<FieldChange> changes, CourtStatusChangedEvent.Field field) {
+        return changes.stream().anyMatch(change -> change.field() == field);
+    }
+
+    /**
+     * Field-level diff of a court response against the stored case. Missing values in the response
+     * are not changes. The order URL is only kept in the sync state, so it is compared from the
+     * second observation on; the first one just records it.
+     */
+    private static List<FieldChange> diff(CaseEntity caseEntity, CaseSyncState state, CaseStatusResponse courtStatus,
+                                          String lastOrderUrl) {
+        List<FieldChange> changes = new ArrayList<>(3);
+        if (courtStatus.getNextHearingDate() != null &&
+            !courtStatus.getNextHearingDate().equals(caseEntity.getNextHearingDate())) {
+            changes.add(new FieldChange(CourtStatusChangedEvent.Field.NEXT_HEARING_DATE,
+                    Objects.toString(caseEntity.getNextHearingDate(), null),
+                    courtStatus.getNextHearingDate().toString()));
+        }
+        if (courtStatus.getCaseStage() != null &&
+            !courtStatus.getCaseStage().equals(caseEntity.getCaseStage())) {
+            changes.add(new FieldChange(CourtStatusChangedEvent.Field.CASE_STAGE,
+                    caseEntity.getCaseStage(), courtStatus.getCaseStage()));
+        }
+        if (state != null && state.getStatusDigest() != null && lastOrderUrl != null &&
+            !lastOrderUrl.equals(state.getLastOrderUrl())) {
+            changes.add(new FieldChange(CourtStatusChangedEvent.Field.LAST_ORDER_URL,
+                    state.getLastOrderUrl(), lastOrderUrl));
+        }
+        return changes;
+    }
+
+    private SyncPriorityPolicy.ScheduleUpdate schedule(CourtSyncTask task, LocalDate nextHearingDate,
+                                                       CourtSyncItemStatus outcome) {
+        return syncPriorityPolicy.next(task.state(), nextHearingDate, outcome, LocalDateTime.now());
+    }
+
+    /**
+     * Tracks which positions have finished and advances the contiguous completed prefix.
+     */
+    private static final class ProgressTracker {
+
+        private final boolean[] done;
+        private int contiguous;
+
+        ProgressTracker(int expected) {
+            this.done = new boolean[Math.max(0, expected)];
+        }
+
+        synchronized void complete(int index) {
+            if (index >= done.length) {
+                return;
+            }
+            done[index] = true;
+            while (contiguous < done.length && done[contiguous]) {
+                contiguous++;
+                if (contiguous % PROGRESS_EVERY == 0) {
+                    log.info("Court sync progress: first {}/{} cases finished", contiguous, done.length);
+                }
+            }
+        }
+
+        synchronized int contiguous() {
+            return contiguous;
+        }
+    }
+}
@@ -1,9 +1,9 @@
 package com.legalcms.scheduler;
 
-import com.legalcms.dto.CaseStatusResponse;
-import com.legalcms.model.CaseEntity;
-import com.legalcms.service.CaseService;
-import com.legalcms.service.CourtIntegrationService;
+import com.legalcms.dto.CourtSyncRunResponse;
+import com.legalcms.model.CourtSyncTrigger;
+import com.legalcms.service.ConflictException;
+import com.legalcms.service.CourtSyncRunService;
 import lombok.RequiredArgsConstructor;
 import lombok.extern.slf4j.Slf4j;
 import org.springframework.boot.autoconfigure.condition.ConditionalOnProperty;
@@ -11,15 +11,19 @@ import org.springframework.scheduling.annotation.Scheduled;
 import org.springframework.stereotype.Component;
 
 import java.time.LocalDateTime;
-import java.util.List;
 
 /**
  * Court Sync Scheduler
  * 
- * This scheduler runs daily to sync case data from court systems.
+ * This scheduler can run a full sweep that syncs case data from court systems.
  * It fetches the latest information for all active cases with CNR numbers.
+ * The sweep is off by default (app.court-sync.cron: "-"); cases are kept fresh
+ * continuously by IncrementalCourtSyncScheduler instead.
  * 
  * Features:
+ * - Syncs cases concurrently with per-court rate limits (see CourtSyncEngine)
+ * - Each sync is a persisted run with per-case checkpoints (see CourtSyncRunService)
+ * - Safe to run on every replica: runs are created once and their work is shared out
  * - Updates next hearing dates automatically
  * - Updates case stage/status
  * - Logs all changes for audit trail
@@ -31,87 +35,37 @@ import java.util.List;
 @ConditionalOnProperty(value = "app.court-sync.enabled", havingValue = "true", matchIfMissing = true)
 public class CourtSyncScheduler {
 
-    private final CaseService caseService;
-    private final CourtIntegrationService courtIntegrationService;
+    private final CourtSyncRunService courtSyncRunService;
 
     /**
-     * Scheduled job that runs once per day at 2 AM
-     * Cron expression: "0 0 2 * * ?" = second minute hour day month weekday
+     * Full sweep, e.g. once per day at 2 AM with cron "0 0 2 * * ?"
+     * Cron expression: second minute hour day month weekday; "-" disables it
+     * Manual runs are triggered through /api/admin/court-sync/runs
      */
-    @Scheduled(cron = "${app.court-sync.cron:0 0 2 * * ?}")
+    @Scheduled(cron = "${app.court-sync.cron:-}")
     public void syncCourtData() {
         log.info("=== Court Sync Scheduler Started at {} ===", LocalDateTime.now());
 
         try {
-            List<CaseEntity> activeCases = caseService.getActiveCasesWithCnr();
-            log.info("Found {} active cases with CNR numbers to sync", activeCases.size());
-
-            int successCount = 0;
-            int failureCount = 0;
-
-            for (CaseEntity caseEntity : activeCases) {
-                try {
-                    syncSingleCase(caseEntity);
-                    successCount++;
-                } catch (Exception e) {
-                    log.error("Failed to sync case ID: {} - {}", caseEntity.getId(), e.getMessage());
-                    failureCount++;
-                }
-            }
-
-            log.info("=== Court Sync Completed: {} successful, {} failed ===", successCount, failureCount);
-
+            CourtSyncRunResponse run = courtSyncRunService.startRun(CourtSyncTrigger.SCHEDULED, null);
+            log.info("=== Court sync run {} started for {} active cases with CNR numbers ===",
+                    run.getId(), run.getTotalCases());
+        } catch (ConflictException e) {
+            log.warn("Scheduled court sync skipped: {}", e.getMessage());
         } catch (Exception e) {
             log.error("Court sync scheduler encountered an error", e);
         }
     }
 
-    private void syncSingleCase(CaseEntity caseEntity) {
-        log.debug("Syncing case ID: {} with CNR: {}", caseEntity.getId(), caseEntity.getCnrNumber());
-
-        // Fetch latest status from court system
-        CaseStatusResponse courtStatus = courtIntegrationService.fetchCaseStatus(caseEntity.getCnrNumber());
-
-        // Check if data has changed
-        boolean hasChanges = false;
-
-        if (courtStatus.getNextHearingDate() != null && 
-            !courtStatus.getNextHearingDate().equals(caseEntity.getNextHearingDate())) {
-            log.info("Case {} - Next hearing date changed from {} to {}", 
-                    caseEntity.getCaseNumber(), 
-                    caseEntity.getNextHearingDate(), 
-                    courtStatus.getNextHearingDate());
-            hasChanges = true;
-        }
-
-        if (courtStatus.getCaseStage() != null && 
-            !courtStatus.getCaseStage().equals(caseEntity.getCaseStage())) {
-            log.info("Case {} - Stage changed from {} to {}", 
-                    caseEntity.getCaseNumber(), 
-                    caseEntity.getCaseStage(), 
-                    courtStatus.getCaseStage());
-            hasChanges = true;
-        }
-
-        // Update case if changes detected
-        if (hasChanges) {
-            caseService.updateCaseDetails(
-                caseEntity.getId(), 
-                courtStatus.getCaseStage(), 
-                courtStatus.getNextHearingDate()
-            );
-            log.info("Successfully updated case ID: {}", caseEntity.getId());
-        } else {
-            log.debug("No changes detected for case ID: {}", caseEntity.getId());
-        }
-    }
-
     /**
-     * Manual trigger endpoint for testing
-     * Can be called via admin API if needed
+     * Every node helps with the running run, if any; this also resumes a run after a restart
      */
-    public void triggerManualSync() {
-        log.info("Manual court sync triggered");
-        syncCourtData();
+    @Scheduled(fixedDelayString = "${app.court-sync.cluster.join-poll-delay-ms:30000}")
+    public void joinRunningRuns() {
+        try {
+            courtSyncRunService.joinRunningRuns();
+        } catch (Exception e) {
+            log.error("Could not join running court sync runs", e);
+        }
     }
 }
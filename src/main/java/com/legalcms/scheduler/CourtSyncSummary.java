@@ -0,0 +1,24 @@
+package com.legalcms.scheduler;
+
+import lombok.AllArgsConstructor;
+import lombok.Builder;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+/**
+ * Outcome counts of one court sync pass.
+ */
+@Data
+@NoArgsConstructor
+@AllArgsConstructor
+@Builder
+public class CourtSyncSummary {
+
+    private int total;
+    private int updated;
+    private int unchanged;
+    private int failed;
+    private int writeChunks;
+    private int writeStatements;
+    private long durationMs;
+}
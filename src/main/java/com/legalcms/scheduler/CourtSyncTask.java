@@ -0,0 +1,10 @@
+package com.legalcms.scheduler;
+
+import com.legalcms.model.CaseEntity;
+import com.legalcms.model.CaseSyncState;
+
+/**
+ * A case to sync together with its current schedule (null if it has never been scheduled).
+ */
+public record CourtSyncTask(CaseEntity caseEntity, CaseSyncState state) {
+}
@@ -0,0 +1,48 @@
+package com.legalcms.scheduler;
+
+import com.legalcms.model.CaseEntity;
+import com.legalcms.model.CaseSyncState;
+import com.legalcms.repository.CaseRepository;
+import com.legalcms.repository.CaseSyncStateRepository;
+import lombok.RequiredArgsConstructor;
+import org.springframework.stereotype.Component;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Map;
+import java.util.function.Function;
+import java.util.stream.Collectors;
+
+/**
+ * Loads a page of cases and their sync schedules with one query each.
+ */
+@Component
+@RequiredArgsConstructor
+public class CourtSyncTaskLoader {
+
+    private final CaseRepository caseRepository;
+    private final CaseSyncStateRepository caseSyncStateRepository;
+
+    /**
+     * @return tasks in the order of {@code caseIds}; ids whose case no longer exists are left out
+     */
+    public List<CourtSyncTask> load(List<Long> caseIds) {
+        if (caseIds.isEmpty()) {
+            return new ArrayList<>();
+        }
+
+        Map<Long, CaseEntity> cases = caseRepository.findAllById(caseIds).stream()
+                .collect(Collectors.toMap(CaseEntity::getId, Function.identity()));
+        Map<Long, CaseSyncState> states = caseSyncStateRepository.findAllById(caseIds).stream()
+                .collect(Collectors.toMap(CaseSyncState::getCaseId, Function.identity()));
+
+        List<CourtSyncTask> tasks = new ArrayList<>(cases.size());
+        for (Long caseId : caseIds) {
+            CaseEntity caseEntity = cases.get(caseId);
+            if (caseEntity != null) {
+                tasks.add(new CourtSyncTask(caseEntity, states.get(caseId)));
+            }
+        }
+        return tasks;
+    }
+}
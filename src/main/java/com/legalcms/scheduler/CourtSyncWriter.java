@@ -0,0 +1,521 @@
+package com.legalcms.scheduler;
+
+import com.legalcms.config.CacheConfig;
+import com.legalcms.config.CourtSyncProperties;
+import com.legalcms.config.OrderIngestionProperties;
+import com.legalcms.event.CourtStatusChangedEvent;
+import com.legalcms.model.CourtSyncItemStatus;
+import com.legalcms.repository.HearingHistoryRepository;
+import com.legalcms.repository.HearingHistoryRepository.HearingEntry;
+import com.legalcms.repository.OrderIngestionRepository;
+import lombok.RequiredArgsConstructor;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.cache.Cache;
+import org.springframework.context.ApplicationEventPublisher;
+import org.springframework.cache.CacheManager;
+import org.springframework.dao.DataAccessException;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.stereotype.Component;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import java.sql.Array;
+import java.sql.Date;
+import java.sql.PreparedStatement;
+import java.sql.SQLException;
+import java.sql.Timestamp;
+import java.time.LocalDate;
+import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Objects;
+
+/**
+ * Court Sync Writer
+ *
+ * Buffers the outcomes of a sync run and writes them in chunks:
+ * - one set-based UPDATE ... FROM unnest(...) for the cases of a chunk whose stage or hearing date changed
+ * - one set-based UPDATE of the run's checkpoints for every case in the chunk, in the same
+ *   transaction, so a case is only marked done once its result is stored
+ * - one set-based upsert of the cases' sync schedules (case_sync_state), also in that transaction
+ * - a failing chunk is retried row by row so one bad row only fails itself
+ * - the schedule upsert also stores each payload's digest, so the next sync of an unchanged case
+ *   is settled by one hash compare
+ * - a moved hearing date appends the previous hearing to the case's hearing history, batched per
+ *   chunk and deduplicated by (case, date), in the same transaction
+ * - order URLs from new payloads are queued for ingestion (order_ingestion_jobs) in the same
+ *   transaction, so no reported order is lost between sync and download
+ * - a CourtStatusChangedEvent is published per really changed case; like the cache eviction it
+ *   belongs to the chunk transaction
+ * - cached case responses are evicted once the chunk commits
+ *
+ * Obtain a {@link Batch} per run with {@link #openBatch(Long)}; workers add to it concurrently
+ * and the run closes it to flush the remainder.
+ */
+@Component
+@RequiredArgsConstructor
+@Slf4j
+public class CourtSyncWriter {
+
+    private static final int MAX_ERROR_LENGTH = 1000;
+
+    private static final String UPDATE_CASES_SQL =
+            "UPDATE cases c SET case_stage = COALESCE(v.case_stage, c.case_stage), " +
+            "next_hearing_date = COALESCE(v.next_hearing_date, c.next_hearing_date), updated_at = now() " +
+            "FROM unnest(?::bigint[], ?::varchar[], ?::date[]) AS v(id, case_stage, next_hearing_date) " +
+            "WHERE c.id = v.id";
+
+    private static final String UPDATE_CASE_SQL =
+            "UPDATE cases SET case_stage = COALESCE(?, case_stage), next_hearing_date = COALESCE(?, next_hearing_date), " +
+            "updated_at = now() WHERE id = ?";
+
+    private static final String UPDATE_ITEMS_SQL =
+            "UPDATE court_sync_run_items i SET status = v.status, latency_ms = v.latency_ms, " +
+            "error_message = v.error_message, processed_at = now() " +
+            "FROM unnest(?::bigint[], ?::varchar[], ?::bigint[], ?::varchar[]) AS v(case_id, status, latency_ms, error_message) " +
+            "WHERE i.run_id = ? AND i.case_id = v.case_id";
+
+    private static final String UPDATE_ITEM_SQL =
+            "UPDATE court_sync_run_items SET status = ?, latency_ms = ?, error_message = ?, processed_at = now() " +
+            "WHERE run_id = ? AND case_id = ?";
+
+    private static final String UPSERT_SCHEDULES_SQL =
+            "INSERT INTO case_sync_state (case_id, next_sync_due_at, last_synced_at, last_changed_at, volatility, " +
+            "consecutive_failures, status_digest, last_order_url) " +
+            "SELECT v.case_id, v.next_sync_due_at, now(), v.last_changed_at, v.volatility, v.consecutive_failures, " +
+            "v.status_digest, v.last_order_url " +
+            "FROM unnest(?::bigint[], ?::timestamp[], ?::timestamp[], ?::float8[], ?::int[], ?::varchar[], ?::varchar[]) " +
+            "AS v(case_id, next_sync_due_at, last_changed_at, volatility, consecutive_failures, status_digest, last_order_url) " +
+            "WHERE EXISTS (SELECT 1 FROM cases c WHERE c.id = v.case_id) " +
+            "ON CONFLICT (case_id) DO UPDATE SET next_sync_due_at = EXCLUDED.next_sync_due_at, " +
+            "last_synced_at = EXCLUDED.last_synced_at, last_changed_at = EXCLUDED.last_changed_at, " +
+            "volatility = EXCLUDED.volatility, consecutive_failures = EXCLUDED.consecutive_failures, " +
+            // Failed lookups carry no payload: keep the last digest so the next success still compares against it
+            "status_digest = COALESCE(EXCLUDED.status_digest, case_sync_state.status_digest), " +
+            "last_order_url = CASE WHEN EXCLUDED.status_digest IS NULL THEN case_sync_state.last_order_url " +
+            "ELSE EXCLUDED.last_order_url END";
+
+    private final JdbcTemplate jdbcTemplate;
+    private final PlatformTransactionManager transactionManager;
+    private final CacheManager cacheManager;
+    private final CourtSyncProperties properties;
+    private final ApplicationEventPublisher eventPublisher;
+    private final HearingHistoryRepository hearingHistoryRepository;
+    private final OrderIngestionRepository orderIngestionRepository;
+    private final OrderIngestionProperties orderIngestionProperties;
+
+    /**
+     * @param runId run whose checkpoints the batch advances, or null to only write case changes
+     */
+    public Batch openBatch(Long runId) {
+        return new Batch(runId, Math.max(1, properties.getWriteChunkSize()));
+    }
+
+    /**
+     * Result of syncing one case. Stage and hearing date are only written for UPDATED outcomes whose
+     * changes touch them, and each only when the court changed it (null keeps the stored value, not
+     * the possibly stale one the sync read); failed outcomes carry no observation.
+     */
+    public record CaseOutcome(Long caseId, CourtSyncItemStatus status, String caseStage, LocalDate nextHearingDate,
+                              Long latencyMs, String errorMessage, SyncPriorityPolicy.ScheduleUpdate schedule,
+                              StatusObservation observation) {
+
+        public static CaseOutcome updated(Long caseId, String caseStage, LocalDate nextHearingDate, long latencyMs,
+                                          SyncPriorityPolicy.ScheduleUpdate schedule, StatusObservation observation) {
+            return new CaseOutcome(caseId, CourtSyncItemStatus.UPDATED, caseStage, nextHearingDate, latencyMs, null,
+                    schedule, observation);
+        }
+
+        public static CaseOutcome unchanged(Long caseId, long latencyMs, SyncPriorityPolicy.ScheduleUpdate schedule,
+                                            StatusObservation observation) {
+            return new CaseOutcome(caseId, CourtSyncItemStatus.UNCHANGED, null, null, latencyMs, null, schedule, observation);
+        }
+
+        public static CaseOutcome failed(Long caseId, Long latencyMs, String errorMessage,
+                                         SyncPriorityPolicy.ScheduleUpdate schedule) {
+            return new CaseOutcome(caseId, CourtSyncItemStatus.FAILED, null, null, latencyMs, errorMessage, schedule, null);
+        }
+
+        boolean changesCase() {
+            return status == CourtSyncItemStatus.UPDATED && observation != null && observation.changes().stream()
+                    .anyMatch(change -> change.field() != CourtStatusChangedEvent.Field.LAST_ORDER_URL);
+        }
+
+        boolean hasChanges() {
+            return observation != null && !observation.changes().isEmpty();
+        }
+    }
+
+    /**
+     * What the court returned for a case: the payload digest, whether it differs from the stored one,
+     * the payload fields not stored on the case itself, and the field-level diff against what was
+     * stored before (empty when unchanged).
+     */
+    public record StatusObservation(String cnrNumber, String statusDigest, boolean newPayload, String lastOrderUrl,
+                                    List<CourtStatusChangedEvent.FieldChange> changes) {
+    }
+
+    /**
+     * Write buffer of a single sync pass.
+     */
+    public final class Batch implements AutoCloseable {
+
+        private final Long runId;
+        private final int chunkSize;
+        private List<CaseOutcome> buffer;
+        private int updated;
+        private int unchanged;
+        private int failed;
+        private int statements;
+        private int chunks;
+
+        private Batch(Long runId, int chunkSize) {
+            this.runId = runId;
+            this.chunkSize = chunkSize;
+            this.buffer = new ArrayList<>(chunkSize);
+        }
+
+        public void add(CaseOutcome outcome) {
+            List<CaseOutcome> full = null;
+            synchronized (this) {
+                buffer.add(outcome);
+                if (buffer.size() >= chunkSize) {
+                    full = buffer;
+                    buffer = new ArrayList<>(chunkSize);
+                }
+            }
+            if (full != null) {
+                flush(full);
+            }
+        }
+
+        @Override
+        public void close() {
+            List<CaseOutcome> remainder;
+            synchronized (this) {
+                remainder = buffer;
+                buffer = new ArrayList<>(0);
+            }
+            if (!remainder.isEmpty()) {
+                flush(remainder);
+            }
+        }
+
+        public synchronized int getUpdated() {
+            return updated;
+        }
+
+        public synchronized int getUnchanged() {
+            return unchanged;
+        }
+
+        public synchronized int getFailed() {
+            return failed;
+        }
+
+        public synchronized int getStatements() {
+            return statements;
+        }
+
+        public synchronized int getChunks() {
+            return chunks;
+        }
+
+        private void flush(List<CaseOutcome> chunk) {
+            List<CaseOutcome> stored = chunk;
+            int chunkStatements;
+            try {
+                chunkStatements = writeChunk(runId, chunk);
+            } catch (DataAccessException e) {
+                log.warn("Court sync chunk failed ({}), retrying {} rows individually",
+                        e.getMostSpecificCause().getMessage(), chunk.size());
+                chunkStatements = 0;
+                stored = new ArrayList<>(chunk.size());
+                for (CaseOutcome outcome : chunk) {
+                    try {
+                        chunkStatements += writeRow(runId, outcome);
+                        stored.add(outcome);
+                    } catch (DataAccessException rowError) {
+                        String message = rowError.getMostSpecificCause().getMessage();
+                        log.error("Failed to persist sync result for case ID: {} - {}", outcome.caseId(), message);
+                        CaseOutcome failure = CaseOutcome.failed(outcome.caseId(), outcome.latencyMs(),
+                                "Could not store sync result: " + message, outcome.schedule());
+                        chunkStatements += recordFailure(runId, failure);
+                        stored.add(failure);
+                    }
+                }
+            }
+            log.debug("Court sync chunk of {} rows written with {} statements", chunk.size(), chunkStatements);
+
+            synchronized (this) {
+                for (CaseOutcome outcome : stored) {
+                    switch (outcome.status()) {
+                        case UPDATED -> updated++;
+                        case UNCHANGED -> unchanged++;
+                        default -> failed++;
+                    }
+                }
+                statements += chunkStatements;
+                chunks++;
+            }
+        }
+    }
+
+    private int writeChunk(Long runId, List<CaseOutcome> chunk) {
+        List<CaseOutcome> changed = chunk.stream()
+                .filter(CaseOutcome::changesCase)
+                .toList();
+
+        Integer statements = new TransactionTemplate(transactionManager).execute(status -> {
+            int executed = 0;
+            if (!changed.isEmpty()) {
+                updateCases(changed);
+                changed.forEach(outcome -> evictCase(outcome.caseId()));
+                executed++;
+            }
+            if (runId != null) {
+                updateItems(runId, chunk);
+                executed++;
+            }
+            List<CaseOutcome> scheduled = chunk.stream().filter(outcome -> outcome.schedule() != null).toList();
+            if (!scheduled.isEmpty()) {
+                upsertSchedules(scheduled);
+                executed++;
+            }
+            List<HearingEntry> hearings = chunk.stream().flatMap(outcome -> pastHearings(outcome).stream()).toList();
+            if (!hearings.isEmpty()) {
+                hearingHistoryRepository.appendAll(hearings);
+                executed++;
+            }
+            List<OrderIngestionRepository.OrderRequest> orders = chunk.stream()
+                    .flatMap(outcome -> newOrders(outcome).stream()).toList();
+            if (!orders.isEmpty()) {
+                orderIngestionRepository.enqueueAll(orders);
+                executed++;
+            }
+            chunk.forEach(this::publishChanges);
+            return executed;
+        });
+        return Objects.requireNonNullElse(statements, 0);
+    }
+
+    private int writeRow(Long runId, CaseOutcome outcome) {
+        Integer statements = new TransactionTemplate(transactionManager).execute(status -> {
+            int executed = 0;
+            if (outcome.changesCase()) {
+                jdbcTemplate.update(UPDATE_CASE_SQL,
+                        outcome.caseStage(),
+                        outcome.nextHearingDate() != null ? Date.valueOf(outcome.nextHearingDate()) : null,
+                        outcome.caseId());
+                evictCase(outcome.caseId());
+                executed++;
+            }
+            if (runId != null) {
+                updateItem(runId, outcome);
+                executed++;
+            }
+            if (outcome.schedule() != null) {
+                upsertSchedules(List.of(outcome));
+                executed++;
+            }
+            List<HearingEntry> hearings = pastHearings(outcome);
+            if (!hearings.isEmpty()) {
+                hearingHistoryRepository.appendAll(hearings);
+                executed++;
+            }
+            List<OrderIngestionRepository.OrderRequest> orders = newOrders(outcome);
+            if (!orders.isEmpty()) {
+                orderIngestionRepository.enqueueAll(orders);
+                executed++;
+            }
+            publishChanges(outcome);
+            return executed;
+        });
+        return Objects.requireNonNullElse(statements, 0);
+    }
+
+    // Last resort for a row whose result could not be stored: record it as failed so it is not retried at once
+    private int recordFailure(Long runId, CaseOutcome failure) {
+        int executed = 0;
+        try {
+            if (runId != null) {
+                executed++;
+                updateItem(runId, failure);
+            }
+            if (failure.schedule() != null) {
+                executed++;
+                upsertSchedules(List.of(failure));
+            }
+        } catch (DataAccessException e) {
+            log.error("Failed to record sync failure for case ID: {}; it will be retried", failure.caseId());
+        }
+        return executed;
+    }
+
+    private void updateCases(List<CaseOutcome> changed) {
+        Long[] ids = new Long[changed.size()];
+        String[] stages = new String[changed.size()];
+        Date[] hearingDates = new Date[changed.size()];
+        for (int i = 0; i < changed.size(); i++) {
+            CaseOutcome outcome = changed.get(i);
+            ids[i] = outcome.caseId();
+            stages[i] = outcome.caseStage();
+            hearingDates[i] = outcome.nextHearingDate() != null ? Date.valueOf(outcome.nextHearingDate()) : null;
+        }
+
+        jdbcTemplate.execute(UPDATE_CASES_SQL, (PreparedStatement ps) -> {
+            List<Array> arrays = List.of(
+                    ps.getConnection().createArrayOf("bigint", ids),
+                    ps.getConnection().createArrayOf("varchar", stages),
+                    ps.getConnection().createArrayOf("date", hearingDates));
+            return executeWithArrays(ps, arrays);
+        });
+    }
+
+    private void updateItems(Long runId, List<CaseOutcome> chunk) {
+        Long[] caseIds = new Long[chunk.size()];
+        String[] statuses = new String[chunk.size()];
+        Long[] latencies = new Long[chunk.size()];
+        String[] errors = new String[chunk.size()];
+        for (int i = 0; i < chunk.size(); i++) {
+            CaseOutcome outcome = chunk.get(i);
+            caseIds[i] = outcome.caseId();
+            statuses[i] = outcome.status().name();
+            latencies[i] = outcome.latencyMs();
+            errors[i] = truncate(outcome.errorMessage());
+        }
+
+        jdbcTemplate.execute(UPDATE_ITEMS_SQL, (PreparedStatement ps) -> {
+            List<Array> arrays = List.of(
+                    ps.getConnection().createArrayOf("bigint", caseIds),
+                    ps.getConnection().createArrayOf("varchar", statuses),
+                    ps.getConnection().createArrayOf("bigint", latencies),
+                    ps.getConnection().createArrayOf("varchar", errors));
+            ps.setLong(arrays.size() + 1, runId);
+            return executeWithArrays(ps, arrays);
+        });
+    }
+
+    private void upsertSchedules(List<CaseOutcome> outcomes) {
+        Long[] caseIds = new Long[outcomes.size()];
+        Timestamp[] dueAt = new Timestamp[outcomes.size()];
+        Timestamp[] lastChangedAt = new Timestamp[outcomes.size()];
+        Double[] volatility = new Double[outcomes.size()];
+        Integer[] failures = new Integer[outcomes.size()];
+        String[] digests = new String[outcomes.size()];
+        String[] orderUrls = new String[outcomes.size()];
+        for (int i = 0; i < outcomes.size(); i++) {
+            CaseOutcome outcome = outcomes.get(i);
+            SyncPriorityPolicy.ScheduleUpdate schedule = outcome.schedule();
+            caseIds[i] = outcome.caseId();
+            dueAt[i] = Timestamp.valueOf(schedule.nextSyncDueAt());
+            lastChangedAt[i] = schedule.lastChangedAt() != null ? Timestamp.valueOf(schedule.lastChangedAt()) : null;
+            volatility[i] = schedule.volatility();
+            failures[i] = schedule.consecutiveFailures();
+            if (outcome.observation() != null) {
+                digests[i] = outcome.observation().statusDigest();
+                orderUrls[i] = outcome.observation().lastOrderUrl();
+            }
+        }
+
+        jdbcTemplate.execute(UPSERT_SCHEDULES_SQL, (PreparedStatement ps) -> {
+            List<Array> arrays = List.of(
+                    ps.getConnection().createArrayOf("bigint", caseIds),
+                    ps.getConnection().createArrayOf("timestamp", dueAt),
+                    ps.getConnection().createArrayOf("timestamp", lastChangedAt),
+                    ps.getConnection().createArrayOf("float8", volatility),
+                    ps.getConnection().createArrayOf("int4", failures),
+                    ps.getConnection().createArrayOf("varchar", digests),
+                    ps.getConnection().createArrayOf("varchar", orderUrls));
+            return executeWithArrays(ps, arrays);
+        });
+    }
+
+    private void updateItem(Long runId, CaseOutcome outcome) {
+        jdbcTemplate.update(UPDATE_ITEM_SQL,
+                outcome.status().name(),
+                outcome.latencyMs(),
+                truncate(outcome.errorMessage()),
+                runId,
+                outcome.caseId());
+    }
+
+    private static int executeWithArrays(PreparedStatement ps, List<Array> arrays) throws SQLException {
+        try {
+            for (int i = 0; i < arrays.size(); i++) {
+                ps.setArray(i + 1, arrays.get(i));
+            }
+            return ps.executeUpdate();
+        } finally {
+            for (Array array : arrays) {
+                array.free();
+            }
+        }
+    }
+
+    private static String truncate(String message) {
+        if (message == null || message.length() <= MAX_ERROR_LENGTH) {
+            return message;
+        }
+        return message.substring(0, MAX_ERROR_LENGTH);
+    }
+
+    /**
+     * The hearing a moved hearing date leaves behind: the previous date, at the stage the case had
+     * then (null when the stage did not change: the case's stored stage). Dates up to today were
+     * held; later ones were rescheduled before taking place.
+     */
+    private static List<HearingEntry> pastHearings(CaseOutcome outcome) {
+        if (!outcome.hasChanges()) {
+            return List.of();
+        }
+        CourtStatusChangedEvent.FieldChange hearingChange = null;
+        String stage = outcome.caseStage();
+        for (CourtStatusChangedEvent.FieldChange change : outcome.observation().changes()) {
+            if (change.field() == CourtStatusChangedEvent.Field.NEXT_HEARING_DATE) {
+                hearingChange = change;
+            } else if (change.field() == CourtStatusChangedEvent.Field.CASE_STAGE) {
+                stage = change.previousValue();
+            }
+        }
+        if (hearingChange == null || hearingChange.previousValue() == null) {
+            return List.of();
+        }
+        LocalDate previousDate = LocalDate.parse(hearingChange.previousValue());
+        String remarks = !previousDate.isAfter(LocalDate.now())
+                ? "Next hearing fixed for " + hearingChange.currentValue()
+                : "Rescheduled to " + hearingChange.currentValue();
+        return List.of(new HearingEntry(outcome.caseId(), previousDate, stage, remarks));
+    }
+
+    // Any order URL in a payload not seen before; the queue ignores orders it already has for the case
+    private List<OrderIngestionRepository.OrderRequest> newOrders(CaseOutcome outcome) {
+        StatusObservation observation = outcome.observation();
+        if (!orderIngestionProperties.isEnabled() || observation == null || !observation.newPayload()
+                || observation.lastOrderUrl() == null) {
+            return List.of();
+        }
+        return List.of(new OrderIngestionRepository.OrderRequest(outcome.caseId(), observation.lastOrderUrl()));
+    }
+
+    // Published inside the write transaction; @TransactionalEventListener consumers only see it once it commits
+    private void publishChanges(CaseOutcome outcome) {
+        if (!outcome.hasChanges()) {
+            return;
+        }
+        eventPublisher.publishEvent(CourtStatusChangedEvent.builder()
+                .caseId(outcome.caseId())
+                .cnrNumber(outcome.observation().cnrNumber())
+                .detectedAt(LocalDateTime.now())
+                .changes(outcome.observation().changes())
+                .build());
+    }
+
+    // The cache manager is transaction-aware, so this only takes effect after the chunk commits
+    private void evictCase(Long caseId) {
+        Cache cache = cacheManager.getCache(CacheConfig.CASES);
+        if (cache != null) {
+            cache.evict(caseId);
+        }
+    }
+}
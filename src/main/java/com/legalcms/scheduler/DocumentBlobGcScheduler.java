@@ -0,0 +1,31 @@
+package com.legalcms.scheduler;
+
+import com.legalcms.service.DocumentBlobGcService;
+import lombok.RequiredArgsConstructor;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnProperty;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Component;
+
+/**
+ * Document Blob GC Scheduler
+ *
+ * Runs the blob garbage collector on app.storage.gc.cron (nightly by default).
+ */
+@Component
+@RequiredArgsConstructor
+@Slf4j
+@ConditionalOnProperty(value = "app.storage.gc.enabled", havingValue = "true", matchIfMissing = true)
+public class DocumentBlobGcScheduler {
+
+    private final DocumentBlobGcService documentBlobGcService;
+
+    @Scheduled(cron = "${app.storage.gc.cron:0 30 3 * * ?}")
+    public void collectGarbage() {
+        try {
+            documentBlobGcService.collect();
+        } catch (Exception e) {
+            log.error("Blob garbage collection encountered an error", e);
+        }
+    }
+}
@@ -0,0 +1,40 @@
+package com.legalcms.scheduler;
+
+import com.legalcms.service.DocumentProcessingService;
+import lombok.RequiredArgsConstructor;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnProperty;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Component;
+
+/**
+ * Document Processing Scheduler
+ *
+ * Polls the document processing queue for jobs that were not dispatched when their document was
+ * stored (worker pool busy, node restarted, retries due) and hands them to the worker pool. Each
+ * poll also queues a batch of documents stored before processing existed.
+ */
+@Component
+@RequiredArgsConstructor
+@Slf4j
+@ConditionalOnProperty(value = "app.document-processing.enabled", havingValue = "true", matchIfMissing = true)
+public class DocumentProcessingScheduler {
+
+    private final DocumentProcessingService documentProcessingService;
+
+    @Scheduled(fixedDelayString = "${app.document-processing.poll-delay-ms:30000}")
+    public void dispatchDocuments() {
+        try {
+            int queued = documentProcessingService.enqueueBacklog();
+            if (queued > 0) {
+                log.info("Queued {} previously stored documents for processing", queued);
+            }
+            int started = documentProcessingService.dispatchDueJobs();
+            if (started > 0) {
+                log.debug("Started processing {} documents", started);
+            }
+        } catch (Exception e) {
+            log.error("Document processing poll encountered an error", e);
+        }
+    }
+}
@@ -0,0 +1,31 @@
+package com.legalcms.scheduler;
+
+import com.legalcms.service.DocumentTieringService;
+import lombok.RequiredArgsConstructor;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnProperty;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Component;
+
+/**
+ * Document Tiering Scheduler
+ *
+ * Moves documents of disposed cases to cold storage on app.storage.tiering.cron (nightly by default).
+ */
+@Component
+@RequiredArgsConstructor
+@Slf4j
+@ConditionalOnProperty(value = "app.storage.tiering.enabled", havingValue = "true", matchIfMissing = true)
+public class DocumentTieringScheduler {
+
+    private final DocumentTieringService documentTieringService;
+
+    @Scheduled(cron = "${app.storage.tiering.cron:0 0 4 * * ?}")
+    public void moveDisposedToCold() {
+        try {
+            documentTieringService.moveDisposedToCold();
+        } catch (Exception e) {
+            log.error("Document tiering encountered an error", e);
+        }
+    }
+}
@@ -0,0 +1,69 @@
+package com.legalcms.scheduler;
+
+import com.legalcms.config.CourtSyncProperties;
+import com.legalcms.repository.SyncClaimRepository;
+import com.legalcms.service.CourtSyncRunService;
+import lombok.RequiredArgsConstructor;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnExpression;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Component;
+
+import java.util.List;
+
+/**
+ * Incremental Court Sync Scheduler
+ *
+ * Drains the court sync queue continuously instead of sweeping every case once a night.
+ * case_sync_state holds each case's next due time (see SyncPriorityPolicy) and its index serves
+ * as the priority queue: every poll claims the most overdue cases, syncs them through the engine,
+ * and the writer stores their new due times with their results.
+ *
+ * Claiming skips rows other replicas are claiming and pushes the claimed cases' due time out by
+ * the claim lease, so replicas drain disjoint cases; if a replica dies mid-drain, its cases fall
+ * due again when the lease passes.
+ */
+@Component
+@RequiredArgsConstructor
+@Slf4j
+@ConditionalOnExpression("${app.court-sync.enabled:true} and ${app.court-sync.incremental.enabled:true}")
+public class IncrementalCourtSyncScheduler {
+
+    private final SyncClaimRepository syncClaimRepository;
+    private final CourtSyncTaskLoader courtSyncTaskLoader;
+    private final CourtSyncEngine courtSyncEngine;
+    private final CourtSyncWriter courtSyncWriter;
+    private final CourtSyncRunService courtSyncRunService;
+    private final CourtSyncProperties properties;
+
+    @Scheduled(fixedDelayString = "${app.court-sync.incremental.poll-delay-ms:60000}")
+    public void drainDueCases() {
+        // A full run covers every case anyway; let it finish first
+        if (courtSyncRunService.isRunInProgress()) {
+            return;
+        }
+
+        try {
+            int seeded = syncClaimRepository.seedMissingSchedules();
+            if (seeded > 0) {
+                log.info("Scheduled {} new cases for court sync", seeded);
+            }
+
+            List<Long> dueCaseIds = syncClaimRepository.claimDueCases(
+                    properties.getIncremental().getBatchSize(), properties.getCluster().getClaimLease());
+            if (dueCaseIds.isEmpty()) {
+                return;
+            }
+
+            List<CourtSyncTask> tasks = courtSyncTaskLoader.load(dueCaseIds);
+            CourtSyncSummary summary = courtSyncEngine.sync(
+                    tasks.iterator(), tasks.size(), courtSyncWriter.openBatch(null), () -> false);
+
+            log.info("Incremental court sync of {} due cases in {} ms: {} updated, {} unchanged, {} failed",
+                    summary.getTotal(), summary.getDurationMs(), summary.getUpdated(), summary.getUnchanged(),
+                    summary.getFailed());
+        } catch (Exception e) {
+            log.error("Incremental court sync encountered an error", e);
+        }
+    }
+}
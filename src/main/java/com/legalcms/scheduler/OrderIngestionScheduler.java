@@ -0,0 +1,36 @@
+package com.legalcms.scheduler;
+
+import com.legalcms.service.OrderIngestionService;
+import lombok.RequiredArgsConstructor;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnProperty;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Component;
+
+/**
+ * Order Ingestion Scheduler
+ *
+ * Polls the court order queue and hands due jobs to the download pool. Polling only claims jobs
+ * for free download slots and returns at once, so it never holds a scheduling thread for the
+ * duration of a download.
+ */
+@Component
+@RequiredArgsConstructor
+@Slf4j
+@ConditionalOnProperty(value = "app.order-ingestion.enabled", havingValue = "true", matchIfMissing = true)
+public class OrderIngestionScheduler {
+
+    private final OrderIngestionService orderIngestionService;
+
+    @Scheduled(fixedDelayString = "${app.order-ingestion.poll-delay-ms:10000}")
+    public void dispatchOrders() {
+        try {
+            int started = orderIngestionService.dispatchDueJobs();
+            if (started > 0) {
+                log.debug("Started {} court order downloads", started);
+            }
+        } catch (Exception e) {
+            log.error("Court order ingestion poll encountered an error", e);
+        }
+    }
+}
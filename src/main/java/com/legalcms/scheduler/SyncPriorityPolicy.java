@@ -0,0 +1,98 @@
+package com.legalcms.scheduler;
+
+import com.legalcms.model.CaseSyncState;
+import com.legalcms.model.CourtSyncItemStatus;
+import org.springframework.stereotype.Component;
+
+import java.time.Duration;
+import java.time.LocalDate;
+import java.time.LocalDateTime;
+import java.time.temporal.ChronoUnit;
+
+/**
+ * Decides when a case is next due for a court lookup.
+ *
+ * The base interval follows the next hearing: hours when it is imminent, a week when it is months
+ * away. Recent stage/hearing changes shorten the interval, a long quiet spell stretches it, and a
+ * failed lookup is retried with exponential backoff capped at the normal interval.
+ */
+@Component
+public class SyncPriorityPolicy {
+
+    private static final Duration MIN_INTERVAL = Duration.ofHours(1);
+    private static final Duration MAX_INTERVAL = Duration.ofDays(14);
+    private static final Duration FAILURE_BACKOFF = Duration.ofMinutes(15);
+    private static final double VOLATILITY_HALF_LIFE_DAYS = 14.0;
+    private static final long QUIET_AFTER_DAYS = 90;
+
+    /**
+     * New schedule of a case after a lookup.
+     */
+    public record ScheduleUpdate(LocalDateTime nextSyncDueAt, LocalDateTime lastChangedAt, double volatility,
+                                 int consecutiveFailures) {
+    }
+
+    public ScheduleUpdate next(CaseSyncState previous, LocalDate nextHearingDate, CourtSyncItemStatus outcome,
+                               LocalDateTime now) {
+        double volatility = decayedVolatility(previous, now);
+        LocalDateTime lastChangedAt = previous != null ? previous.getLastChangedAt() : null;
+        if (outcome == CourtSyncItemStatus.UPDATED) {
+            volatility += 1.0;
+            lastChangedAt = now;
+        }
+
+        Duration interval = baseInterval(nextHearingDate, now.toLocalDate());
+        interval = Duration.ofSeconds((long) (interval.getSeconds() / (1.0 + volatility)));
+        if (lastChangedAt == null || ChronoUnit.DAYS.between(lastChangedAt, now) > QUIET_AFTER_DAYS) {
+            interval = interval.multipliedBy(2);
+        }
+        interval = clamp(interval);
+
+        if (outcome == CourtSyncItemStatus.FAILED) {
+            int failures = (previous != null ? previous.getConsecutiveFailures() : 0) + 1;
+            Duration backoff = FAILURE_BACKOFF.multipliedBy(1L << Math.min(failures - 1, 10));
+            Duration retryIn = backoff.compareTo(interval) < 0 ? backoff : interval;
+            return new ScheduleUpdate(now.plus(retryIn), lastChangedAt, volatility, failures);
+        }
+        return new ScheduleUpdate(now.plus(interval), lastChangedAt, volatility, 0);
+    }
+
+    private static Duration baseInterval(LocalDate nextHearingDate, LocalDate today) {
+        if (nextHearingDate == null) {
+            return Duration.ofDays(3);
+        }
+        long daysUntilHearing = ChronoUnit.DAYS.between(today, nextHearingDate);
+        if (daysUntilHearing < 0) {
+            // Hearing has passed; the court should publish the next date soon
+            return Duration.ofHours(12);
+        }
+        if (daysUntilHearing <= 1) {
+            return Duration.ofHours(2);
+        }
+        if (daysUntilHearing <= 7) {
+            return Duration.ofHours(8);
+        }
+        if (daysUntilHearing <= 30) {
+            return Duration.ofDays(2);
+        }
+        return Duration.ofDays(7);
+    }
+
+    private static double decayedVolatility(CaseSyncState previous, LocalDateTime now) {
+        if (previous == null || previous.getLastSyncedAt() == null) {
+            return 0.0;
+        }
+        double daysSinceSync = Duration.between(previous.getLastSyncedAt(), now).toMinutes() / (24.0 * 60.0);
+        return previous.getVolatility() * Math.pow(0.5, Math.max(0.0, daysSinceSync) / VOLATILITY_HALF_LIFE_DAYS);
+    }
+
+    private static Duration clamp(Duration interval) {
+        if (interval.compareTo(MIN_INTERVAL) < 0) {
+            return MIN_INTERVAL;
+        }
+        if (interval.compareTo(MAX_INTERVAL) > 0) {
+            return MAX_INTERVAL;
+        }
+        return interval;
+    }
+}
@@ -0,0 +1,30 @@
+package com.legalcms.scheduler;
+
+import com.legalcms.service.ChunkedUploadService;
+import lombok.RequiredArgsConstructor;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Component;
+
+/**
+ * Upload Session Cleanup Scheduler
+ *
+ * Aborts resumable uploads that stopped receiving chunks and deletes their part files.
+ */
+@Component
+@RequiredArgsConstructor
+@Slf4j
+public class UploadSessionCleanupScheduler {
+
+    private final ChunkedUploadService chunkedUploadService;
+
+    @Scheduled(fixedDelayString = "${app.storage.upload.cleanup-poll-delay-ms:900000}",
+               initialDelayString = "${app.storage.upload.cleanup-poll-delay-ms:900000}")
+    public void cleanupAbandonedUploads() {
+        try {
+            chunkedUploadService.cleanupExpired();
+        } catch (Exception e) {
+            log.error("Upload session cleanup encountered an error", e);
+        }
+    }
+}
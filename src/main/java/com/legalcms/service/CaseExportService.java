@@ -0,0 +1,278 @@
+package com.legalcms.service;
+
+import com.fasterxml.jackson.core.JsonGenerator;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.fasterxml.jackson.databind.SequenceWriter;
+import com.fasterxml.jackson.databind.SerializationFeature;
+import com.fasterxml.jackson.dataformat.csv.CsvMapper;
+import com.fasterxml.jackson.dataformat.csv.CsvSchema;
+import com.fasterxml.jackson.datatype.jsr310.JavaTimeModule;
+import com.legalcms.dto.CaseExportRow;
+import com.legalcms.dto.CaseResponse;
+import com.legalcms.dto.PartyResponse;
+import com.legalcms.dto.UserResponse;
+import com.legalcms.model.CaseStatus;
+import com.legalcms.model.UserRole;
+import lombok.RequiredArgsConstructor;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import java.io.IOException;
+import java.io.OutputStream;
+import java.io.UncheckedIOException;
+import java.sql.Date;
+import java.sql.ResultSet;
+import java.sql.SQLException;
+import java.sql.Timestamp;
+import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.stream.Collectors;
+
+/**
+ * Case Export Service
+ *
+ * Streams cases with their advocate and parties straight from a forward-only JDBC cursor
+ * (read-only transaction + fetch size) to the response, one case at a time, so heap use
+ * does not grow with the number of cases exported.
+ */
+@Service
+@RequiredArgsConstructor
+@Slf4j
+public class CaseExportService {
+
+    public enum ExportFormat {
+        NDJSON,
+        CSV
+    }
+
+    private static final int FETCH_SIZE = 1000;
+    private static final int FLUSH_EVERY = 500;
+
+    private static final String EXPORT_SQL =
+            "SELECT c.id, c.case_title, c.case_type, c.case_number, c.cnr_number, c.court_name, " +
+            "c.next_hearing_date, c.case_stage, c.status, c.created_at, c.updated_at, " +
+            "u.id AS advocate_id, u.full_name AS advocate_name, u.email AS advocate_email, " +
+            "p.id AS party_id, p.petitioner_name, p.respondent_name " +
+            "FROM cases c " +
+            "LEFT JOIN users u ON u.id = c.assigned_advocate_id " +
+            "LEFT JOIN parties p ON p.case_id = c.id";
+
+    private final JdbcTemplate jdbcTemplate;
+    private final PlatformTransactionManager transactionManager;
+    private final ObjectMapper objectMapper;
+
+    public void exportCases(OutputStream out, ExportFormat format, CaseStatus status, String courtName,
+            LocalDateTime updatedSince) {
+        log.info("Exporting cases as {} - status: {}, court: {}, updatedSince: {}", format, status, courtName, updatedSince);
+
+        StringBuilder sql = new StringBuilder(EXPORT_SQL).append(" WHERE 1 = 1");
+        List<Object> args = new ArrayList<>();
+        if (status != null) {
+            sql.append(" AND c.status = ?");
+            args.add(status.name());
+        }
+        if (courtName != null) {
+            sql.append(" AND c.court_name = ?");
+            args.add(courtName);
+        }
+        if (updatedSince != null) {
+            sql.append(" AND c.updated_at >= ?");
+            args.add(Timestamp.valueOf(updatedSince));
+        }
+        sql.append(" ORDER BY c.id, p.id");
+
+        JdbcTemplate cursorTemplate = new JdbcTemplate(jdbcTemplate.getDataSource());
+        cursorTemplate.setFetchSize(FETCH_SIZE);
+
+        TransactionTemplate transactionTemplate = new TransactionTemplate(transactionManager);
+        transactionTemplate.setReadOnly(true);
+
+        try (CaseWriter writer = format == ExportFormat.CSV ? new CsvCaseWriter(out) : new NdjsonCaseWriter(out, objectMapper)) {
+            CaseAccumulator accumulator = new CaseAccumulator(writer);
+            transactionTemplate.executeWithoutResult(txStatus ->
+                    cursorTemplate.query(sql.toString(), accumulator::accept, args.toArray()));
+            accumulator.finish();
+            log.info("Exported {} cases", accumulator.exported);
+        } catch (IOException e) {
+            throw new UncheckedIOException("Failed to write case export", e);
+        }
+    }
+
+    /**
+     * Folds the consecutive (case, party) join rows of one case into a single CaseResponse
+     * and hands it to the writer as soon as the next case starts.
+     */
+    private static final class CaseAccumulator {
+
+        private final CaseWriter writer;
+        private CaseResponse current;
+        private long exported;
+
+        CaseAccumulator(CaseWriter writer) {
+            this.writer = writer;
+        }
+
+        void accept(ResultSet rs) throws SQLException {
+            long caseId = rs.getLong("id");
+            if (current == null || current.getId() != caseId) {
+                emitCurrent();
+                current = mapCase(rs);
+            }
+            long partyId = rs.getLong("party_id");
+            if (!rs.wasNull()) {
+                current.getParties().add(PartyResponse.builder()
+                        .id(partyId)
+                        .petitionerName(rs.getString("petitioner_name"))
+                        .respondentName(rs.getString("respondent_name"))
+                        .build());
+            }
+        }
+
+        void finish() {
+            emitCurrent();
+        }
+
+        private void emitCurrent() {
+            if (current == null) {
+                return;
+            }
+            try {
+                writer.write(current);
+                exported++;
+                if (exported % FLUSH_EVERY == 0) {
+                    writer.flush();
+                }
+            } catch (IOException e) {
+                throw new UncheckedIOException("Failed to write case export", e);
+            }
+            current = null;
+        }
+
+        private static CaseResponse mapCase(ResultSet rs) throws SQLException {
+            UserResponse advocate = null;
+            long advocateId = rs.getLong("advocate_id");
+            if (!rs.wasNull()) {
+                advocate = UserResponse.builder()
+                        .id(advocateId)
+                        .fullName(rs.getString("advocate_name"))
+                        .email(rs.getString("advocate_email"))
+                        .role(UserRole.ADVOCATE)
+                        .build();
+            }
+
+            Date nextHearingDate = rs.getDate("next_hearing_date");
+            Timestamp createdAt = rs.getTimestamp("created_at");
+            Timestamp updatedAt = rs.getTimestamp("updated_at");
+
+            return CaseResponse.builder()
+                    .id(rs.getLong("id"))
+                    .caseTitle(rs.getString("case_title"))
+                    .caseType(rs.getString("case_type"))
+                    .caseNumber(rs.getString("case_number"))
+                    .cnrNumber(rs.getString("cnr_number"))
+                    .courtName(rs.getString("court_name"))
+                    .nextHearingDate(nextHearingDate != null ? nextHearingDate.toLocalDate() : null)
+                    .caseStage(rs.getString("case_stage"))
+                    .status(CaseStatus.valueOf(rs.getString("status")))
+                    .assignedAdvocate(advocate)
+                    .parties(new ArrayList<>())
+                    .createdAt(createdAt != null ? createdAt.toLocalDateTime() : null)
+                    .updatedAt(updatedAt != null ? updatedAt.toLocalDateTime() : null)
+                    .build();
+        }
+    }
+
+    private interface CaseWriter extends AutoCloseable {
+
+        void write(CaseResponse caseResponse) throws IOException;
+
+        void flush() throws IOException;
+
+        @Override
+        void close() throws IOException;
+    }
+
+    private static final class NdjsonCaseWriter implements CaseWriter {
+
+        private final OutputStream out;
+        private final ObjectMapper objectMapper;
+
+        NdjsonCaseWriter(OutputStream out, ObjectMapper objectMapper) {
+            this.out = out;
+            this.objectMapper = objectMapper;
+        }
+
+        @Override
+        public void write(CaseResponse caseResponse) throws IOException {
+            out.write(objectMapper.writeValueAsBytes(caseResponse));
+            out.write('\n');
+        }
+
+        @Override
+        public void flush() throws IOException {
+            out.flush();
+        }
+
+        @Override
+        public void close() throws IOException {
+            out.flush();
+        }
+    }
+
+    private static final class CsvCaseWriter implements CaseWriter {
+
+        private static final CsvMapper CSV_MAPPER = CsvMapper.builder()
+                .addModule(new JavaTimeModule())
+                .disable(SerializationFeature.WRITE_DATES_AS_TIMESTAMPS)
+                .disable(JsonGenerator.Feature.AUTO_CLOSE_TARGET)
+                .build();
+
+        private final SequenceWriter sequenceWriter;
+
+        CsvCaseWriter(OutputStream out) throws IOException {
+            CsvSchema schema = CSV_MAPPER.schemaFor(CaseExportRow.class).withHeader();
+            this.sequenceWriter = CSV_MAPPER.writer(schema).writeValues(out);
+        }
+
+        @Override
+        public void write(CaseResponse caseResponse) throws IOException {
+            sequenceWriter.write(CaseExportRow.builder()
+                    .id(caseResponse.getId())
+                    .caseTitle(caseResponse.getCaseTitle())
+                    .caseType(caseResponse.getCaseType())
+                    .caseNumber(caseResponse.getCaseNumber())
+                    .cnrNumber(caseResponse.getCnrNumber())
+                    .courtName(caseResponse.getCourtName())
+                    .nextHearingDate(caseResponse.getNextHearingDate())
+                    .caseStage(caseResponse.getCaseStage())
+                    .status(caseResponse.getStatus())
+                    .advocateName(caseResponse.getAssignedAdvocate() != null
+                            ? caseResponse.getAssignedAdvocate().getFullName() : null)
+                    .advocateEmail(caseResponse.getAssignedAdvocate() != null
+                            ? caseResponse.getAssignedAdvocate().getEmail() : null)
+                    .petitioners(caseResponse.getParties().stream()
+                            .map(PartyResponse::getPetitionerName)
+                            .collect(Collectors.joining("; ")))
+                    .respondents(caseResponse.getParties().stream()
+                            .map(PartyResponse::getRespondentName)
+                            .collect(Collectors.joining("; ")))
+                    .createdAt(caseResponse.getCreatedAt())
+                    .updatedAt(caseResponse.getUpdatedAt())
+                    .build());
+        }
+
+        @Override
+        public void flush() throws IOException {
+            sequenceWriter.flush();
+        }
+
+        @Override
+        public void close() throws IOException {
+            sequenceWriter.close();
+        }
+    }
+}
@@ -0,0 +1,311 @@
+package com.legalcms.service;
+
+import com.fasterxml.jackson.core.JsonParseException;
+import com.fasterxml.jackson.databind.DeserializationFeature;
+import com.fasterxml.jackson.databind.JsonMappingException;
+import com.fasterxml.jackson.databind.MappingIterator;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.fasterxml.jackson.dataformat.csv.CsvMapper;
+import com.fasterxml.jackson.dataformat.csv.CsvParser;
+import com.fasterxml.jackson.dataformat.csv.CsvSchema;
+import com.fasterxml.jackson.datatype.jsr310.JavaTimeModule;
+import com.legalcms.dto.CaseImportError;
+import com.legalcms.dto.CaseImportResponse;
+import com.legalcms.dto.CaseRequest;
+import com.legalcms.event.CaseChangedEvent;
+import com.legalcms.model.CaseStatus;
+import com.legalcms.model.UserRole;
+import com.legalcms.repository.CaseRepository;
+import com.legalcms.repository.IdAllocator;
+import com.legalcms.repository.UserRepository;
+import jakarta.validation.ConstraintViolation;
+import jakarta.validation.Validator;
+import lombok.RequiredArgsConstructor;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.context.ApplicationEventPublisher;
+import org.springframework.dao.DataAccessException;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import java.io.IOException;
+import java.io.InputStream;
+import java.sql.Date;
+import java.sql.Timestamp;
+import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.HashSet;
+import java.util.List;
+import java.util.Objects;
+import java.util.Set;
+import java.util.stream.Collectors;
+
+/**
+ * Bulk Case Import Service
+ *
+ * Streams CSV or NDJSON rows and processes them in chunks:
+ * - validates each row and rejects duplicates within the file
+ * - resolves existing case/CNR numbers and advocates with one set-based query per chunk
+ * - reserves case ids from the cases sequence in one round trip
+ * - writes cases and parties with JDBC batch inserts, one transaction per chunk
+ *
+ * A failing chunk is retried row by row so one bad row only rejects itself.
+ */
+@Service
+@RequiredArgsConstructor
+@Slf4j
+public class CaseImportService {
+
+    public enum ImportFormat {
+        CSV,
+        NDJSON
+    }
+
+    private static final int CHUNK_SIZE = 500;
+    private static final int MAX_REPORTED_ERRORS = 1000;
+
+    private static final String INSERT_CASE_SQL =
+            "INSERT INTO cases (id, case_title, case_type, case_number, cnr_number, court_name, " +
+            "next_hearing_date, case_stage, status, assigned_advocate_id, created_at, updated_at) " +
+            "VALUES (?, ?, ?, ?, ?, ?, ?, ?, ?, ?, ?, ?)";
+
+    private static final String INSERT_PARTY_SQL =
+            "INSERT INTO parties (case_id, petitioner_name, respondent_name) VALUES (?, ?, ?)";
+
+    private final UserRepository userRepository;
+    private final CaseRepository caseRepository;
+    private final IdAllocator idAllocator;
+    private final JdbcTemplate jdbcTemplate;
+    private final PlatformTransactionManager transactionManager;
+    private final ApplicationEventPublisher eventPublisher;
+    private final ObjectMapper objectMapper;
+    private final Validator validator;
+
+    public CaseImportResponse importCases(InputStream input, ImportFormat format) {
+        log.info("Starting bulk case import ({})", format);
+
+        CaseImportResponse report = new CaseImportResponse();
+        Set<String> seenCaseNumbers = new HashSet<>();
+        Set<String> seenCnrNumbers = new HashSet<>();
+        List<ImportRow> chunk = new ArrayList<>(CHUNK_SIZE);
+        long rowNumber = 0;
+
+        try (MappingIterator<CaseRequest> rows = openReader(input, format)) {
+            while (true) {
+                CaseRequest request;
+                try {
+                    if (!rows.hasNextValue()) {
+                        break;
+                    }
+                    rowNumber++;
+                    request = rows.nextValue();
+                } catch (JsonParseException e) {
+                    // Malformed input: the parser cannot resynchronize, so stop here
+                    reportError(report, rowNumber, null, "Malformed input, import stopped: " + e.getOriginalMessage());
+                    break;
+                } catch (JsonMappingException e) {
+                    reportError(report, rowNumber, null, "Invalid value: " + e.getOriginalMessage());
+                    continue;
+                }
+
+                normalize(request);
+                String validationError = validate(request);
+                if (validationError != null) {
+                    reportError(report, rowNumber, request.getCaseNumber(), validationError);
+                    continue;
+                }
+                if (!seenCaseNumbers.add(request.getCaseNumber())) {
+                    reportError(report, rowNumber, request.getCaseNumber(), "Duplicate case number in import");
+                    continue;
+                }
+                if (request.getCnrNumber() != null && !seenCnrNumbers.add(request.getCnrNumber())) {
+                    reportError(report, rowNumber, request.getCaseNumber(), "Duplicate CNR number in import");
+                    continue;
+                }
+
+                chunk.add(new ImportRow(rowNumber, request));
+                if (chunk.size() >= CHUNK_SIZE) {
+                    flushChunk(chunk, report);
+                    chunk.clear();
+                }
+            }
+            flushChunk(chunk, report);
+        } catch (IOException e) {
+            log.error("Error reading import stream", e);
+            throw new RuntimeException("Failed to read import data: " + e.getMessage());
+        }
+
+        report.setTotalRows(rowNumber);
+        log.info("Bulk case import finished: {} rows, {} imported, {} failed",
+                rowNumber, report.getImportedRows(), report.getFailedRows());
+        return report;
+    }
+
+    private void flushChunk(List<ImportRow> chunk, CaseImportResponse report) {
+        if (chunk.isEmpty()) {
+            return;
+        }
+
+        Set<String> existingCaseNumbers = new HashSet<>(caseRepository.findExistingCaseNumbers(
+                chunk.stream().map(row -> row.request.getCaseNumber()).collect(Collectors.toList())));
+
+        List<String> cnrNumbers = chunk.stream()
+                .map(row -> row.request.getCnrNumber())
+                .filter(Objects::nonNull)
+                .collect(Collectors.toList());
+        Set<String> existingCnrNumbers = cnrNumbers.isEmpty()
+                ? Set.of()
+                : new HashSet<>(caseRepository.findExistingCnrNumbers(cnrNumbers));
+
+        Set<Long> advocateIds = chunk.stream()
+                .map(row -> row.request.getAssignedAdvocateId())
+                .filter(Objects::nonNull)
+                .collect(Collectors.toSet());
+        Set<Long> validAdvocateIds = advocateIds.isEmpty()
+                ? Set.of()
+                : new HashSet<>(userRepository.findIdsByIdInAndRole(advocateIds, UserRole.ADVOCATE));
+
+        List<ImportRow> accepted = new ArrayList<>(chunk.size());
+        for (ImportRow row : chunk) {
+            CaseRequest request = row.request;
+            if (existingCaseNumbers.contains(request.getCaseNumber())) {
+                reportError(report, row.rowNumber, request.getCaseNumber(), "Case number already exists");
+            } else if (request.getCnrNumber() != null && existingCnrNumbers.contains(request.getCnrNumber())) {
+                reportError(report, row.rowNumber, request.getCaseNumber(), "CNR number already exists");
+            } else if (request.getAssignedAdvocateId() != null
+                    && !validAdvocateIds.contains(request.getAssignedAdvocateId())) {
+                reportError(report, row.rowNumber, request.getCaseNumber(), "Assigned advocate not found or not an advocate");
+            } else {
+                accepted.add(row);
+            }
+        }
+
+        try {
+            insertRows(accepted);
+            report.setImportedRows(report.getImportedRows() + accepted.size());
+        } catch (DataAccessException e) {
+            log.warn("Import chunk failed ({}), retrying {} rows individually", e.getMessage(), accepted.size());
+            for (ImportRow row : accepted) {
+                try {
+                    insertRows(List.of(row));
+                    report.setImportedRows(report.getImportedRows() + 1);
+                } catch (DataAccessException rowError) {
+                    reportError(report, row.rowNumber, row.request.getCaseNumber(),
+                            "Database rejected row: " + rowError.getMostSpecificCause().getMessage());
+                }
+            }
+        }
+    }
+
+    private void insertRows(List<ImportRow> rows) {
+        if (rows.isEmpty()) {
+            return;
+        }
+
+        new TransactionTemplate(transactionManager).executeWithoutResult(status -> {
+            long[] caseIds = idAllocator.allocate("cases", rows.size());
+            Timestamp now = Timestamp.valueOf(LocalDateTime.now());
+
+            List<Object[]> caseArgs = new ArrayList<>(rows.size());
+            List<Object[]> partyArgs = new ArrayList<>(rows.size());
+            for (int i = 0; i < rows.size(); i++) {
+                CaseRequest request = rows.get(i).request;
+                caseArgs.add(new Object[]{
+                        caseIds[i],
+                        request.getCaseTitle(),
+                        request.getCaseType(),
+                        request.getCaseNumber(),
+                        request.getCnrNumber(),
+                        request.getCourtName(),
+                        request.getNextHearingDate() != null ? Date.valueOf(request.getNextHearingDate()) : null,
+                        request.getCaseStage(),
+                        request.getStatus().name(),
+                        request.getAssignedAdvocateId(),
+                        now,
+                        now
+                });
+                if (request.getPetitionerName() != null && request.getRespondentName() != null) {
+                    partyArgs.add(new Object[]{caseIds[i], request.getPetitionerName(), request.getRespondentName()});
+                }
+            }
+
+            jdbcTemplate.batchUpdate(INSERT_CASE_SQL, caseArgs);
+            if (!partyArgs.isEmpty()) {
+                jdbcTemplate.batchUpdate(INSERT_PARTY_SQL, partyArgs);
+            }
+
+            for (int i = 0; i < rows.size(); i++) {
+                CaseRequest request = rows.get(i).request;
+                List<String> partyNames = new ArrayList<>();
+                if (request.getPetitionerName() != null && request.getRespondentName() != null) {
+                    partyNames.add(request.getPetitionerName());
+                    partyNames.add(request.getRespondentName());
+                }
+                eventPublisher.publishEvent(CaseChangedEvent.builder()
+                        .caseId(caseIds[i])
+                        .changeType(CaseChangedEvent.ChangeType.CREATED)
+                        .caseNumber(request.getCaseNumber())
+                        .cnrNumber(request.getCnrNumber())
+                        .caseTitle(request.getCaseTitle())
+                        .partyNames(partyNames)
+                        .build());
+            }
+        });
+    }
+
+    private MappingIterator<CaseRequest> openReader(InputStream input, ImportFormat format) throws IOException {
+        if (format == ImportFormat.CSV) {
+            CsvMapper csvMapper = CsvMapper.builder()
+                    .addModule(new JavaTimeModule())
+                    .enable(CsvParser.Feature.EMPTY_STRING_AS_NULL)
+                    .enable(CsvParser.Feature.TRIM_SPACES)
+                    .disable(DeserializationFeature.FAIL_ON_UNKNOWN_PROPERTIES)
+                    .build();
+            return csvMapper.readerFor(CaseRequest.class)
+                    .with(CsvSchema.emptySchema().withHeader())
+                    .readValues(input);
+        }
+        return objectMapper.readerFor(CaseRequest.class).readValues(input);
+    }
+
+    private void normalize(CaseRequest request) {
+        request.setCnrNumber(blankToNull(request.getCnrNumber()));
+        request.setPetitionerName(blankToNull(request.getPetitionerName()));
+        request.setRespondentName(blankToNull(request.getRespondentName()));
+        if (request.getStatus() == null) {
+            request.setStatus(CaseStatus.ACTIVE);
+        }
+    }
+
+    private String validate(CaseRequest request) {
+        Set<ConstraintViolation<CaseRequest>> violations = validator.validate(request);
+        if (violations.isEmpty()) {
+            return null;
+        }
+        return violations.stream()
+                .map(ConstraintViolation::getMessage)
+                .sorted()
+                .collect(Collectors.joining("; "));
+    }
+
+    private void reportError(CaseImportResponse report, long rowNumber, String caseNumber, String message) {
+        report.setFailedRows(report.getFailedRows() + 1);
+        if (report.getErrors().size() < MAX_REPORTED_ERRORS) {
+            report.getErrors().add(CaseImportError.builder()
+                    .rowNumber(rowNumber)
+                    .caseNumber(caseNumber)
+                    .message(message)
+                    .build());
+        } else {
+            report.setErrorsTruncated(true);
+        }
+    }
+
+    private static String blankToNull(String value) {
+        return value == null || value.isBlank() ? null : value.trim();
+    }
+
+    private record ImportRow(long rowNumber, CaseRequest request) {
+    }
+}
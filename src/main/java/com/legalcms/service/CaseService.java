@@ -1,19 +1,37 @@
 package com.legalcms.service;
 
+import com.legalcms.config.CacheConfig;
 import com.legalcms.dto.CaseRequest;
 import com.legalcms.dto.CaseResponse;
+import com.legalcms.dto.CaseSuggestionResponse;
+import com.legalcms.dto.CursorPageResponse;
 import com.legalcms.dto.PartyResponse;
 import com.legalcms.dto.UserResponse;
+import com.legalcms.event.CaseChangedEvent;
 import com.legalcms.model.*;
 import com.legalcms.repository.CaseRepository;
 import com.legalcms.repository.PartyRepository;
 import com.legalcms.repository.UserRepository;
+import com.legalcms.util.CursorUtil;
+import com.legalcms.util.ETagUtil;
+import com.legalcms.util.ResourceVersion;
 import lombok.RequiredArgsConstructor;
 import lombok.extern.slf4j.Slf4j;
+import org.springframework.cache.annotation.CacheEvict;
+import org.springframework.cache.annotation.Cacheable;
+import org.springframework.context.ApplicationEventPublisher;
+import org.springframework.data.domain.PageRequest;
 import org.springframework.stereotype.Service;
 import org.springframework.transaction.annotation.Transactional;
 
+import java.time.LocalDate;
+import java.util.ArrayList;
+import java.util.Collections;
 import java.util.List;
+import java.util.Locale;
+import java.util.Map;
+import java.util.Objects;
+import java.util.function.Function;
 import java.util.stream.Collectors;
 
 @Service
@@ -24,6 +42,8 @@ public class CaseService {
     private final CaseRepository caseRepository;
     private final UserRepository userRepository;
     private final PartyRepository partyRepository;
+    private final CaseSuggestionIndex caseSuggestionIndex;
+    private final ApplicationEventPublisher eventPublisher;
 
     @Transactional
     public CaseResponse createCase(CaseRequest request) {
@@ -64,58 +84,161 @@ public class CaseService {
                     .petitionerName(request.getPetitionerName())
                     .respondentName(request.getRespondentName())
                     .build();
-            partyRepository.save(party);
+            caseEntity.getParties().add(partyRepository.save(party));
         }
 
+        publishCaseChanged(caseEntity, CaseChangedEvent.ChangeType.CREATED);
         log.info("Case created successfully with ID: {}", caseEntity.getId());
         return mapToCaseResponse(caseEntity);
     }
 
     @Transactional(readOnly = true)
-    public List<CaseResponse> getAllCases() {
-        log.info("Fetching all cases");
-        List<CaseEntity> cases = caseRepository.findAll();
-        return cases.stream()
-                .map(this::mapToCaseResponse)
-                .collect(Collectors.toList());
+    public CursorPageResponse<CaseResponse> getAllCases(CaseStatus status, String courtName, Long advocateId,
+            String cursor, Integer size) {
+        log.info("Fetching cases page - status: {}, court: {}, advocateId: {}", status, courtName, advocateId);
+        int pageSize = CursorUtil.resolvePageSize(size);
+        List<CaseEntity> cases = caseRepository.findPage(status, courtName, advocateId,
+                CursorUtil.decodeId(cursor), PageRequest.of(0, pageSize + 1));
+        return toCursorPage(cases, pageSize);
     }
 
     @Transactional(readOnly = true)
-    public List<CaseResponse> getMyCases(String email) {
+    public CursorPageResponse<CaseResponse> getMyCases(String email, CaseStatus status, String courtName,
+            String cursor, Integer size) {
         log.info("Fetching cases for advocate: {}", email);
         User advocate = userRepository.findByEmail(email)
                 .orElseThrow(() -> new RuntimeException("User not found"));
 
-        List<CaseEntity> cases = caseRepository.findByAssignedAdvocate(advocate);
-        return cases.stream()
-                .map(this::mapToCaseResponse)
-                .collect(Collectors.toList());
+        int pageSize = CursorUtil.resolvePageSize(size);
+        List<CaseEntity> cases = caseRepository.findPage(status, courtName, advocate.getId(),
+                CursorUtil.decodeId(cursor), PageRequest.of(0, pageSize + 1));
+        return toCursorPage(cases, pageSize);
+    }
+
+    @Transactional(readOnly = true)
+    public ResourceVersion getCaseVersion(Long caseId) {
+        CaseRepository.CaseVersion version = caseRepository.findVersionById(caseId)
+                .orElseThrow(() -> new RuntimeException("Case not found with ID: " + caseId));
+        return new ResourceVersion(
+                ETagUtil.strongETag("case", version.getId(), version.getUpdatedAt(), version.getAdvocateUpdatedAt()),
+                ETagUtil.latest(version.getUpdatedAt(), version.getAdvocateUpdatedAt()));
+    }
+
+    /**
+     * Version of one page of the case listing. Any change to a case matching the filters
+     * (including inserts and deletes, via count and max id) changes the ETag of every page, and
+     * so does an edit to one of their advocates, whose name and email are part of each item.
+     */
+    @Transactional(readOnly = true)
+    public ResourceVersion getCasesVersion(CaseStatus status, String courtName, Long advocateId,
+            String cursor, Integer size) {
+        CaseRepository.CaseCollectionVersion version =
+                caseRepository.findCollectionVersion(status, courtName, advocateId);
+        return new ResourceVersion(
+                ETagUtil.strongETag("cases", status, courtName, advocateId, cursor,
+                        CursorUtil.resolvePageSize(size), version.getCount(), version.getMaxId(),
+                        version.getLastUpdated(), version.getAdvocateLastUpdated()),
+                ETagUtil.latest(version.getLastUpdated(), version.getAdvocateLastUpdated()));
+    }
+
+    @Transactional(readOnly = true)
+    public ResourceVersion getMyCasesVersion(String email, CaseStatus status, String courtName,
+            String cursor, Integer size) {
+        User advocate = userRepository.findByEmail(email)
+                .orElseThrow(() -> new RuntimeException("User not found"));
+        return getCasesVersion(status, courtName, advocate.getId(), cursor, size);
+    }
+
+    public List<CaseSuggestionResponse> suggestCases(String query, Integer limit) {
+        if (query == null || query.isBlank()) {
+            return new ArrayList<>();
+        }
+        return caseSuggestionIndex.suggest(query, limit != null ? limit : 10);
     }
 
+    @Cacheable(cacheNames = CacheConfig.CASES, key = "#caseId")
     @Transactional(readOnly = true)
     public CaseResponse getCaseById(Long caseId) {
         log.info("Fetching case by ID: {}", caseId);
-        CaseEntity caseEntity = caseRepository.findById(caseId)
+        CaseEntity caseEntity = caseRepository.findWithAdvocateById(caseId)
                 .orElseThrow(() -> new RuntimeException("Case not found with ID: " + caseId));
         return mapToCaseResponse(caseEntity);
     }
 
     @Transactional(readOnly = true)
-    public List<CaseResponse> searchCases(String caseNumber, String cnrNumber, String partyName) {
+    public CursorPageResponse<CaseResponse> searchCases(String caseNumber, String cnrNumber, String partyName,
+            String cursor, Integer size) {
         log.info("Searching cases with params - caseNumber: {}, cnrNumber: {}, partyName: {}",
                 caseNumber, cnrNumber, partyName);
 
-        List<CaseEntity> cases;
+        int pageSize = CursorUtil.resolvePageSize(size);
 
-        if (partyName != null && !partyName.isEmpty()) {
-            cases = caseRepository.findByPartyName(partyName);
-        } else {
-            cases = caseRepository.searchCases(caseNumber, cnrNumber, null);
+        if (partyName != null && !partyName.isBlank()) {
+            return searchByPartyName(partyName.trim(), cursor, pageSize);
         }
 
-        return cases.stream()
-                .map(this::mapToCaseResponse)
+        List<CaseEntity> cases = caseRepository.searchCases(caseNumber, cnrNumber, null,
+                CursorUtil.decodeId(cursor), PageRequest.of(0, pageSize + 1));
+        return toCursorPage(cases, pageSize);
+    }
+
+    /**
+     * Party-name search ordered by relevance. Matching runs against the trigram indexes on
+     * parties and yields one row per case, so the page is filled with distinct cases.
+     */
+    private CursorPageResponse<CaseResponse> searchByPartyName(String partyName, String cursor, int pageSize) {
+        String term = partyName.toLowerCase(Locale.ROOT);
+        String pattern = "%" + escapeLikePattern(term) + "%";
+
+        CursorUtil.ScoredCursor after = CursorUtil.decodeScored(cursor);
+        float afterScore = after != null ? after.score() : Float.MAX_VALUE;
+        long afterId = after != null ? after.id() : Long.MAX_VALUE;
+
+        List<PartyRepository.PartyNameMatch> matches = partyRepository.findCaseMatchesByPartyName(
+                term, pattern, afterScore, afterId, pageSize + 1);
+
+        boolean hasMore = matches.size() > pageSize;
+        List<PartyRepository.PartyNameMatch> pageMatches = hasMore ? matches.subList(0, pageSize) : matches;
+
+        List<Long> caseIds = pageMatches.stream()
+                .map(PartyRepository.PartyNameMatch::getCaseId)
                 .collect(Collectors.toList());
+        Map<Long, CaseEntity> casesById = caseRepository.findAllWithAdvocateByIdIn(caseIds).stream()
+                .collect(Collectors.toMap(CaseEntity::getId, Function.identity()));
+        List<CaseEntity> rankedCases = caseIds.stream()
+                .map(casesById::get)
+                .filter(Objects::nonNull)
+                .collect(Collectors.toList());
+
+        PartyRepository.PartyNameMatch last = pageMatches.isEmpty() ? null : pageMatches.get(pageMatches.size() - 1);
+        List<CaseResponse> items = mapToCaseResponses(rankedCases);
+
+        return CursorPageResponse.<CaseResponse>builder()
+                .items(items)
+                .size(items.size())
+                .hasMore(hasMore)
+                .nextCursor(hasMore ? CursorUtil.encodeScored(last.getScore(), last.getCaseId()) : null)
+                .build();
+    }
+
+    private static String escapeLikePattern(String value) {
+        return value.replace("\\", "\\\\")
+                .replace("%", "\\%")
+                .replace("_", "\\_");
+    }
+
+    @Transactional(readOnly = true)
+    public CursorPageResponse<CaseResponse> getCasesWithHearingsBetween(LocalDate startDate, LocalDate endDate,
+            String cursor, Integer size) {
+        log.info("Fetching cases with hearings between {} and {}", startDate, endDate);
+        if (startDate.isAfter(endDate)) {
+            throw new IllegalArgumentException("Start date must not be after end date");
+        }
+
+        int pageSize = CursorUtil.resolvePageSize(size);
+        List<CaseEntity> cases = caseRepository.findCasesWithHearingsBetween(startDate, endDate,
+                CursorUtil.decodeId(cursor), PageRequest.of(0, pageSize + 1));
+        return toCursorPage(cases, pageSize);
     }
 
     @Transactional(readOnly = true)
@@ -123,6 +246,7 @@ public class CaseService {
         return caseRepository.findByStatusAndCnrNumberIsNotNull(CaseStatus.ACTIVE);
     }
 
+    @CacheEvict(cacheNames = CacheConfig.CASES, key = "#caseId")
     @Transactional
     public CaseResponse updateCase(Long caseId, CaseRequest request) {
         log.info("Updating case ID: {}", caseId);
@@ -139,10 +263,12 @@ public class CaseService {
         caseEntity.setStatus(request.getStatus());
 
         caseEntity = caseRepository.save(caseEntity);
+        publishCaseChanged(caseEntity, CaseChangedEvent.ChangeType.UPDATED);
         log.info("Case updated successfully with ID: {}", caseId);
         return mapToCaseResponse(caseEntity);
     }
 
+    @CacheEvict(cacheNames = CacheConfig.CASES, key = "#caseId")
     @Transactional
     public void deleteCase(Long caseId) {
         log.info("Deleting case ID: {}", caseId);
@@ -150,11 +276,16 @@ public class CaseService {
             throw new RuntimeException("Case not found");
         }
         caseRepository.deleteById(caseId);
+        eventPublisher.publishEvent(CaseChangedEvent.builder()
+                .caseId(caseId)
+                .changeType(CaseChangedEvent.ChangeType.DELETED)
+                .build());
         log.info("Case deleted successfully with ID: {}", caseId);
     }
 
+    @CacheEvict(cacheNames = CacheConfig.CASES, key = "#caseId")
     @Transactional
-    public void updateCaseDetails(Long caseId, String caseStage, java.time.LocalDate nextHearingDate) {
+    public void updateCaseDetails(Long caseId, String caseStage, LocalDate nextHearingDate) {
         log.info("Updating case ID: {} with stage: {} and hearing date: {}", caseId, caseStage, nextHearingDate);
         CaseEntity caseEntity = caseRepository.findById(caseId)
                 .orElseThrow(() -> new RuntimeException("Case not found"));
@@ -164,7 +295,68 @@ public class CaseService {
         caseRepository.save(caseEntity);
     }
 
+    private void publishCaseChanged(CaseEntity caseEntity, CaseChangedEvent.ChangeType changeType) {
+        List<String> partyNames = new ArrayList<>();
+        for (Party party : caseEntity.getParties()) {
+            partyNames.add(party.getPetitionerName());
+            partyNames.add(party.getRespondentName());
+        }
+
+        eventPublisher.publishEvent(CaseChangedEvent.builder()
+                .caseId(caseEntity.getId())
+                .changeType(changeType)
+                .caseNumber(caseEntity.getCaseNumber())
+                .cnrNumber(caseEntity.getCnrNumber())
+                .caseTitle(caseEntity.getCaseTitle())
+                .partyNames(partyNames)
+                .build());
+    }
+
+    /**
+     * Builds a page from a keyset query that fetched pageSize + 1 rows ordered by id descending;
+     * the extra row only signals that another page exists. Callers must have fetched the
+     * assigned advocate with the page so that mapping issues no further per-case queries.
+     */
+    private CursorPageResponse<CaseResponse> toCursorPage(List<CaseEntity> cases, int pageSize) {
+        boolean hasMore = cases.size() > pageSize;
+        List<CaseEntity> pageCases = hasMore ? cases.subList(0, pageSize) : cases;
+
+        List<CaseResponse> items = mapToCaseResponses(pageCases);
+
+        return CursorPageResponse.<CaseResponse>builder()
+                .items(items)
+                .size(items.size())
+                .hasMore(hasMore)
+                .nextCursor(hasMore ? CursorUtil.encodeId(pageCases.get(pageCases.size() - 1).getId()) : null)
+                .build();
+    }
+
+    /**
+     * Maps a batch of cases, loading the parties of the whole batch in a single query
+     * instead of initializing each case's lazy parties collection.
+     */
+    private List<CaseResponse> mapToCaseResponses(List<CaseEntity> cases) {
+        if (cases.isEmpty()) {
+            return new ArrayList<>();
+        }
+
+        List<Long> caseIds = cases.stream()
+                .map(CaseEntity::getId)
+                .collect(Collectors.toList());
+        Map<Long, List<Party>> partiesByCaseId = partyRepository.findByCaseIds(caseIds).stream()
+                .collect(Collectors.groupingBy(party -> party.getCaseEntity().getId()));
+
+        return cases.stream()
+                .map(caseEntity -> mapToCaseResponse(caseEntity,
+                        partiesByCaseId.getOrDefault(caseEntity.getId(), Collections.emptyList())))
+                .collect(Collectors.toList());
+    }
+
     private CaseResponse mapToCaseResponse(CaseEntity caseEntity) {
+        return mapToCaseResponse(caseEntity, caseEntity.getParties());
+    }
+
+    private CaseResponse mapToCaseResponse(CaseEntity caseEntity, List<Party> parties) {
         UserResponse advocateResponse = null;
         if (caseEntity.getAssignedAdvocate() != null) {
             User advocate = caseEntity.getAssignedAdvocate();
@@ -176,7 +368,7 @@ public class CaseService {
                     .build();
         }
 
-        List<PartyResponse> partyResponses = caseEntity.getParties().stream()
+        List<PartyResponse> partyResponses = parties.stream()
                 .map(party -> PartyResponse.builder()
                         .id(party.getId())
                         .petitionerName(party.getPetitionerName())
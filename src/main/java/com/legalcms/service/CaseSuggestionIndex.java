@@ -0,0 +1,624 @@
+package com.legalcms.service;
+
+import com.legalcms.dto.CaseSuggestionResponse;
+import com.legalcms.event.CaseChangedEvent;
+import com.legalcms.repository.CaseRepository;
+import com.legalcms.repository.PartyRepository;
+import jakarta.annotation.PreDestroy;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.context.event.ApplicationReadyEvent;
+import org.springframework.context.event.EventListener;
+import org.springframework.stereotype.Component;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.event.TransactionalEventListener;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Comparator;
+import java.util.HashMap;
+import java.util.LinkedHashMap;
+import java.util.LinkedHashSet;
+import java.util.List;
+import java.util.Locale;
+import java.util.Map;
+import java.util.Set;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ConcurrentNavigableMap;
+import java.util.concurrent.ConcurrentSkipListMap;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import java.util.stream.Stream;
+
+/**
+ * In-memory typeahead index over case numbers, CNR numbers and party names.
+ *
+ * The bulk of the index is an immutable base segment of primitive arrays. Every distinct
+ * normalized name or number is stored once in a single char array, and each term is a
+ * (start, end) pair of offsets into it: the word suffixes of a name all end where the name ends,
+ * so they share its characters, as do the many cases with the same party ("state of bihar").
+ * Term offsets, case ids and match kinds are parallel arrays sorted by term, so prefix lookup is
+ * a binary search followed by a short scan; display fields are a case-id-sorted table.
+ *
+ * Changes published by CaseService after commit go to a small concurrent delta layer; entries of
+ * older layers for changed or deleted cases are hidden by tombstones. When the delta grows past a
+ * threshold it is frozen, a fresh delta takes new writes, and a background thread merges the
+ * frozen delta into a new base segment that is swapped in atomically.
+ *
+ * Readers never lock; writers are serialized on this instance but never wait for a merge.
+ */
+@Component
+@Slf4j
+public class CaseSuggestionIndex {
+
+    public static final int MAX_LIMIT = 20;
+
+    private static final int COMPACTION_THRESHOLD = 50_000;
+
+    private static final byte KIND_CASE_NUMBER = 0;
+    private static final byte KIND_CNR = 1;
+    private static final byte KIND_PARTY = 2;
+    private static final String[] KIND_NAMES = {"CASE_NUMBER", "CNR", "PARTY"};
+
+    private final CaseRepository caseRepository;
+    private final PartyRepository partyRepository;
+    private final PlatformTransactionManager transactionManager;
+    private final int compactionThreshold;
+    private final ExecutorService compactor;
+
+    private volatile State state = new State(Segment.EMPTY, null, new Layer());
+    private volatile Future<?> compaction;
+
+    @Autowired
+    public CaseSuggestionIndex(CaseRepository caseRepository, PartyRepository partyRepository,
+                               PlatformTransactionManager transactionManager) {
+        this(caseRepository, partyRepository, transactionManager, COMPACTION_THRESHOLD);
+    }
+
+    CaseSuggestionIndex(CaseRepository caseRepository, PartyRepository partyRepository,
+                        PlatformTransactionManager transactionManager, int compactionThreshold) {
+        this.caseRepository = caseRepository;
+        this.partyRepository = partyRepository;
+        this.transactionManager = transactionManager;
+        this.compactionThreshold = compactionThreshold;
+        this.compactor = Executors.newSingleThreadExecutor(runnable -> {
+            Thread thread = new Thread(runnable, "case-suggestion-compactor");
+            thread.setDaemon(true);
+            return thread;
+        });
+    }
+
+    /**
+     * Builds the base segment from the database. Changes applied while the build runs stay in the
+     * delta and keep overriding the new base through their tombstones.
+     */
+    @EventListener(ApplicationReadyEvent.class)
+    public void rebuild() {
+        long start = System.currentTimeMillis();
+        try {
+            Segment base = loadSegment();
+            synchronized (this) {
+                // A compaction still running against the old base is discarded when it finishes
+                Layer active = state.frozen != null ? state.frozen.overlay(state.active) : state.active;
+                state = new State(base, null, active);
+            }
+            log.info("Case suggestion index built with {} terms for {} cases ({} KB of term text) in {} ms",
+                    base.size(), base.docIds.length, base.text.length * 2 / 1024, System.currentTimeMillis() - start);
+        } catch (Exception e) {
+            log.error("Failed to build case suggestion index", e);
+        }
+    }
+
+    @TransactionalEventListener
+    public void onCaseChanged(CaseChangedEvent event) {
+        try {
+            apply(event);
+        } catch (Exception e) {
+            log.error("Failed to update suggestion index for case ID: {}", event.getCaseId(), e);
+        }
+    }
+
+    public List<CaseSuggestionResponse> suggest(String query, int limit) {
+        int maxResults = Math.max(1, Math.min(limit, MAX_LIMIT));
+        State current = state;
+
+        Set<String> prefixes = new LinkedHashSet<>();
+        prefixes.add(normalizeName(query));
+        prefixes.add(normalizeNumber(query));
+        prefixes.remove("");
+
+        List<Hit> hits = new ArrayList<>();
+        for (String prefix : prefixes) {
+            collectDelta(current.active, null, prefix, maxResults, hits);
+            if (current.frozen != null) {
+                collectDelta(current.frozen, current.active, prefix, maxResults, hits);
+            }
+            collectBase(current, prefix, maxResults, hits);
+        }
+        hits.sort(Comparator.comparing((Hit hit) -> hit.term).thenComparingLong(hit -> hit.caseId));
+
+        Map<Long, CaseSuggestionResponse> results = new LinkedHashMap<>();
+        for (Hit hit : hits) {
+            if (results.size() >= maxResults) {
+                break;
+            }
+            if (results.containsKey(hit.caseId)) {
+                continue;
+            }
+            CaseDoc doc = current.findDoc(hit.caseId);
+            if (doc == null) {
+                continue;
+            }
+            results.put(hit.caseId, CaseSuggestionResponse.builder()
+                    .caseId(hit.caseId)
+                    .caseNumber(doc.caseNumber)
+                    .caseTitle(doc.caseTitle)
+                    .matchType(KIND_NAMES[hit.kind])
+                    .build());
+        }
+        return new ArrayList<>(results.values());
+    }
+
+    private synchronized void apply(CaseChangedEvent event) {
+        long caseId = event.getCaseId();
+        Layer active = state.active;
+
+        active.tombstones.add(caseId);
+        List<String> previousKeys = active.keysByCase.remove(caseId);
+        if (previousKeys != null) {
+            previousKeys.forEach(active.postings::remove);
+        }
+        active.docs.remove(caseId);
+
+        if (event.getChangeType() != CaseChangedEvent.ChangeType.DELETED) {
+            List<String> keys = new ArrayList<>();
+            for (Posting posting : postingsFor(caseId, event.getCaseNumber(), event.getCnrNumber(), event.getPartyNames())) {
+                String key = posting.term() + '\u0000' + caseId;
+                active.postings.put(key, posting);
+                keys.add(key);
+            }
+            active.keysByCase.put(caseId, keys);
+            active.docs.put(caseId, new CaseDoc(caseId, event.getCaseNumber(), event.getCaseTitle()));
+        }
+
+        if (active.postings.size() > compactionThreshold && state.frozen == null) {
+            startCompaction();
+        }
+    }
+
+    /**
+     * Freezes the active delta and merges it into a new base segment on the compactor thread.
+     * Must be called holding the writer lock.
+     */
+    private void startCompaction() {
+        State frozenState = new State(state.base, state.active, new Layer());
+        state = frozenState;
+        compaction = compactor.submit(() -> {
+            long start = System.currentTimeMillis();
+            try {
+                Segment merged = merge(frozenState.base, frozenState.frozen);
+                synchronized (this) {
+                    // Unless a rebuild from the database replaced the base meanwhile
+                    if (state.base == frozenState.base && state.frozen == frozenState.frozen) {
+                        state = new State(merged, null, state.active);
+                    }
+                }
+                log.info("Compacted case suggestion index to {} terms in {} ms",
+                        merged.size(), System.currentTimeMillis() - start);
+            } catch (Exception e) {
+                log.error("Failed to compact case suggestion index", e);
+                synchronized (this) {
+                    // Keep serving from the frozen layer; fold it back so a later compaction retries
+                    if (state.frozen == frozenState.frozen) {
+                        Layer unfrozen = frozenState.frozen.overlay(state.active);
+                        state = new State(state.base, null, unfrozen);
+                    }
+                }
+            }
+        });
+    }
+
+    /**
+     * Waits for a running compaction, if any (for tests).
+     */
+    void awaitCompaction() throws InterruptedException, ExecutionException {
+        Future<?> running = compaction;
+        if (running != null) {
+            running.get();
+        }
+    }
+
+    /**
+     * Builds a new base from the live entries of a base segment plus a frozen delta layer.
+     */
+    private static Segment merge(Segment base, Layer frozen) {
+        SegmentBuilder builder = new SegmentBuilder();
+        builder.addLive(base, frozen.tombstones);
+        frozen.postings.values().forEach(builder::add);
+
+        List<CaseDoc> docs = new ArrayList<>(base.docIds.length + frozen.docs.size());
+        for (int d = 0; d < base.docIds.length; d++) {
+            if (!frozen.tombstones.contains(base.docIds[d])) {
+                docs.add(new CaseDoc(base.docIds[d], base.docNumbers[d], base.docTitles[d]));
+            }
+        }
+        docs.addAll(frozen.docs.values());
+        return builder.build(docs);
+    }
+
+    private Segment loadSegment() {
+        TransactionTemplate transactionTemplate = new TransactionTemplate(transactionManager);
+        transactionTemplate.setReadOnly(true);
+
+        return transactionTemplate.execute(status -> {
+            Map<Long, CaseDoc> docs = new HashMap<>();
+            SegmentBuilder builder = new SegmentBuilder();
+
+            try (Stream<CaseRepository.CaseSuggestionRow> rows = caseRepository.streamSuggestionRows()) {
+                rows.forEach(row -> {
+                    docs.put(row.getId(), new CaseDoc(row.getId(), row.getCaseNumber(), row.getCaseTitle()));
+                    postingsFor(row.getId(), row.getCaseNumber(), row.getCnrNumber(), List.of()).forEach(builder::add);
+                });
+            }
+            try (Stream<PartyRepository.PartyNameRow> rows = partyRepository.streamNameRows()) {
+                rows.forEach(row -> postingsFor(row.getCaseId(), null, null,
+                        Arrays.asList(row.getPetitionerName(), row.getRespondentName())).forEach(builder::add));
+            }
+            return builder.build(new ArrayList<>(docs.values()));
+        });
+    }
+
+    private void collectBase(State current, String prefix, int maxResults, List<Hit> hits) {
+        Segment base = current.base;
+        Set<Long> seen = new LinkedHashSet<>();
+        for (int i = base.lowerBound(prefix); i < base.size() && seen.size() < maxResults; i++) {
+            if (!base.termStartsWith(i, prefix)) {
+                break;
+            }
+            long caseId = base.termCaseIds[i];
+            if (current.hidesBase(caseId) || !seen.add(caseId)) {
+                continue;
+            }
+            hits.add(new Hit(base.term(i), caseId, base.termKinds[i]));
+        }
+    }
+
+    // Entries of cases tombstoned in a newer layer are skipped
+    private void collectDelta(Layer layer, Layer newer, String prefix, int maxResults, List<Hit> hits) {
+        ConcurrentNavigableMap<String, Posting> range =
+                layer.postings.subMap(prefix, true, prefix + Character.MAX_VALUE, false);
+        Set<Long> seen = new LinkedHashSet<>();
+        for (Posting posting : range.values()) {
+            if (seen.size() >= maxResults) {
+                break;
+            }
+            if (newer != null && newer.tombstones.contains(posting.caseId)) {
+                continue;
+            }
+            if (seen.add(posting.caseId)) {
+                hits.add(new Hit(posting.term(), posting.caseId, posting.kind));
+            }
+        }
+    }
+
+    private static List<Posting> postingsFor(long caseId, String caseNumber, String cnrNumber, List<String> partyNames) {
+        Map<String, Posting> postings = new LinkedHashMap<>();
+        addPosting(postings, normalizeNumber(caseNumber), 0, caseId, KIND_CASE_NUMBER);
+        addPosting(postings, normalizeNumber(cnrNumber), 0, caseId, KIND_CNR);
+
+        for (String partyName : partyNames) {
+            // Index every word suffix so "kumar" and "kumar si" both find "Ram Kumar Singh"
+            String name = normalizeName(partyName);
+            int wordStart = 0;
+            while (wordStart >= 0 && wordStart < name.length()) {
+                addPosting(postings, name, wordStart, caseId, KIND_PARTY);
+                int space = name.indexOf(' ', wordStart);
+                wordStart = space < 0 ? -1 : space + 1;
+            }
+        }
+        return new ArrayList<>(postings.values());
+    }
+
+    private static void addPosting(Map<String, Posting> postings, String source, int start, long caseId, byte kind) {
+        if (start < source.length()) {
+            Posting posting = new Posting(source, start, caseId, kind);
+            postings.putIfAbsent(posting.term(), posting);
+        }
+    }
+
+    private static String normalizeName(String value) {
+        if (value == null) {
+            return "";
+        }
+        return value.toLowerCase(Locale.ROOT).replaceAll("[^\\p{L}\\p{N}]+", " ").trim();
+    }
+
+    private static String normalizeNumber(String value) {
+        if (value == null) {
+            return "";
+        }
+        return value.toLowerCase(Locale.ROOT).replaceAll("[^\\p{L}\\p{N}]+", "");
+    }
+
+    @PreDestroy
+    public void shutdown() {
+        compactor.shutdownNow();
+    }
+
+    /**
+     * A term of a case: the suffix of {@code source} from {@code start}.
+     */
+    private record Posting(String source, int start, long caseId, byte kind) {
+
+        String term() {
+            return start == 0 ? source : source.substring(start);
+        }
+    }
+
+    private record Hit(String term, long caseId, byte kind) {
+    }
+
+    private record CaseDoc(long caseId, String caseNumber, String caseTitle) {
+    }
+
+    /**
+     * Immutable, array-backed index segment. Term i is text[termStarts[i], termEnds[i]); term
+     * arrays are sorted by term, doc arrays by case id.
+     */
+    private static final class Segment {
+
+        static final Segment EMPTY = new Segment(new char[0], new int[0], new int[0], new long[0], new byte[0],
+                new long[0], new String[0], new String[0]);
+
+        final char[] text;
+        final int[] termStarts;
+        final int[] termEnds;
+        final long[] termCaseIds;
+        final byte[] termKinds;
+        final long[] docIds;
+        final String[] docNumbers;
+        final String[] docTitles;
+
+        private Segment(char[] text, int[] termStarts, int[] termEnds, long[] termCaseIds, byte[] termKinds,
+                        long[] docIds, String[] docNumbers, String[] docTitles) {
+            this.text = text;
+            this.termStarts = termStarts;
+            this.termEnds = termEnds;
+            this.termCaseIds = termCaseIds;
+            this.termKinds = termKinds;
+            this.docIds = docIds;
+            this.docNumbers = docNumbers;
+            this.docTitles = docTitles;
+        }
+
+        int size() {
+            return termStarts.length;
+        }
+
+        String term(int i) {
+            return new String(text, termStarts[i], termEnds[i] - termStarts[i]);
+        }
+
+        boolean termStartsWith(int i, String prefix) {
+            int length = termEnds[i] - termStarts[i];
+            if (length < prefix.length()) {
+                return false;
+            }
+            for (int c = 0; c < prefix.length(); c++) {
+                if (text[termStarts[i] + c] != prefix.charAt(c)) {
+                    return false;
+                }
+            }
+            return true;
+        }
+
+        int compareTerm(int i, String key) {
+            return compare(text, termStarts[i], termEnds[i], key);
+        }
+
+        int lowerBound(String key) {
+            int low = 0;
+            int high = size();
+            while (low < high) {
+                int mid = (low + high) >>> 1;
+                if (compareTerm(mid, key) < 0) {
+                    low = mid + 1;
+                } else {
+                    high = mid;
+                }
+            }
+            return low;
+        }
+
+        CaseDoc findDoc(long caseId) {
+            int index = Arrays.binarySearch(docIds, caseId);
+            return index < 0 ? null : new CaseDoc(caseId, docNumbers[index], docTitles[index]);
+        }
+
+        static int compare(char[] text, int start, int end, String key) {
+            int length = Math.min(end - start, key.length());
+            for (int c = 0; c < length; c++) {
+                int diff = text[start + c] - key.charAt(c);
+                if (diff != 0) {
+                    return diff;
+                }
+            }
+            return (end - start) - key.length();
+        }
+
+        static int compare(char[] text, int startA, int endA, int startB, int endB) {
+            int length = Math.min(endA - startA, endB - startB);
+            for (int c = 0; c < length; c++) {
+                int diff = text[startA + c] - text[startB + c];
+                if (diff != 0) {
+                    return diff;
+                }
+            }
+            return (endA - startA) - (endB - startB);
+        }
+    }
+
+    /**
+     * Accumulates terms for a new segment, storing each distinct source string once.
+     */
+    private static final class SegmentBuilder {
+
+        private final StringBuilder text = new StringBuilder();
+        // Source string -> offset in text where it ends
+        private final Map<String, Integer> sourceEnds = new HashMap<>();
+        private final List<Entry> entries = new ArrayList<>();
+
+        private record Entry(int start, int end, long caseId, byte kind) {
+        }
+
+        void add(Posting posting) {
+            int end = endOf(posting.source());
+            entries.add(new Entry(end - (posting.source().length() - posting.start()), end,
+                    posting.caseId(), posting.kind()));
+        }
+
+        /**
+         * Copies the entries of a segment except those of the given cases. Entries ending at the same
+         * offset share a source, so each live source is copied once.
+         */
+        void addLive(Segment segment, Set<Long> excludedCaseIds) {
+            Map<Integer, Integer> sourceStarts = new HashMap<>();
+            for (int i = 0; i < segment.size(); i++) {
+                if (!excludedCaseIds.contains(segment.termCaseIds[i])) {
+                    sourceStarts.merge(segment.termEnds[i], segment.termStarts[i], Math::min);
+                }
+            }
+            Map<Integer, Integer> newEnds = new HashMap<>();
+            sourceStarts.forEach((oldEnd, oldStart) ->
+                    newEnds.put(oldEnd, endOf(new String(segment.text, oldStart, oldEnd - oldStart))));
+            for (int i = 0; i < segment.size(); i++) {
+                if (!excludedCaseIds.contains(segment.termCaseIds[i])) {
+                    int end = newEnds.get(segment.termEnds[i]);
+                    entries.add(new Entry(end - (segment.termEnds[i] - segment.termStarts[i]), end,
+                            segment.termCaseIds[i], segment.termKinds[i]));
+                }
+            }
+        }
+
+        Segment build(List<CaseDoc> docs) {
+            char[] chars = new char[text.length()];
+            text.getChars(0, text.length(), chars, 0);
+            entries.sort((a, b) -> {
+                int byTerm = Segment.compare(chars, a.start(), a.end(), b.start(), b.end());
+                return byTerm != 0 ? byTerm : Long.compare(a.caseId(), b.caseId());
+            });
+
+            int size = entries.size();
+            int[] starts = new int[size];
+            int[] ends = new int[size];
+            long[] caseIds = new long[size];
+            byte[] kinds = new byte[size];
+            for (int i = 0; i < size; i++) {
+                Entry entry = entries.get(i);
+                starts[i] = entry.start();
+                ends[i] = entry.end();
+                caseIds[i] = entry.caseId();
+                kinds[i] = entry.kind();
+            }
+
+            docs.sort(Comparator.comparingLong(CaseDoc::caseId));
+            long[] docIds = new long[docs.size()];
+            String[] docNumbers = new String[docs.size()];
+            String[] docTitles = new String[docs.size()];
+            for (int i = 0; i < docs.size(); i++) {
+                docIds[i] = docs.get(i).caseId();
+                docNumbers[i] = docs.get(i).caseNumber();
+                docTitles[i] = docs.get(i).caseTitle();
+            }
+            return new Segment(chars, starts, ends, caseIds, kinds, docIds, docNumbers, docTitles);
+        }
+
+        private int endOf(String source) {
+            return sourceEnds.computeIfAbsent(source, s -> {
+                text.append(s);
+                return text.length();
+            });
+        }
+    }
+
+    /**
+     * Changes applied on top of older layers: postings and display fields of changed cases, and
+     * tombstones hiding the older layers' entries of changed or deleted cases.
+     */
+    private static final class Layer {
+
+        final ConcurrentSkipListMap<String, Posting> postings = new ConcurrentSkipListMap<>();
+        final Map<Long, CaseDoc> docs = new ConcurrentHashMap<>();
+        final Set<Long> tombstones = ConcurrentHashMap.newKeySet();
+        // Only touched by writers
+        final Map<Long, List<String>> keysByCase = new HashMap<>();
+
+        /**
+         * This layer with a newer one applied on top.
+         */
+        Layer overlay(Layer newer) {
+            Layer combined = new Layer();
+            combined.tombstones.addAll(tombstones);
+            postings.forEach((key, posting) -> {
+                if (!newer.tombstones.contains(posting.caseId())) {
+                    combined.postings.put(key, posting);
+                    combined.keysByCase.computeIfAbsent(posting.caseId(), id -> new ArrayList<>()).add(key);
+                }
+            });
+            docs.forEach((caseId, doc) -> {
+                if (!newer.tombstones.contains(caseId)) {
+                    combined.docs.put(caseId, doc);
+                }
+            });
+            combined.tombstones.addAll(newer.tombstones);
+            combined.postings.putAll(newer.postings);
+            combined.docs.putAll(newer.docs);
+            combined.keysByCase.putAll(newer.keysByCase);
+            return combined;
+        }
+    }
+
+    /**
+     * Base segment, an optional frozen delta being merged into a new base, and the active delta
+     * taking new changes. Newer layers override older ones.
+     */
+    private static final class State {
+
+        final Segment base;
+        final Layer frozen;
+        final Layer active;
+
+        State(Segment base, Layer frozen, Layer active) {
+            this.base = base;
+            this.frozen = frozen;
+            this.active = active;
+        }
+
+        boolean hidesBase(long caseId) {
+            return active.tombstones.contains(caseId) || (frozen != null && frozen.tombstones.contains(caseId));
+        }
+
+        CaseDoc findDoc(long caseId) {
+            CaseDoc doc = active.docs.get(caseId);
+            if (doc != null) {
+                return doc;
+            }
+            if (active.tombstones.contains(caseId)) {
+                return null;
+            }
+            if (frozen != null) {
+                doc = frozen.docs.get(caseId);
+                if (doc != null) {
+                    return doc;
+                }
+                if (frozen.tombstones.contains(caseId)) {
+                    return null;
+                }
+            }
+            return base.findDoc(caseId);
+        }
+    }
+}
@@ -0,0 +1,381 @@
+package com.legalcms.service;
+
+import com.legalcms.config.StorageProperties;
+import com.legalcms.dto.DocumentResponse;
+import com.legalcms.dto.UploadSessionRequest;
+import com.legalcms.dto.UploadSessionResponse;
+import com.legalcms.model.Document;
+import com.legalcms.model.UploadSession;
+import com.legalcms.model.UploadSessionStatus;
+import com.legalcms.repository.CaseRepository;
+import com.legalcms.repository.UploadChunkRepository;
+import com.legalcms.repository.UploadSessionRepository;
+import com.legalcms.repository.UserRepository;
+import com.legalcms.storage.ContentAddressedStore;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.security.access.AccessDeniedException;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import java.io.IOException;
+import java.io.InputStream;
+import java.nio.ByteBuffer;
+import java.nio.channels.FileChannel;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.StandardOpenOption;
+import java.security.MessageDigest;
+import java.security.NoSuchAlgorithmException;
+import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.HashSet;
+import java.util.HexFormat;
+import java.util.List;
+import java.util.Locale;
+import java.util.Set;
+import java.util.UUID;
+
+/**
+ * Chunked Upload Service
+ *
+ * Resumable uploads for files beyond the multipart limit:
+ * - a session fixes the file's size and chunk size; chunk i covers [i * chunkSize, (i + 1) * chunkSize)
+ * - each chunk is written at its offset straight into the session's part file in the blob store, so
+ *   chunks may arrive in any order, in parallel, and be re-sent after a failure
+ * - every chunk carries its SHA-256, verified before the chunk is recorded as received
+ * - writers hold a share lock on the open session row while they write, so completing or aborting
+ *   the session waits for them
+ * - completing hashes the assembled file once and renames it to its content address; the content is
+ *   never copied
+ * - sessions that receive no chunk for the session TTL are aborted and their part files deleted
+ */
+@Service
+@Slf4j
+public class ChunkedUploadService {
+
+    private static final int BUFFER_SIZE = 64 * 1024;
+
+    private final UploadSessionRepository uploadSessionRepository;
+    private final UploadChunkRepository uploadChunkRepository;
+    private final CaseRepository caseRepository;
+    private final UserRepository userRepository;
+    private final DocumentService documentService;
+    private final ContentAddressedStore contentAddressedStore;
+    private final StorageProperties.Upload settings;
+    private final PlatformTransactionManager transactionManager;
+
+    public ChunkedUploadService(UploadSessionRepository uploadSessionRepository,
+                                UploadChunkRepository uploadChunkRepository,
+                                CaseRepository caseRepository,
+                                UserRepository userRepository,
+                                DocumentService documentService,
+                                ContentAddressedStore contentAddressedStore,
+                                StorageProperties storageProperties,
+                                PlatformTransactionManager transactionManager) {
+        this.uploadSessionRepository = uploadSessionRepository;
+        this.uploadChunkRepository = uploadChunkRepository;
+        this.caseRepository = caseRepository;
+        this.userRepository = userRepository;
+        this.documentService = documentService;
+        this.contentAddressedStore = contentAddressedStore;
+        this.settings = storageProperties.getUpload();
+        this.transactionManager = transactionManager;
+    }
+
+    public UploadSessionResponse openSession(UploadSessionRequest request, String userEmail) {
+        long maxFileSize = settings.getMaxFileSize().toBytes();
+        if (request.getTotalSize() > maxFileSize) {
+            throw new IllegalArgumentException("File exceeds the maximum upload size of " + maxFileSize + " bytes");
+        }
+        if (!caseRepository.existsById(request.getCaseId())) {
+            throw new RuntimeException("Case not found");
+        }
+        userRepository.findByEmail(userEmail)
+                .orElseThrow(() -> new RuntimeException("User not found"));
+
+        String uploadId = UUID.randomUUID().toString();
+        try {
+            Files.createFile(contentAddressedStore.sessionFile(uploadId));
+        } catch (IOException e) {
+            log.error("Error creating upload session file", e);
+            throw new RuntimeException("Failed to start upload: " + e.getMessage());
+        }
+
+        UploadSession session = uploadSessionRepository.save(UploadSession.builder()
+                .id(uploadId)
+                .caseId(request.getCaseId())
+                .documentType(request.getDocumentType())
+                .fileName(request.getFileName())
+                .totalSize(request.getTotalSize())
+                .chunkSize(settings.getChunkSize().toBytes())
+                .expectedSha256(request.getSha256() != null ? request.getSha256().toLowerCase(Locale.ROOT) : null)
+                .status(UploadSessionStatus.OPEN)
+                .createdBy(userEmail)
+                .expiresAt(LocalDateTime.now().plus(settings.getSessionTtl()))
+                .build());
+        log.info("Opened upload session {} for case ID: {} ({} bytes in {} chunks)",
+                uploadId, session.getCaseId(), session.getTotalSize(), session.getTotalChunks());
+        return mapToResponse(session, List.of());
+    }
+
+    /**
+     * Writes one chunk at its offset. The chunk must be exactly chunkSize bytes (the last one: the
+     * remainder) and match the SHA-256 the client sent with it.
+     */
+    public UploadSessionResponse writeChunk(String uploadId, long offset, String chunkSha256,
+                                            InputStream body, String userEmail) {
+        UploadSession session = findOwnedSession(uploadId, userEmail);
+        if (session.getStatus() != UploadSessionStatus.OPEN) {
+            throw new ConflictException("Upload " + uploadId + " is " + session.getStatus());
+        }
+        if (offset < 0 || offset >= session.getTotalSize() || offset % session.getChunkSize() != 0) {
+            throw new IllegalArgumentException("Offset must be a multiple of " + session.getChunkSize()
+                    + " below " + session.getTotalSize());
+        }
+        if (chunkSha256 == null || !chunkSha256.matches("[0-9a-fA-F]{64}")) {
+            throw new IllegalArgumentException("X-Chunk-SHA256 header with the chunk's SHA-256 (hex) is required");
+        }
+
+        int chunkIndex = (int) (offset / session.getChunkSize());
+        long expectedLength = Math.min(session.getChunkSize(), session.getTotalSize() - offset);
+        try {
+            writeIntoPart(uploadId, chunkIndex, offset, expectedLength, chunkSha256, body);
+        } catch (IOException e) {
+            log.error("Error writing chunk {} of upload {}", chunkIndex, uploadId, e);
+            throw new RuntimeException("Failed to write chunk: " + e.getMessage());
+        }
+
+        // After the lock is released: writers upgrading their share locks to update the row would deadlock
+        uploadSessionRepository.extend(uploadId, LocalDateTime.now().plus(settings.getSessionTtl()));
+        return getSession(uploadId, userEmail);
+    }
+
+    public UploadSessionResponse getSession(String uploadId, String userEmail) {
+        UploadSession session = findOwnedSession(uploadId, userEmail);
+        return mapToResponse(session, uploadChunkRepository.findReceivedIndexes(uploadId));
+    }
+
+    /**
+     * Verifies that every chunk has arrived and the assembled file matches the declared hash, then
+     * stores it as a document of the case. On failure the session is reopened so the client can
+     * re-send chunks and retry.
+     */
+    public DocumentResponse complete(String uploadId, String userEmail) {
+        UploadSession session = findOwnedSession(uploadId, userEmail);
+        if (uploadSessionRepository.transition(uploadId, UploadSessionStatus.OPEN, UploadSessionStatus.FINALIZING) == 0) {
+            throw new ConflictException("Upload " + uploadId + " is not open");
+        }
+
+        try {
+            List<Integer> missing = missingChunks(session, uploadChunkRepository.findReceivedIndexes(uploadId));
+            if (!missing.isEmpty()) {
+                throw new ConflictException("Upload " + uploadId + " is missing chunks " + missing);
+            }
+
+            Path part = contentAddressedStore.sessionFile(uploadId);
+            String contentHash = hashFile(part, session.getTotalSize());
+            if (session.getExpectedSha256() != null && !session.getExpectedSha256().equals(contentHash)) {
+                throw new IllegalArgumentException("Assembled file does not match the declared SHA-256");
+            }
+
+            // Not closed: a failure before the commit must leave the part file for a retry
+            ContentAddressedStore.StagedBlob staged =
+                    new ContentAddressedStore.StagedBlob(part, contentHash, session.getTotalSize());
+            Document document = documentService.storeStagedDocument(session.getCaseId(), staged,
+                    session.getFileName(), session.getDocumentType(), session.getCreatedBy());
+            uploadSessionRepository.complete(uploadId, document.getId());
+            uploadChunkRepository.deleteBySession(uploadId);
+            log.info("Completed upload session {} as document ID: {}", uploadId, document.getId());
+            return documentService.getDocumentResponse(document.getId());
+        } catch (RuntimeException | IOException e) {
+            reopenOrAbort(uploadId);
+            if (e instanceof RuntimeException runtimeException) {
+                throw runtimeException;
+            }
+            log.error("Error completing upload {}", uploadId, e);
+            throw new RuntimeException("Failed to complete upload: " + e.getMessage());
+        }
+    }
+
+    // The part file is gone once committed to the blob store; such a session cannot be retried
+    private void reopenOrAbort(String uploadId) {
+        boolean partFileLeft;
+        try {
+            partFileLeft = Files.exists(contentAddressedStore.sessionFile(uploadId));
+        } catch (IOException e) {
+            partFileLeft = false;
+        }
+        if (partFileLeft) {
+            uploadSessionRepository.transition(uploadId, UploadSessionStatus.FINALIZING, UploadSessionStatus.OPEN);
+        } else if (uploadSessionRepository.transition(uploadId, UploadSessionStatus.FINALIZING,
+                UploadSessionStatus.ABORTED) == 1) {
+            uploadChunkRepository.deleteBySession(uploadId);
+        }
+    }
+
+    public void abort(String uploadId, String userEmail) {
+        findOwnedSession(uploadId, userEmail);
+        if (uploadSessionRepository.transition(uploadId, UploadSessionStatus.OPEN, UploadSessionStatus.ABORTED) == 0) {
+            throw new ConflictException("Upload " + uploadId + " is not open");
+        }
+        discard(uploadId);
+        log.info("Aborted upload session {}", uploadId);
+    }
+
+    /**
+     * Aborts open sessions past their expiry, and sessions stuck finalizing (a node died mid-way)
+     * for a further TTL, deleting their part files.
+     */
+    public int cleanupExpired() {
+        LocalDateTime now = LocalDateTime.now();
+        int cleaned = abortExpired(UploadSessionStatus.OPEN, now)
+                + abortExpired(UploadSessionStatus.FINALIZING, now.minus(settings.getSessionTtl()));
+        if (cleaned > 0) {
+            log.info("Cleaned up {} abandoned upload sessions", cleaned);
+        }
+        return cleaned;
+    }
+
+    private int abortExpired(UploadSessionStatus status, LocalDateTime expiredBefore) {
+        int cleaned = 0;
+        for (String uploadId : uploadSessionRepository.findExpiredIds(List.of(status), expiredBefore)) {
+            if (uploadSessionRepository.transition(uploadId, status, UploadSessionStatus.ABORTED) == 1) {
+                discard(uploadId);
+                cleaned++;
+            }
+        }
+        return cleaned;
+    }
+
+    private void discard(String uploadId) {
+        uploadChunkRepository.deleteBySession(uploadId);
+        try {
+            Files.deleteIfExists(contentAddressedStore.sessionFile(uploadId));
+        } catch (IOException e) {
+            log.warn("Could not delete part file of upload {}: {}", uploadId, e.getMessage());
+        }
+    }
+
+    private UploadSession findOwnedSession(String uploadId, String userEmail) {
+        UploadSession session = uploadSessionRepository.findById(uploadId)
+                .orElseThrow(() -> new RuntimeException("Upload session not found"));
+        if (!session.getCreatedBy().equals(userEmail)) {
+            throw new AccessDeniedException("Upload session belongs to another user");
+        }
+        return session;
+    }
+
+    /**
+     * Streams a chunk straight into the part file at its offset while holding a share lock on the open
+     * session row. Completing or aborting the session moves it out of OPEN with an UPDATE, which waits
+     * for every write in progress, and no write starts once it has committed; the part file is never
+     * hashed or deleted under a writer.
+     */
+    private void writeIntoPart(String uploadId, int chunkIndex, long offset, long length, String chunkSha256,
+                               InputStream body) throws IOException {
+        Exception failure = new TransactionTemplate(transactionManager).execute(status -> {
+            if (uploadSessionRepository.lockOpen(uploadId) == 0) {
+                throw new ConflictException("Upload " + uploadId + " was closed while the chunk was written");
+            }
+            // The old bytes are overwritten, so the chunk only counts as received once verified again.
+            // A failed write still commits this: the client re-sends the chunk.
+            uploadChunkRepository.forget(uploadId, chunkIndex);
+            try {
+                String actualSha256 = writeAt(contentAddressedStore.sessionFile(uploadId), offset, length, body);
+                if (!actualSha256.equalsIgnoreCase(chunkSha256)) {
+                    return new IllegalArgumentException("Chunk " + chunkIndex + " does not match its SHA-256; re-send it");
+                }
+                uploadChunkRepository.record(uploadId, chunkIndex, length, actualSha256);
+                return null;
+            } catch (IOException | IllegalArgumentException e) {
+                return e;
+            }
+        });
+        if (failure instanceof IOException ioException) {
+            throw ioException;
+        }
+        if (failure instanceof RuntimeException runtimeException) {
+            throw runtimeException;
+        }
+    }
+
+    // Positional writes: concurrent chunks of one session never touch the same bytes
+    private static String writeAt(Path part, long offset, long expectedLength, InputStream body) throws IOException {
+        MessageDigest digest = sha256();
+        byte[] buffer = new byte[BUFFER_SIZE];
+        long written = 0;
+        try (FileChannel channel = FileChannel.open(part, StandardOpenOption.WRITE)) {
+            int read;
+            while ((read = body.read(buffer)) != -1) {
+                if (written + read > expectedLength) {
+                    throw new IllegalArgumentException("Chunk at offset " + offset + " must be " + expectedLength + " bytes");
+                }
+                digest.update(buffer, 0, read);
+                ByteBuffer data = ByteBuffer.wrap(buffer, 0, read);
+                while (data.hasRemaining()) {
+                    channel.write(data, offset + written + data.position());
+                }
+                written += read;
+            }
+        }
+        if (written != expectedLength) {
+            throw new IllegalArgumentException("Chunk at offset " + offset + " must be " + expectedLength
+                    + " bytes, received " + written);
+        }
+        return HexFormat.of().formatHex(digest.digest());
+    }
+
+    private static String hashFile(Path part, long expectedSize) throws IOException {
+        MessageDigest digest = sha256();
+        ByteBuffer buffer = ByteBuffer.allocateDirect(1024 * 1024);
+        long size = 0;
+        try (FileChannel channel = FileChannel.open(part, StandardOpenOption.READ)) {
+            while (channel.read(buffer) != -1) {
+                buffer.flip();
+                size += buffer.remaining();
+                digest.update(buffer);
+                buffer.clear();
+            }
+        }
+        if (size != expectedSize) {
+            throw new IllegalStateException("Assembled file is " + size + " bytes, expected " + expectedSize);
+        }
+        return HexFormat.of().formatHex(digest.digest());
+    }
+
+    private static List<Integer> missingChunks(UploadSession session, List<Integer> received) {
+        Set<Integer> receivedSet = new HashSet<>(received);
+        List<Integer> missing = new ArrayList<>();
+        for (int index = 0; index < session.getTotalChunks(); index++) {
+            if (!receivedSet.contains(index)) {
+                missing.add(index);
+            }
+        }
+        return missing;
+    }
+
+    private static MessageDigest sha256() {
+        try {
+            return MessageDigest.getInstance("SHA-256");
+        } catch (NoSuchAlgorithmException e) {
+            throw new IllegalStateException("SHA-256 not available", e);
+        }
+    }
+
+    private UploadSessionResponse mapToResponse(UploadSession session, List<Integer> receivedChunks) {
+        return UploadSessionResponse.builder()
+                .uploadId(session.getId())
+                .caseId(session.getCaseId())
+                .documentType(session.getDocumentType())
+                .fileName(session.getFileName())
+                .totalSize(session.getTotalSize())
+                .chunkSize(session.getChunkSize())
+                .totalChunks(session.getTotalChunks())
+                .receivedChunks(receivedChunks)
+                .status(session.getStatus())
+                .documentId(session.getDocumentId())
+                .expiresAt(session.getExpiresAt())
+                .build();
+    }
+}
@@ -0,0 +1,12 @@
+package com.legalcms.service;
+
+/**
+ * The request is valid but conflicts with the current state of the resource, e.g. a court sync
+ * run is already in progress or an upload is no longer open. Answered with 409 Conflict.
+ */
+public class ConflictException extends RuntimeException {
+
+    public ConflictException(String message) {
+        super(message);
+    }
+}
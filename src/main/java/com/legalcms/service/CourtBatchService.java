@@ -0,0 +1,327 @@
+package com.legalcms.service;
+
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.legalcms.client.CourtRecordNotFoundException;
+import com.legalcms.config.CacheConfig;
+import com.legalcms.config.CourtClientProperties;
+import com.legalcms.dto.BatchCaseStatusRequest;
+import com.legalcms.dto.BatchCnrRequest;
+import com.legalcms.dto.CourtBatchItemResponse;
+import com.legalcms.dto.CourtBatchSummary;
+import com.legalcms.dto.CourtDataRequest;
+import com.legalcms.dto.CourtDataResponse;
+import com.legalcms.event.CaseChangedEvent;
+import com.legalcms.scheduler.CourtRateLimiter;
+import jakarta.annotation.PreDestroy;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.cache.Cache;
+import org.springframework.cache.CacheManager;
+import org.springframework.context.ApplicationEventPublisher;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import java.io.IOException;
+import java.io.OutputStream;
+import java.sql.Array;
+import java.sql.PreparedStatement;
+import java.sql.ResultSet;
+import java.sql.SQLException;
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.HashSet;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+import java.util.concurrent.BlockingQueue;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import java.util.concurrent.LinkedBlockingQueue;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.function.Function;
+
+/**
+ * Court Batch Service
+ *
+ * Batch variants of the court lookups, streamed as NDJSON:
+ * - every item is looked up through CourtIntegrationService, so batches share its cache and
+ *   single-flight with the single-item endpoints and court sync
+ * - lookups fan out on a pool shared by all batch requests (app.court-client.batch.max-concurrency),
+ *   and each first takes a permit from its court's rate limiter, the one court sync uses
+ * - one line is written per item as soon as it completes, in completion order, followed by a summary line
+ * - resolved CNR numbers can be written onto the matching cases with one set-based UPDATE
+ */
+@Service
+@Slf4j
+public class CourtBatchService {
+
+    private static final String FIND_COURTS_SQL =
+            "SELECT cnr_number, court_name FROM cases WHERE cnr_number = ANY(?)";
+
+    private static final String UPDATE_CNRS_SQL =
+            "UPDATE cases c SET cnr_number = v.cnr_number, updated_at = now() " +
+            "FROM unnest(?::varchar[], ?::varchar[], ?::varchar[]) AS v(case_number, court_name, cnr_number) " +
+            "WHERE c.case_number = v.case_number AND lower(c.court_name) = lower(v.court_name) " +
+            "AND c.cnr_number IS DISTINCT FROM v.cnr_number " +
+            // CNR numbers are unique; leave a case alone rather than fail the batch if another case holds it
+            "AND NOT EXISTS (SELECT 1 FROM cases o WHERE o.cnr_number = v.cnr_number AND o.id <> c.id) " +
+            "RETURNING c.id, c.case_number, c.cnr_number, c.case_title";
+
+    private static final String FIND_PARTIES_SQL =
+            "SELECT case_id, petitioner_name, respondent_name FROM parties WHERE case_id = ANY(?) ORDER BY id";
+
+    private final CourtIntegrationService courtIntegrationService;
+    private final CourtRateLimiter courtRateLimiter;
+    private final JdbcTemplate jdbcTemplate;
+    private final PlatformTransactionManager transactionManager;
+    private final CacheManager cacheManager;
+    private final ApplicationEventPublisher eventPublisher;
+    private final ObjectMapper objectMapper;
+    private final int maxItems;
+    private final ExecutorService workers;
+
+    public CourtBatchService(CourtIntegrationService courtIntegrationService,
+                             CourtRateLimiter courtRateLimiter,
+                             JdbcTemplate jdbcTemplate,
+                             PlatformTransactionManager transactionManager,
+                             CacheManager cacheManager,
+                             ApplicationEventPublisher eventPublisher,
+                             ObjectMapper objectMapper,
+                             CourtClientProperties properties) {
+        this.courtIntegrationService = courtIntegrationService;
+        this.courtRateLimiter = courtRateLimiter;
+        this.jdbcTemplate = jdbcTemplate;
+        this.transactionManager = transactionManager;
+        this.cacheManager = cacheManager;
+        this.eventPublisher = eventPublisher;
+        this.objectMapper = objectMapper;
+        this.maxItems = properties.getBatch().getMaxItems();
+
+        AtomicInteger threadCount = new AtomicInteger();
+        this.workers = Executors.newFixedThreadPool(Math.max(1, properties.getBatch().getMaxConcurrency()), runnable -> {
+            Thread thread = new Thread(runnable, "court-batch-" + threadCount.incrementAndGet());
+            thread.setDaemon(true);
+            return thread;
+        });
+    }
+
+    /**
+     * Rejects oversized batches before any response is streamed.
+     */
+    public void checkSize(int items) {
+        if (items > maxItems) {
+            throw new IllegalArgumentException("A batch may contain at most " + maxItems + " items, got " + items);
+        }
+    }
+
+    public void resolveCnrNumbers(BatchCnrRequest request, OutputStream out) throws IOException {
+        List<CourtDataRequest> items = request.getItems();
+        checkSize(items.size());
+        log.info("Resolving {} CNR numbers in batch (updateCases: {})", items.size(), request.isUpdateCases());
+
+        Map<Integer, CourtDataResponse> resolved = new HashMap<>();
+        long start = System.currentTimeMillis();
+        CourtBatchSummary summary = fanOut(items, CourtDataRequest::getCourtName,
+                courtIntegrationService::fetchCnrNumber, resolved::put, out);
+
+        if (request.isUpdateCases()) {
+            summary.setCasesUpdated(updateCnrNumbers(items, resolved));
+        }
+        summary.setDurationMs(System.currentTimeMillis() - start);
+        writeLine(out, summary);
+    }
+
+    public void fetchCaseStatuses(BatchCaseStatusRequest request, OutputStream out) throws IOException {
+        List<String> cnrNumbers = request.getCnrNumbers().stream().map(String::trim).toList();
+        checkSize(cnrNumbers.size());
+        log.info("Fetching {} case statuses in batch", cnrNumbers.size());
+
+        Map<String, String> courts = findCourts(cnrNumbers);
+        long start = System.currentTimeMillis();
+        CourtBatchSummary summary = fanOut(cnrNumbers, courts::get,
+                courtIntegrationService::fetchCaseStatus, (index, status) -> { }, out);
+        summary.setDurationMs(System.currentTimeMillis() - start);
+        writeLine(out, summary);
+    }
+
+    /**
+     * Looks every item up concurrently and writes one line per item as it completes. Lines are
+     * written from the calling thread only; if the client goes away, lookups not yet started are cancelled.
+     */
+    private <I, R> CourtBatchSummary fanOut(List<I> items, Function<I, String> courtOf, Function<I, R> lookup,
+                                            ResultSink<R> onFound, OutputStream out) throws IOException {
+        BlockingQueue<CourtBatchItemResponse<R>> completed = new LinkedBlockingQueue<>();
+        List<Future<?>> lookups = new ArrayList<>(items.size());
+        for (int i = 0; i < items.size(); i++) {
+            int index = i;
+            I item = items.get(i);
+            lookups.add(workers.submit(() -> completed.add(lookupOne(index, item, courtOf, lookup))));
+        }
+
+        CourtBatchSummary summary = CourtBatchSummary.builder().total(items.size()).build();
+        try {
+            for (int written = 0; written < items.size(); written++) {
+                CourtBatchItemResponse<R> line = completed.take();
+                switch (line.getStatus()) {
+                    case FOUND -> {
+                        summary.setFound(summary.getFound() + 1);
+                        onFound.accept(line.getIndex(), line.getResult());
+                    }
+                    case NOT_FOUND -> summary.setNotFound(summary.getNotFound() + 1);
+                    default -> summary.setFailed(summary.getFailed() + 1);
+                }
+                writeLine(out, line);
+            }
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+            throw new IOException("Batch lookup interrupted", e);
+        } finally {
+            lookups.forEach(future -> future.cancel(true));
+        }
+        return summary;
+    }
+
+    private <I, R> CourtBatchItemResponse<R> lookupOne(int index, I item, Function<I, String> courtOf,
+                                                       Function<I, R> lookup) {
+        try {
+            courtRateLimiter.acquire(courtOf.apply(item));
+            return CourtBatchItemResponse.<R>builder()
+                    .index(index)
+                    .status(CourtBatchItemResponse.Status.FOUND)
+                    .result(lookup.apply(item))
+                    .build();
+        } catch (CourtRecordNotFoundException e) {
+            return CourtBatchItemResponse.<R>builder()
+                    .index(index)
+                    .status(CourtBatchItemResponse.Status.NOT_FOUND)
+                    .error(e.getMessage())
+                    .build();
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+            return failed(index, "Lookup cancelled");
+        } catch (RuntimeException e) {
+            log.warn("Batch lookup of item {} failed - {}", index, e.getMessage());
+            return failed(index, e.getMessage());
+        }
+    }
+
+    private static <R> CourtBatchItemResponse<R> failed(int index, String message) {
+        return CourtBatchItemResponse.<R>builder()
+                .index(index)
+                .status(CourtBatchItemResponse.Status.FAILED)
+                .error(message)
+                .build();
+    }
+
+    private void writeLine(OutputStream out, Object line) throws IOException {
+        out.write(objectMapper.writeValueAsBytes(line));
+        out.write('\n');
+        out.flush();
+    }
+
+    // Court of each known case, so status lookups count against the same per-court limit as court sync
+    private Map<String, String> findCourts(List<String> cnrNumbers) {
+        Map<String, String> courts = new HashMap<>();
+        jdbcTemplate.query(FIND_COURTS_SQL,
+                ps -> setArray(ps, 1, "varchar", cnrNumbers.toArray(String[]::new)),
+                (ResultSet rs) -> {
+                    courts.put(rs.getString("cnr_number"), rs.getString("court_name"));
+                });
+        return courts;
+    }
+
+    /**
+     * Writes resolved CNR numbers onto the cases with the requested case number and court, in one
+     * statement and transaction; the updated cases are evicted from the case cache and re-indexed
+     * for suggestions once it commits.
+     *
+     * @return cases updated
+     */
+    private int updateCnrNumbers(List<CourtDataRequest> items, Map<Integer, CourtDataResponse> resolved) {
+        // One row per case number and per CNR, so the statement never assigns a CNR twice
+        Map<String, String[]> rows = new LinkedHashMap<>();
+        Set<String> cnrNumbers = new HashSet<>();
+        for (int i = 0; i < items.size(); i++) {
+            CourtDataResponse response = resolved.get(i);
+            if (response == null || response.getCnrNumber() == null || response.getCnrNumber().isBlank()) {
+                continue;
+            }
+            CourtDataRequest item = items.get(i);
+            String caseNumber = item.getCaseNumber().trim();
+            String cnrNumber = response.getCnrNumber().trim();
+            if (!rows.containsKey(caseNumber) && cnrNumbers.add(cnrNumber)) {
+                rows.put(caseNumber, new String[]{caseNumber, item.getCourtName().trim(), cnrNumber});
+            }
+        }
+        if (rows.isEmpty()) {
+            return 0;
+        }
+
+        String[] caseNumbers = rows.values().stream().map(row -> row[0]).toArray(String[]::new);
+        String[] courtNames = rows.values().stream().map(row -> row[1]).toArray(String[]::new);
+        String[] cnrs = rows.values().stream().map(row -> row[2]).toArray(String[]::new);
+
+        Integer updated = new TransactionTemplate(transactionManager).execute(status -> {
+            List<CaseChangedEvent> events = jdbcTemplate.execute(UPDATE_CNRS_SQL, (PreparedStatement ps) -> {
+                setArray(ps, 1, "varchar", caseNumbers);
+                setArray(ps, 2, "varchar", courtNames);
+                setArray(ps, 3, "varchar", cnrs);
+                List<CaseChangedEvent> changed = new ArrayList<>();
+                try (ResultSet rs = ps.executeQuery()) {
+                    while (rs.next()) {
+                        changed.add(CaseChangedEvent.builder()
+                                .caseId(rs.getLong("id"))
+                                .changeType(CaseChangedEvent.ChangeType.UPDATED)
+                                .caseNumber(rs.getString("case_number"))
+                                .cnrNumber(rs.getString("cnr_number"))
+                                .caseTitle(rs.getString("case_title"))
+                                .build());
+                    }
+                }
+                return changed;
+            });
+            if (events == null || events.isEmpty()) {
+                return 0;
+            }
+
+            Map<Long, CaseChangedEvent> byId = new HashMap<>();
+            events.forEach(event -> byId.put(event.getCaseId(), event));
+            jdbcTemplate.query(FIND_PARTIES_SQL,
+                    ps -> setArray(ps, 1, "bigint", byId.keySet().toArray(Long[]::new)),
+                    (ResultSet rs) -> {
+                        List<String> partyNames = byId.get(rs.getLong("case_id")).getPartyNames();
+                        partyNames.add(rs.getString("petitioner_name"));
+                        partyNames.add(rs.getString("respondent_name"));
+                    });
+
+            Cache cache = cacheManager.getCache(CacheConfig.CASES);
+            for (CaseChangedEvent event : events) {
+                if (cache != null) {
+                    cache.evict(event.getCaseId());
+                }
+                eventPublisher.publishEvent(event);
+            }
+            return events.size();
+        });
+        log.info("Batch CNR resolution updated {} cases", updated);
+        return updated != null ? updated : 0;
+    }
+
+    private static void setArray(PreparedStatement ps, int index, String type, Object[] values) throws SQLException {
+        Array array = ps.getConnection().createArrayOf(type, values);
+        ps.setArray(index, array);
+    }
+
+    @PreDestroy
+    public void shutdown() {
+        workers.shutdownNow();
+    }
+
+    @FunctionalInterface
+    private interface ResultSink<R> {
+        void accept(int index, R result);
+    }
+}
@@ -1,74 +1,170 @@
 package com.legalcms.service;
 
+import com.github.benmanes.caffeine.cache.AsyncCache;
+import com.github.benmanes.caffeine.cache.Caffeine;
+import com.github.benmanes.caffeine.cache.Expiry;
+import com.legalcms.client.CourtClient;
+import com.legalcms.client.CourtRecordNotFoundException;
+import com.legalcms.config.CourtClientProperties;
 import com.legalcms.dto.CaseStatusResponse;
 import com.legalcms.dto.CourtDataRequest;
 import com.legalcms.dto.CourtDataResponse;
-import lombok.RequiredArgsConstructor;
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.binder.cache.CaffeineCacheMetrics;
 import lombok.extern.slf4j.Slf4j;
 import org.springframework.stereotype.Service;
 
-import java.time.LocalDate;
+import java.time.Duration;
+import java.util.Locale;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.CompletionException;
+import java.util.function.Supplier;
 
 /**
  * Court Integration Service
- * This service is designed to integrate with third-party court APIs or scraping services.
- * Currently returns mock data - replace with actual API calls to LegalKart, Attestr, or custom scraper.
+ * Front door for court lookups, used by the /api/court endpoints and the court sync scheduler.
+ *
+ * Wraps the configured CourtClient with:
+ * - a bounded cache per result type, with its own TTL (app.court-client.cache.*)
+ * - negative caching: "not found" answers are kept for a short TTL
+ * - single flight: concurrent lookups of the same key share one upstream call
+ *
+ * Hit/miss counts are published as cache.gets{cache=court.case-status|court.cnr}; callers that
+ * joined an in-flight lookup are counted in court.lookup.coalesced.
  */
 @Service
-@RequiredArgsConstructor
 @Slf4j
 public class CourtIntegrationService {
 
+    private static final String CASE_STATUS = "court.case-status";
+    private static final String CNR = "court.cnr";
+
+    private final CourtClient courtClient;
+    private final AsyncCache<String, Lookup<CaseStatusResponse>> caseStatusCache;
+    private final AsyncCache<CnrKey, Lookup<CourtDataResponse>> cnrCache;
+    private final Counter caseStatusCoalesced;
+    private final Counter cnrCoalesced;
+
+    public CourtIntegrationService(CourtClient courtClient, CourtClientProperties properties, MeterRegistry meterRegistry) {
+        this.courtClient = courtClient;
+
+        CourtClientProperties.Cache cache = properties.getCache();
+        this.caseStatusCache = CaffeineCacheMetrics.monitor(meterRegistry,
+                buildCache(cache.getMaximumSize(), cache.getCaseStatusTtl(), cache.getNotFoundTtl()), CASE_STATUS);
+        this.cnrCache = CaffeineCacheMetrics.monitor(meterRegistry,
+                buildCache(cache.getMaximumSize(), cache.getCnrTtl(), cache.getNotFoundTtl()), CNR);
+
+        this.caseStatusCoalesced = Counter.builder("court.lookup.coalesced")
+                .description("Court lookups that joined an identical lookup already in flight")
+                .tag("cache", CASE_STATUS)
+                .register(meterRegistry);
+        this.cnrCoalesced = Counter.builder("court.lookup.coalesced")
+                .description("Court lookups that joined an identical lookup already in flight")
+                .tag("cache", CNR)
+                .register(meterRegistry);
+    }
+
     public CourtDataResponse fetchCnrNumber(CourtDataRequest request) {
-        log.info("Fetching CNR for case number: {} at court: {}", 
-                request.getCaseNumber(), request.getCourtName());
-
-        // TODO: Integrate with actual court API or scraping service
-        // Example integrations:
-        // 1. LegalKart API: https://legalkart.com/api/...
-        // 2. Attestr API: https://attestr.com/api/...
-        // 3. Custom scraper service for Patna High Court
-
-        // Mock response - replace with actual API call
-        String mockCnrNumber = "BIHC01-" + request.getCaseNumber().replace("/", "-") + "-" + request.getYear();
-
-        return CourtDataResponse.builder()
-                .cnrNumber(mockCnrNumber)
-                .caseNumber(request.getCaseNumber())
-                .courtName(request.getCourtName())
-                .build();
+        CnrKey key = new CnrKey(
+                request.getCaseNumber().trim(),
+                request.getYear().trim(),
+                request.getCourtName().trim().toLowerCase(Locale.ROOT));
+        return lookup(cnrCache, cnrCoalesced, key, () -> courtClient.fetchCnrNumber(request));
     }
 
     public CaseStatusResponse fetchCaseStatus(String cnrNumber) {
-        log.info("Fetching case status for CNR: {}", cnrNumber);
-
-        // TODO: Integrate with actual court status API
-        // This should fetch:
-        // - Next hearing date
-        // - Case stage/status
-        // - Latest order document URL
-
-        // Mock response - replace with actual API call
-        return CaseStatusResponse.builder()
-                .cnrNumber(cnrNumber)
-                .nextHearingDate(LocalDate.now().plusDays(30))
-                .caseStage("Arguments Stage")
-                .lastOrderUrl("https://example.com/orders/" + cnrNumber + ".pdf")
-                .build();
+        String key = cnrNumber.trim().toUpperCase(Locale.ROOT);
+        return lookup(caseStatusCache, caseStatusCoalesced, key, () -> courtClient.fetchCaseStatus(cnrNumber));
+    }
+
+    private <K, V> V lookup(AsyncCache<K, Lookup<V>> cache, Counter coalesced, K key, Supplier<CompletableFuture<V>> loader) {
+        CompletableFuture<Lookup<V>> ours = new CompletableFuture<>();
+        CompletableFuture<Lookup<V>> shared = cache.get(key, (k, executor) -> ours);
+
+        if (shared == ours) {
+            // This caller owns the upstream call; everyone else waits on the shared future
+            CompletableFuture<V> upstream;
+            try {
+                upstream = loader.get();
+            } catch (RuntimeException e) {
+                upstream = CompletableFuture.failedFuture(e);
+            }
+            upstream.whenComplete((value, error) -> {
+                Throwable cause = unwrap(error);
+                if (cause == null) {
+                    ours.complete(Lookup.found(value));
+                } else if (cause instanceof CourtRecordNotFoundException notFound) {
+                    ours.complete(Lookup.notFound(notFound.getMessage()));
+                } else {
+                    // A failed future is dropped from the cache, so the next caller retries
+                    ours.completeExceptionally(cause);
+                }
+            });
+        } else if (!shared.isDone()) {
+            coalesced.increment();
+        }
+
+        Lookup<V> result;
+        try {
+            result = shared.join();
+        } catch (CompletionException e) {
+            if (unwrap(e) instanceof RuntimeException cause) {
+                throw cause;
+            }
+            throw e;
+        }
+        if (result.value() == null) {
+            throw new CourtRecordNotFoundException(result.notFoundMessage());
+        }
+        return result.value();
+    }
+
+    private static Throwable unwrap(Throwable error) {
+        Throwable cause = error;
+        while (cause instanceof CompletionException && cause.getCause() != null) {
+            cause = cause.getCause();
+        }
+        return cause;
+    }
+
+    private static <K, V> AsyncCache<K, Lookup<V>> buildCache(long maximumSize, Duration foundTtl, Duration notFoundTtl) {
+        return Caffeine.newBuilder()
+                .maximumSize(maximumSize)
+                .expireAfter(new Expiry<K, Lookup<V>>() {
+                    @Override
+                    public long expireAfterCreate(K key, Lookup<V> value, long currentTime) {
+                        return (value.value() != null ? foundTtl : notFoundTtl).toNanos();
+                    }
+
+                    @Override
+                    public long expireAfterUpdate(K key, Lookup<V> value, long currentTime, long currentDuration) {
+                        return expireAfterCreate(key, value, currentTime);
+                    }
+
+                    @Override
+                    public long expireAfterRead(K key, Lookup<V> value, long currentTime, long currentDuration) {
+                        return currentDuration;
+                    }
+                })
+                .recordStats()
+                .buildAsync();
     }
 
     /**
-     * Integration points for future implementation:
-     * 
-     * 1. Patna High Court e-Courts API
-     *    - Base URL: https://services.ecourts.gov.in/ecourtindia_v6/
-     *    - Requires authentication
-     * 
-     * 2. LegalKart API (if available)
-     *    - Commercial API for court data
-     * 
-     * 3. Custom Scraper Service
-     *    - Deploy separate scraper microservice
-     *    - Return structured JSON data
+     * Cached outcome of a lookup: a value, or a remembered "not found".
      */
+    private record Lookup<V>(V value, String notFoundMessage) {
+
+        static <V> Lookup<V> found(V value) {
+            return new Lookup<>(value, null);
+        }
+
+        static <V> Lookup<V> notFound(String message) {
+            return new Lookup<>(null, message);
+        }
+    }
+
+    private record CnrKey(String caseNumber, String year, String courtName) {
+    }
 }
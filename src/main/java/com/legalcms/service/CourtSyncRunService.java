@@ -0,0 +1,417 @@
+package com.legalcms.service;
+
+import com.legalcms.config.CourtSyncProperties;
+import com.legalcms.dto.CourtSyncFailureResponse;
+import com.legalcms.dto.CourtSyncRunResponse;
+import com.legalcms.dto.CursorPageResponse;
+import com.legalcms.model.CourtSyncItemStatus;
+import com.legalcms.model.CourtSyncRun;
+import com.legalcms.model.CourtSyncRunStatus;
+import com.legalcms.model.CourtSyncTrigger;
+import com.legalcms.repository.CourtSyncRunItemRepository;
+import com.legalcms.repository.CourtSyncRunRepository;
+import com.legalcms.repository.SyncClaimRepository;
+import com.legalcms.scheduler.ClusterNode;
+import com.legalcms.scheduler.CourtSyncEngine;
+import com.legalcms.scheduler.CourtSyncSummary;
+import com.legalcms.scheduler.CourtSyncTask;
+import com.legalcms.scheduler.CourtSyncTaskLoader;
+import com.legalcms.scheduler.CourtSyncWriter;
+import com.legalcms.util.CursorUtil;
+import jakarta.annotation.PreDestroy;
+import lombok.RequiredArgsConstructor;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.data.domain.PageRequest;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import java.util.ArrayDeque;
+import java.util.Deque;
+import java.util.EnumMap;
+import java.util.HashMap;
+import java.util.Iterator;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.NoSuchElementException;
+import java.util.Objects;
+import java.util.Set;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.atomic.AtomicBoolean;
+import java.util.concurrent.atomic.AtomicReference;
+import java.util.stream.Collectors;
+
+/**
+ * Court Sync Run Service
+ *
+ * Models court sync as persisted, resumable jobs that every replica helps execute:
+ * - starting a run snapshots the cases to sync as PENDING checkpoints (court_sync_run_items);
+ *   starting and resuming are serialized across replicas with an advisory lock
+ * - each node claims checkpoints in leased chunks (SyncClaimRepository) and syncs only its own
+ *   claims, so throughput scales with replicas; a dead node's claims expire and are stolen
+ * - each case's checkpoint commits together with its result, so a resumed run never re-fetches
+ *   a case that already completed
+ * - every node polls for RUNNING runs and joins them, which also resumes runs after a restart
+ * - pause is a status change in the database; every node stops claiming, lets lookups in flight
+ *   finish and checkpoint, and hands back its unprocessed claims
+ */
+@Service
+@RequiredArgsConstructor
+@Slf4j
+public class CourtSyncRunService {
+
+    private static final int RECENT_FAILURES = 50;
+    private static final long STATUS_CHECK_INTERVAL_MS = 5000;
+
+    private final CourtSyncRunRepository runRepository;
+    private final CourtSyncRunItemRepository itemRepository;
+    private final SyncClaimRepository syncClaimRepository;
+    private final CourtSyncTaskLoader courtSyncTaskLoader;
+    private final CourtSyncEngine courtSyncEngine;
+    private final CourtSyncWriter courtSyncWriter;
+    private final CourtSyncProperties properties;
+    private final ClusterNode clusterNode;
+    private final PlatformTransactionManager transactionManager;
+
+    private final ExecutorService runner = Executors.newSingleThreadExecutor(runnable -> {
+        Thread thread = new Thread(runnable, "court-sync-runner");
+        thread.setDaemon(true);
+        return thread;
+    });
+
+    private final AtomicReference<ActiveRun> activeRun = new AtomicReference<>();
+    private final AtomicBoolean participationQueued = new AtomicBoolean();
+
+    /**
+     * Creates a run over all active cases with a CNR number and starts working on it in the background.
+     */
+    public CourtSyncRunResponse startRun(CourtSyncTrigger trigger, String triggeredBy) {
+        CourtSyncRun run = new TransactionTemplate(transactionManager).execute(status -> {
+            lockRunLifecycle();
+            if (runRepository.existsByStatus(CourtSyncRunStatus.RUNNING)) {
+                throw new ConflictException("A court sync run is already in progress");
+            }
+
+            CourtSyncRun created = runRepository.save(CourtSyncRun.builder()
+                    .triggerType(trigger)
+                    .status(CourtSyncRunStatus.RUNNING)
+                    .triggeredBy(triggeredBy)
+                    .build());
+            created.setTotalCases(itemRepository.snapshotActiveCases(created.getId()));
+            return runRepository.save(created);
+        });
+
+        log.info("Court sync run {} created ({}) with {} cases", run.getId(), trigger, run.getTotalCases());
+        joinRunningRuns();
+        return toResponse(run, false);
+    }
+
+    public CourtSyncRunResponse pauseRun(Long runId) {
+        findRun(runId);
+        if (runRepository.transition(runId, CourtSyncRunStatus.RUNNING, CourtSyncRunStatus.PAUSED) == 0) {
+            throw new ConflictException("Only a running court sync run can be paused");
+        }
+
+        // Other nodes notice the status change within a few seconds
+        ActiveRun active = activeRun.get();
+        if (active != null && active.runId == runId) {
+            active.stopRequested = true;
+        }
+        log.info("Court sync run {} paused", runId);
+        return toResponse(findRun(runId), false);
+    }
+
+    public CourtSyncRunResponse resumeRun(Long runId) {
+        CourtSyncRun run = new TransactionTemplate(transactionManager).execute(status -> {
+            lockRunLifecycle();
+            CourtSyncRun existing = findRun(runId);
+            if (existing.getStatus() != CourtSyncRunStatus.PAUSED && existing.getStatus() != CourtSyncRunStatus.FAILED) {
+                throw new ConflictException("Only a paused or failed court sync run can be resumed");
+            }
+            if (runRepository.existsByStatus(CourtSyncRunStatus.RUNNING)) {
+                throw new ConflictException("A court sync run is already in progress");
+            }
+
+            existing.setStatus(CourtSyncRunStatus.RUNNING);
+            existing.setErrorMessage(null);
+            existing.setFinishedAt(null);
+            return runRepository.save(existing);
+        });
+
+        log.info("Court sync run {} resumed", runId);
+        joinRunningRuns();
+        return toResponse(run, false);
+    }
+
+    /**
+     * Queues this node's participation in the running run, unless it is already working on one.
+     * Called periodically by the scheduler on every node; this is also how a run interrupted by a
+     * restart gets picked up again.
+     */
+    public void joinRunningRuns() {
+        if (!properties.isEnabled() || activeRun.get() != null || runner.isShutdown()) {
+            return;
+        }
+        List<CourtSyncRun> running = runRepository.findByStatusOrderByIdAsc(CourtSyncRunStatus.RUNNING);
+        if (running.isEmpty() || !participationQueued.compareAndSet(false, true)) {
+            return;
+        }
+        Long runId = running.get(0).getId();
+        runner.execute(() -> {
+            participationQueued.set(false);
+            participate(runId);
+        });
+    }
+
+    /**
+     * True while a run is executing anywhere in the cluster, or queued to execute.
+     */
+    public boolean isRunInProgress() {
+        return activeRun.get() != null || runRepository.existsByStatus(CourtSyncRunStatus.RUNNING);
+    }
+
+    public CourtSyncRunResponse getRun(Long runId) {
+        return toResponse(findRun(runId), true);
+    }
+
+    public CursorPageResponse<CourtSyncRunResponse> getRuns(String cursor, Integer size) {
+        int pageSize = CursorUtil.resolvePageSize(size);
+        List<CourtSyncRun> runs = runRepository.findPage(CursorUtil.decodeId(cursor), PageRequest.of(0, pageSize + 1));
+
+        boolean hasMore = runs.size() > pageSize;
+        List<CourtSyncRun> pageRuns = hasMore ? runs.subList(0, pageSize) : runs;
+
+        Map<Long, Map<CourtSyncItemStatus, Long>> counts = countItems(
+                pageRuns.stream().map(CourtSyncRun::getId).collect(Collectors.toSet()));
+        List<CourtSyncRunResponse> items = pageRuns.stream()
+                .map(run -> toResponse(run, counts.getOrDefault(run.getId(), Map.of()), false))
+                .collect(Collectors.toList());
+
+        return CursorPageResponse.<CourtSyncRunResponse>builder()
+                .items(items)
+                .size(items.size())
+                .hasMore(hasMore)
+                .nextCursor(hasMore ? CursorUtil.encodeId(pageRuns.get(pageRuns.size() - 1).getId()) : null)
+                .build();
+    }
+
+    @PreDestroy
+    public void shutdown() {
+        // Leave the run RUNNING for the other nodes (or the next start); just stop claiming work here
+        ActiveRun active = activeRun.get();
+        if (active != null) {
+            active.stopRequested = true;
+        }
+        runner.shutdown();
+    }
+
+    private void participate(Long runId) {
+        ActiveRun active = new ActiveRun(runId);
+        if (!activeRun.compareAndSet(null, active)) {
+            return;
+        }
+
+        try {
+            if (runRepository.findStatusById(runId) != CourtSyncRunStatus.RUNNING) {
+                return;
+            }
+
+            long pending = countItems(Set.of(runId)).getOrDefault(runId, Map.of())
+                    .getOrDefault(CourtSyncItemStatus.PENDING, 0L);
+            log.info("Node {} joining court sync run {} ({} cases pending)", clusterNode.getId(), runId, pending);
+
+            CourtSyncSummary summary = courtSyncEngine.sync(
+                    new ClaimingIterator(runId, active), (int) Math.min(pending, Integer.MAX_VALUE),
+                    courtSyncWriter.openBatch(runId), () -> shouldStop(active));
+            runRepository.addPassStats(runId, summary.getWriteChunks(), summary.getWriteStatements(), summary.getDurationMs());
+
+            log.info("Node {} finished its part of court sync run {} in {} ms: {} updated, {} unchanged, {} failed, " +
+                            "{} statements in {} chunks",
+                    clusterNode.getId(), runId, summary.getDurationMs(), summary.getUpdated(), summary.getUnchanged(),
+                    summary.getFailed(), summary.getWriteStatements(), summary.getWriteChunks());
+
+            // Whichever node checkpoints the last case completes the run; claims still held elsewhere keep it RUNNING
+            if (!active.stopRequested && runRepository.completeIfDone(runId) > 0) {
+                log.info("Court sync run {} completed", runId);
+            }
+        } catch (Exception e) {
+            log.error("Court sync run {} failed on node {}", runId, clusterNode.getId(), e);
+            runRepository.findById(runId).ifPresent(run -> {
+                run.setStatus(CourtSyncRunStatus.FAILED);
+                run.setErrorMessage(e.getMessage());
+                runRepository.save(run);
+            });
+        } finally {
+            try {
+                syncClaimRepository.releaseRunClaims(runId, clusterNode.getId());
+            } catch (Exception e) {
+                log.warn("Could not release court sync claims of run {}; they expire with their lease", runId);
+            }
+            activeRun.set(null);
+        }
+    }
+
+    // Local stop requests apply at once; pauses made on any node are picked up from the database
+    private boolean shouldStop(ActiveRun active) {
+        if (active.stopRequested) {
+            return true;
+        }
+        long now = System.currentTimeMillis();
+        if (now - active.lastStatusCheck >= STATUS_CHECK_INTERVAL_MS) {
+            active.lastStatusCheck = now;
+            if (runRepository.findStatusById(active.runId) != CourtSyncRunStatus.RUNNING) {
+                active.stopRequested = true;
+            }
+        }
+        return active.stopRequested;
+    }
+
+    private void lockRunLifecycle() {
+        if (!syncClaimRepository.tryAdvisoryXactLock(SyncClaimRepository.RUN_LIFECYCLE_LOCK)) {
+            throw new ConflictException("Another node is starting or resuming a court sync run");
+        }
+    }
+
+    private CourtSyncRun findRun(Long runId) {
+        return runRepository.findById(runId)
+                .orElseThrow(() -> new RuntimeException("Court sync run not found"));
+    }
+
+    private Map<Long, Map<CourtSyncItemStatus, Long>> countItems(Set<Long> runIds) {
+        Map<Long, Map<CourtSyncItemStatus, Long>> counts = new HashMap<>();
+        if (runIds.isEmpty()) {
+            return counts;
+        }
+        for (CourtSyncRunItemRepository.StatusCount count : itemRepository.countByStatus(runIds)) {
+            counts.computeIfAbsent(count.getRunId(), id -> new EnumMap<>(CourtSyncItemStatus.class))
+                    .put(CourtSyncItemStatus.valueOf(count.getStatus()), count.getCount());
+        }
+        return counts;
+    }
+
+    private CourtSyncRunResponse toResponse(CourtSyncRun run, boolean detailed) {
+        return toResponse(run, countItems(Set.of(run.getId())).getOrDefault(run.getId(), Map.of()), detailed);
+    }
+
+    private CourtSyncRunResponse toResponse(CourtSyncRun run, Map<CourtSyncItemStatus, Long> counts, boolean detailed) {
+        long processed = counts.entrySet().stream()
+                .filter(entry -> entry.getKey() != CourtSyncItemStatus.PENDING)
+                .mapToLong(Map.Entry::getValue)
+                .sum();
+
+        long activeMillis = run.getActiveMillis();
+        ActiveRun active = activeRun.get();
+        if (active != null && Objects.equals(active.runId, run.getId())) {
+            activeMillis += System.currentTimeMillis() - active.startedAt;
+        }
+
+        CourtSyncRunResponse response = CourtSyncRunResponse.builder()
+                .id(run.getId())
+                .triggerType(run.getTriggerType())
+                .status(run.getStatus())
+                .triggeredBy(run.getTriggeredBy())
+                .totalCases(run.getTotalCases())
+                .pending(counts.getOrDefault(CourtSyncItemStatus.PENDING, 0L))
+                .updated(counts.getOrDefault(CourtSyncItemStatus.UPDATED, 0L))
+                .unchanged(counts.getOrDefault(CourtSyncItemStatus.UNCHANGED, 0L))
+                .failed(counts.getOrDefault(CourtSyncItemStatus.FAILED, 0L))
+                .skipped(counts.getOrDefault(CourtSyncItemStatus.SKIPPED, 0L))
+                .writeChunks(run.getWriteChunks())
+                .writeStatements(run.getWriteStatements())
+                .activeMillis(activeMillis)
+                .throughputPerSecond(activeMillis > 0 ? processed * 1000.0 / activeMillis : null)
+                .errorMessage(run.getErrorMessage())
+                .createdAt(run.getCreatedAt())
+                .finishedAt(run.getFinishedAt())
+                .build();
+
+        if (detailed) {
+            CourtSyncRunItemRepository.LatencyPercentiles latency = itemRepository.findLatencyPercentiles(run.getId());
+            if (latency != null) {
+                response.setLatencyP50Ms(latency.getP50());
+                response.setLatencyP95Ms(latency.getP95());
+                response.setLatencyP99Ms(latency.getP99());
+            }
+
+            Map<String, Long> failuresByCourt = new LinkedHashMap<>();
+            for (CourtSyncRunItemRepository.CourtFailureCount count : itemRepository.countFailuresByCourt(run.getId())) {
+                failuresByCourt.put(count.getCourtName(), count.getFailures());
+            }
+            response.setFailuresByCourt(failuresByCourt);
+
+            response.setRecentFailures(itemRepository.findRecentFailures(run.getId(), RECENT_FAILURES).stream()
+                    .map(item -> CourtSyncFailureResponse.builder()
+                            .caseId(item.getCaseId())
+                            .courtName(item.getCourtName())
+                            .errorMessage(item.getErrorMessage())
+                            .processedAt(item.getProcessedAt())
+                            .build())
+                    .collect(Collectors.toList()));
+        }
+        return response;
+    }
+
+    private static final class ActiveRun {
+
+        private final long runId;
+        private final long startedAt = System.currentTimeMillis();
+        private volatile boolean stopRequested;
+        private volatile long lastStatusCheck = startedAt;
+
+        ActiveRun(long runId) {
+            this.runId = runId;
+        }
+    }
+
+    /**
+     * Yields the cases of checkpoints this node claims, one leased chunk at a time.
+     * Checkpoints whose case has since been deleted are marked SKIPPED.
+     */
+    private final class ClaimingIterator implements Iterator<CourtSyncTask> {
+
+        private final Long runId;
+        private final ActiveRun active;
+        private final Deque<CourtSyncTask> page = new ArrayDeque<>();
+        private boolean exhausted;
+
+        ClaimingIterator(Long runId, ActiveRun active) {
+            this.runId = runId;
+            this.active = active;
+        }
+
+        @Override
+        public boolean hasNext() {
+            while (page.isEmpty() && !exhausted && !active.stopRequested) {
+                claimPage();
+            }
+            return !page.isEmpty();
+        }
+
+        @Override
+        public CourtSyncTask next() {
+            if (!hasNext()) {
+                throw new NoSuchElementException();
+            }
+            return page.poll();
+        }
+
+        private void claimPage() {
+            CourtSyncProperties.Cluster cluster = properties.getCluster();
+            List<Long> caseIds = syncClaimRepository.claimRunItems(
+                    runId, clusterNode.getId(), Math.max(1, cluster.getClaimSize()), cluster.getClaimLease());
+            if (caseIds.isEmpty()) {
+                exhausted = true;
+                return;
+            }
+
+            List<CourtSyncTask> tasks = courtSyncTaskLoader.load(caseIds);
+            if (tasks.size() < caseIds.size()) {
+                Set<Long> found = tasks.stream().map(task -> task.caseEntity().getId()).collect(Collectors.toSet());
+                itemRepository.markSkipped(runId, caseIds.stream().filter(id -> !found.contains(id)).toList());
+            }
+            page.addAll(tasks);
+        }
+    }
+}
@@ -0,0 +1,151 @@
+package com.legalcms.service;
+
+import com.legalcms.config.StorageProperties;
+import com.legalcms.model.StorageTier;
+import com.legalcms.repository.DocumentBlobRepository;
+import com.legalcms.storage.ContentAddressedStore;
+import lombok.RequiredArgsConstructor;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import java.io.IOException;
+import java.io.UncheckedIOException;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.attribute.FileTime;
+import java.time.Instant;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Map;
+import java.util.Objects;
+
+/**
+ * Document Blob Garbage Collector
+ *
+ * Frees storage held by content no document refers to any more:
+ * - unreferenced document_blobs rows past the grace period are deleted in batches, each batch's
+ *   files removed while its rows are still locked, so a concurrent upload of the same content
+ *   either keeps the blob or recreates it
+ * - blobs without a row (left by uploads whose transaction rolled back), copies in a tier other
+ *   than the one recorded, and stale staging files are removed once they are older than the grace period
+ *
+ * Replicas may collect concurrently; they lock disjoint batches.
+ */
+@Service
+@RequiredArgsConstructor
+@Slf4j
+public class DocumentBlobGcService {
+
+    private static final int LOOKUP_BATCH = 500;
+
+    private final DocumentBlobRepository documentBlobRepository;
+    private final ContentAddressedStore contentAddressedStore;
+    private final StorageProperties properties;
+    private final PlatformTransactionManager transactionManager;
+
+    public record GcResult(int blobsDeleted, int orphansDeleted, int stagedDeleted) {
+    }
+
+    public GcResult collect() {
+        StorageProperties.Gc gc = properties.getGc();
+        TransactionTemplate transactionTemplate = new TransactionTemplate(transactionManager);
+
+        int blobsDeleted = 0;
+        int deleted;
+        do {
+            deleted = Objects.requireNonNullElse(transactionTemplate.execute(status -> {
+                List<String> garbage = documentBlobRepository.deleteUnreferenced(gc.getGracePeriod(), gc.getBatchSize());
+                for (String contentHash : garbage) {
+                    try {
+                        contentAddressedStore.delete(contentHash);
+                    } catch (IOException e) {
+                        throw new UncheckedIOException("Failed to delete blob " + contentHash, e);
+                    }
+                }
+                return garbage.size();
+            }), 0);
+            blobsDeleted += deleted;
+        } while (deleted >= gc.getBatchSize());
+
+        Instant cutoff = Instant.now().minus(gc.getGracePeriod());
+        int orphansDeleted = deleteOrphans(cutoff);
+        int stagedDeleted = deleteStaleStaged(cutoff);
+
+        log.info("Blob GC removed {} unreferenced blobs, {} orphaned blob files and {} stale staged files",
+                blobsDeleted, orphansDeleted, stagedDeleted);
+        return new GcResult(blobsDeleted, orphansDeleted, stagedDeleted);
+    }
+
+    private int deleteOrphans(Instant cutoff) {
+        List<ContentAddressedStore.StoredBlob> candidates = new ArrayList<>(LOOKUP_BATCH);
+        int[] deleted = {0};
+        try {
+            contentAddressedStore.forEachBlob(blob -> {
+                if (blob.lastModified() != null && blob.lastModified().isBefore(cutoff)) {
+                    candidates.add(blob);
+                }
+                if (candidates.size() >= LOOKUP_BATCH) {
+                    deleted[0] += deleteUnknown(candidates);
+                    candidates.clear();
+                }
+            });
+            deleted[0] += deleteUnknown(candidates);
+        } catch (IOException e) {
+            log.error("Blob GC could not scan the blob store", e);
+        }
+        return deleted[0];
+    }
+
+    // Blobs without a row, and copies in a tier their row no longer records (e.g. left by tiering)
+    private int deleteUnknown(List<ContentAddressedStore.StoredBlob> candidates) {
+        Map<String, StorageTier> tiers = documentBlobRepository.findTiers(
+                candidates.stream().map(ContentAddressedStore.StoredBlob::contentHash).distinct().toList());
+        int deleted = 0;
+        for (ContentAddressedStore.StoredBlob blob : candidates) {
+            if (blob.tier() != tiers.get(blob.contentHash())) {
+                try {
+                    if (contentAddressedStore.delete(blob.contentHash(), blob.tier())) {
+                        deleted++;
+                    }
+                } catch (IOException e) {
+                    log.warn("Blob GC could not delete {} blob {}", blob.tier(), blob.contentHash());
+                }
+            }
+        }
+        return deleted;
+    }
+
+    private int deleteStaleStaged(Instant cutoff) {
+        int[] deleted = {0};
+        try {
+            contentAddressedStore.forEachStaged(path -> {
+                if (olderThan(path, cutoff) && deleteQuietly(path)) {
+                    deleted[0]++;
+                }
+            });
+        } catch (IOException e) {
+            log.error("Blob GC could not scan the staging area", e);
+        }
+        return deleted[0];
+    }
+
+    private static boolean olderThan(Path path, Instant cutoff) {
+        try {
+            FileTime modified = Files.getLastModifiedTime(path);
+            return modified.toInstant().isBefore(cutoff);
+        } catch (IOException e) {
+            return false;
+        }
+    }
+
+    private static boolean deleteQuietly(Path path) {
+        try {
+            return Files.deleteIfExists(path);
+        } catch (IOException e) {
+            log.warn("Blob GC could not delete {}", path);
+            return false;
+        }
+    }
+}
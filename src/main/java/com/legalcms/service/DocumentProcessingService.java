@@ -0,0 +1,335 @@
+package com.legalcms.service;
+
+import com.legalcms.config.DocumentProcessingProperties;
+import com.legalcms.event.DocumentStoredEvent;
+import com.legalcms.model.Document;
+import com.legalcms.model.DocumentProcessingStatus;
+import com.legalcms.repository.DocumentArtifactRepository;
+import com.legalcms.repository.DocumentArtifactRepository.ExtractedContent;
+import com.legalcms.repository.DocumentBlobRepository;
+import com.legalcms.repository.DocumentProcessingRepository;
+import com.legalcms.repository.DocumentProcessingRepository.ClaimedJob;
+import com.legalcms.repository.DocumentRepository;
+import com.legalcms.scheduler.ClusterNode;
+import com.legalcms.storage.ContentAddressedStore;
+import io.micrometer.core.instrument.Gauge;
+import io.micrometer.core.instrument.MeterRegistry;
+import jakarta.annotation.PreDestroy;
+import lombok.extern.slf4j.Slf4j;
+import org.apache.pdfbox.Loader;
+import org.apache.pdfbox.io.IOUtils;
+import org.apache.pdfbox.pdmodel.PDDocument;
+import org.apache.pdfbox.pdmodel.PDDocumentInformation;
+import org.apache.pdfbox.pdmodel.PDPage;
+import org.apache.pdfbox.pdmodel.encryption.InvalidPasswordException;
+import org.apache.pdfbox.rendering.ImageType;
+import org.apache.pdfbox.rendering.PDFRenderer;
+import org.apache.pdfbox.text.PDFTextStripper;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.event.TransactionalEventListener;
+
+import javax.imageio.ImageIO;
+import java.awt.image.BufferedImage;
+import java.io.ByteArrayOutputStream;
+import java.io.IOException;
+import java.io.InputStream;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.Paths;
+import java.nio.file.StandardCopyOption;
+import java.time.Duration;
+import java.util.List;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.regex.Pattern;
+
+/**
+ * Document Processing Service
+ *
+ * Derives small artifacts from stored documents so document lists never open the documents:
+ * text (for search), page count, title/author and a low-resolution JPEG of the first page.
+ * - a job is queued in the transaction that stores each document; it is dispatched as soon as
+ *   that transaction commits, and polled for as a fallback
+ * - a dedicated pool of app.document-processing.max-concurrency threads, claiming jobs only while
+ *   a slot is free, so a bulk upload waits in the database rather than in memory
+ * - PDFs are parsed with a temp-file cache, never held in memory whole; text is taken from at most
+ *   max-text-pages pages
+ * - a document whose content was already processed for another document copies its artifacts
+ * - non-PDFs are SKIPPED; unreadable or encrypted PDFs fail at once, other failures are retried
+ *   with exponential backoff
+ */
+@Service
+@Slf4j
+public class DocumentProcessingService {
+
+    private static final byte[] PDF_MAGIC = "%PDF-".getBytes(StandardCharsets.US_ASCII);
+    // The PDF header may follow some junk bytes
+    private static final int MAGIC_SEARCH_BYTES = 1024;
+    private static final Pattern CONTROL_CHARACTERS = Pattern.compile("[\\x00-\\x08\\x0B\\x0E-\\x1F\\x7F]");
+
+    private final DocumentProcessingRepository documentProcessingRepository;
+    private final DocumentArtifactRepository documentArtifactRepository;
+    private final DocumentRepository documentRepository;
+    private final DocumentBlobRepository documentBlobRepository;
+    private final ContentAddressedStore contentAddressedStore;
+    private final DocumentProcessingProperties properties;
+    private final ClusterNode clusterNode;
+    private final ExecutorService workers;
+    private final int slots;
+    private final AtomicInteger inFlight = new AtomicInteger();
+
+    public DocumentProcessingService(DocumentProcessingRepository documentProcessingRepository,
+                                     DocumentArtifactRepository documentArtifactRepository,
+                                     DocumentRepository documentRepository,
+                                     DocumentBlobRepository documentBlobRepository,
+                                     ContentAddressedStore contentAddressedStore,
+                                     DocumentProcessingProperties properties,
+                                     ClusterNode clusterNode,
+                                     MeterRegistry meterRegistry) {
+        this.documentProcessingRepository = documentProcessingRepository;
+        this.documentArtifactRepository = documentArtifactRepository;
+        this.documentRepository = documentRepository;
+        this.documentBlobRepository = documentBlobRepository;
+        this.contentAddressedStore = contentAddressedStore;
+        this.properties = properties;
+        this.clusterNode = clusterNode;
+        this.slots = Math.max(1, properties.getMaxConcurrency());
+
+        AtomicInteger threadCount = new AtomicInteger();
+        this.workers = Executors.newFixedThreadPool(slots, runnable -> {
+            Thread thread = new Thread(runnable, "document-processing-" + threadCount.incrementAndGet());
+            thread.setDaemon(true);
+            return thread;
+        });
+
+        Gauge.builder("document.processing.in_flight", inFlight, AtomicInteger::get)
+                .description("Documents being processed on this node")
+                .register(meterRegistry);
+    }
+
+    @TransactionalEventListener
+    public void onDocumentStored(DocumentStoredEvent event) {
+        if (!properties.isEnabled()) {
+            return;
+        }
+        try {
+            dispatchDueJobs();
+        } catch (Exception e) {
+            // The poll picks the job up instead
+            log.warn("Could not dispatch processing of document ID: {} - {}", event.getDocumentId(), e.getMessage());
+        }
+    }
+
+    /**
+     * Queues a batch of documents stored before background processing existed, so they become
+     * searchable too.
+     *
+     * @return documents queued
+     */
+    public int enqueueBacklog() {
+        return documentProcessingRepository.enqueueUnprocessed(properties.getBacklogBatchSize());
+    }
+
+    /**
+     * Claims as many due jobs as there are free worker slots and starts them.
+     *
+     * @return jobs started
+     */
+    public int dispatchDueJobs() {
+        int free = slots - inFlight.get();
+        if (free <= 0) {
+            return 0;
+        }
+        List<ClaimedJob> jobs = documentProcessingRepository.claim(clusterNode.getId(), free, properties.getClaimLease());
+        for (ClaimedJob job : jobs) {
+            inFlight.incrementAndGet();
+            workers.execute(() -> {
+                try {
+                    process(job);
+                } finally {
+                    inFlight.decrementAndGet();
+                }
+            });
+        }
+        return jobs.size();
+    }
+
+    private void process(ClaimedJob job) {
+        try {
+            Document document = documentRepository.findById(job.documentId()).orElse(null);
+            if (document == null) {
+                documentProcessingRepository.finish(job.id(), DocumentProcessingStatus.SKIPPED);
+                return;
+            }
+
+            Long twin = documentArtifactRepository.findProcessedTwin(document.getId()).orElse(null);
+            if (twin != null) {
+                documentArtifactRepository.copy(twin, document.getId());
+                documentProcessingRepository.finish(job.id(), DocumentProcessingStatus.COMPLETED);
+                log.debug("Copied artifacts of document ID: {} to document ID: {}", twin, document.getId());
+                return;
+            }
+
+            try (SourceFile source = sourceOf(document)) {
+                if (!isPdf(source.path())) {
+                    documentArtifactRepository.markSkipped(document.getId());
+                    documentProcessingRepository.finish(job.id(), DocumentProcessingStatus.SKIPPED);
+                    return;
+                }
+                ExtractedContent content = extract(source.path());
+                documentArtifactRepository.save(document.getId(), content);
+                documentProcessingRepository.finish(job.id(), DocumentProcessingStatus.COMPLETED);
+                log.info("Processed document ID: {} ({} pages)", document.getId(), content.pageCount());
+            }
+        } catch (PermanentProcessingException e) {
+            log.warn("Giving up on processing document ID: {} - {}", job.documentId(), e.getMessage());
+            documentProcessingRepository.fail(job.id(), e.getMessage());
+        } catch (Exception e) {
+            int attempts = job.attempts() + 1;
+            if (attempts >= properties.getMaxAttempts()) {
+                log.error("Failed to process document ID: {} after {} attempts - {}",
+                        job.documentId(), attempts, e.getMessage());
+                documentProcessingRepository.fail(job.id(), e.getMessage());
+            } else {
+                Duration delay = properties.getRetryBaseDelay().multipliedBy(1L << Math.min(attempts - 1, 16));
+                log.warn("Failed to process document ID: {} (attempt {}), retrying in {} - {}",
+                        job.documentId(), attempts, delay, e.getMessage());
+                documentProcessingRepository.retryLater(job.id(), e.getMessage(), delay);
+            }
+        }
+    }
+
+    private ExtractedContent extract(Path pdfFile) throws IOException {
+        PDDocument pdf;
+        try {
+            pdf = Loader.loadPDF(pdfFile.toFile(), IOUtils.createTempFileOnlyStreamCache());
+        } catch (InvalidPasswordException e) {
+            throw new PermanentProcessingException("PDF is encrypted");
+        } catch (IOException e) {
+            throw new PermanentProcessingException("Unreadable PDF: " + e.getMessage());
+        }
+
+        try (pdf) {
+            int pageCount = pdf.getNumberOfPages();
+
+            PDFTextStripper stripper = new PDFTextStripper();
+            stripper.setEndPage(Math.min(pageCount, properties.getMaxTextPages()));
+            String text = clean(stripper.getText(pdf));
+            boolean truncated = pageCount > properties.getMaxTextPages();
+            if (text.length() > properties.getMaxTextLength()) {
+                text = text.substring(0, properties.getMaxTextLength());
+                truncated = true;
+            }
+
+            PDDocumentInformation info = pdf.getDocumentInformation();
+            String title = limit(clean(info.getTitle()), 500);
+            String author = limit(clean(info.getAuthor()), 255);
+
+            if (pageCount == 0) {
+                return new ExtractedContent(0, text, truncated, title, author, null, 0, 0);
+            }
+            BufferedImage image = renderThumbnail(pdf);
+            ByteArrayOutputStream jpeg = new ByteArrayOutputStream();
+            ImageIO.write(image, "jpg", jpeg);
+            return new ExtractedContent(pageCount, text, truncated, title, author,
+                    jpeg.toByteArray(), image.getWidth(), image.getHeight());
+        }
+    }
+
+    // First page at thumbnailWidth pixels wide, whatever its size or rotation
+    private BufferedImage renderThumbnail(PDDocument pdf) throws IOException {
+        PDPage page = pdf.getPage(0);
+        int rotation = page.getRotation();
+        float widthPoints = rotation % 180 == 0 ? page.getCropBox().getWidth() : page.getCropBox().getHeight();
+        float scale = properties.getThumbnailWidth() / Math.max(1f, widthPoints);
+        return new PDFRenderer(pdf).renderImage(0, scale, ImageType.RGB);
+    }
+
+    /**
+     * The document's content as a local file: the blob itself when the storage backend keeps it on
+     * this node, otherwise a temporary copy.
+     */
+    private SourceFile sourceOf(Document document) throws IOException {
+        String contentHash = document.getContentHash();
+        if (contentHash == null) {
+            Path legacy = Paths.get(document.getFileUrl());
+            if (!Files.isRegularFile(legacy)) {
+                throw new PermanentProcessingException("File not found: " + legacy);
+            }
+            return new SourceFile(legacy, false);
+        }
+
+        DocumentBlobRepository.BlobInfo blob = documentBlobRepository.find(contentHash)
+                .orElseThrow(() -> new PermanentProcessingException("No blob for content " + contentHash));
+        Path local = contentAddressedStore.localPath(contentHash, blob.tier()).orElse(null);
+        if (local != null) {
+            return new SourceFile(local, false);
+        }
+        Path copy = contentAddressedStore.createTempFile();
+        try (InputStream in = contentAddressedStore.open(contentHash, blob.tier(), 0)) {
+            Files.copy(in, copy, StandardCopyOption.REPLACE_EXISTING);
+        } catch (IOException | RuntimeException e) {
+            Files.deleteIfExists(copy);
+            throw e;
+        }
+        return new SourceFile(copy, true);
+    }
+
+    private record SourceFile(Path path, boolean temporary) implements AutoCloseable {
+
+        @Override
+        public void close() throws IOException {
+            if (temporary) {
+                Files.deleteIfExists(path);
+            }
+        }
+    }
+
+    private static boolean isPdf(Path file) throws IOException {
+        byte[] head;
+        try (InputStream in = Files.newInputStream(file)) {
+            head = in.readNBytes(MAGIC_SEARCH_BYTES);
+        }
+        for (int i = 0; i + PDF_MAGIC.length <= head.length; i++) {
+            int j = 0;
+            while (j < PDF_MAGIC.length && head[i + j] == PDF_MAGIC[j]) {
+                j++;
+            }
+            if (j == PDF_MAGIC.length) {
+                return true;
+            }
+        }
+        return false;
+    }
+
+    // PostgreSQL text cannot hold NUL characters, and search snippets use STX/ETX as highlight
+    // markers, so control characters other than whitespace are dropped
+    private static String clean(String value) {
+        return value == null ? null : CONTROL_CHARACTERS.matcher(value).replaceAll("").trim();
+    }
+
+    private static String limit(String value, int maxLength) {
+        if (value == null || value.isEmpty()) {
+            return null;
+        }
+        return value.length() <= maxLength ? value : value.substring(0, maxLength);
+    }
+
+    @PreDestroy
+    public void shutdown() {
+        // Unfinished jobs keep their claim until the lease passes, then any node picks them up again
+        workers.shutdownNow();
+    }
+
+    /**
+     * A failure retrying cannot fix.
+     */
+    private static class PermanentProcessingException extends RuntimeException {
+
+        PermanentProcessingException(String message) {
+            super(message);
+        }
+    }
+}
@@ -1,26 +1,50 @@
 package com.legalcms.service;
 
+import com.legalcms.config.DocumentProcessingProperties;
+import com.legalcms.dto.CursorPageResponse;
+import com.legalcms.dto.DocumentMetadataResponse;
 import com.legalcms.dto.DocumentResponse;
+import com.legalcms.dto.DocumentSearchResult;
+import com.legalcms.event.DocumentStoredEvent;
 import com.legalcms.model.CaseEntity;
 import com.legalcms.model.Document;
+import com.legalcms.model.DocumentProcessingStatus;
 import com.legalcms.model.DocumentType;
+import com.legalcms.model.StorageTier;
 import com.legalcms.model.User;
 import com.legalcms.repository.CaseRepository;
+import com.legalcms.repository.DocumentArtifactRepository;
+import com.legalcms.repository.DocumentBlobRepository;
+import com.legalcms.repository.DocumentProcessingRepository;
+import com.legalcms.repository.DocumentSearchRepository;
 import com.legalcms.repository.DocumentRepository;
 import com.legalcms.repository.UserRepository;
+import com.legalcms.storage.ContentAddressedStore;
+import com.legalcms.util.Constants;
+import com.legalcms.util.CursorUtil;
+import com.legalcms.util.ETagUtil;
+import com.legalcms.util.FileRangeStreamer;
+import com.legalcms.util.ResourceVersion;
 import lombok.RequiredArgsConstructor;
 import lombok.extern.slf4j.Slf4j;
+import org.springframework.context.ApplicationEventPublisher;
+import org.springframework.security.access.AccessDeniedException;
 import org.springframework.stereotype.Service;
 import org.springframework.transaction.annotation.Transactional;
 import org.springframework.web.multipart.MultipartFile;
+import org.springframework.web.util.HtmlUtils;
 
 import java.io.IOException;
+import java.nio.channels.Channels;
+import java.nio.channels.FileChannel;
 import java.nio.file.Files;
 import java.nio.file.Path;
 import java.nio.file.Paths;
-import java.nio.file.StandardCopyOption;
+import java.nio.file.attribute.BasicFileAttributes;
+import java.time.LocalDateTime;
+import java.time.ZoneId;
 import java.util.List;
-import java.util.UUID;
+import java.util.Optional;
 import java.util.stream.Collectors;
 
 @Service
@@ -31,8 +55,13 @@ public class DocumentService {
         private final DocumentRepository documentRepository;
         private final CaseRepository caseRepository;
         private final UserRepository userRepository;
-
-        private static final String UPLOAD_DIR = "uploads/documents/";
+        private final DocumentBlobRepository documentBlobRepository;
+        private final ContentAddressedStore contentAddressedStore;
+        private final DocumentProcessingRepository documentProcessingRepository;
+        private final DocumentArtifactRepository documentArtifactRepository;
+        private final DocumentSearchRepository documentSearchRepository;
+        private final DocumentProcessingProperties documentProcessingProperties;
+        private final ApplicationEventPublisher eventPublisher;
 
         @Transactional
         public DocumentResponse uploadDocument(Long caseId, MultipartFile file,
@@ -45,34 +74,9 @@ public class DocumentService {
                 User user = userRepository.findByEmail(userEmail)
                                 .orElseThrow(() -> new RuntimeException("User not found"));
 
-                try {
-                        // Create upload directory if not exists
-                        Path uploadPath = Paths.get(UPLOAD_DIR);
-                        if (!Files.exists(uploadPath)) {
-                                Files.createDirectories(uploadPath);
-                        }
-
-                        // Generate unique filename
-                        String originalFilename = file.getOriginalFilename();
-                        String fileExtension = originalFilename != null
-                                        ? originalFilename.substring(originalFilename.lastIndexOf("."))
-                                        : ".pdf";
-                        String uniqueFilename = UUID.randomUUID().toString() + fileExtension;
-
-                        // Save file
-                        Path filePath = uploadPath.resolve(uniqueFilename);
-                        Files.copy(file.getInputStream(), filePath, StandardCopyOption.REPLACE_EXISTING);
-
-                        // Save document record
-                        Document document = Document.builder()
-                                        .caseEntity(caseEntity)
-                                        .fileName(originalFilename)
-                                        .fileUrl(UPLOAD_DIR + uniqueFilename)
-                                        .documentType(documentType)
-                                        .uploadedBy(user)
-                                        .build();
-
-                        document = documentRepository.save(document);
+                // Hashed while it streams to the blob store's staging area
+                try (ContentAddressedStore.StagedBlob staged = contentAddressedStore.stage(file.getInputStream())) {
+                        Document document = storeBlob(caseEntity, user, staged, file.getOriginalFilename(), documentType);
                         log.info("Document uploaded successfully with ID: {}", document.getId());
 
                         return mapToDocumentResponse(document);
@@ -82,6 +86,58 @@ public class DocumentService {
                 }
         }
 
+        /**
+         * Records content already staged in the blob store (e.g. a downloaded court order) as a
+         * document of the case.
+         */
+        @Transactional
+        public Document storeStagedDocument(Long caseId, ContentAddressedStore.StagedBlob staged, String fileName,
+                        DocumentType documentType, String userEmail) {
+                CaseEntity caseEntity = caseRepository.findById(caseId)
+                                .orElseThrow(() -> new RuntimeException("Case not found"));
+
+                User user = userRepository.findByEmail(userEmail)
+                                .orElseThrow(() -> new RuntimeException("User not found"));
+
+                try {
+                        Document document = storeBlob(caseEntity, user, staged, fileName, documentType);
+                        log.info("Stored {} for case ID: {} as document ID: {}", documentType, caseId, document.getId());
+                        return document;
+                } catch (IOException e) {
+                        log.error("Error storing staged document", e);
+                        throw new RuntimeException("Failed to store document: " + e.getMessage());
+                }
+        }
+
+        /**
+         * Commits staged content to the content-addressed store and records the document. The blob
+         * row is touched before the file is committed, so the garbage collector cannot delete an
+         * identical blob this document is about to share. Background processing is queued in the
+         * same transaction.
+         */
+        private Document storeBlob(CaseEntity caseEntity, User user, ContentAddressedStore.StagedBlob staged,
+                        String fileName, DocumentType documentType) throws IOException {
+                documentBlobRepository.touch(staged.contentHash(), staged.size());
+                String blobKey = contentAddressedStore.commit(staged);
+
+                Document document = documentRepository.save(Document.builder()
+                                .caseEntity(caseEntity)
+                                .fileName(fileName)
+                                .fileUrl(blobKey)
+                                .documentType(documentType)
+                                .uploadedBy(user)
+                                .contentHash(staged.contentHash())
+                                .build());
+                if (documentProcessingProperties.isEnabled()) {
+                        documentProcessingRepository.enqueue(document.getId());
+                }
+                eventPublisher.publishEvent(DocumentStoredEvent.builder()
+                                .documentId(document.getId())
+                                .caseId(caseEntity.getId())
+                                .build());
+                return document;
+        }
+
         @Transactional(readOnly = true)
         public List<DocumentResponse> getDocumentsByCaseId(Long caseId) {
                 log.info("Fetching documents for case ID: {}", caseId);
@@ -94,6 +150,19 @@ public class DocumentService {
                                 .collect(Collectors.toList());
         }
 
+        // Processing results change the listing too (page counts, thumbnails), as do uploaders' names
+        @Transactional(readOnly = true)
+        public ResourceVersion getDocumentsVersion(Long caseId) {
+                DocumentRepository.DocumentCollectionVersion version =
+                                documentRepository.findCollectionVersionByCaseId(caseId);
+                return new ResourceVersion(
+                                ETagUtil.strongETag("documents", caseId, version.getCount(), version.getMaxId(),
+                                                version.getLastUploaded(), version.getLastProcessed(),
+                                                version.getUploaderLastUpdated()),
+                                ETagUtil.latest(version.getLastUploaded(), version.getLastProcessed(),
+                                                version.getUploaderLastUpdated()));
+        }
+
         @Transactional(readOnly = true)
         public List<DocumentResponse> getAllDocuments() {
                 log.info("Fetching all documents");
@@ -109,6 +178,182 @@ public class DocumentService {
                                 .orElseThrow(() -> new RuntimeException("Document not found"));
         }
 
+        @Transactional(readOnly = true)
+        public DocumentResponse getDocumentResponse(Long documentId) {
+                return mapToDocumentResponse(getDocumentById(documentId));
+        }
+
+        /**
+         * Locates a document's content and its validators. Content-addressed documents never change,
+         * so their ETag is fixed; they are served from whichever storage tier holds them.
+         */
+        @Transactional(readOnly = true)
+        public FileRangeStreamer.StoredFile getDocumentFile(Long documentId) {
+                Document document = getDocumentById(documentId);
+                String contentHash = document.getContentHash();
+                if (contentHash == null) {
+                        return getLegacyDocumentFile(document);
+                }
+
+                DocumentBlobRepository.BlobInfo blob = documentBlobRepository.find(contentHash)
+                                .orElseThrow(() -> new RuntimeException("File not found or not readable"));
+                StorageTier tier = blob.tier();
+                return new FileRangeStreamer.StoredFile(
+                                contentAddressedStore.localPath(contentHash, tier).orElse(null),
+                                offset -> contentAddressedStore.open(contentHash, tier, offset),
+                                document.getFileName(),
+                                blob.sizeBytes(),
+                                document.getUploadedAt(),
+                                ETagUtil.strongETag("document", document.getId(), contentHash));
+        }
+
+        // Documents uploaded before the content-addressed store keep their file on local disk
+        private FileRangeStreamer.StoredFile getLegacyDocumentFile(Document document) {
+                Path filePath = Paths.get(document.getFileUrl());
+                if (!Files.isRegularFile(filePath) || !Files.isReadable(filePath)) {
+                        throw new RuntimeException("File not found or not readable");
+                }
+                try {
+                        BasicFileAttributes attributes = Files.readAttributes(filePath, BasicFileAttributes.class);
+                        long modifiedMillis = attributes.lastModifiedTime().toMillis();
+                        return new FileRangeStreamer.StoredFile(
+                                        filePath,
+                                        offset -> Channels.newInputStream(FileChannel.open(filePath).position(offset)),
+                                        document.getFileName(),
+                                        attributes.size(),
+                                        LocalDateTime.ofInstant(attributes.lastModifiedTime().toInstant(), ZoneId.systemDefault()),
+                                        ETagUtil.strongETag("document", document.getId(), attributes.size(), modifiedMillis));
+                } catch (IOException e) {
+                        throw new RuntimeException("Error retrieving document: " + e.getMessage());
+                }
+        }
+
+        /**
+         * Full-text search of extracted document text, most relevant first. Admins search every
+         * document; advocates only documents of the cases assigned to them.
+         */
+        @Transactional(readOnly = true)
+        public CursorPageResponse<DocumentSearchResult> searchDocuments(String query, Long caseId,
+                        DocumentType documentType, String userEmail, String cursor, Integer size) {
+                if (query == null || query.isBlank()) {
+                        throw new IllegalArgumentException("Search query must not be empty");
+                }
+                if (query.length() > Constants.MAX_SEARCH_QUERY_LENGTH) {
+                        throw new IllegalArgumentException(
+                                        "Search query must be at most " + Constants.MAX_SEARCH_QUERY_LENGTH + " characters");
+                }
+                User user = userRepository.findByEmail(userEmail)
+                                .orElseThrow(() -> new RuntimeException("User not found"));
+                Long advocateId = switch (user.getRole()) {
+                        case ADMIN -> null;
+                        case ADVOCATE -> user.getId();
+                        default -> throw new AccessDeniedException("Only admins and advocates can search documents");
+                };
+
+                int pageSize = CursorUtil.resolvePageSize(size);
+                CursorUtil.ScoredCursor after = CursorUtil.decodeScored(cursor);
+                List<DocumentSearchRepository.DocumentMatch> matches = documentSearchRepository.search(query.trim(),
+                                caseId, documentType, advocateId,
+                                after != null ? after.score() : Float.MAX_VALUE,
+                                after != null ? after.id() : Long.MAX_VALUE,
+                                pageSize + 1);
+
+                boolean hasMore = matches.size() > pageSize;
+                List<DocumentSearchRepository.DocumentMatch> page = hasMore ? matches.subList(0, pageSize) : matches;
+                List<DocumentSearchResult> items = page.stream()
+                                .map(this::mapToSearchResult)
+                                .collect(Collectors.toList());
+                DocumentSearchRepository.DocumentMatch last = page.isEmpty() ? null : page.get(page.size() - 1);
+
+                return CursorPageResponse.<DocumentSearchResult>builder()
+                                .items(items)
+                                .size(items.size())
+                                .hasMore(hasMore)
+                                .nextCursor(hasMore ? CursorUtil.encodeScored(last.score(), last.documentId()) : null)
+                                .build();
+        }
+
+        private DocumentSearchResult mapToSearchResult(DocumentSearchRepository.DocumentMatch match) {
+                return DocumentSearchResult.builder()
+                                .documentId(match.documentId())
+                                .caseId(match.caseId())
+                                .caseNumber(match.caseNumber())
+                                .fileName(match.fileName())
+                                .documentType(match.documentType())
+                                .uploadedAt(match.uploadedAt())
+                                .pageCount(match.pageCount())
+                                .title(match.title())
+                                .snippet(highlightSnippet(match.snippet()))
+                                .score(match.score())
+                                .thumbnailUrl(match.hasThumbnail() ? "/api/documents/" + match.documentId() + "/thumbnail" : null)
+                                .build();
+        }
+
+        // Document text is untrusted; escape it before turning the highlight markers into markup
+        private static String highlightSnippet(String snippet) {
+                if (snippet == null || snippet.isBlank()) {
+                        return null;
+                }
+                return HtmlUtils.htmlEscape(snippet.strip())
+                                .replace(String.valueOf(DocumentSearchRepository.HIGHLIGHT_START), "<mark>")
+                                .replace(String.valueOf(DocumentSearchRepository.HIGHLIGHT_END), "</mark>");
+        }
+
+        /**
+         * Validators of a document's metadata, which change once when processing finishes.
+         */
+        @Transactional(readOnly = true)
+        public ResourceVersion getMetadataVersion(Long documentId) {
+                Document document = getDocumentById(documentId);
+                DocumentProcessingStatus status = documentProcessingRepository.findStatus(documentId).orElse(null);
+                return new ResourceVersion(
+                                ETagUtil.strongETag("document-metadata", documentId, status, document.getProcessedAt()),
+                                document.getProcessedAt() != null ? document.getProcessedAt() : document.getUploadedAt());
+        }
+
+        @Transactional(readOnly = true)
+        public DocumentMetadataResponse getDocumentMetadata(Long documentId) {
+                Document document = getDocumentById(documentId);
+                DocumentMetadataResponse.DocumentMetadataResponseBuilder response = DocumentMetadataResponse.builder()
+                                .documentId(document.getId())
+                                .fileName(document.getFileName())
+                                .processingStatus(documentProcessingRepository.findStatus(documentId).orElse(null))
+                                .pageCount(document.getPageCount())
+                                .thumbnailUrl(thumbnailUrlOf(document))
+                                .processedAt(document.getProcessedAt());
+                documentArtifactRepository.findTextMetadata(documentId).ifPresent(text -> response
+                                .title(text.title())
+                                .author(text.author())
+                                .textLength(text.textLength())
+                                .textTruncated(text.truncated()));
+                return response.build();
+        }
+
+        /**
+         * Validators of a document's thumbnail; empty while the document has none. Thumbnails of a
+         * document never change once rendered.
+         */
+        @Transactional(readOnly = true)
+        public Optional<ResourceVersion> getThumbnailVersion(Long documentId) {
+                Document document = getDocumentById(documentId);
+                if (!Boolean.TRUE.equals(document.getHasThumbnail())) {
+                        return Optional.empty();
+                }
+                return Optional.of(new ResourceVersion(
+                                ETagUtil.strongETag("thumbnail", documentId, document.getContentHash(), document.getProcessedAt()),
+                                document.getProcessedAt()));
+        }
+
+        public Optional<byte[]> getThumbnail(Long documentId) {
+                return documentArtifactRepository.findThumbnail(documentId);
+        }
+
+        private static String thumbnailUrlOf(Document document) {
+                return Boolean.TRUE.equals(document.getHasThumbnail())
+                                ? "/api/documents/" + document.getId() + "/thumbnail"
+                                : null;
+        }
+
         private DocumentResponse mapToDocumentResponse(Document document) {
                 return DocumentResponse.builder()
                                 .id(document.getId())
@@ -118,6 +363,8 @@ public class DocumentService {
                                 .documentType(document.getDocumentType())
                                 .uploadedByName(document.getUploadedBy().getFullName())
                                 .uploadedAt(document.getUploadedAt())
+                                .pageCount(document.getPageCount())
+                                .thumbnailUrl(thumbnailUrlOf(document))
                                 .build();
         }
 }
@@ -0,0 +1,86 @@
+package com.legalcms.service;
+
+import com.legalcms.config.StorageProperties;
+import com.legalcms.repository.DocumentBlobRepository;
+import com.legalcms.storage.ContentAddressedStore;
+import lombok.RequiredArgsConstructor;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import java.io.IOException;
+import java.io.UncheckedIOException;
+import java.util.List;
+
+/**
+ * Document Tiering
+ *
+ * Moves blobs that only documents of DISPOSED cases refer to into gzip-compressed cold storage:
+ * - the compressed copy is written first, while the blob is still served from the hot tier
+ * - the row is then switched to COLD and the hot copy deleted in one transaction; the row lock
+ *   makes a concurrent upload of the same content wait, then recreate the hot copy
+ * - reads fall back to the other tier, so a reader that saw HOT just before the switch still finds
+ *   the content
+ *
+ * Documents of cases that are reopened are served from the cold tier until their content is
+ * uploaded again. Copies left behind by an interrupted run are removed by the blob GC.
+ */
+@Service
+@RequiredArgsConstructor
+@Slf4j
+public class DocumentTieringService {
+
+    private final DocumentBlobRepository documentBlobRepository;
+    private final ContentAddressedStore contentAddressedStore;
+    private final StorageProperties properties;
+    private final PlatformTransactionManager transactionManager;
+
+    public record TieringResult(int moved, int skipped, int failed) {
+    }
+
+    public TieringResult moveDisposedToCold() {
+        int batchSize = properties.getTiering().getBatchSize();
+        TransactionTemplate transactionTemplate = new TransactionTemplate(transactionManager);
+
+        int moved = 0;
+        int skipped = 0;
+        int failed = 0;
+        String after = "";
+        List<String> candidates;
+        do {
+            candidates = documentBlobRepository.findColdCandidates(after, batchSize);
+            for (String contentHash : candidates) {
+                try {
+                    contentAddressedStore.writeCold(contentHash);
+                    Boolean switched = transactionTemplate.execute(status -> {
+                        if (!documentBlobRepository.markCold(contentHash)) {
+                            return false;
+                        }
+                        try {
+                            contentAddressedStore.deleteHot(contentHash);
+                        } catch (IOException e) {
+                            throw new UncheckedIOException("Failed to delete hot copy of " + contentHash, e);
+                        }
+                        return true;
+                    });
+                    if (Boolean.TRUE.equals(switched)) {
+                        moved++;
+                    } else {
+                        skipped++;
+                    }
+                } catch (IOException | RuntimeException e) {
+                    log.warn("Could not move blob {} to cold storage: {}", contentHash, e.getMessage());
+                    failed++;
+                }
+            }
+            if (!candidates.isEmpty()) {
+                after = candidates.get(candidates.size() - 1);
+            }
+        } while (candidates.size() >= batchSize);
+
+        log.info("Tiering moved {} blobs of disposed cases to cold storage ({} skipped, {} failed)",
+                moved, skipped, failed);
+        return new TieringResult(moved, skipped, failed);
+    }
+}
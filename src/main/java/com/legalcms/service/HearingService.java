@@ -5,6 +5,8 @@ import com.legalcms.model.CaseEntity;
 import com.legalcms.model.Hearing;
 import com.legalcms.repository.CaseRepository;
 import com.legalcms.repository.HearingRepository;
+import com.legalcms.util.ETagUtil;
+import com.legalcms.util.ResourceVersion;
 import lombok.RequiredArgsConstructor;
 import lombok.extern.slf4j.Slf4j;
 import org.springframework.stereotype.Service;
@@ -33,6 +35,14 @@ public class HearingService {
                 .collect(Collectors.toList());
     }
 
+    @Transactional(readOnly = true)
+    public ResourceVersion getHearingsVersion(Long caseId) {
+        HearingRepository.HearingCollectionVersion version = hearingRepository.findCollectionVersionByCaseId(caseId);
+        return new ResourceVersion(
+                ETagUtil.strongETag("hearings", caseId, version.getCount(), version.getMaxId()),
+                null);
+    }
+
     private HearingResponse mapToHearingResponse(Hearing hearing) {
         return HearingResponse.builder()
                 .id(hearing.getId())
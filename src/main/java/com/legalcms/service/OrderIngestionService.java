@@ -0,0 +1,388 @@
+package com.legalcms.service;
+
+import com.legalcms.config.OrderIngestionProperties;
+import com.legalcms.model.Document;
+import com.legalcms.model.DocumentType;
+import com.legalcms.model.OrderIngestionStatus;
+import com.legalcms.repository.DocumentRepository;
+import com.legalcms.repository.OrderIngestionRepository;
+import com.legalcms.repository.OrderIngestionRepository.ClaimedJob;
+import com.legalcms.scheduler.ClusterNode;
+import com.legalcms.storage.ContentAddressedStore;
+import io.micrometer.core.instrument.Gauge;
+import io.micrometer.core.instrument.MeterRegistry;
+import jakarta.annotation.PreDestroy;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.stereotype.Service;
+
+import java.io.IOException;
+import java.io.InputStream;
+import java.io.OutputStream;
+import java.net.Inet6Address;
+import java.net.InetAddress;
+import java.net.URI;
+import java.net.URLDecoder;
+import java.net.UnknownHostException;
+import java.net.http.HttpClient;
+import java.net.http.HttpRequest;
+import java.net.http.HttpResponse;
+import java.net.http.HttpTimeoutException;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.security.MessageDigest;
+import java.security.NoSuchAlgorithmException;
+import java.time.Duration;
+import java.util.HexFormat;
+import java.util.List;
+import java.util.Locale;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.ScheduledExecutorService;
+import java.util.concurrent.ScheduledFuture;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicBoolean;
+import java.util.concurrent.atomic.AtomicInteger;
+
+/**
+ * Order Ingestion Service
+ *
+ * Downloads the court orders queued in order_ingestion_jobs into the document store:
+ * - a dedicated pool of app.order-ingestion.max-concurrency download threads, separate from the
+ *   request and scheduling threads
+ * - backpressure: jobs are only claimed while a download slot is free, so a burst of new orders
+ *   waits in the database rather than in memory
+ * - each download is streamed into the blob store's staging area through a SHA-256 digest, never
+ *   held in memory, and aborted once it exceeds app.order-ingestion.max-file-size
+ * - an order whose content the case already has is recorded as DUPLICATE instead of stored again;
+ *   otherwise it becomes an ORDER document uploaded by the configured system user
+ * - failures are retried with exponential backoff up to max-attempts; 404/410, oversized files and
+ *   unsupported URLs fail at once
+ * - order URLs come from court responses, so only hosts in app.order-ingestion.allowed-hosts are
+ *   fetched, and never one that resolves to a loopback, link-local or private address; redirects
+ *   are followed by hand so each target passes the same checks
+ * - request-timeout bounds the whole download, body and redirects included, not just the headers
+ */
+@Service
+@Slf4j
+public class OrderIngestionService {
+
+    private static final int BUFFER_SIZE = 64 * 1024;
+
+    private final OrderIngestionRepository orderIngestionRepository;
+    private final DocumentRepository documentRepository;
+    private final DocumentService documentService;
+    private final ContentAddressedStore contentAddressedStore;
+    private final OrderIngestionProperties properties;
+    private final ClusterNode clusterNode;
+    private final HttpClient httpClient;
+    private final ExecutorService downloaders;
+    private final ScheduledExecutorService deadlines;
+    private final int slots;
+    private final AtomicInteger inFlight = new AtomicInteger();
+
+    public OrderIngestionService(OrderIngestionRepository orderIngestionRepository,
+                                 DocumentRepository documentRepository,
+                                 DocumentService documentService,
+                                 ContentAddressedStore contentAddressedStore,
+                                 OrderIngestionProperties properties,
+                                 ClusterNode clusterNode,
+                                 MeterRegistry meterRegistry) {
+        this.orderIngestionRepository = orderIngestionRepository;
+        this.documentRepository = documentRepository;
+        this.documentService = documentService;
+        this.contentAddressedStore = contentAddressedStore;
+        this.properties = properties;
+        this.clusterNode = clusterNode;
+        this.slots = Math.max(1, properties.getMaxConcurrency());
+
+        AtomicInteger threadCount = new AtomicInteger();
+        this.downloaders = Executors.newFixedThreadPool(slots, runnable -> {
+            Thread thread = new Thread(runnable, "order-ingestion-" + threadCount.incrementAndGet());
+            thread.setDaemon(true);
+            return thread;
+        });
+        this.deadlines = Executors.newSingleThreadScheduledExecutor(runnable -> {
+            Thread thread = new Thread(runnable, "order-ingestion-deadline");
+            thread.setDaemon(true);
+            return thread;
+        });
+        this.httpClient = HttpClient.newBuilder()
+                .connectTimeout(properties.getConnectTimeout())
+                .followRedirects(HttpClient.Redirect.NEVER)
+                .build();
+
+        Gauge.builder("order.ingestion.in_flight", inFlight, AtomicInteger::get)
+                .description("Court order downloads in progress on this node")
+                .register(meterRegistry);
+    }
+
+    /**
+     * Claims as many due jobs as there are free download slots and starts them.
+     *
+     * @return jobs started
+     */
+    public int dispatchDueJobs() {
+        int free = slots - inFlight.get();
+        if (free <= 0) {
+            return 0;
+        }
+        List<ClaimedJob> jobs = orderIngestionRepository.claim(clusterNode.getId(), free, properties.getClaimLease());
+        for (ClaimedJob job : jobs) {
+            inFlight.incrementAndGet();
+            downloaders.execute(() -> {
+                try {
+                    ingest(job);
+                } finally {
+                    inFlight.decrementAndGet();
+                }
+            });
+        }
+        return jobs.size();
+    }
+
+    private void ingest(ClaimedJob job) {
+        Path download = null;
+        try {
+            URI uri = parseUrl(job.orderUrl());
+            download = contentAddressedStore.createTempFile();
+            String contentHash = download(uri, download);
+
+            List<Long> existing = documentRepository.findIdsByCaseIdAndContentHash(job.caseId(), contentHash);
+            if (!existing.isEmpty()) {
+                log.info("Order {} of case ID: {} is already stored as document ID: {}",
+                        job.orderUrl(), job.caseId(), existing.get(0));
+                orderIngestionRepository.finish(job.id(), OrderIngestionStatus.DUPLICATE.name(), existing.get(0), contentHash);
+                return;
+            }
+
+            ContentAddressedStore.StagedBlob staged =
+                    new ContentAddressedStore.StagedBlob(download, contentHash, Files.size(download));
+            Document document = documentService.storeStagedDocument(job.caseId(), staged, fileNameOf(uri, job),
+                    DocumentType.ORDER, properties.getSystemUserEmail());
+            orderIngestionRepository.finish(job.id(), OrderIngestionStatus.COMPLETED.name(), document.getId(), contentHash);
+        } catch (PermanentIngestionException e) {
+            log.warn("Giving up on order {} of case ID: {} - {}", job.orderUrl(), job.caseId(), e.getMessage());
+            orderIngestionRepository.fail(job.id(), e.getMessage());
+        } catch (Exception e) {
+            if (e instanceof InterruptedException) {
+                Thread.currentThread().interrupt();
+            }
+            int attempts = job.attempts() + 1;
+            if (attempts >= properties.getMaxAttempts()) {
+                log.error("Failed to ingest order {} of case ID: {} after {} attempts - {}",
+                        job.orderUrl(), job.caseId(), attempts, e.getMessage());
+                orderIngestionRepository.fail(job.id(), e.getMessage());
+            } else {
+                Duration delay = properties.getRetryBaseDelay().multipliedBy(1L << Math.min(attempts - 1, 16));
+                log.warn("Failed to ingest order {} of case ID: {} (attempt {}), retrying in {} - {}",
+                        job.orderUrl(), job.caseId(), attempts, delay, e.getMessage());
+                orderIngestionRepository.retryLater(job.id(), e.getMessage(), delay);
+            }
+        } finally {
+            if (download != null) {
+                try {
+                    Files.deleteIfExists(download);
+                } catch (IOException e) {
+                    log.warn("Could not delete temporary download {}", download);
+                }
+            }
+        }
+    }
+
+    /**
+     * Downloads {@code uri} to {@code target}, following redirects to allowed hosts.
+     *
+     * @return hex SHA-256 of the body
+     */
+    String download(URI uri, Path target) throws IOException, InterruptedException {
+        long deadline = System.nanoTime() + properties.getRequestTimeout().toNanos();
+        URI current = checkAllowed(uri);
+        for (int redirects = 0; ; redirects++) {
+            HttpRequest request = HttpRequest.newBuilder(current)
+                    .timeout(remaining(deadline))
+                    .GET()
+                    .build();
+            HttpResponse<InputStream> response = httpClient.send(request, HttpResponse.BodyHandlers.ofInputStream());
+            if (!isRedirect(response.statusCode())) {
+                return readBody(response, target, deadline);
+            }
+
+            response.body().close();
+            if (redirects >= properties.getMaxRedirects()) {
+                throw new PermanentIngestionException("Order URL redirected more than " + properties.getMaxRedirects() + " times");
+            }
+            String location = response.headers().firstValue("Location")
+                    .orElseThrow(() -> new IOException("HTTP " + response.statusCode() + " without a Location header"));
+            try {
+                current = checkAllowed(parseUrl(current.resolve(location.trim()).toString()));
+            } catch (IllegalArgumentException e) {
+                throw new PermanentIngestionException("Invalid redirect target: " + location);
+            }
+        }
+    }
+
+    /**
+     * Streams the response body to {@code target}, hashing it on the way.
+     */
+    private String readBody(HttpResponse<InputStream> response, Path target, long deadline) throws IOException {
+        long maxBytes = properties.getMaxFileSize().toBytes();
+        AtomicBoolean timedOut = new AtomicBoolean();
+        try (InputStream body = response.body()) {
+            int status = response.statusCode();
+            if (status == 404 || status == 410) {
+                throw new PermanentIngestionException("Order not found upstream (HTTP " + status + ")");
+            }
+            if (status < 200 || status >= 300) {
+                throw new IOException("Unexpected HTTP " + status + " downloading order");
+            }
+            long declared = response.headers().firstValueAsLong("Content-Length").orElse(-1);
+            if (declared > maxBytes) {
+                throw new PermanentIngestionException("Order of " + declared + " bytes exceeds the size limit");
+            }
+
+            // The request timeout only covers the headers; closing the body ends a read that is still blocked
+            ScheduledFuture<?> watchdog = deadlines.schedule(() -> {
+                timedOut.set(true);
+                try {
+                    body.close();
+                } catch (IOException ignored) {
+                    // The read fails or ends either way
+                }
+            }, deadline - System.nanoTime(), TimeUnit.NANOSECONDS);
+            try {
+                MessageDigest digest = sha256();
+                byte[] buffer = new byte[BUFFER_SIZE];
+                long total = 0;
+                try (OutputStream out = Files.newOutputStream(target)) {
+                    int read;
+                    while ((read = body.read(buffer)) != -1) {
+                        total += read;
+                        if (total > maxBytes) {
+                            throw new PermanentIngestionException("Order exceeds the size limit of " + maxBytes + " bytes");
+                        }
+                        digest.update(buffer, 0, read);
+                        out.write(buffer, 0, read);
+                    }
+                }
+                // A closed body reads as a normal end of stream
+                if (timedOut.get()) {
+                    throw downloadTimedOut();
+                }
+                return HexFormat.of().formatHex(digest.digest());
+            } catch (IOException e) {
+                throw timedOut.get() ? downloadTimedOut() : e;
+            } finally {
+                watchdog.cancel(false);
+            }
+        }
+    }
+
+    private IOException downloadTimedOut() {
+        return new HttpTimeoutException("Order download did not finish within " + properties.getRequestTimeout());
+    }
+
+    private Duration remaining(long deadline) throws HttpTimeoutException {
+        long nanos = deadline - System.nanoTime();
+        if (nanos <= 0) {
+            throw new HttpTimeoutException("Order download did not finish within " + properties.getRequestTimeout());
+        }
+        return Duration.ofNanos(nanos);
+    }
+
+    private static boolean isRedirect(int status) {
+        return status == 301 || status == 302 || status == 303 || status == 307 || status == 308;
+    }
+
+    /**
+     * Only allowed court hosts, and only while they resolve to public addresses.
+     */
+    private URI checkAllowed(URI uri) throws UnknownHostException {
+        String host = uri.getHost();
+        if (host == null || !isAllowedHost(host.toLowerCase(Locale.ROOT))) {
+            throw new PermanentIngestionException("Order host is not an allowed court host: " + uri.getHost());
+        }
+        if (!properties.isAllowPrivateNetworks()) {
+            for (InetAddress address : InetAddress.getAllByName(host)) {
+                if (!isPublic(address)) {
+                    throw new PermanentIngestionException("Order host " + host + " resolves to non-public address "
+                            + address.getHostAddress());
+                }
+            }
+        }
+        return uri;
+    }
+
+    private boolean isAllowedHost(String host) {
+        for (String allowed : properties.getAllowedHosts()) {
+            String pattern = allowed.trim().toLowerCase(Locale.ROOT);
+            if (pattern.startsWith("*.") ? host.endsWith(pattern.substring(1)) : host.equals(pattern)) {
+                return true;
+            }
+        }
+        return false;
+    }
+
+    private static boolean isPublic(InetAddress address) {
+        if (address.isAnyLocalAddress() || address.isLoopbackAddress() || address.isLinkLocalAddress()
+                || address.isSiteLocalAddress() || address.isMulticastAddress()) {
+            return false;
+        }
+        byte[] bytes = address.getAddress();
+        if (address instanceof Inet6Address) {
+            // Unique local fc00::/7
+            return (bytes[0] & 0xfe) != 0xfc;
+        }
+        // 0.0.0.0/8 and shared address space 100.64.0.0/10
+        return bytes[0] != 0 && !((bytes[0] & 0xff) == 100 && (bytes[1] & 0xc0) == 64);
+    }
+
+    private static URI parseUrl(String orderUrl) {
+        try {
+            URI uri = URI.create(orderUrl.trim());
+            String scheme = uri.getScheme();
+            if (!"http".equalsIgnoreCase(scheme) && !"https".equalsIgnoreCase(scheme)) {
+                throw new PermanentIngestionException("Unsupported order URL: " + orderUrl);
+            }
+            return uri;
+        } catch (IllegalArgumentException e) {
+            throw new PermanentIngestionException("Invalid order URL: " + orderUrl);
+        }
+    }
+
+    private static String fileNameOf(URI uri, ClaimedJob job) {
+        String path = uri.getRawPath();
+        if (path != null) {
+            String segment = URLDecoder.decode(path.substring(path.lastIndexOf('/') + 1), StandardCharsets.UTF_8).trim();
+            if (!segment.isEmpty()) {
+                return segment;
+            }
+        }
+        return "order-" + job.caseId() + "-" + job.id() + ".pdf";
+    }
+
+    private static MessageDigest sha256() {
+        try {
+            return MessageDigest.getInstance("SHA-256");
+        } catch (NoSuchAlgorithmException e) {
+            throw new IllegalStateException("SHA-256 not available", e);
+        }
+    }
+
+    @PreDestroy
+    public void shutdown() {
+        // Unfinished jobs keep their claim until the lease passes, then any node picks them up again
+        downloaders.shutdownNow();
+        deadlines.shutdownNow();
+    }
+
+    /**
+     * A failure retrying cannot fix.
+     */
+    static class PermanentIngestionException extends RuntimeException {
+
+        PermanentIngestionException(String message) {
+            super(message);
+        }
+    }
+}
@@ -1,10 +1,12 @@
 package com.legalcms.service;
 
+import com.legalcms.config.CacheConfig;
 import com.legalcms.dto.UserResponse;
 import com.legalcms.model.User;
 import com.legalcms.repository.UserRepository;
 import lombok.RequiredArgsConstructor;
 import lombok.extern.slf4j.Slf4j;
+import org.springframework.cache.annotation.CacheEvict;
 import org.springframework.stereotype.Service;
 import org.springframework.transaction.annotation.Transactional;
 
@@ -42,6 +44,8 @@ public class UserService {
         return mapToUserResponse(user);
     }
 
+    // Cached case responses embed the assigned advocate's name and email
+    @CacheEvict(cacheNames = CacheConfig.CASES, allEntries = true)
     @Transactional
     public UserResponse updateUserProfile(String email, com.legalcms.dto.UpdateUserRequest request) {
         log.info("Updating user profile for email: {}", email);
@@ -0,0 +1,254 @@
+package com.legalcms.storage;
+
+import com.legalcms.config.StorageProperties;
+import com.legalcms.model.StorageTier;
+import org.springframework.stereotype.Component;
+
+import java.io.IOException;
+import java.io.InputStream;
+import java.io.OutputStream;
+import java.nio.file.Files;
+import java.nio.file.NoSuchFileException;
+import java.nio.file.Path;
+import java.nio.file.Paths;
+import java.security.DigestInputStream;
+import java.security.MessageDigest;
+import java.security.NoSuchAlgorithmException;
+import java.time.Instant;
+import java.util.HexFormat;
+import java.util.Optional;
+import java.util.function.Consumer;
+import java.util.regex.Matcher;
+import java.util.regex.Pattern;
+import java.util.stream.Stream;
+import java.util.zip.GZIPInputStream;
+import java.util.zip.GZIPOutputStream;
+
+/**
+ * Content-Addressed Store
+ *
+ * Keeps each distinct file once, named by the SHA-256 of its content, in the configured
+ * DocumentStorage backend:
+ * - hot blobs at ab/cd/abcd1234... - two fan-out levels of 256 each, so no directory grows past
+ *   a few thousand entries even with hundreds of millions of blobs
+ * - cold blobs gzip-compressed at cold/ab/cd/abcd1234....gz
+ * - content is first streamed to {blob-root}/tmp on local disk while it is hashed, then handed to
+ *   the backend; a blob key therefore only ever holds complete content
+ * - storing content that is already present just drops the staged copy
+ * - resumable uploads assemble their content in {blob-root}/sessions, which is on the same file
+ *   system and so can be committed by rename too
+ *
+ * Which blobs are still needed, and in which tier, is tracked in the database (document_blobs), not here.
+ */
+@Component
+public class ContentAddressedStore {
+
+    private static final Pattern HASH = Pattern.compile("[0-9a-f]{64}");
+    private static final Pattern HOT_KEY = Pattern.compile("[0-9a-f]{2}/[0-9a-f]{2}/([0-9a-f]{64})");
+    private static final Pattern COLD_KEY = Pattern.compile("cold/[0-9a-f]{2}/[0-9a-f]{2}/([0-9a-f]{64})\\.gz");
+    private static final int BUFFER_SIZE = 64 * 1024;
+
+    private final DocumentStorage storage;
+    private final Path tmp;
+    private final Path sessions;
+
+    public ContentAddressedStore(DocumentStorage storage, StorageProperties properties) {
+        this.storage = storage;
+        Path root = Paths.get(properties.getBlobRoot());
+        this.tmp = root.resolve("tmp");
+        this.sessions = root.resolve("sessions");
+    }
+
+    /**
+     * Content written to the staging area but not yet committed. Closing it removes the staged
+     * file unless it was committed.
+     */
+    public record StagedBlob(Path file, String contentHash, long size) implements AutoCloseable {
+
+        @Override
+        public void close() throws IOException {
+            Files.deleteIfExists(file);
+        }
+    }
+
+    /**
+     * A blob found in the backend.
+     */
+    public record StoredBlob(String contentHash, StorageTier tier, Instant lastModified) {
+    }
+
+    /**
+     * Streams content into the staging area, hashing it on the way.
+     */
+    public StagedBlob stage(InputStream content) throws IOException {
+        Path file = createTempFile();
+        try {
+            MessageDigest digest = sha256();
+            long size = 0;
+            try (InputStream in = new DigestInputStream(content, digest);
+                 OutputStream out = Files.newOutputStream(file)) {
+                byte[] buffer = new byte[BUFFER_SIZE];
+                int read;
+                while ((read = in.read(buffer)) != -1) {
+                    out.write(buffer, 0, read);
+                    size += read;
+                }
+            }
+            return new StagedBlob(file, HexFormat.of().formatHex(digest.digest()), size);
+        } catch (IOException | RuntimeException e) {
+            Files.deleteIfExists(file);
+            throw e;
+        }
+    }
+
+    /**
+     * An empty file in the staging area, for callers that hash content themselves while writing it.
+     */
+    public Path createTempFile() throws IOException {
+        return Files.createTempFile(Files.createDirectories(tmp), "blob-", ".part");
+    }
+
+    /**
+     * Part file of a resumable upload session. Unlike the staging area it is not swept by age; its
+     * session's lifecycle removes it.
+     */
+    public Path sessionFile(String sessionId) throws IOException {
+        return Files.createDirectories(sessions).resolve(sessionId + ".part");
+    }
+
+    /**
+     * Moves staged content to its (hot) content address, unless that blob already exists.
+     *
+     * @return key of the blob
+     */
+    public String commit(StagedBlob staged) throws IOException {
+        String key = keyFor(staged.contentHash());
+        if (storage.stat(key).isPresent()) {
+            Files.deleteIfExists(staged.file());
+            return key;
+        }
+        storage.put(key, staged.file());
+        return key;
+    }
+
+    public String keyFor(String contentHash) {
+        if (!HASH.matcher(contentHash).matches()) {
+            throw new IllegalArgumentException("Not a SHA-256 content hash: " + contentHash);
+        }
+        return contentHash.substring(0, 2) + "/" + contentHash.substring(2, 4) + "/" + contentHash;
+    }
+
+    public String coldKeyFor(String contentHash) {
+        return "cold/" + keyFor(contentHash) + ".gz";
+    }
+
+    /**
+     * The hot blob as a local file, when the backend keeps blobs on this node's disk.
+     */
+    public Optional<Path> localPath(String contentHash, StorageTier tier) {
+        return tier == StorageTier.HOT ? storage.localPath(keyFor(contentHash)) : Optional.empty();
+    }
+
+    /**
+     * Opens a blob's (uncompressed) content from {@code offset}. The tier recorded for a blob may be
+     * stale by the time it is read, so the other tier is tried when the blob is missing from its own.
+     */
+    public InputStream open(String contentHash, StorageTier tier, long offset) throws IOException {
+        StorageTier other = tier == StorageTier.HOT ? StorageTier.COLD : StorageTier.HOT;
+        try {
+            return openTier(contentHash, tier, offset);
+        } catch (NoSuchFileException e) {
+            return openTier(contentHash, other, offset);
+        }
+    }
+
+    private InputStream openTier(String contentHash, StorageTier tier, long offset) throws IOException {
+        if (tier == StorageTier.HOT) {
+            return storage.open(keyFor(contentHash), offset);
+        }
+        // Compressed content cannot be seeked; ranges of cold blobs are read past
+        InputStream in = new GZIPInputStream(storage.open(coldKeyFor(contentHash), 0), BUFFER_SIZE);
+        try {
+            in.skipNBytes(offset);
+        } catch (IOException e) {
+            in.close();
+            throw e;
+        }
+        return in;
+    }
+
+    /**
+     * Writes a gzip-compressed copy of a hot blob to the cold tier, unless one is already there.
+     * The hot copy is left in place; see {@link #deleteHot}.
+     */
+    public void writeCold(String contentHash) throws IOException {
+        String coldKey = coldKeyFor(contentHash);
+        if (storage.stat(coldKey).isPresent()) {
+            return;
+        }
+        Path compressed = createTempFile();
+        try {
+            try (InputStream in = storage.open(keyFor(contentHash), 0);
+                 OutputStream out = new GZIPOutputStream(Files.newOutputStream(compressed), BUFFER_SIZE)) {
+                in.transferTo(out);
+            }
+            storage.put(coldKey, compressed);
+        } finally {
+            Files.deleteIfExists(compressed);
+        }
+    }
+
+    public boolean deleteHot(String contentHash) throws IOException {
+        return storage.delete(keyFor(contentHash));
+    }
+
+    /**
+     * Deletes a blob from both tiers.
+     */
+    public boolean delete(String contentHash) throws IOException {
+        boolean hot = storage.delete(keyFor(contentHash));
+        boolean cold = storage.delete(coldKeyFor(contentHash));
+        return hot || cold;
+    }
+
+    public boolean delete(String contentHash, StorageTier tier) throws IOException {
+        return tier == StorageTier.HOT ? deleteHot(contentHash) : storage.delete(coldKeyFor(contentHash));
+    }
+
+    /**
+     * Visits every committed blob of either tier (not the staging area).
+     */
+    public void forEachBlob(Consumer<StoredBlob> visitor) throws IOException {
+        storage.list("", object -> {
+            Matcher hot = HOT_KEY.matcher(object.key());
+            if (hot.matches()) {
+                visitor.accept(new StoredBlob(hot.group(1), StorageTier.HOT, object.lastModified()));
+                return;
+            }
+            Matcher cold = COLD_KEY.matcher(object.key());
+            if (cold.matches()) {
+                visitor.accept(new StoredBlob(cold.group(1), StorageTier.COLD, object.lastModified()));
+            }
+        });
+    }
+
+    /**
+     * Visits the staging area's files, e.g. to remove ones left behind by a crash.
+     */
+    public void forEachStaged(Consumer<Path> visitor) throws IOException {
+        if (!Files.isDirectory(tmp)) {
+            return;
+        }
+        try (Stream<Path> files = Files.list(tmp)) {
+            files.filter(Files::isRegularFile).forEach(visitor);
+        }
+    }
+
+    private static MessageDigest sha256() {
+        try {
+            return MessageDigest.getInstance("SHA-256");
+        } catch (NoSuchAlgorithmException e) {
+            throw new IllegalStateException("SHA-256 not available", e);
+        }
+    }
+}
@@ -0,0 +1,50 @@
+package com.legalcms.storage;
+
+import java.io.IOException;
+import java.io.InputStream;
+import java.nio.file.Path;
+import java.time.Instant;
+import java.util.Optional;
+import java.util.function.Consumer;
+
+/**
+ * Where document content is kept: a flat namespace of immutable objects addressed by '/'-separated
+ * keys. Selected with app.storage.backend; ContentAddressedStore decides the keys.
+ *
+ * Implementations must be safe for concurrent use. A missing key is reported with
+ * {@link java.nio.file.NoSuchFileException}.
+ */
+public interface DocumentStorage {
+
+    /**
+     * An object and its metadata.
+     */
+    record StoredObject(String key, long size, Instant lastModified) {
+    }
+
+    /**
+     * Stores a local file under {@code key}, consuming the file: it is moved into place or uploaded and
+     * then deleted. The object only becomes visible once complete.
+     */
+    void put(String key, Path source) throws IOException;
+
+    /**
+     * Opens an object for reading from {@code offset} to its end.
+     */
+    InputStream open(String key, long offset) throws IOException;
+
+    Optional<StoredObject> stat(String key) throws IOException;
+
+    /**
+     * The object as a local file, if this backend keeps it on this node's disk; lets the web
+     * server send it with zero-copy I/O.
+     */
+    Optional<Path> localPath(String key);
+
+    boolean delete(String key) throws IOException;
+
+    /**
+     * Visits every object whose key starts with {@code prefix}.
+     */
+    void list(String prefix, Consumer<StoredObject> visitor) throws IOException;
+}
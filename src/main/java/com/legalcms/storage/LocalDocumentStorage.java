@@ -0,0 +1,129 @@
+package com.legalcms.storage;
+
+import com.legalcms.config.StorageProperties;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnProperty;
+import org.springframework.stereotype.Component;
+
+import java.io.IOException;
+import java.io.InputStream;
+import java.nio.channels.Channels;
+import java.nio.channels.FileChannel;
+import java.nio.file.AtomicMoveNotSupportedException;
+import java.nio.file.FileAlreadyExistsException;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.Paths;
+import java.nio.file.StandardCopyOption;
+import java.nio.file.StandardOpenOption;
+import java.nio.file.attribute.BasicFileAttributes;
+import java.util.Optional;
+import java.util.function.Consumer;
+import java.util.stream.Stream;
+
+/**
+ * Local Document Storage
+ *
+ * Keeps objects as files under app.storage.blob-root, one node's disk (or a shared mount):
+ * - files are flushed to disk, then renamed into place atomically, so a key only ever holds
+ *   complete content
+ * - sources are expected on the same file system (the blob store's staging area), so storing one
+ *   is a rename, not a copy
+ */
+@Component
+@Slf4j
+@ConditionalOnProperty(value = "app.storage.backend", havingValue = "local", matchIfMissing = true)
+public class LocalDocumentStorage implements DocumentStorage {
+
+    private final Path root;
+
+    public LocalDocumentStorage(StorageProperties properties) {
+        this.root = Paths.get(properties.getBlobRoot());
+    }
+
+    @Override
+    public void put(String key, Path source) throws IOException {
+        Path target = resolve(key);
+        if (Files.exists(target)) {
+            Files.deleteIfExists(source);
+            return;
+        }
+
+        Files.createDirectories(target.getParent());
+        // Make the content durable before the rename makes it visible
+        try (FileChannel channel = FileChannel.open(source, StandardOpenOption.WRITE)) {
+            channel.force(true);
+        }
+        try {
+            Files.move(source, target, StandardCopyOption.ATOMIC_MOVE);
+        } catch (FileAlreadyExistsException e) {
+            // Stored concurrently with the same content
+            Files.deleteIfExists(source);
+        } catch (AtomicMoveNotSupportedException e) {
+            log.warn("Blob store {} does not support atomic renames", root);
+            Files.move(source, target, StandardCopyOption.REPLACE_EXISTING);
+        }
+    }
+
+    @Override
+    public InputStream open(String key, long offset) throws IOException {
+        FileChannel channel = FileChannel.open(resolve(key), StandardOpenOption.READ);
+        try {
+            channel.position(offset);
+        } catch (IOException e) {
+            channel.close();
+            throw e;
+        }
+        return Channels.newInputStream(channel);
+    }
+
+    @Override
+    public Optional<StoredObject> stat(String key) throws IOException {
+        Path path = resolve(key);
+        if (!Files.isRegularFile(path)) {
+            return Optional.empty();
+        }
+        BasicFileAttributes attributes = Files.readAttributes(path, BasicFileAttributes.class);
+        return Optional.of(new StoredObject(key, attributes.size(), attributes.lastModifiedTime().toInstant()));
+    }
+
+    @Override
+    public Optional<Path> localPath(String key) {
+        Path path = resolve(key);
+        return Files.isRegularFile(path) ? Optional.of(path) : Optional.empty();
+    }
+
+    @Override
+    public boolean delete(String key) throws IOException {
+        return Files.deleteIfExists(resolve(key));
+    }
+
+    @Override
+    public void list(String prefix, Consumer<StoredObject> visitor) throws IOException {
+        if (!Files.isDirectory(root)) {
+            return;
+        }
+        try (Stream<Path> files = Files.walk(root)) {
+            files.filter(Files::isRegularFile).forEach(path -> {
+                String key = root.relativize(path).toString().replace(path.getFileSystem().getSeparator(), "/");
+                if (!key.startsWith(prefix)) {
+                    return;
+                }
+                try {
+                    BasicFileAttributes attributes = Files.readAttributes(path, BasicFileAttributes.class);
+                    visitor.accept(new StoredObject(key, attributes.size(), attributes.lastModifiedTime().toInstant()));
+                } catch (IOException e) {
+                    // Deleted while listing
+                }
+            });
+        }
+    }
+
+    private Path resolve(String key) {
+        Path path = root.resolve(key).normalize();
+        if (!path.startsWith(root.normalize())) {
+            throw new IllegalArgumentException("Key escapes the blob store: " + key);
+        }
+        return path;
+    }
+}
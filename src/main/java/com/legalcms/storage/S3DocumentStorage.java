@@ -0,0 +1,301 @@
+package com.legalcms.storage;
+
+import com.legalcms.config.StorageProperties;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnProperty;
+import org.springframework.stereotype.Component;
+import org.w3c.dom.Document;
+import org.w3c.dom.Element;
+import org.w3c.dom.NodeList;
+
+import javax.crypto.Mac;
+import javax.crypto.spec.SecretKeySpec;
+import javax.xml.XMLConstants;
+import javax.xml.parsers.DocumentBuilderFactory;
+import java.io.ByteArrayInputStream;
+import java.io.IOException;
+import java.io.InputStream;
+import java.net.URI;
+import java.net.http.HttpClient;
+import java.net.http.HttpRequest;
+import java.net.http.HttpResponse;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.NoSuchFileException;
+import java.nio.file.Path;
+import java.security.GeneralSecurityException;
+import java.security.MessageDigest;
+import java.time.Instant;
+import java.time.ZoneOffset;
+import java.time.ZonedDateTime;
+import java.time.format.DateTimeFormatter;
+import java.util.HexFormat;
+import java.util.Map;
+import java.util.Optional;
+import java.util.TreeMap;
+import java.util.function.Consumer;
+import java.util.stream.Collectors;
+
+/**
+ * S3 Document Storage
+ *
+ * Keeps objects in an S3-compatible object store (app.storage.backend: s3), so every replica sees
+ * the same documents:
+ * - plain REST calls over one shared JDK HttpClient, signed with AWS Signature Version 4; no SDK
+ * - path-style addressing ({endpoint}/{bucket}/{key}), which AWS S3, MinIO and most stand-ins accept
+ * - uploads stream the staged file with an unsigned payload; reads stream the response body, with
+ *   a Range header for partial reads
+ *
+ * S3 PUTs are atomic, so an object is never visible half-written.
+ */
+@Component
+@ConditionalOnProperty(value = "app.storage.backend", havingValue = "s3")
+public class S3DocumentStorage implements DocumentStorage {
+
+    private static final String UNSIGNED_PAYLOAD = "UNSIGNED-PAYLOAD";
+    private static final String EMPTY_PAYLOAD_SHA256 =
+            "e3b0c44298fc1c149afbf4c8996fb92427ae41e4649b934ca495991b7852b855";
+    private static final DateTimeFormatter AMZ_DATE = DateTimeFormatter.ofPattern("yyyyMMdd'T'HHmmss'Z'");
+    private static final DateTimeFormatter AMZ_DAY = DateTimeFormatter.ofPattern("yyyyMMdd");
+
+    private final StorageProperties.S3 settings;
+    private final String endpoint;
+    private final HttpClient httpClient;
+
+    public S3DocumentStorage(StorageProperties properties) {
+        this.settings = properties.getS3();
+        if (isBlank(settings.getEndpoint()) || isBlank(settings.getBucket())
+                || isBlank(settings.getAccessKey()) || isBlank(settings.getSecretKey())) {
+            throw new IllegalStateException("app.storage.s3.endpoint, bucket, access-key and secret-key are required "
+                    + "when app.storage.backend is s3");
+        }
+        this.endpoint = settings.getEndpoint().replaceAll("/+$", "");
+        this.httpClient = HttpClient.newBuilder()
+                .version(HttpClient.Version.HTTP_1_1)
+                .connectTimeout(settings.getConnectTimeout())
+                .build();
+    }
+
+    @Override
+    public void put(String key, Path source) throws IOException {
+        HttpRequest.Builder request = signed("PUT", key, Map.of(), UNSIGNED_PAYLOAD)
+                .PUT(HttpRequest.BodyPublishers.ofFile(source));
+        HttpResponse<String> response = send(request.build(), HttpResponse.BodyHandlers.ofString());
+        check(response, "PUT", key);
+        Files.deleteIfExists(source);
+    }
+
+    @Override
+    public InputStream open(String key, long offset) throws IOException {
+        HttpRequest.Builder request = signed("GET", key, Map.of(), EMPTY_PAYLOAD_SHA256).GET();
+        if (offset > 0) {
+            request.header("Range", "bytes=" + offset + "-");
+        }
+        HttpResponse<InputStream> response = send(request.build(), HttpResponse.BodyHandlers.ofInputStream());
+        if (response.statusCode() / 100 != 2) {
+            String body;
+            try (InputStream in = response.body()) {
+                body = new String(in.readNBytes(512), StandardCharsets.UTF_8);
+            }
+            throw failure(response.statusCode(), "GET", key, body);
+        }
+        return response.body();
+    }
+
+    @Override
+    public Optional<StoredObject> stat(String key) throws IOException {
+        HttpRequest request = signed("HEAD", key, Map.of(), EMPTY_PAYLOAD_SHA256)
+                .method("HEAD", HttpRequest.BodyPublishers.noBody())
+                .build();
+        HttpResponse<Void> response = send(request, HttpResponse.BodyHandlers.discarding());
+        if (response.statusCode() == 404) {
+            return Optional.empty();
+        }
+        if (response.statusCode() / 100 != 2) {
+            throw failure(response.statusCode(), "HEAD", key, "");
+        }
+        long size = response.headers().firstValueAsLong("Content-Length").orElse(-1);
+        Instant lastModified = response.headers().firstValue("Last-Modified")
+                .map(value -> ZonedDateTime.parse(value, DateTimeFormatter.RFC_1123_DATE_TIME).toInstant())
+                .orElse(null);
+        return Optional.of(new StoredObject(key, size, lastModified));
+    }
+
+    @Override
+    public Optional<Path> localPath(String key) {
+        return Optional.empty();
+    }
+
+    @Override
+    public boolean delete(String key) throws IOException {
+        HttpRequest request = signed("DELETE", key, Map.of(), EMPTY_PAYLOAD_SHA256).DELETE().build();
+        HttpResponse<String> response = send(request, HttpResponse.BodyHandlers.ofString());
+        if (response.statusCode() == 404) {
+            return false;
+        }
+        check(response, "DELETE", key);
+        return true;
+    }
+
+    @Override
+    public void list(String prefix, Consumer<StoredObject> visitor) throws IOException {
+        String continuationToken = null;
+        do {
+            Map<String, String> query = new TreeMap<>();
+            query.put("list-type", "2");
+            query.put("prefix", settings.getKeyPrefix() + prefix);
+            if (continuationToken != null) {
+                query.put("continuation-token", continuationToken);
+            }
+            HttpRequest request = signed("GET", null, query, EMPTY_PAYLOAD_SHA256).GET().build();
+            HttpResponse<byte[]> response = send(request, HttpResponse.BodyHandlers.ofByteArray());
+            if (response.statusCode() / 100 != 2) {
+                throw failure(response.statusCode(), "LIST", prefix,
+                        new String(response.body(), StandardCharsets.UTF_8));
+            }
+            continuationToken = visitListing(response.body(), visitor);
+        } while (continuationToken != null);
+    }
+
+    // Returns the continuation token when the listing is truncated
+    private String visitListing(byte[] xml, Consumer<StoredObject> visitor) throws IOException {
+        Document listing;
+        try {
+            DocumentBuilderFactory factory = DocumentBuilderFactory.newInstance();
+            factory.setFeature(XMLConstants.FEATURE_SECURE_PROCESSING, true);
+            factory.setFeature("http://apache.org/xml/features/disallow-doctype-decl", true);
+            listing = factory.newDocumentBuilder().parse(new ByteArrayInputStream(xml));
+        } catch (Exception e) {
+            throw new IOException("Unreadable S3 listing", e);
+        }
+
+        NodeList contents = listing.getElementsByTagName("Contents");
+        for (int i = 0; i < contents.getLength(); i++) {
+            Element entry = (Element) contents.item(i);
+            String key = text(entry, "Key");
+            if (key == null || !key.startsWith(settings.getKeyPrefix())) {
+                continue;
+            }
+            String size = text(entry, "Size");
+            String lastModified = text(entry, "LastModified");
+            visitor.accept(new StoredObject(
+                    key.substring(settings.getKeyPrefix().length()),
+                    size != null ? Long.parseLong(size) : -1,
+                    lastModified != null ? Instant.parse(lastModified) : null));
+        }
+        boolean truncated = "true".equalsIgnoreCase(text(listing.getDocumentElement(), "IsTruncated"));
+        return truncated ? text(listing.getDocumentElement(), "NextContinuationToken") : null;
+    }
+
+    private static String text(Element parent, String tag) {
+        NodeList nodes = parent.getElementsByTagName(tag);
+        return nodes.getLength() > 0 ? nodes.item(0).getTextContent() : null;
+    }
+
+    /**
+     * A request to the bucket (key null) or one of its objects, signed with SigV4. Headers the
+     * callers add afterwards (e.g. Range) are not part of the signature.
+     */
+    private HttpRequest.Builder signed(String method, String key, Map<String, String> query, String payloadHash) {
+        String path = "/" + encode(settings.getBucket(), true)
+                + (key != null ? "/" + encode(settings.getKeyPrefix() + key, false) : "");
+        String canonicalQuery = query.entrySet().stream()
+                .map(entry -> encode(entry.getKey(), true) + "=" + encode(entry.getValue(), true))
+                .collect(Collectors.joining("&"));
+        URI uri = URI.create(endpoint + path + (canonicalQuery.isEmpty() ? "" : "?" + canonicalQuery));
+
+        ZonedDateTime now = ZonedDateTime.now(ZoneOffset.UTC);
+        String host = uri.getPort() == -1 ? uri.getHost() : uri.getHost() + ":" + uri.getPort();
+        return HttpRequest.newBuilder(uri)
+                .timeout(settings.getRequestTimeout())
+                .header("x-amz-content-sha256", payloadHash)
+                .header("x-amz-date", AMZ_DATE.format(now))
+                .header("Authorization", authorization(settings.getAccessKey(), settings.getSecretKey(),
+                        settings.getRegion(), now, method, uri.getRawPath(), canonicalQuery, host, payloadHash));
+    }
+
+    // SigV4 Authorization header value; only host, x-amz-content-sha256 and x-amz-date are signed
+    static String authorization(String accessKey, String secretKey, String region, ZonedDateTime now, String method,
+                                String rawPath, String canonicalQuery, String host, String payloadHash) {
+        String amzDate = AMZ_DATE.format(now);
+        String scope = AMZ_DAY.format(now) + "/" + region + "/s3/aws4_request";
+        String canonicalRequest = method + "\n"
+                + rawPath + "\n"
+                + canonicalQuery + "\n"
+                + "host:" + host + "\n"
+                + "x-amz-content-sha256:" + payloadHash + "\n"
+                + "x-amz-date:" + amzDate + "\n"
+                + "\n"
+                + "host;x-amz-content-sha256;x-amz-date\n"
+                + payloadHash;
+        String stringToSign = "AWS4-HMAC-SHA256\n" + amzDate + "\n" + scope + "\n" + sha256Hex(canonicalRequest);
+
+        byte[] signingKey = hmac(("AWS4" + secretKey).getBytes(StandardCharsets.UTF_8), AMZ_DAY.format(now));
+        signingKey = hmac(signingKey, region);
+        signingKey = hmac(signingKey, "s3");
+        signingKey = hmac(signingKey, "aws4_request");
+        String signature = HexFormat.of().formatHex(hmac(signingKey, stringToSign));
+        return "AWS4-HMAC-SHA256 Credential=" + accessKey + "/" + scope
+                + ", SignedHeaders=host;x-amz-content-sha256;x-amz-date, Signature=" + signature;
+    }
+
+    private <T> HttpResponse<T> send(HttpRequest request, HttpResponse.BodyHandler<T> handler) throws IOException {
+        try {
+            return httpClient.send(request, handler);
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+            throw new IOException("Interrupted calling object store", e);
+        }
+    }
+
+    private static void check(HttpResponse<String> response, String operation, String key) throws IOException {
+        if (response.statusCode() / 100 != 2) {
+            throw failure(response.statusCode(), operation, key, response.body());
+        }
+    }
+
+    private static IOException failure(int status, String operation, String key, String body) {
+        if (status == 404) {
+            return new NoSuchFileException(key);
+        }
+        String detail = body == null ? "" : body.length() > 300 ? body.substring(0, 300) : body;
+        return new IOException("Object store " + operation + " of " + key + " failed with HTTP " + status + " " + detail);
+    }
+
+    // RFC 3986 encoding as SigV4 expects it; '/' is kept in object keys
+    private static String encode(String value, boolean encodeSlash) {
+        StringBuilder encoded = new StringBuilder();
+        for (byte b : value.getBytes(StandardCharsets.UTF_8)) {
+            char c = (char) (b & 0xFF);
+            if ((c >= 'A' && c <= 'Z') || (c >= 'a' && c <= 'z') || (c >= '0' && c <= '9')
+                    || c == '-' || c == '_' || c == '.' || c == '~' || (c == '/' && !encodeSlash)) {
+                encoded.append(c);
+            } else {
+                encoded.append('%').append(String.format("%02X", b & 0xFF));
+            }
+        }
+        return encoded.toString();
+    }
+
+    private static byte[] hmac(byte[] key, String data) {
+        try {
+            Mac mac = Mac.getInstance("HmacSHA256");
+            mac.init(new SecretKeySpec(key, "HmacSHA256"));
+            return mac.doFinal(data.getBytes(StandardCharsets.UTF_8));
+        } catch (GeneralSecurityException e) {
+            throw new IllegalStateException("HmacSHA256 not available", e);
+        }
+    }
+
+    private static String sha256Hex(String value) {
+        try {
+            return HexFormat.of().formatHex(MessageDigest.getInstance("SHA-256")
+                    .digest(value.getBytes(StandardCharsets.UTF_8)));
+        } catch (GeneralSecurityException e) {
+            throw new IllegalStateException("SHA-256 not available", e);
+        }
+    }
+
+    private static boolean isBlank(String value) {
+        return value == null || value.isBlank();
+    }
+}
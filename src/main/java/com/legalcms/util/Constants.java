@@ -25,6 +25,13 @@ public class Constants {
     public static final String ROLE_ADVOCATE = "ADVOCATE";
     public static final String ROLE_CLIENT = "CLIENT";
 
+    // Pagination
+    public static final int DEFAULT_PAGE_SIZE = 20;
+    public static final int MAX_PAGE_SIZE = 100;
+
+    // Document search
+    public static final int MAX_SEARCH_QUERY_LENGTH = 200;
+
     private Constants() {
         // Private constructor to prevent instantiation
     }
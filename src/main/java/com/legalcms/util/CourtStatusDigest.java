@@ -0,0 +1,56 @@
+package com.legalcms.util;
+
+import com.legalcms.dto.CaseStatusResponse;
+
+import java.nio.charset.StandardCharsets;
+import java.security.MessageDigest;
+import java.security.NoSuchAlgorithmException;
+import java.util.HexFormat;
+import java.util.Locale;
+
+/**
+ * Stable SHA-256 digest of a normalized court status payload.
+ * Two payloads that differ only in whitespace or CNR letter case hash the same; bump VERSION
+ * whenever the normalized form changes so stored digests are recomputed rather than misread.
+ */
+public class CourtStatusDigest {
+
+    private static final String VERSION = "v1";
+
+    public static String digest(CaseStatusResponse status) {
+        String canonical = String.join("\u001F",
+                VERSION,
+                normalizeCnr(status.getCnrNumber()),
+                status.getNextHearingDate() != null ? status.getNextHearingDate().toString() : "",
+                nullToEmpty(normalizeText(status.getCaseStage())),
+                nullToEmpty(normalizeText(status.getLastOrderUrl())));
+        try {
+            byte[] hash = MessageDigest.getInstance("SHA-256").digest(canonical.getBytes(StandardCharsets.UTF_8));
+            return HexFormat.of().formatHex(hash);
+        } catch (NoSuchAlgorithmException e) {
+            throw new IllegalStateException("SHA-256 not available", e);
+        }
+    }
+
+    /**
+     * Trims and collapses inner whitespace; blank becomes null.
+     */
+    public static String normalizeText(String value) {
+        if (value == null) {
+            return null;
+        }
+        String normalized = value.trim().replaceAll("\\s+", " ");
+        return normalized.isEmpty() ? null : normalized;
+    }
+
+    private static String normalizeCnr(String cnrNumber) {
+        return cnrNumber != null ? cnrNumber.trim().toUpperCase(Locale.ROOT) : "";
+    }
+
+    private static String nullToEmpty(String value) {
+        return value != null ? value : "";
+    }
+
+    private CourtStatusDigest() {
+    }
+}
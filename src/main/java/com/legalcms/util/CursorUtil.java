@@ -0,0 +1,93 @@
+package com.legalcms.util;
+
+import java.nio.charset.StandardCharsets;
+import java.util.Base64;
+
+/**
+ * Encodes and decodes the opaque continuation tokens used by keyset-paginated listings.
+ * Clients must treat the token as opaque; its format may change between releases.
+ */
+public class CursorUtil {
+
+    private static final String ID_PREFIX = "id:";
+    private static final String SCORED_PREFIX = "sc:";
+
+    /**
+     * Position in a listing ordered by relevance score descending, then id descending.
+     */
+    public record ScoredCursor(float score, long id) {
+    }
+
+    public static String encodeId(Long id) {
+        if (id == null) {
+            return null;
+        }
+        return encode(ID_PREFIX + id);
+    }
+
+    public static Long decodeId(String cursor) {
+        if (cursor == null || cursor.isBlank()) {
+            return null;
+        }
+        String value = decode(cursor);
+        if (!value.startsWith(ID_PREFIX)) {
+            throw new IllegalArgumentException("Invalid cursor");
+        }
+        try {
+            return Long.parseLong(value.substring(ID_PREFIX.length()));
+        } catch (NumberFormatException e) {
+            throw new IllegalArgumentException("Invalid cursor");
+        }
+    }
+
+    public static String encodeScored(float score, long id) {
+        return encode(SCORED_PREFIX + score + "|" + id);
+    }
+
+    public static ScoredCursor decodeScored(String cursor) {
+        if (cursor == null || cursor.isBlank()) {
+            return null;
+        }
+        String value = decode(cursor);
+        int separator = value.indexOf('|');
+        if (!value.startsWith(SCORED_PREFIX) || separator < 0) {
+            throw new IllegalArgumentException("Invalid cursor");
+        }
+        try {
+            return new ScoredCursor(
+                    Float.parseFloat(value.substring(SCORED_PREFIX.length(), separator)),
+                    Long.parseLong(value.substring(separator + 1)));
+        } catch (NumberFormatException e) {
+            throw new IllegalArgumentException("Invalid cursor");
+        }
+    }
+
+    /**
+     * Clamps a requested page size to [1, MAX_PAGE_SIZE], falling back to the default when absent.
+     */
+    public static int resolvePageSize(Integer requested) {
+        if (requested == null) {
+            return Constants.DEFAULT_PAGE_SIZE;
+        }
+        if (requested < 1) {
+            throw new IllegalArgumentException("Page size must be at least 1");
+        }
+        return Math.min(requested, Constants.MAX_PAGE_SIZE);
+    }
+
+    private static String encode(String value) {
+        return Base64.getUrlEncoder().withoutPadding()
+                .encodeToString(value.getBytes(StandardCharsets.UTF_8));
+    }
+
+    private static String decode(String cursor) {
+        try {
+            return new String(Base64.getUrlDecoder().decode(cursor), StandardCharsets.UTF_8);
+        } catch (IllegalArgumentException e) {
+            throw new IllegalArgumentException("Invalid cursor");
+        }
+    }
+
+    private CursorUtil() {
+    }
+}
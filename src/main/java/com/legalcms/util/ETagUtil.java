@@ -0,0 +1,69 @@
+package com.legalcms.util;
+
+import org.springframework.web.context.request.WebRequest;
+
+import java.nio.charset.StandardCharsets;
+import java.security.MessageDigest;
+import java.security.NoSuchAlgorithmException;
+import java.time.LocalDateTime;
+import java.time.ZoneId;
+import java.util.HexFormat;
+
+/**
+ * Helpers for conditional GET handling.
+ * ETags are derived from cheap version queries (ids, counts, updated_at) so that
+ * a matching If-None-Match can be answered with 304 before any entity is loaded.
+ */
+public class ETagUtil {
+
+    /**
+     * Builds a strong, quoted ETag from the given version components.
+     */
+    public static String strongETag(Object... parts) {
+        StringBuilder value = new StringBuilder();
+        for (Object part : parts) {
+            value.append(part).append('|');
+        }
+        try {
+            byte[] digest = MessageDigest.getInstance("SHA-256")
+                    .digest(value.toString().getBytes(StandardCharsets.UTF_8));
+            return "\"" + HexFormat.of().formatHex(digest, 0, 16) + "\"";
+        } catch (NoSuchAlgorithmException e) {
+            throw new IllegalStateException("SHA-256 not available", e);
+        }
+    }
+
+    /**
+     * The most recent of the given modification times, ignoring nulls; null when all are null.
+     */
+    public static LocalDateTime latest(LocalDateTime... times) {
+        LocalDateTime latest = null;
+        for (LocalDateTime time : times) {
+            if (time != null && (latest == null || time.isAfter(latest))) {
+                latest = time;
+            }
+        }
+        return latest;
+    }
+
+    public static long toEpochMillis(LocalDateTime dateTime) {
+        if (dateTime == null) {
+            return -1;
+        }
+        return dateTime.atZone(ZoneId.systemDefault()).toInstant().toEpochMilli();
+    }
+
+    /**
+     * Checks If-None-Match / If-Modified-Since. When this returns true the response status and
+     * validator headers are already set, and the handler should return null without a body.
+     */
+    public static boolean isNotModified(WebRequest webRequest, ResourceVersion version) {
+        if (version.getLastModified() == null) {
+            return webRequest.checkNotModified(version.getETag());
+        }
+        return webRequest.checkNotModified(version.getETag(), toEpochMillis(version.getLastModified()));
+    }
+
+    private ETagUtil() {
+    }
+}
@@ -0,0 +1,188 @@
+package com.legalcms.util;
+
+import jakarta.servlet.http.HttpServletRequest;
+import jakarta.servlet.http.HttpServletResponse;
+import org.springframework.http.ContentDisposition;
+import org.springframework.http.HttpHeaders;
+import org.springframework.http.HttpRange;
+import org.springframework.http.MediaType;
+import org.springframework.http.MediaTypeFactory;
+
+import java.io.IOException;
+import java.io.InputStream;
+import java.io.OutputStream;
+import java.nio.channels.Channels;
+import java.nio.channels.FileChannel;
+import java.nio.channels.WritableByteChannel;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Path;
+import java.nio.file.StandardOpenOption;
+import java.time.LocalDateTime;
+import java.util.List;
+
+/**
+ * Writes a stored file, or a single byte range of it, to an HTTP response.
+ *
+ * - Range requests for one range are answered with 206 and Content-Range; unsatisfiable ranges
+ *   with 416; multi-range requests, and ranges whose If-Range no longer matches, get the whole file
+ * - when the servlet container supports sendfile (Tomcat NIO), the kernel copies the bytes straight
+ *   from the file to the socket; otherwise FileChannel.transferTo feeds the response stream
+ * - content that is not on local disk (object storage, compressed cold tier) is streamed from its
+ *   source, opened at the range's start
+ * - the content type is derived from the file name
+ *
+ * Conditional GET (If-None-Match / If-Modified-Since) is left to the caller, see ETagUtil.
+ */
+public class FileRangeStreamer {
+
+    private static final String SENDFILE_SUPPORT = "org.apache.tomcat.sendfile.support";
+    private static final String SENDFILE_FILENAME = "org.apache.tomcat.sendfile.filename";
+    private static final String SENDFILE_START = "org.apache.tomcat.sendfile.start";
+    private static final String SENDFILE_END = "org.apache.tomcat.sendfile.end";
+
+    // Below this size a plain copy is as cheap as handing the file to the container (Tomcat's own default)
+    private static final long SENDFILE_MIN_BYTES = 48 * 1024;
+
+    private static final int COPY_BUFFER_SIZE = 64 * 1024;
+
+    /**
+     * Opens a stored file's content from an offset.
+     */
+    @FunctionalInterface
+    public interface ContentSource {
+        InputStream open(long offset) throws IOException;
+    }
+
+    /**
+     * A stored file with its validators. {@code path} is set when the file is on local disk and can
+     * be sent zero-copy; otherwise its content is streamed from {@code source}.
+     */
+    public record StoredFile(Path path, ContentSource source, String fileName, long length,
+                             LocalDateTime lastModified, String eTag) {
+    }
+
+    public static MediaType mediaTypeOf(String fileName) {
+        return MediaTypeFactory.getMediaType(fileName).orElse(MediaType.APPLICATION_OCTET_STREAM);
+    }
+
+    public static void stream(StoredFile file, HttpServletRequest request, HttpServletResponse response)
+            throws IOException {
+        long length = file.length();
+        response.setHeader(HttpHeaders.ACCEPT_RANGES, "bytes");
+        response.setHeader(HttpHeaders.ETAG, file.eTag());
+        if (file.lastModified() != null) {
+            response.setDateHeader(HttpHeaders.LAST_MODIFIED, ETagUtil.toEpochMillis(file.lastModified()));
+        }
+        response.setContentType(mediaTypeOf(file.fileName()).toString());
+        response.setHeader(HttpHeaders.CONTENT_DISPOSITION,
+                ContentDisposition.inline().filename(file.fileName(), StandardCharsets.UTF_8).build().toString());
+
+        long start = 0;
+        long end = length - 1;
+        List<HttpRange> ranges = requestedRanges(file, request);
+        if (ranges.size() == 1) {
+            HttpRange range = ranges.get(0);
+            try {
+                start = range.getRangeStart(length);
+                end = range.getRangeEnd(length);
+            } catch (IllegalArgumentException e) {
+                start = length;
+            }
+            if (start >= length || start > end) {
+                response.setStatus(HttpServletResponse.SC_REQUESTED_RANGE_NOT_SATISFIABLE);
+                response.setHeader(HttpHeaders.CONTENT_RANGE, "bytes */" + length);
+                response.setContentLength(0);
+                return;
+            }
+            response.setStatus(HttpServletResponse.SC_PARTIAL_CONTENT);
+            response.setHeader(HttpHeaders.CONTENT_RANGE, "bytes " + start + "-" + end + "/" + length);
+        } else {
+            response.setStatus(HttpServletResponse.SC_OK);
+        }
+
+        long count = Math.max(0, end - start + 1);
+        response.setContentLengthLong(count);
+        if ("HEAD".equalsIgnoreCase(request.getMethod()) || count == 0) {
+            return;
+        }
+
+        if (file.path() == null) {
+            copy(file.source(), start, count, response.getOutputStream());
+            return;
+        }
+
+        if (Boolean.TRUE.equals(request.getAttribute(SENDFILE_SUPPORT)) && count >= SENDFILE_MIN_BYTES) {
+            // The container sends the bytes after the handler returns; end is exclusive
+            request.setAttribute(SENDFILE_FILENAME, file.path().toAbsolutePath().toString());
+            request.setAttribute(SENDFILE_START, start);
+            request.setAttribute(SENDFILE_END, end + 1);
+            return;
+        }
+
+        try (FileChannel channel = FileChannel.open(file.path(), StandardOpenOption.READ)) {
+            WritableByteChannel target = Channels.newChannel(response.getOutputStream());
+            long position = start;
+            long remaining = count;
+            while (remaining > 0) {
+                long sent = channel.transferTo(position, remaining, target);
+                if (sent <= 0) {
+                    // The file shrank underneath us; the client sees a short body
+                    break;
+                }
+                position += sent;
+                remaining -= sent;
+            }
+        }
+    }
+
+    private static void copy(ContentSource source, long start, long count, OutputStream out) throws IOException {
+        try (InputStream in = source.open(start)) {
+            byte[] buffer = new byte[COPY_BUFFER_SIZE];
+            long remaining = count;
+            while (remaining > 0) {
+                int read = in.read(buffer, 0, (int) Math.min(buffer.length, remaining));
+                if (read == -1) {
+                    // The content is shorter than recorded; the client sees a short body
+                    break;
+                }
+                out.write(buffer, 0, read);
+                remaining -= read;
+            }
+        }
+    }
+
+    /**
+     * Ranges to honour: none without a Range header, with a malformed one, or when If-Range names
+     * a different version of the file.
+     */
+    private static List<HttpRange> requestedRanges(StoredFile file, HttpServletRequest request) {
+        String rangeHeader = request.getHeader(HttpHeaders.RANGE);
+        if (rangeHeader == null || !ifRangeMatches(file, request)) {
+            return List.of();
+        }
+        try {
+            return HttpRange.parseRanges(rangeHeader);
+        } catch (IllegalArgumentException e) {
+            return List.of();
+        }
+    }
+
+    private static boolean ifRangeMatches(StoredFile file, HttpServletRequest request) {
+        String ifRange = request.getHeader(HttpHeaders.IF_RANGE);
+        if (ifRange == null) {
+            return true;
+        }
+        if (ifRange.startsWith("\"") || ifRange.startsWith("W/")) {
+            return ifRange.equals(file.eTag());
+        }
+        try {
+            long since = request.getDateHeader(HttpHeaders.IF_RANGE);
+            return file.lastModified() != null && ETagUtil.toEpochMillis(file.lastModified()) / 1000 <= since / 1000;
+        } catch (IllegalArgumentException e) {
+            return false;
+        }
+    }
+
+    private FileRangeStreamer() {
+    }
+}
@@ -0,0 +1,17 @@
+package com.legalcms.util;
+
+import lombok.AllArgsConstructor;
+import lombok.Getter;
+
+import java.time.LocalDateTime;
+
+/**
+ * Validators for a resource or collection, computed without loading its entities.
+ */
+@Getter
+@AllArgsConstructor
+public class ResourceVersion {
+
+    private final String eTag;
+    private final LocalDateTime lastModified; // null when the resource has no modification time
+}
@@ -0,0 +1,60 @@
+package com.legalcms.client;
+
+import org.junit.jupiter.api.Test;
+
+import java.time.Duration;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+class CircuitBreakerTest {
+
+    private final CircuitBreaker circuitBreaker = new CircuitBreaker(3, Duration.ofMillis(100));
+
+    @Test
+    void opensAfterConsecutiveFailures() {
+        fail(2);
+        assertThat(circuitBreaker.getState()).isEqualTo(CircuitBreaker.State.CLOSED);
+
+        // A success resets the count
+        assertThat(circuitBreaker.tryAcquire()).isTrue();
+        circuitBreaker.onSuccess();
+        fail(2);
+        assertThat(circuitBreaker.getState()).isEqualTo(CircuitBreaker.State.CLOSED);
+
+        fail(1);
+        assertThat(circuitBreaker.getState()).isEqualTo(CircuitBreaker.State.OPEN);
+        assertThat(circuitBreaker.tryAcquire()).isFalse();
+    }
+
+    @Test
+    void halfOpensAfterTheOpenDurationAndAdmitsOneTrial() throws InterruptedException {
+        fail(3);
+        Thread.sleep(150);
+
+        assertThat(circuitBreaker.tryAcquire()).isTrue();
+        assertThat(circuitBreaker.getState()).isEqualTo(CircuitBreaker.State.HALF_OPEN);
+        assertThat(circuitBreaker.tryAcquire()).isFalse();
+
+        circuitBreaker.onSuccess();
+        assertThat(circuitBreaker.getState()).isEqualTo(CircuitBreaker.State.CLOSED);
+        assertThat(circuitBreaker.tryAcquire()).isTrue();
+    }
+
+    @Test
+    void failedTrialReopens() throws InterruptedException {
+        fail(3);
+        Thread.sleep(150);
+
+        assertThat(circuitBreaker.tryAcquire()).isTrue();
+        circuitBreaker.onFailure();
+        assertThat(circuitBreaker.getState()).isEqualTo(CircuitBreaker.State.OPEN);
+        assertThat(circuitBreaker.tryAcquire()).isFalse();
+    }
+
+    private void fail(int times) {
+        for (int i = 0; i < times; i++) {
+            assertThat(circuitBreaker.tryAcquire()).isTrue();
+            circuitBreaker.onFailure();
+        }
+    }
+}
@@ -0,0 +1,274 @@
+package com.legalcms.client;
+
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.legalcms.config.CourtClientProperties;
+import com.legalcms.dto.CaseStatusResponse;
+import com.sun.net.httpserver.HttpExchange;
+import com.sun.net.httpserver.HttpServer;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+
+import java.io.IOException;
+import java.io.OutputStream;
+import java.net.InetAddress;
+import java.net.InetSocketAddress;
+import java.nio.charset.StandardCharsets;
+import java.time.Duration;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.ConcurrentLinkedQueue;
+import java.util.concurrent.CopyOnWriteArrayList;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.assertThatThrownBy;
+
+/**
+ * Runs the client against a stub court API served by the JDK's HTTP server.
+ */
+class HttpCourtClientTest {
+
+    private static final String STATUS_JSON = "{\"cnrNumber\":\"BIHC01-000101-2024\",\"caseStage\":\"Admission\"}";
+
+    private final ConcurrentLinkedQueue<StubResponse> script = new ConcurrentLinkedQueue<>();
+    private final AtomicInteger requests = new AtomicInteger();
+    private final List<Long> requestedAt = new CopyOnWriteArrayList<>();
+    private final SimpleMeterRegistry meterRegistry = new SimpleMeterRegistry();
+    private final CourtClientProperties properties = new CourtClientProperties();
+    private ExecutorService serverExecutor;
+    private HttpServer server;
+    private HttpCourtClient client;
+
+    /**
+     * One scripted answer of the stub: wait for the delay and the latch, then reply.
+     */
+    private record StubResponse(int status, String body, Duration delay, CountDownLatch release,
+                                Map<String, String> headers) {
+
+        StubResponse(int status, String body, Duration delay, CountDownLatch release) {
+            this(status, body, delay, release, Map.of());
+        }
+
+        static StubResponse of(int status, String body) {
+            return new StubResponse(status, body, Duration.ZERO, null);
+        }
+
+        static StubResponse throttled(String retryAfter) {
+            return new StubResponse(429, "", Duration.ZERO, null, Map.of("Retry-After", retryAfter));
+        }
+    }
+
+    @BeforeEach
+    void startServer() throws IOException {
+        serverExecutor = Executors.newCachedThreadPool();
+        server = HttpServer.create(new InetSocketAddress(InetAddress.getLoopbackAddress(), 0), 0);
+        server.setExecutor(serverExecutor);
+        server.createContext("/", this::handle);
+        server.start();
+
+        CourtClientProperties.Http http = properties.getHttp();
+        http.setBaseUrl("http://127.0.0.1:" + server.getAddress().getPort() + "/api");
+        http.setRequestTimeout(Duration.ofMillis(300));
+        http.setRetryBaseDelay(Duration.ofMillis(10));
+        http.setRetryMaxDelay(Duration.ofMillis(50));
+    }
+
+    @AfterEach
+    void stopServer() {
+        if (client != null) {
+            client.shutdown();
+        }
+        server.stop(0);
+        serverExecutor.shutdownNow();
+    }
+
+    @Test
+    void retriesServerErrors() throws Exception {
+        script.add(StubResponse.of(503, ""));
+        script.add(StubResponse.of(500, ""));
+        script.add(StubResponse.of(200, STATUS_JSON));
+
+        CaseStatusResponse status = client().fetchCaseStatus("BIHC01-000101-2024").get(5, TimeUnit.SECONDS);
+
+        assertThat(status.getCaseStage()).isEqualTo("Admission");
+        assertThat(requests).hasValue(3);
+        assertThat(meterRegistry.get("court.client.retries").counter().count()).isEqualTo(2);
+    }
+
+    @Test
+    void retriesTimeouts() throws Exception {
+        script.add(new StubResponse(200, STATUS_JSON, Duration.ofSeconds(2), null));
+        script.add(StubResponse.of(200, STATUS_JSON));
+
+        CaseStatusResponse status = client().fetchCaseStatus("BIHC01-000101-2024").get(5, TimeUnit.SECONDS);
+
+        assertThat(status.getCaseStage()).isEqualTo("Admission");
+        assertThat(requests).hasValue(2);
+    }
+
+    @Test
+    void waitsAsLongAsRetryAfterAsks() throws Exception {
+        properties.getHttp().setRetryMaxDelay(Duration.ofSeconds(5));
+        script.add(StubResponse.throttled("1"));
+        script.add(StubResponse.of(200, STATUS_JSON));
+
+        CaseStatusResponse status = client().fetchCaseStatus("BIHC01-000101-2024").get(5, TimeUnit.SECONDS);
+
+        assertThat(status.getCaseStage()).isEqualTo("Admission");
+        assertThat(requests).hasValue(2);
+        // The backoff alone would be at most 10 ms here
+        assertThat(gapMillis(0, 1)).isBetween(950L, 2_000L);
+    }
+
+    @Test
+    void capsRetryAfterAtTheMaximumDelay() throws Exception {
+        properties.getHttp().setRetryMaxDelay(Duration.ofMillis(300));
+        script.add(StubResponse.throttled("120"));
+        script.add(StubResponse.throttled("not-a-number"));
+        script.add(StubResponse.of(200, STATUS_JSON));
+
+        CaseStatusResponse status = client().fetchCaseStatus("BIHC01-000101-2024").get(5, TimeUnit.SECONDS);
+
+        assertThat(status.getCaseStage()).isEqualTo("Admission");
+        assertThat(gapMillis(0, 1)).isBetween(290L, 1_000L);
+        // An unparseable Retry-After falls back to the jittered backoff, itself capped at retryMaxDelay
+        assertThat(gapMillis(1, 2)).isLessThan(1_000L);
+        assertThat(meterRegistry.get("court.client.retries").counter().count()).isEqualTo(2);
+    }
+
+    @Test
+    void givesUpAfterMaxAttempts() {
+        for (int i = 0; i < 3; i++) {
+            script.add(StubResponse.of(502, ""));
+        }
+
+        assertThatThrownBy(() -> client().fetchCaseStatus("BIHC01-000101-2024").get(5, TimeUnit.SECONDS))
+                .isInstanceOf(ExecutionException.class)
+                .hasCauseInstanceOf(CourtUnavailableException.class);
+        assertThat(requests).hasValue(3);
+    }
+
+    @Test
+    void notFoundIsNotRetried() {
+        script.add(StubResponse.of(404, ""));
+
+        assertThatThrownBy(() -> client().fetchCaseStatus("MISSING").get(5, TimeUnit.SECONDS))
+                .hasCauseInstanceOf(CourtRecordNotFoundException.class);
+        assertThat(requests).hasValue(1);
+    }
+
+    @Test
+    void circuitOpensAndHalfOpens() throws Exception {
+        properties.getHttp().setMaxAttempts(1);
+        properties.getHttp().setCircuitFailureThreshold(2);
+        properties.getHttp().setCircuitOpenDuration(Duration.ofMillis(200));
+        HttpCourtClient client = client();
+        script.add(StubResponse.of(500, ""));
+        script.add(StubResponse.of(500, ""));
+
+        for (int i = 0; i < 2; i++) {
+            assertThatThrownBy(() -> client.fetchCaseStatus("BIHC01-000101-2024").get(5, TimeUnit.SECONDS))
+                    .hasMessageContaining("HTTP 500");
+        }
+
+        // Open: rejected without reaching the court
+        assertThatThrownBy(() -> client.fetchCaseStatus("BIHC01-000101-2024").get(5, TimeUnit.SECONDS))
+                .hasMessageContaining("lookups are paused");
+        assertThat(requests).hasValue(2);
+        assertThat(meterRegistry.get("court.client.rejected").tag("reason", "circuit_open").counter().count())
+                .isEqualTo(1);
+
+        // Half-open after the open duration: the trial call goes through and closes the circuit
+        Thread.sleep(300);
+        script.add(StubResponse.of(200, STATUS_JSON));
+        script.add(StubResponse.of(200, STATUS_JSON));
+        assertThat(client.fetchCaseStatus("BIHC01-000101-2024").get(5, TimeUnit.SECONDS).getCaseStage())
+                .isEqualTo("Admission");
+        assertThat(client.fetchCaseStatus("BIHC01-000101-2024").get(5, TimeUnit.SECONDS).getCaseStage())
+                .isEqualTo("Admission");
+        assertThat(requests).hasValue(4);
+    }
+
+    @Test
+    void bulkheadRejectsLookupsBeyondTheLimit() throws Exception {
+        properties.getHttp().setMaxInFlight(1);
+        properties.getHttp().setRequestTimeout(Duration.ofSeconds(5));
+        HttpCourtClient client = client();
+        CountDownLatch release = new CountDownLatch(1);
+        script.add(new StubResponse(200, STATUS_JSON, Duration.ZERO, release));
+
+        CompletableFuture<CaseStatusResponse> first = client.fetchCaseStatus("BIHC01-000101-2024");
+        awaitRequests(1);
+
+        assertThatThrownBy(() -> client.fetchCaseStatus("BIHC01-000102-2024").get(5, TimeUnit.SECONDS))
+                .hasCauseInstanceOf(CourtUnavailableException.class)
+                .hasMessageContaining("Too many court lookups in flight");
+        assertThat(meterRegistry.get("court.client.rejected").tag("reason", "bulkhead").counter().count())
+                .isEqualTo(1);
+
+        release.countDown();
+        assertThat(first.get(5, TimeUnit.SECONDS).getCaseStage()).isEqualTo("Admission");
+
+        // The permit is returned once the lookup completes
+        script.add(StubResponse.of(200, STATUS_JSON));
+        assertThat(client.fetchCaseStatus("BIHC01-000102-2024").get(5, TimeUnit.SECONDS)).isNotNull();
+        assertThat(requests).hasValue(2);
+    }
+
+    private HttpCourtClient client() {
+        client = new HttpCourtClient(properties, new ObjectMapper().findAndRegisterModules(), meterRegistry);
+        return client;
+    }
+
+    private void handle(HttpExchange exchange) throws IOException {
+        requests.incrementAndGet();
+        requestedAt.add(System.nanoTime());
+        StubResponse response = script.poll();
+        if (response == null) {
+            response = StubResponse.of(500, "unscripted request");
+        }
+        try {
+            Thread.sleep(response.delay().toMillis());
+            if (response.release() != null) {
+                response.release().await(10, TimeUnit.SECONDS);
+            }
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+        }
+        byte[] body = response.body().getBytes(StandardCharsets.UTF_8);
+        exchange.getResponseHeaders().set("Content-Type", "application/json");
+        response.headers().forEach(exchange.getResponseHeaders()::set);
+        try {
+            exchange.sendResponseHeaders(response.status(), body.length == 0 ? -1 : body.length);
+            if (body.length > 0) {
+                try (OutputStream out = exchange.getResponseBody()) {
+                    out.write(body);
+                }
+            }
+        } catch (IOException e) {
+            // The client gave up on this attempt
+        } finally {
+            exchange.close();
+        }
+    }
+
+    private long gapMillis(int from, int to) {
+        return TimeUnit.NANOSECONDS.toMillis(requestedAt.get(to) - requestedAt.get(from));
+    }
+
+    private void awaitRequests(int expected) throws InterruptedException {
+        long deadline = System.nanoTime() + TimeUnit.SECONDS.toNanos(5);
+        while (requests.get() < expected && System.nanoTime() < deadline) {
+            Thread.sleep(10);
+        }
+        assertThat(requests).hasValue(expected);
+    }
+}
@@ -0,0 +1,46 @@
+package com.legalcms.config;
+
+import com.legalcms.service.ConflictException;
+import org.junit.jupiter.api.Test;
+import org.springframework.test.web.servlet.MockMvc;
+import org.springframework.test.web.servlet.setup.MockMvcBuilders;
+import org.springframework.web.bind.annotation.GetMapping;
+import org.springframework.web.bind.annotation.RestController;
+
+import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.get;
+import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.jsonPath;
+import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.status;
+
+class GlobalExceptionHandlerTest {
+
+    private final MockMvc mockMvc = MockMvcBuilders.standaloneSetup(new FailingController())
+            .setControllerAdvice(new GlobalExceptionHandler())
+            .build();
+
+    @Test
+    void conflictExceptionIsAConflict() throws Exception {
+        mockMvc.perform(get("/conflict"))
+                .andExpect(status().isConflict())
+                .andExpect(jsonPath("$.message").value("A court sync run is already in progress"));
+    }
+
+    @Test
+    void otherIllegalStatesAreServerErrors() throws Exception {
+        mockMvc.perform(get("/illegal-state"))
+                .andExpect(status().isInternalServerError());
+    }
+
+    @RestController
+    static class FailingController {
+
+        @GetMapping("/conflict")
+        String conflict() {
+            throw new ConflictException("A court sync run is already in progress");
+        }
+
+        @GetMapping("/illegal-state")
+        String illegalState() {
+            throw new IllegalStateException("SHA-256 not available");
+        }
+    }
+}
@@ -0,0 +1,77 @@
+package com.legalcms.config;
+
+import org.junit.jupiter.api.Test;
+import org.springframework.cache.concurrent.ConcurrentMapCache;
+
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.CountDownLatch;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+class InvalidationGuardedCacheTest {
+
+    private final InvalidationGuardedCache cache = new InvalidationGuardedCache(new ConcurrentMapCache("cases"));
+
+    @Test
+    void cachesValueLoadedAfterAMiss() {
+        assertThat(cache.get(1L)).isNull();
+        cache.put(1L, "v1");
+        assertThat(cache.get(1L).get()).isEqualTo("v1");
+    }
+
+    @Test
+    void dropsValueLoadedBeforeTheKeyWasEvicted() {
+        assertThat(cache.get(1L)).isNull();
+        cache.evict(1L);
+        cache.put(1L, "stale");
+        assertThat(cache.get(1L)).isNull();
+
+        // The next read-through starts after the eviction and may cache again
+        cache.put(1L, "v2");
+        assertThat(cache.get(1L).get()).isEqualTo("v2");
+    }
+
+    @Test
+    void evictionOfAnotherKeyDoesNotDropThePut() {
+        assertThat(cache.get(1L)).isNull();
+        cache.evict(2L);
+        cache.put(1L, "v1");
+        assertThat(cache.get(1L).get()).isEqualTo("v1");
+    }
+
+    @Test
+    void dropsValueLoadedBeforeTheCacheWasCleared() {
+        assertThat(cache.get(1L)).isNull();
+        cache.clear();
+        cache.put(1L, "stale");
+        assertThat(cache.get(1L)).isNull();
+    }
+
+    @Test
+    void dropsStalePutFromAReaderThreadThatRacedAWriter() throws Exception {
+        CountDownLatch missed = new CountDownLatch(1);
+        CountDownLatch evicted = new CountDownLatch(1);
+        CompletableFuture<Void> reader = CompletableFuture.runAsync(() -> {
+            assertThat(cache.get(1L)).isNull();
+            missed.countDown();
+            await(evicted);
+            cache.put(1L, "stale");
+        });
+
+        missed.await();
+        cache.evict(1L);
+        evicted.countDown();
+        reader.get();
+
+        assertThat(cache.get(1L)).isNull();
+    }
+
+    private static void await(CountDownLatch latch) {
+        try {
+            latch.await();
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+            throw new IllegalStateException(e);
+        }
+    }
+}
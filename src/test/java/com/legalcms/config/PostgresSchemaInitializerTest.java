@@ -0,0 +1,40 @@
+package com.legalcms.config;
+
+import com.legalcms.support.PostgresIntegrationTest;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.jdbc.core.JdbcTemplate;
+
+import java.util.List;
+import java.util.Map;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+/**
+ * Indexes the queries rely on exist after startup on a schema created by ddl-auto alone.
+ */
+class PostgresSchemaInitializerTest extends PostgresIntegrationTest {
+
+    @Autowired
+    private JdbcTemplate jdbcTemplate;
+
+    @Test
+    void createsQueueAndContentHashIndexes() {
+        List<String> names = List.of(
+                "idx_documents_case_content_hash",
+                "idx_documents_content_hash",
+                "idx_court_sync_run_items_status",
+                "idx_case_sync_state_due",
+                "idx_order_ingestion_jobs_due",
+                "idx_document_processing_jobs_due",
+                "idx_upload_sessions_expiry");
+
+        List<Map<String, Object>> indexes = jdbcTemplate.queryForList(
+                "SELECT c.relname AS name, i.indisvalid AS valid FROM pg_class c " +
+                "JOIN pg_index i ON i.indexrelid = c.oid WHERE c.relname = ANY (?)",
+                (Object) names.toArray(String[]::new));
+
+        assertThat(indexes).extracting(index -> index.get("name")).containsExactlyInAnyOrderElementsOf(names);
+        assertThat(indexes).extracting(index -> index.get("valid")).containsOnly(true);
+    }
+}
@@ -0,0 +1,158 @@
+package com.legalcms.scheduler;
+
+import com.legalcms.client.CourtClient;
+import com.legalcms.config.CourtClientProperties;
+import com.legalcms.config.CourtSyncProperties;
+import com.legalcms.dto.CaseStatusResponse;
+import com.legalcms.dto.CourtDataRequest;
+import com.legalcms.dto.CourtDataResponse;
+import com.legalcms.model.CaseEntity;
+import com.legalcms.model.CourtSyncItemStatus;
+import com.legalcms.service.CourtIntegrationService;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.Test;
+import org.mockito.ArgumentCaptor;
+
+import java.time.LocalDate;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.TimeUnit;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.Mockito.mock;
+import static org.mockito.Mockito.times;
+import static org.mockito.Mockito.verify;
+
+class CourtSyncEngineTest {
+
+    private static final String SLOW_COURT = "Slow Court";
+    private static final String FAST_COURT = "Fast Court";
+
+    // CNR -> nanoTime of its court lookup, and the threads that made them
+    private final Map<String, Long> lookedUpAt = new ConcurrentHashMap<>();
+    private final Set<String> workerThreads = ConcurrentHashMap.newKeySet();
+
+    private final CourtSyncEngine engine = engine();
+
+    @AfterEach
+    void shutdown() {
+        engine.shutdown();
+    }
+
+    @Test
+    void rateLimitedCourtDoesNotHoldBackOtherCourts() {
+        List<CourtSyncTask> tasks = new ArrayList<>();
+        for (int i = 0; i < 5; i++) {
+            tasks.add(task(i, SLOW_COURT, "SLOW" + i));
+        }
+        for (int i = 0; i < 5; i++) {
+            tasks.add(task(10 + i, FAST_COURT, "FAST" + i));
+        }
+        CourtSyncWriter.Batch batch = mock(CourtSyncWriter.Batch.class);
+
+        CourtSyncSummary summary = engine.sync(tasks.iterator(), tasks.size(), batch, () -> false);
+
+        assertThat(summary.getTotal()).isEqualTo(10);
+        verify(batch, times(10)).add(any());
+        verify(batch).close();
+
+        // The slow court (5/s) is held to its rate; the fast court's cases, read after it, run meanwhile
+        long slowSpanMs = TimeUnit.NANOSECONDS.toMillis(lookedUpAt.get("SLOW4") - lookedUpAt.get("SLOW0"));
+        assertThat(slowSpanMs).isGreaterThanOrEqualTo(600);
+        for (int i = 0; i < 5; i++) {
+            assertThat(lookedUpAt.get("FAST" + i)).isLessThan(lookedUpAt.get("SLOW2"));
+        }
+    }
+
+    @Test
+    void runsShareOneWorkerPool() {
+        for (int run = 0; run < 3; run++) {
+            List<CourtSyncTask> tasks = new ArrayList<>();
+            for (int i = 0; i < 4; i++) {
+                tasks.add(task(100 * run + i, FAST_COURT, "RUN" + run + "-" + i));
+            }
+            engine.sync(tasks.iterator(), tasks.size(), mock(CourtSyncWriter.Batch.class), () -> false);
+        }
+
+        assertThat(workerThreads).hasSizeLessThanOrEqualTo(2);
+    }
+
+    @Test
+    void stopRequestStartsNoFurtherCases() {
+        List<CourtSyncTask> tasks = new ArrayList<>();
+        for (int i = 0; i < 5; i++) {
+            tasks.add(task(200 + i, SLOW_COURT, "STOP" + i));
+        }
+        CourtSyncWriter.Batch batch = mock(CourtSyncWriter.Batch.class);
+
+        CourtSyncSummary summary = engine.sync(tasks.iterator(), tasks.size(), batch,
+                () -> lookedUpAt.containsKey("STOP0"));
+
+        assertThat(summary.getTotal()).isLessThan(5);
+        assertThat(lookedUpAt).doesNotContainKey("STOP4");
+    }
+
+    @Test
+    void outcomeCarriesOnlyWhatTheCourtChanged() {
+        CaseEntity caseEntity = CaseEntity.builder()
+                .id(300L)
+                .caseNumber("C-300")
+                .cnrNumber("CHANGED")
+                .courtName(FAST_COURT)
+                .caseStage("Hearing")
+                .nextHearingDate(LocalDate.of(2030, 1, 10))
+                .build();
+        CourtSyncWriter.Batch batch = mock(CourtSyncWriter.Batch.class);
+        ArgumentCaptor<CourtSyncWriter.CaseOutcome> outcome = ArgumentCaptor.forClass(CourtSyncWriter.CaseOutcome.class);
+
+        engine.sync(List.of(new CourtSyncTask(caseEntity, null)).iterator(), 1, batch, () -> false);
+
+        // The court reports a new stage and no hearing date: the stored date is left alone
+        verify(batch).add(outcome.capture());
+        assertThat(outcome.getValue().status()).isEqualTo(CourtSyncItemStatus.UPDATED);
+        assertThat(outcome.getValue().caseStage()).isEqualTo("Admission");
+        assertThat(outcome.getValue().nextHearingDate()).isNull();
+    }
+
+    private CourtSyncEngine engine() {
+        CourtSyncProperties properties = new CourtSyncProperties();
+        properties.setMaxConcurrency(2);
+        properties.setRateLimits(Map.of(SLOW_COURT, 5.0, FAST_COURT, 1000.0));
+
+        CourtClient client = new CourtClient() {
+            @Override
+            public CompletableFuture<CourtDataResponse> fetchCnrNumber(CourtDataRequest request) {
+                throw new UnsupportedOperationException();
+            }
+
+            @Override
+            public CompletableFuture<CaseStatusResponse> fetchCaseStatus(String cnrNumber) {
+                lookedUpAt.put(cnrNumber, System.nanoTime());
+                workerThreads.add(Thread.currentThread().getName());
+                return CompletableFuture.completedFuture(CaseStatusResponse.builder()
+                        .cnrNumber(cnrNumber)
+                        .caseStage("Admission")
+                        .build());
+            }
+        };
+        CourtIntegrationService courtIntegrationService =
+                new CourtIntegrationService(client, new CourtClientProperties(), new SimpleMeterRegistry());
+        return new CourtSyncEngine(courtIntegrationService, new CourtRateLimiter(properties), properties,
+                new SyncPriorityPolicy());
+    }
+
+    private static CourtSyncTask task(long id, String courtName, String cnrNumber) {
+        return new CourtSyncTask(CaseEntity.builder()
+                .id(id)
+                .caseNumber("C-" + id)
+                .cnrNumber(cnrNumber)
+                .courtName(courtName)
+                .build(), null);
+    }
+}
@@ -0,0 +1,173 @@
+package com.legalcms.scheduler;
+
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.legalcms.client.HttpCourtClient;
+import com.legalcms.config.CourtClientProperties;
+import com.legalcms.config.CourtSyncProperties;
+import com.legalcms.model.CaseEntity;
+import com.legalcms.model.CourtSyncItemStatus;
+import com.legalcms.service.CourtIntegrationService;
+import com.sun.net.httpserver.HttpExchange;
+import com.sun.net.httpserver.HttpServer;
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.condition.EnabledIfSystemProperty;
+
+import java.io.IOException;
+import java.io.OutputStream;
+import java.net.InetAddress;
+import java.net.InetSocketAddress;
+import java.nio.charset.StandardCharsets;
+import java.time.Duration;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.ThreadLocalRandom;
+import java.util.concurrent.atomic.AtomicInteger;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.Mockito.doAnswer;
+import static org.mockito.Mockito.mock;
+
+/**
+ * Throughput of a court sync run through the real HTTP client against a stub court API that answers
+ * with injected latency and a share of 5xx and 429 (with Retry-After) responses. Prints cases per
+ * second, outcomes and retries per scenario; run with
+ * {@code mvn test -Dtest=CourtSyncThroughputBenchmarkTest -Dbenchmark=true}.
+ */
+@EnabledIfSystemProperty(named = "benchmark", matches = "true")
+class CourtSyncThroughputBenchmarkTest {
+
+    private static final int CASES = 1000;
+    private static final List<String> COURTS =
+            List.of("Patna High Court", "Delhi High Court", "Bombay High Court", "Madras High Court");
+
+    private record Scenario(String name, Duration latency, double serverErrorRate, double throttleRate) {
+    }
+
+    @Test
+    void syncAgainstAnUnreliableCourt() throws Exception {
+        List<Scenario> scenarios = List.of(
+                new Scenario("clean", Duration.ofMillis(50), 0, 0),
+                new Scenario("5% 5xx", Duration.ofMillis(50), 0.05, 0),
+                new Scenario("5% 429", Duration.ofMillis(50), 0, 0.05),
+                new Scenario("5%+5%", Duration.ofMillis(50), 0.05, 0.05),
+                new Scenario("slow", Duration.ofMillis(200), 0.02, 0.02));
+        for (Scenario scenario : scenarios) {
+            run(scenario);
+        }
+    }
+
+    private void run(Scenario scenario) throws IOException {
+        AtomicInteger requests = new AtomicInteger();
+        ExecutorService serverExecutor = Executors.newFixedThreadPool(64);
+        HttpServer server = HttpServer.create(new InetSocketAddress(InetAddress.getLoopbackAddress(), 0), 0);
+        server.setExecutor(serverExecutor);
+        server.createContext("/", exchange -> {
+            requests.incrementAndGet();
+            answer(exchange, scenario);
+        });
+        server.start();
+
+        CourtClientProperties clientProperties = new CourtClientProperties();
+        CourtClientProperties.Http http = clientProperties.getHttp();
+        http.setBaseUrl("http://127.0.0.1:" + server.getAddress().getPort() + "/api");
+        http.setRetryBaseDelay(Duration.ofMillis(20));
+        http.setRetryMaxDelay(Duration.ofMillis(200));
+        SimpleMeterRegistry meterRegistry = new SimpleMeterRegistry();
+        HttpCourtClient client =
+                new HttpCourtClient(clientProperties, new ObjectMapper().findAndRegisterModules(), meterRegistry);
+
+        CourtSyncProperties syncProperties = new CourtSyncProperties();
+        // Court rate limits would dominate the figures; this measures the client and the engine
+        syncProperties.setDefaultRatePerSecond(10_000);
+        CourtSyncEngine engine = new CourtSyncEngine(
+                new CourtIntegrationService(client, clientProperties, meterRegistry),
+                new CourtRateLimiter(syncProperties), syncProperties, new SyncPriorityPolicy());
+
+        Map<CourtSyncItemStatus, AtomicInteger> outcomes = new ConcurrentHashMap<>();
+        CourtSyncWriter.Batch batch = mock(CourtSyncWriter.Batch.class);
+        doAnswer(invocation -> {
+            CourtSyncWriter.CaseOutcome outcome = invocation.getArgument(0);
+            outcomes.computeIfAbsent(outcome.status(), status -> new AtomicInteger()).incrementAndGet();
+            return null;
+        }).when(batch).add(any());
+
+        List<CourtSyncTask> tasks = new ArrayList<>();
+        for (int i = 0; i < CASES; i++) {
+            tasks.add(new CourtSyncTask(CaseEntity.builder()
+                    .id((long) i)
+                    .caseNumber("B-" + i)
+                    .cnrNumber("BENCH" + i)
+                    .courtName(COURTS.get(i % COURTS.size()))
+                    .build(), null));
+        }
+
+        long start = System.nanoTime();
+        try {
+            engine.sync(tasks.iterator(), tasks.size(), batch, () -> false);
+        } finally {
+            engine.shutdown();
+            client.shutdown();
+            server.stop(0);
+            serverExecutor.shutdownNow();
+        }
+        double seconds = (System.nanoTime() - start) / 1e9;
+
+        int synced = outcomes.values().stream().mapToInt(AtomicInteger::get).sum();
+        assertThat(synced).isEqualTo(CASES);
+        System.out.printf("%-8s latency %3d ms, 5xx %2.0f%%, 429 %2.0f%%: %6.0f cases/s (%d cases in %.1f s, "
+                        + "concurrency %d)   updated %d, failed %d   requests %d, retries %.0f, rejected %.0f%n",
+                scenario.name(), scenario.latency().toMillis(), scenario.serverErrorRate() * 100,
+                scenario.throttleRate() * 100, CASES / seconds, CASES, seconds, syncProperties.getMaxConcurrency(),
+                count(outcomes, CourtSyncItemStatus.UPDATED), count(outcomes, CourtSyncItemStatus.FAILED),
+                requests.get(), meterRegistry.get("court.client.retries").counter().count(),
+                meterRegistry.find("court.client.rejected").counters().stream().mapToDouble(Counter::count).sum());
+    }
+
+    private static void answer(HttpExchange exchange, Scenario scenario) throws IOException {
+        try {
+            Thread.sleep(scenario.latency().toMillis());
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+        }
+        double roll = ThreadLocalRandom.current().nextDouble();
+        int status = 200;
+        byte[] body = new byte[0];
+        if (roll < scenario.serverErrorRate()) {
+            status = 503;
+        } else if (roll < scenario.serverErrorRate() + scenario.throttleRate()) {
+            status = 429;
+            // Capped to the client's retryMaxDelay
+            exchange.getResponseHeaders().set("Retry-After", "1");
+        } else {
+            // /api/cases/{cnr}/status
+            String cnrNumber = exchange.getRequestURI().getPath().split("/")[3];
+            body = ("{\"cnrNumber\":\"" + cnrNumber + "\",\"caseStage\":\"Admission\"}")
+                    .getBytes(StandardCharsets.UTF_8);
+        }
+        exchange.getResponseHeaders().set("Content-Type", "application/json");
+        try {
+            exchange.sendResponseHeaders(status, body.length == 0 ? -1 : body.length);
+            if (body.length > 0) {
+                try (OutputStream out = exchange.getResponseBody()) {
+                    out.write(body);
+                }
+            }
+        } catch (IOException e) {
+            // The client gave up on this attempt
+        } finally {
+            exchange.close();
+        }
+    }
+
+    private static int count(Map<CourtSyncItemStatus, AtomicInteger> outcomes, CourtSyncItemStatus status) {
+        AtomicInteger count = outcomes.get(status);
+        return count == null ? 0 : count.get();
+    }
+}
@@ -0,0 +1,84 @@
+package com.legalcms.scheduler;
+
+import com.legalcms.event.CourtStatusChangedEvent;
+import com.legalcms.event.CourtStatusChangedEvent.FieldChange;
+import com.legalcms.model.CaseEntity;
+import com.legalcms.repository.CaseRepository;
+import com.legalcms.support.PostgresIntegrationTest;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.jdbc.core.JdbcTemplate;
+
+import java.sql.Date;
+import java.time.LocalDate;
+import java.util.List;
+import java.util.Map;
+import java.util.UUID;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+/**
+ * Sync results written over a case that changed after the sync read it.
+ */
+class CourtSyncWriterTest extends PostgresIntegrationTest {
+
+    private static final LocalDate READ_DATE = LocalDate.of(2030, 1, 10);
+    private static final LocalDate MOVED_DATE = LocalDate.of(2030, 2, 10);
+    private static final LocalDate COURT_DATE = LocalDate.of(2030, 3, 10);
+
+    @Autowired
+    private CourtSyncWriter courtSyncWriter;
+
+    @Autowired
+    private CaseRepository caseRepository;
+
+    @Autowired
+    private JdbcTemplate jdbcTemplate;
+
+    @Test
+    void fieldsTheCourtDidNotChangeKeepTheirStoredValue() {
+        Long stageChanged = createCase();
+        Long dateChanged = createCase();
+        // Edited after the sync read both cases
+        jdbcTemplate.update("UPDATE cases SET next_hearing_date = ? WHERE id = ?", MOVED_DATE, stageChanged);
+        jdbcTemplate.update("UPDATE cases SET case_stage = 'Final Hearing' WHERE id = ?", dateChanged);
+
+        try (CourtSyncWriter.Batch batch = courtSyncWriter.openBatch(null)) {
+            batch.add(updated(stageChanged, "Arguments", null,
+                    new FieldChange(CourtStatusChangedEvent.Field.CASE_STAGE, "Admission", "Arguments")));
+            batch.add(updated(dateChanged, null, COURT_DATE,
+                    new FieldChange(CourtStatusChangedEvent.Field.NEXT_HEARING_DATE, READ_DATE.toString(),
+                            COURT_DATE.toString())));
+        }
+
+        assertThat(stored(stageChanged)).containsEntry("case_stage", "Arguments")
+                .containsEntry("next_hearing_date", Date.valueOf(MOVED_DATE));
+        assertThat(stored(dateChanged)).containsEntry("case_stage", "Final Hearing")
+                .containsEntry("next_hearing_date", Date.valueOf(COURT_DATE));
+        // The hearing left behind is recorded at the stage stored on the case
+        assertThat(jdbcTemplate.queryForList("SELECT stage FROM hearings WHERE case_id = ? AND hearing_date = ?",
+                String.class, dateChanged, READ_DATE)).containsExactly("Final Hearing");
+    }
+
+    private static CourtSyncWriter.CaseOutcome updated(Long caseId, String caseStage, LocalDate nextHearingDate,
+                                                       FieldChange change) {
+        return CourtSyncWriter.CaseOutcome.updated(caseId, caseStage, nextHearingDate, 10, null,
+                new CourtSyncWriter.StatusObservation("CNR" + caseId, "digest-" + caseId, true, null, List.of(change)));
+    }
+
+    private Map<String, Object> stored(Long caseId) {
+        return jdbcTemplate.queryForMap("SELECT case_stage, next_hearing_date FROM cases WHERE id = ?", caseId);
+    }
+
+    private Long createCase() {
+        String key = UUID.randomUUID().toString().substring(0, 8);
+        return caseRepository.save(CaseEntity.builder()
+                .caseTitle("Sync case " + key)
+                .caseType("CWJC")
+                .caseNumber("W-" + key)
+                .courtName("Sync Court")
+                .caseStage("Admission")
+                .nextHearingDate(READ_DATE)
+                .build()).getId();
+    }
+}
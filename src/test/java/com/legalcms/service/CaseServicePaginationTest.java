@@ -0,0 +1,113 @@
+package com.legalcms.service;
+
+import com.legalcms.dto.CaseResponse;
+import com.legalcms.dto.CursorPageResponse;
+import com.legalcms.model.CaseEntity;
+import com.legalcms.model.Party;
+import com.legalcms.model.User;
+import com.legalcms.model.UserRole;
+import com.legalcms.repository.CaseRepository;
+import com.legalcms.repository.UserRepository;
+import com.legalcms.support.PostgresIntegrationTest;
+import jakarta.persistence.EntityManagerFactory;
+import org.hibernate.SessionFactory;
+import org.hibernate.stat.Statistics;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.jdbc.core.JdbcTemplate;
+
+import java.util.UUID;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+/**
+ * Guards the batched mapping of case pages: one page costs the same number of statements
+ * whatever the number of cases, advocates and parties on it.
+ */
+class CaseServicePaginationTest extends PostgresIntegrationTest {
+
+    @Autowired
+    private CaseService caseService;
+
+    @Autowired
+    private CaseRepository caseRepository;
+
+    @Autowired
+    private UserRepository userRepository;
+
+    @Autowired
+    private EntityManagerFactory entityManagerFactory;
+
+    @Autowired
+    private JdbcTemplate jdbcTemplate;
+
+    @Test
+    void keysetIndexesAreCreatedByTheSchemaUpdate() {
+        assertThat(jdbcTemplate.queryForList(
+                "SELECT indexdef FROM pg_indexes WHERE tablename = 'cases' " +
+                "AND indexname IN ('idx_cases_status_id', 'idx_cases_court_name_id', 'idx_cases_advocate_id') " +
+                "ORDER BY indexname", String.class))
+                .containsExactly(
+                        "CREATE INDEX idx_cases_advocate_id ON public.cases USING btree (assigned_advocate_id, id)",
+                        "CREATE INDEX idx_cases_court_name_id ON public.cases USING btree (court_name, id)",
+                        "CREATE INDEX idx_cases_status_id ON public.cases USING btree (status, id)");
+    }
+
+    @Test
+    void pageOfCasesIsLoadedWithConstantStatements() {
+        String smallCourt = createCases(3);
+        String largeCourt = createCases(20);
+
+        long small = statementsFor(smallCourt, 3);
+        long large = statementsFor(largeCourt, 20);
+
+        // One query for the page with its advocates, one for the parties of the whole page
+        assertThat(small).isEqualTo(2);
+        assertThat(large).isEqualTo(small);
+    }
+
+    private long statementsFor(String courtName, int expectedCases) {
+        Statistics statistics = entityManagerFactory.unwrap(SessionFactory.class).getStatistics();
+        statistics.clear();
+
+        CursorPageResponse<CaseResponse> page = caseService.getAllCases(null, courtName, null, null, 50);
+
+        long statements = statistics.getPrepareStatementCount();
+        assertThat(page.getItems()).hasSize(expectedCases);
+        assertThat(page.getItems()).allSatisfy(item -> {
+            assertThat(item.getAssignedAdvocate()).isNotNull();
+            assertThat(item.getParties()).hasSize(2);
+        });
+        return statements;
+    }
+
+    // Cases of a court of their own, each with its own advocate and two parties
+    private String createCases(int count) {
+        String key = UUID.randomUUID().toString().substring(0, 8);
+        String courtName = "Test Court " + key;
+        for (int i = 0; i < count; i++) {
+            User advocate = userRepository.save(User.builder()
+                    .fullName("Advocate " + i)
+                    .email("advocate-" + key + "-" + i + "@example.com")
+                    .password("x")
+                    .role(UserRole.ADVOCATE)
+                    .build());
+            CaseEntity caseEntity = CaseEntity.builder()
+                    .caseTitle("Case " + i)
+                    .caseType("CWJC")
+                    .caseNumber(key + "-" + i)
+                    .courtName(courtName)
+                    .assignedAdvocate(advocate)
+                    .build();
+            for (int p = 0; p < 2; p++) {
+                caseEntity.getParties().add(Party.builder()
+                        .caseEntity(caseEntity)
+                        .petitionerName("Petitioner " + p)
+                        .respondentName("Respondent " + p)
+                        .build());
+            }
+            caseRepository.save(caseEntity);
+        }
+        return courtName;
+    }
+}
@@ -0,0 +1,137 @@
+package com.legalcms.service;
+
+import com.legalcms.event.CaseChangedEvent;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.condition.EnabledIfSystemProperty;
+
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.List;
+import java.util.Random;
+import java.util.function.Function;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+/**
+ * Latency of type-ahead lookups in the case suggestion index loaded with a realistic court
+ * docket: 200,000 cases with case numbers, CNRs and party names drawn from common names. Measured
+ * once everything is merged into the base segment and again with 30,000 recent changes still in
+ * the delta. Prints p50 / p99 / max per kind of query; run with
+ * {@code mvn test -Dtest=CaseSuggestionIndexBenchmarkTest -Dbenchmark=true}.
+ */
+@EnabledIfSystemProperty(named = "benchmark", matches = "true")
+class CaseSuggestionIndexBenchmarkTest {
+
+    private static final int CASES = 200_000;
+    private static final int RECENT_CHANGES = 30_000;
+    private static final int LOOKUPS = 20_000;
+
+    private static final String[] FIRST_NAMES = {"Ram", "Shyam", "Sita", "Geeta", "Mohan", "Sunil", "Anil", "Rekha",
+            "Pooja", "Rajesh", "Suresh", "Ramesh", "Kavita", "Vijay", "Ajay", "Manoj", "Dinesh", "Lalita", "Amit",
+            "Sanjay", "Priya", "Arun", "Kiran", "Deepak", "Neha", "Rakesh", "Mukesh", "Usha", "Ravi", "Santosh"};
+    private static final String[] SURNAMES = {"Kumar", "Singh", "Prasad", "Yadav", "Sharma", "Mishra", "Jha",
+            "Gupta", "Sinha", "Pandey", "Verma", "Thakur", "Rai", "Chaudhary", "Paswan", "Mahto", "Sahu", "Tiwari",
+            "Choudhary", "Ojha", "Dubey", "Srivastava", "Pathak", "Mandal", "Ansari"};
+    private static final String[] RESPONDENTS = {"State of Bihar", "Union of India", "Bihar State Electricity Board",
+            "Patna Municipal Corporation", "State Bank of India", "Bihar Public Service Commission",
+            "Director General of Police", "District Magistrate Patna", "Life Insurance Corporation of India"};
+    private static final String[] CASE_TYPES = {"CWJC", "CRM", "CRWJC", "MJC", "LPA", "FA", "SA", "CRA"};
+
+    private final CaseSuggestionIndex index = new CaseSuggestionIndex(null, null, null, 50_000);
+    private final Random random = new Random(42);
+
+    private record QueryKind(String name, Function<Random, String> query) {
+    }
+
+    @AfterEach
+    void shutdown() {
+        index.shutdown();
+    }
+
+    @Test
+    void prefixLookupLatency() throws Exception {
+        long start = System.nanoTime();
+        for (long id = 1; id <= CASES; id++) {
+            index.onCaseChanged(created(id));
+        }
+        index.awaitCompaction();
+        System.out.printf("Loaded %d cases in %d ms%n", CASES, (System.nanoTime() - start) / 1_000_000);
+
+        List<QueryKind> kinds = List.of(
+                new QueryKind("party, 1 char", r -> pick(r, SURNAMES).substring(0, 1)),
+                new QueryKind("party, 3 chars", r -> pick(r, SURNAMES).substring(0, 3)),
+                new QueryKind("party, word", r -> pick(r, FIRST_NAMES)),
+                new QueryKind("party, 2 words", r -> pick(r, FIRST_NAMES) + " " + pick(r, SURNAMES).substring(0, 2)),
+                new QueryKind("case number", r -> pick(r, CASE_TYPES) + "/" + (10 + r.nextInt(90))),
+                new QueryKind("CNR", r -> "BRHC01-" + String.format("%06d", r.nextInt(CASES)).substring(0, 3)),
+                new QueryKind("no match", r -> "zzq" + r.nextInt(1000)));
+
+        measure("merged", kinds);
+
+        // Updates and new cases since the last merge; below the threshold, so they stay in the delta
+        for (int i = 0; i < RECENT_CHANGES; i++) {
+            long id = i % 2 == 0 ? 1 + random.nextInt(CASES) : CASES + i;
+            index.onCaseChanged(i % 2 == 0 ? updated(id) : created(id));
+        }
+        measure("+30k delta", kinds);
+    }
+
+    private void measure(String state, List<QueryKind> kinds) {
+        for (QueryKind kind : kinds) {
+            // Warm-up
+            Random queries = new Random(7);
+            for (int i = 0; i < LOOKUPS / 4; i++) {
+                index.suggest(kind.query().apply(queries), 10);
+            }
+
+            long[] nanos = new long[LOOKUPS];
+            int found = 0;
+            for (int i = 0; i < LOOKUPS; i++) {
+                String query = kind.query().apply(queries);
+                long start = System.nanoTime();
+                int results = index.suggest(query, 10).size();
+                nanos[i] = System.nanoTime() - start;
+                found += results > 0 ? 1 : 0;
+            }
+            Arrays.sort(nanos);
+            if (!kind.name().equals("no match")) {
+                assertThat(found).isPositive();
+            }
+            System.out.printf("%-10s %-15s p50 %7.1f us   p99 %7.1f us   max %8.1f us   (%d lookups, %d with results)%n",
+                    state, kind.name(), nanos[LOOKUPS / 2] / 1000.0, nanos[LOOKUPS * 99 / 100] / 1000.0,
+                    nanos[LOOKUPS - 1] / 1000.0, LOOKUPS, found);
+        }
+    }
+
+    private CaseChangedEvent created(long id) {
+        return event(id, CaseChangedEvent.ChangeType.CREATED);
+    }
+
+    private CaseChangedEvent updated(long id) {
+        return event(id, CaseChangedEvent.ChangeType.UPDATED);
+    }
+
+    private CaseChangedEvent event(long id, CaseChangedEvent.ChangeType type) {
+        List<String> parties = new ArrayList<>();
+        parties.add(pick(random, FIRST_NAMES) + " " + pick(random, SURNAMES));
+        if (random.nextInt(4) == 0) {
+            parties.add(pick(random, FIRST_NAMES) + " " + pick(random, FIRST_NAMES) + " " + pick(random, SURNAMES));
+        }
+        parties.add(random.nextInt(3) == 0 ? pick(random, FIRST_NAMES) + " " + pick(random, SURNAMES)
+                : pick(random, RESPONDENTS));
+        int year = 2010 + (int) (id % 15);
+        return CaseChangedEvent.builder()
+                .caseId(id)
+                .changeType(type)
+                .caseNumber(pick(random, CASE_TYPES) + "/" + (1 + id % 9999) + "/" + year)
+                .cnrNumber(random.nextInt(5) == 0 ? null : String.format("BRHC01-%06d-%d", id, year))
+                .caseTitle(parties.get(0) + " v " + parties.get(parties.size() - 1))
+                .partyNames(parties)
+                .build();
+    }
+
+    private static String pick(Random random, String[] values) {
+        return values[random.nextInt(values.length)];
+    }
+}
@@ -0,0 +1,117 @@
+package com.legalcms.service;
+
+import com.legalcms.dto.CaseSuggestionResponse;
+import com.legalcms.event.CaseChangedEvent;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.Test;
+
+import java.util.List;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+class CaseSuggestionIndexTest {
+
+    // Small enough that a few cases trigger background compaction
+    private final CaseSuggestionIndex index = new CaseSuggestionIndex(null, null, null, 10);
+
+    @AfterEach
+    void shutdown() {
+        index.shutdown();
+    }
+
+    @Test
+    void findsCasesByNumberCnrAndAnyWordOfAPartyName() {
+        created(1, "101/2024", "BIHC01-000101-2024", "Ram Kumar Singh", "State of Bihar");
+        created(2, "102/2024", null, "Shyam Kumar", "Union of India");
+
+        assertThat(caseIds("kumar")).containsExactly(2L, 1L);
+        assertThat(caseIds("kumar si")).containsExactly(1L);
+        assertThat(caseIds("101/")).containsExactly(1L);
+        assertThat(caseIds("bihc01")).containsExactly(1L);
+        assertThat(index.suggest("bihc01", 5).get(0).getMatchType()).isEqualTo("CNR");
+        assertThat(caseIds("nobody")).isEmpty();
+    }
+
+    @Test
+    void updatesAndDeletesReplaceEarlierEntries() {
+        created(1, "101/2024", null, "Ram Kumar", "State");
+        updated(1, "101/2024", "Ram Prasad", "State");
+        assertThat(caseIds("kumar")).isEmpty();
+        assertThat(caseIds("prasad")).containsExactly(1L);
+
+        deleted(1);
+        assertThat(caseIds("prasad")).isEmpty();
+        assertThat(caseIds("101")).isEmpty();
+    }
+
+    @Test
+    void compactionMergesInTheBackgroundWithoutLosingConcurrentChanges() throws Exception {
+        for (long id = 1; id <= 10; id++) {
+            created(id, id + "/2024", null, "Petitioner Number" + id, "State of Bihar");
+        }
+        // Past the threshold: the delta is frozen and merged on the compactor thread while these
+        // writes go to the new delta
+        created(11, "11/2024", null, "Late Petitioner", "State of Bihar");
+        updated(3, "3/2024", "Renamed Party", "State of Bihar");
+        deleted(4);
+        index.awaitCompaction();
+
+        assertThat(caseIds("state of")).hasSize(10).doesNotContain(4L);
+        assertThat(caseIds("number3")).isEmpty();
+        assertThat(caseIds("renamed")).containsExactly(3L);
+        assertThat(caseIds("late")).containsExactly(11L);
+        assertThat(caseIds("number5")).containsExactly(5L);
+
+        // Changes after the merge still override the new base
+        deleted(5);
+        assertThat(caseIds("number5")).isEmpty();
+        updated(6, "6/2024", "Petitioner Number6", "Union of India");
+        assertThat(caseIds("union")).containsExactly(6L);
+        assertThat(caseIds("state of")).doesNotContain(4L, 5L, 6L);
+    }
+
+    @Test
+    void repeatedCompactionsKeepResultsStable() throws Exception {
+        for (long id = 1; id <= 100; id++) {
+            created(id, "C-" + id, null, "Party " + id, "State of Bihar");
+            index.awaitCompaction();
+        }
+        for (long id = 1; id <= 100; id += 2) {
+            deleted(id);
+            index.awaitCompaction();
+        }
+        List<CaseSuggestionResponse> state = index.suggest("state", 20);
+        assertThat(state).hasSize(20).allSatisfy(result -> assertThat(result.getCaseId() % 2).isZero());
+        // C-7 and the other odd cases are gone
+        assertThat(caseIds("c7")).containsExactlyInAnyOrder(70L, 72L, 74L, 76L, 78L);
+        assertThat(caseIds("c8")).containsExactlyInAnyOrder(8L, 80L, 82L, 84L, 86L, 88L);
+    }
+
+    private List<Long> caseIds(String query) {
+        return index.suggest(query, 20).stream().map(CaseSuggestionResponse::getCaseId).toList();
+    }
+
+    private void created(long id, String caseNumber, String cnr, String petitioner, String respondent) {
+        index.onCaseChanged(event(id, CaseChangedEvent.ChangeType.CREATED, caseNumber, cnr, petitioner, respondent));
+    }
+
+    private void updated(long id, String caseNumber, String petitioner, String respondent) {
+        index.onCaseChanged(event(id, CaseChangedEvent.ChangeType.UPDATED, caseNumber, null, petitioner, respondent));
+    }
+
+    private void deleted(long id) {
+        index.onCaseChanged(CaseChangedEvent.builder().caseId(id).changeType(CaseChangedEvent.ChangeType.DELETED).build());
+    }
+
+    private static CaseChangedEvent event(long id, CaseChangedEvent.ChangeType type, String caseNumber, String cnr,
+                                          String petitioner, String respondent) {
+        return CaseChangedEvent.builder()
+                .caseId(id)
+                .changeType(type)
+                .caseNumber(caseNumber)
+                .cnrNumber(cnr)
+                .caseTitle(petitioner + " v " + respondent)
+                .partyNames(List.of(petitioner, respondent))
+                .build();
+    }
+}
@@ -0,0 +1,67 @@
+package com.legalcms.service;
+
+import com.legalcms.model.CaseEntity;
+import com.legalcms.model.User;
+import com.legalcms.model.UserRole;
+import com.legalcms.repository.CaseRepository;
+import com.legalcms.repository.UserRepository;
+import com.legalcms.support.PostgresIntegrationTest;
+import com.legalcms.util.ResourceVersion;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+
+import java.util.UUID;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+/**
+ * ETags of case responses must change whenever anything in the response body does, including
+ * the embedded advocate.
+ */
+class CaseVersionTest extends PostgresIntegrationTest {
+
+    @Autowired
+    private CaseService caseService;
+
+    @Autowired
+    private CaseRepository caseRepository;
+
+    @Autowired
+    private UserRepository userRepository;
+
+    @Test
+    void renamingTheAdvocateChangesCaseAndListingETags() {
+        String key = UUID.randomUUID().toString().substring(0, 8);
+        String courtName = "Version Court " + key;
+        User advocate = userRepository.save(User.builder()
+                .fullName("Advocate " + key)
+                .email("version-" + key + "@example.com")
+                .password("x")
+                .role(UserRole.ADVOCATE)
+                .build());
+        CaseEntity caseEntity = caseRepository.save(CaseEntity.builder()
+                .caseTitle("Case " + key)
+                .caseType("CWJC")
+                .caseNumber("V-" + key)
+                .courtName(courtName)
+                .assignedAdvocate(advocate)
+                .build());
+
+        ResourceVersion caseBefore = caseService.getCaseVersion(caseEntity.getId());
+        ResourceVersion listBefore = caseService.getCasesVersion(null, courtName, null, null, 20);
+        ResourceVersion mineBefore = caseService.getMyCasesVersion(advocate.getEmail(), null, null, null, 20);
+        assertThat(caseService.getCaseVersion(caseEntity.getId()).getETag()).isEqualTo(caseBefore.getETag());
+        assertThat(caseService.getCasesVersion(null, courtName, null, null, 20).getETag())
+                .isEqualTo(listBefore.getETag());
+
+        User renamed = userRepository.findById(advocate.getId()).orElseThrow();
+        renamed.setFullName("Renamed " + key);
+        userRepository.saveAndFlush(renamed);
+
+        assertThat(caseService.getCaseVersion(caseEntity.getId()).getETag()).isNotEqualTo(caseBefore.getETag());
+        assertThat(caseService.getCasesVersion(null, courtName, null, null, 20).getETag())
+                .isNotEqualTo(listBefore.getETag());
+        assertThat(caseService.getMyCasesVersion(advocate.getEmail(), null, null, null, 20).getETag())
+                .isNotEqualTo(mineBefore.getETag());
+    }
+}
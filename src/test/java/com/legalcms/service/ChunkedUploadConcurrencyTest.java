@@ -0,0 +1,242 @@
+package com.legalcms.service;
+
+import com.legalcms.config.StorageProperties;
+import com.legalcms.dto.DocumentResponse;
+import com.legalcms.dto.UploadSessionRequest;
+import com.legalcms.model.CaseEntity;
+import com.legalcms.model.DocumentType;
+import com.legalcms.model.UploadSessionStatus;
+import com.legalcms.model.User;
+import com.legalcms.model.UserRole;
+import com.legalcms.repository.CaseRepository;
+import com.legalcms.repository.DocumentRepository;
+import com.legalcms.repository.UploadSessionRepository;
+import com.legalcms.repository.UserRepository;
+import com.legalcms.support.PostgresIntegrationTest;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.support.TransactionTemplate;
+import org.springframework.util.unit.DataSize;
+
+import java.io.ByteArrayInputStream;
+import java.io.InputStream;
+import java.nio.charset.StandardCharsets;
+import java.security.MessageDigest;
+import java.util.HexFormat;
+import java.util.UUID;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.TimeoutException;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.assertThatThrownBy;
+
+/**
+ * Chunk writes racing the completion of their upload session.
+ */
+class ChunkedUploadConcurrencyTest extends PostgresIntegrationTest {
+
+    private static final int CHUNK_SIZE = 16;
+
+    @Autowired
+    private ChunkedUploadService chunkedUploadService;
+
+    @Autowired
+    private UploadSessionRepository uploadSessionRepository;
+
+    @Autowired
+    private DocumentRepository documentRepository;
+
+    @Autowired
+    private CaseRepository caseRepository;
+
+    @Autowired
+    private UserRepository userRepository;
+
+    @Autowired
+    private StorageProperties storageProperties;
+
+    @Autowired
+    private PlatformTransactionManager transactionManager;
+
+    private DataSize chunkSize;
+    private Long caseId;
+    private String userEmail;
+    private byte[] content;
+
+    @BeforeEach
+    void createCase() {
+        chunkSize = storageProperties.getUpload().getChunkSize();
+        storageProperties.getUpload().setChunkSize(DataSize.ofBytes(CHUNK_SIZE));
+
+        String key = UUID.randomUUID().toString().substring(0, 8);
+        User user = userRepository.save(User.builder()
+                .fullName("Clerk " + key)
+                .email("clerk-" + key + "@example.com")
+                .password("x")
+                .role(UserRole.ADVOCATE)
+                .build());
+        userEmail = user.getEmail();
+        caseId = caseRepository.save(CaseEntity.builder()
+                .caseTitle("Upload case " + key)
+                .caseType("CWJC")
+                .caseNumber("U-" + key)
+                .courtName("Upload Court")
+                .build()).getId();
+        content = ("order of the court " + key + ".....").getBytes(StandardCharsets.US_ASCII);
+        assertThat(content).hasSize(2 * CHUNK_SIZE);
+    }
+
+    @AfterEach
+    void restoreChunkSize() {
+        storageProperties.getUpload().setChunkSize(chunkSize);
+    }
+
+    @Test
+    void completeWaitsForAChunkBeingWritten() throws Exception {
+        String uploadId = openAndWriteAllChunks();
+
+        // A writer mid-copy holds the session's share lock until its transaction ends
+        CountDownLatch locked = new CountDownLatch(1);
+        CountDownLatch release = new CountDownLatch(1);
+        CompletableFuture<Void> writer = CompletableFuture.runAsync(() ->
+                new TransactionTemplate(transactionManager).executeWithoutResult(status -> {
+                    assertThat(uploadSessionRepository.lockOpen(uploadId)).isEqualTo(1);
+                    locked.countDown();
+                    await(release);
+                }));
+        assertThat(locked.await(5, TimeUnit.SECONDS)).isTrue();
+
+        CompletableFuture<DocumentResponse> completion =
+                CompletableFuture.supplyAsync(() -> chunkedUploadService.complete(uploadId, userEmail));
+        assertThatThrownBy(() -> completion.get(500, TimeUnit.MILLISECONDS))
+                .as("completion waits for the writer")
+                .isInstanceOf(TimeoutException.class);
+        release.countDown();
+        writer.get(5, TimeUnit.SECONDS);
+
+        DocumentResponse document = completion.get(5, TimeUnit.SECONDS);
+        assertThat(contentHashOf(document)).isEqualTo(sha256(content));
+    }
+
+    @Test
+    void completeWaitsForAChunkStillArriving() throws Exception {
+        String uploadId = openAndWriteAllChunks();
+
+        // A re-send of chunk 1 whose body is slow to arrive
+        CountDownLatch reading = new CountDownLatch(1);
+        CountDownLatch release = new CountDownLatch(1);
+        byte[] other = new byte[CHUNK_SIZE];
+        InputStream slowBody = new ByteArrayInputStream(other) {
+            @Override
+            public synchronized int read(byte[] b, int off, int len) {
+                reading.countDown();
+                await(release);
+                return super.read(b, off, len);
+            }
+        };
+        CompletableFuture<?> resend = CompletableFuture.supplyAsync(() ->
+                chunkedUploadService.writeChunk(uploadId, CHUNK_SIZE, sha256(other), slowBody, userEmail));
+        assertThat(reading.await(5, TimeUnit.SECONDS)).isTrue();
+
+        CompletableFuture<DocumentResponse> completion =
+                CompletableFuture.supplyAsync(() -> chunkedUploadService.complete(uploadId, userEmail));
+        assertThatThrownBy(() -> completion.get(500, TimeUnit.MILLISECONDS))
+                .as("completion waits for the chunk being written")
+                .isInstanceOf(TimeoutException.class);
+        release.countDown();
+        resend.get(5, TimeUnit.SECONDS);
+
+        // The file is hashed only once the re-sent chunk is complete
+        byte[] expected = content.clone();
+        System.arraycopy(other, 0, expected, CHUNK_SIZE, CHUNK_SIZE);
+        assertThat(contentHashOf(completion.get(5, TimeUnit.SECONDS))).isEqualTo(sha256(expected));
+    }
+
+    @Test
+    void chunkArrivingAfterCompletionIsRejected() throws Exception {
+        String uploadId = openAndWriteAllChunks();
+
+        // complete() has moved the session out of OPEN but not committed yet
+        TransactionTemplate completion = new TransactionTemplate(transactionManager);
+        CompletableFuture<?> resend = completion.execute(status -> {
+            assertThat(uploadSessionRepository.transition(uploadId, UploadSessionStatus.OPEN,
+                    UploadSessionStatus.FINALIZING)).isEqualTo(1);
+            CompletableFuture<?> concurrent = CompletableFuture.supplyAsync(() ->
+                    chunkedUploadService.writeChunk(uploadId, CHUNK_SIZE, sha256(chunk(1)),
+                            new ByteArrayInputStream(chunk(1)), userEmail));
+            assertThatThrownBy(() -> concurrent.get(500, TimeUnit.MILLISECONDS))
+                    .as("the writer waits for the status change")
+                    .isInstanceOf(TimeoutException.class);
+            return concurrent;
+        });
+
+        assertThatThrownBy(() -> resend.get(5, TimeUnit.SECONDS))
+                .isInstanceOf(ExecutionException.class)
+                .hasCauseInstanceOf(ConflictException.class);
+    }
+
+    @Test
+    void corruptResendMustBeSentAgain() {
+        String uploadId = openAndWriteAllChunks();
+
+        byte[] corrupt = new byte[CHUNK_SIZE];
+        assertThatThrownBy(() -> chunkedUploadService.writeChunk(uploadId, 0, sha256(chunk(0)),
+                new ByteArrayInputStream(corrupt), userEmail))
+                .isInstanceOf(IllegalArgumentException.class);
+
+        assertThat(chunkedUploadService.getSession(uploadId, userEmail).getReceivedChunks()).containsExactly(1);
+        assertThatThrownBy(() -> chunkedUploadService.complete(uploadId, userEmail))
+                .isInstanceOf(ConflictException.class)
+                .hasMessageContaining("missing chunks [0]");
+
+        chunkedUploadService.writeChunk(uploadId, 0, sha256(chunk(0)), new ByteArrayInputStream(chunk(0)), userEmail);
+        DocumentResponse document = chunkedUploadService.complete(uploadId, userEmail);
+        assertThat(contentHashOf(document)).isEqualTo(sha256(content));
+    }
+
+    private String openAndWriteAllChunks() {
+        String uploadId = chunkedUploadService.openSession(UploadSessionRequest.builder()
+                .caseId(caseId)
+                .documentType(DocumentType.ORDER)
+                .fileName("order.pdf")
+                .totalSize((long) content.length)
+                .build(), userEmail).getUploadId();
+        for (int index = 0; index < 2; index++) {
+            chunkedUploadService.writeChunk(uploadId, (long) index * CHUNK_SIZE, sha256(chunk(index)),
+                    new ByteArrayInputStream(chunk(index)), userEmail);
+        }
+        return uploadId;
+    }
+
+    private byte[] chunk(int index) {
+        byte[] chunk = new byte[CHUNK_SIZE];
+        System.arraycopy(content, index * CHUNK_SIZE, chunk, 0, CHUNK_SIZE);
+        return chunk;
+    }
+
+    private String contentHashOf(DocumentResponse document) {
+        return documentRepository.findById(document.getId()).orElseThrow().getContentHash();
+    }
+
+    private static String sha256(byte[] data) {
+        try {
+            return HexFormat.of().formatHex(MessageDigest.getInstance("SHA-256").digest(data));
+        } catch (Exception e) {
+            throw new IllegalStateException(e);
+        }
+    }
+
+    private static void await(CountDownLatch latch) {
+        try {
+            latch.await(5, TimeUnit.SECONDS);
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+        }
+    }
+}
@@ -0,0 +1,114 @@
+package com.legalcms.service;
+
+import com.legalcms.client.CourtClient;
+import com.legalcms.client.CourtRecordNotFoundException;
+import com.legalcms.client.CourtUnavailableException;
+import com.legalcms.config.CourtClientProperties;
+import com.legalcms.dto.CaseStatusResponse;
+import com.legalcms.dto.CourtDataRequest;
+import com.legalcms.dto.CourtDataResponse;
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.Test;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.function.Function;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.assertThatThrownBy;
+
+class CourtIntegrationServiceTest {
+
+    private static final int CALLERS = 16;
+
+    private final SimpleMeterRegistry meterRegistry = new SimpleMeterRegistry();
+    private final AtomicInteger upstreamCalls = new AtomicInteger();
+    private final ExecutorService callers = Executors.newFixedThreadPool(CALLERS);
+
+    @AfterEach
+    void shutdown() {
+        callers.shutdownNow();
+    }
+
+    @Test
+    void concurrentLookupsOfOneCaseMakeOneCourtCall() throws Exception {
+        CompletableFuture<CaseStatusResponse> upstream = new CompletableFuture<>();
+        CourtIntegrationService service = service(cnr -> upstream);
+
+        List<Future<CaseStatusResponse>> results = new ArrayList<>();
+        for (int i = 0; i < CALLERS; i++) {
+            // Keys are normalised, so differently written CNR numbers share the lookup
+            String cnr = i % 2 == 0 ? "BIHC01-000101-2024" : " bihc01-000101-2024 ";
+            results.add(callers.submit(() -> service.fetchCaseStatus(cnr)));
+        }
+        awaitCoalesced(CALLERS - 1);
+        upstream.complete(CaseStatusResponse.builder().cnrNumber("BIHC01-000101-2024").caseStage("Admission").build());
+
+        for (Future<CaseStatusResponse> result : results) {
+            assertThat(result.get(5, TimeUnit.SECONDS).getCaseStage()).isEqualTo("Admission");
+        }
+        assertThat(upstreamCalls).hasValue(1);
+
+        // Later lookups are answered from the cache
+        service.fetchCaseStatus("BIHC01-000101-2024");
+        assertThat(upstreamCalls).hasValue(1);
+    }
+
+    @Test
+    void notFoundAnswersAreCached() {
+        CourtIntegrationService service = service(cnr ->
+                CompletableFuture.failedFuture(new CourtRecordNotFoundException("No case " + cnr)));
+
+        for (int i = 0; i < 3; i++) {
+            assertThatThrownBy(() -> service.fetchCaseStatus("MISSING-1"))
+                    .isInstanceOf(CourtRecordNotFoundException.class)
+                    .hasMessage("No case MISSING-1");
+        }
+        assertThat(upstreamCalls).hasValue(1);
+    }
+
+    @Test
+    void failuresAreNotCached() {
+        CourtIntegrationService service = service(cnr -> upstreamCalls.get() == 1
+                ? CompletableFuture.failedFuture(new CourtUnavailableException("Court system unavailable"))
+                : CompletableFuture.completedFuture(CaseStatusResponse.builder().cnrNumber(cnr).build()));
+
+        assertThatThrownBy(() -> service.fetchCaseStatus("FLAKY-1")).isInstanceOf(CourtUnavailableException.class);
+        assertThat(service.fetchCaseStatus("FLAKY-1").getCnrNumber()).isEqualTo("FLAKY-1");
+        assertThat(upstreamCalls).hasValue(2);
+    }
+
+    private CourtIntegrationService service(Function<String, CompletableFuture<CaseStatusResponse>> caseStatus) {
+        CourtClient client = new CourtClient() {
+            @Override
+            public CompletableFuture<CourtDataResponse> fetchCnrNumber(CourtDataRequest request) {
+                throw new UnsupportedOperationException();
+            }
+
+            @Override
+            public CompletableFuture<CaseStatusResponse> fetchCaseStatus(String cnrNumber) {
+                upstreamCalls.incrementAndGet();
+                return caseStatus.apply(cnrNumber);
+            }
+        };
+        return new CourtIntegrationService(client, new CourtClientProperties(), meterRegistry);
+    }
+
+    // Callers count themselves as coalesced before they block on the shared lookup
+    private void awaitCoalesced(int expected) throws InterruptedException {
+        Counter coalesced = meterRegistry.get("court.lookup.coalesced").tag("cache", "court.case-status").counter();
+        long deadline = System.nanoTime() + TimeUnit.SECONDS.toNanos(5);
+        while (coalesced.count() < expected && System.nanoTime() < deadline) {
+            Thread.sleep(10);
+        }
+        assertThat(coalesced.count()).isEqualTo(expected);
+    }
+}
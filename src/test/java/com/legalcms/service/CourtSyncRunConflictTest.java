@@ -0,0 +1,53 @@
+package com.legalcms.service;
+
+import com.legalcms.model.CourtSyncRun;
+import com.legalcms.model.CourtSyncRunStatus;
+import com.legalcms.model.CourtSyncTrigger;
+import com.legalcms.repository.CourtSyncRunRepository;
+import com.legalcms.support.PostgresIntegrationTest;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+
+import static org.assertj.core.api.Assertions.assertThatThrownBy;
+
+class CourtSyncRunConflictTest extends PostgresIntegrationTest {
+
+    @Autowired
+    private CourtSyncRunService courtSyncRunService;
+
+    @Autowired
+    private CourtSyncRunRepository runRepository;
+
+    @Test
+    void lifecycleConflictsAreReportedAsConflicts() {
+        CourtSyncRun running = run(CourtSyncRunStatus.RUNNING);
+        CourtSyncRun paused = run(CourtSyncRunStatus.PAUSED);
+        CourtSyncRun completed = run(CourtSyncRunStatus.COMPLETED);
+        try {
+            assertThatThrownBy(() -> courtSyncRunService.startRun(CourtSyncTrigger.MANUAL, "test"))
+                    .isInstanceOf(ConflictException.class)
+                    .hasMessage("A court sync run is already in progress");
+            assertThatThrownBy(() -> courtSyncRunService.resumeRun(paused.getId()))
+                    .isInstanceOf(ConflictException.class)
+                    .hasMessage("A court sync run is already in progress");
+            assertThatThrownBy(() -> courtSyncRunService.resumeRun(completed.getId()))
+                    .isInstanceOf(ConflictException.class);
+            assertThatThrownBy(() -> courtSyncRunService.pauseRun(completed.getId()))
+                    .isInstanceOf(ConflictException.class);
+        } finally {
+            // Other tests share the database; leave no run in progress
+            running.setStatus(CourtSyncRunStatus.COMPLETED);
+            paused.setStatus(CourtSyncRunStatus.COMPLETED);
+            runRepository.save(running);
+            runRepository.save(paused);
+        }
+    }
+
+    private CourtSyncRun run(CourtSyncRunStatus status) {
+        return runRepository.save(CourtSyncRun.builder()
+                .triggerType(CourtSyncTrigger.MANUAL)
+                .status(status)
+                .triggeredBy("test")
+                .build());
+    }
+}
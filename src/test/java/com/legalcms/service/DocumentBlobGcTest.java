@@ -0,0 +1,223 @@
+package com.legalcms.service;
+
+import com.legalcms.config.StorageProperties;
+import com.legalcms.model.CaseEntity;
+import com.legalcms.model.Document;
+import com.legalcms.model.DocumentType;
+import com.legalcms.model.User;
+import com.legalcms.model.UserRole;
+import com.legalcms.repository.CaseRepository;
+import com.legalcms.repository.DocumentBlobRepository;
+import com.legalcms.repository.DocumentRepository;
+import com.legalcms.repository.UserRepository;
+import com.legalcms.storage.ContentAddressedStore;
+import com.legalcms.storage.DocumentStorage;
+import com.legalcms.support.PostgresIntegrationTest;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import java.io.ByteArrayInputStream;
+import java.io.IOException;
+import java.io.UncheckedIOException;
+import java.nio.charset.StandardCharsets;
+import java.time.Duration;
+import java.util.List;
+import java.util.UUID;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.TimeoutException;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.assertThatThrownBy;
+
+/**
+ * Deduplication of identical uploads, and the garbage collector racing uploads of the content
+ * it is collecting.
+ */
+class DocumentBlobGcTest extends PostgresIntegrationTest {
+
+    @Autowired
+    private DocumentService documentService;
+
+    @Autowired
+    private DocumentBlobGcService documentBlobGcService;
+
+    @Autowired
+    private ContentAddressedStore contentAddressedStore;
+
+    @Autowired
+    private DocumentStorage documentStorage;
+
+    @Autowired
+    private DocumentBlobRepository documentBlobRepository;
+
+    @Autowired
+    private DocumentRepository documentRepository;
+
+    @Autowired
+    private CaseRepository caseRepository;
+
+    @Autowired
+    private UserRepository userRepository;
+
+    @Autowired
+    private StorageProperties storageProperties;
+
+    @Autowired
+    private JdbcTemplate jdbcTemplate;
+
+    @Autowired
+    private PlatformTransactionManager transactionManager;
+
+    private Long caseId;
+    private String userEmail;
+
+    @BeforeEach
+    void createCase() {
+        String key = UUID.randomUUID().toString().substring(0, 8);
+        User user = userRepository.save(User.builder()
+                .fullName("Clerk " + key)
+                .email("clerk-" + key + "@example.com")
+                .password("x")
+                .role(UserRole.ADVOCATE)
+                .build());
+        userEmail = user.getEmail();
+        caseId = caseRepository.save(CaseEntity.builder()
+                .caseTitle("Blob case " + key)
+                .caseType("CWJC")
+                .caseNumber("B-" + key)
+                .courtName("Blob Court")
+                .build()).getId();
+    }
+
+    @Test
+    void identicalUploadsShareOneBlob() {
+        String content = "order " + UUID.randomUUID();
+        Document first = store(content);
+        Document second = store(content);
+
+        assertThat(second.getId()).isNotEqualTo(first.getId());
+        assertThat(second.getContentHash()).isEqualTo(first.getContentHash());
+        assertThat(second.getFileUrl()).isEqualTo(first.getFileUrl());
+        assertThat(blobRows(first.getContentHash())).isEqualTo(1);
+        assertThat(blobExists(first.getContentHash())).isTrue();
+    }
+
+    @Test
+    void collectsBlobsOnceNoDocumentRefersToThem() {
+        String content = "order " + UUID.randomUUID();
+        Document first = store(content);
+        Document second = store(content);
+        String hash = first.getContentHash();
+        Duration gracePeriod = storageProperties.getGc().getGracePeriod();
+        storageProperties.getGc().setGracePeriod(Duration.ZERO);
+        try {
+            documentRepository.deleteById(first.getId());
+            documentBlobGcService.collect();
+            assertThat(blobExists(hash)).as("still referenced by the second document").isTrue();
+
+            documentRepository.deleteById(second.getId());
+            documentBlobGcService.collect();
+            assertThat(blobRows(hash)).isZero();
+            assertThat(blobExists(hash)).isFalse();
+        } finally {
+            storageProperties.getGc().setGracePeriod(gracePeriod);
+        }
+    }
+
+    @Test
+    void collectorSkipsABlobAnUploadIsStoring() throws Exception {
+        String content = "order " + UUID.randomUUID();
+        Document document = store(content);
+        String hash = document.getContentHash();
+        documentRepository.deleteById(document.getId());
+
+        // An upload of the same content has touched the blob row but not committed yet
+        CountDownLatch touched = new CountDownLatch(1);
+        CountDownLatch release = new CountDownLatch(1);
+        CompletableFuture<Void> upload = CompletableFuture.runAsync(() ->
+                new TransactionTemplate(transactionManager).executeWithoutResult(status -> {
+                    documentBlobRepository.touch(hash, content.length());
+                    touched.countDown();
+                    await(release);
+                }));
+        touched.await(5, TimeUnit.SECONDS);
+
+        List<String> collected = new TransactionTemplate(transactionManager).execute(status ->
+                documentBlobRepository.deleteUnreferenced(Duration.ZERO, 100));
+        assertThat(collected).doesNotContain(hash);
+        release.countDown();
+        upload.get(5, TimeUnit.SECONDS);
+
+        assertThat(blobRows(hash)).isEqualTo(1);
+        assertThat(blobExists(hash)).isTrue();
+    }
+
+    @Test
+    void uploadWaitsForTheCollectorAndRecreatesTheBlob() throws Exception {
+        String content = "order " + UUID.randomUUID();
+        Document document = store(content);
+        String hash = document.getContentHash();
+        documentRepository.deleteById(document.getId());
+
+        // The collector's batch transaction: row deleted and still locked, file about to go
+        TransactionTemplate collector = new TransactionTemplate(transactionManager);
+        CompletableFuture<Document> upload = collector.execute(status -> {
+            assertThat(documentBlobRepository.deleteUnreferenced(Duration.ZERO, 100)).contains(hash);
+
+            CompletableFuture<Document> concurrent = CompletableFuture.supplyAsync(() -> store(content));
+            assertThatThrownBy(() -> concurrent.get(500, TimeUnit.MILLISECONDS))
+                    .as("the upload waits on the collector's row lock")
+                    .isInstanceOf(TimeoutException.class);
+            try {
+                contentAddressedStore.delete(hash);
+            } catch (IOException e) {
+                throw new UncheckedIOException(e);
+            }
+            return concurrent;
+        });
+
+        Document stored = upload.get(5, TimeUnit.SECONDS);
+        assertThat(stored.getContentHash()).isEqualTo(hash);
+        assertThat(blobRows(hash)).isEqualTo(1);
+        assertThat(blobExists(hash)).isTrue();
+    }
+
+    private Document store(String content) {
+        try {
+            ContentAddressedStore.StagedBlob staged = contentAddressedStore.stage(
+                    new ByteArrayInputStream(content.getBytes(StandardCharsets.UTF_8)));
+            try (staged) {
+                return documentService.storeStagedDocument(caseId, staged, "order.pdf", DocumentType.ORDER, userEmail);
+            }
+        } catch (IOException e) {
+            throw new UncheckedIOException(e);
+        }
+    }
+
+    private int blobRows(String hash) {
+        return jdbcTemplate.queryForObject("SELECT count(*) FROM document_blobs WHERE content_hash = ?",
+                Integer.class, hash);
+    }
+
+    private boolean blobExists(String hash) {
+        try {
+            return documentStorage.stat(contentAddressedStore.keyFor(hash)).isPresent();
+        } catch (IOException e) {
+            throw new UncheckedIOException(e);
+        }
+    }
+
+    private static void await(CountDownLatch latch) {
+        try {
+            latch.await(5, TimeUnit.SECONDS);
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+        }
+    }
+}
@@ -0,0 +1,219 @@
+package com.legalcms.service;
+
+import com.legalcms.model.CaseEntity;
+import com.legalcms.model.DocumentProcessingStatus;
+import com.legalcms.model.DocumentType;
+import com.legalcms.model.User;
+import com.legalcms.model.UserRole;
+import com.legalcms.repository.CaseRepository;
+import com.legalcms.repository.DocumentProcessingRepository;
+import com.legalcms.repository.UserRepository;
+import com.legalcms.storage.ContentAddressedStore;
+import com.legalcms.support.PostgresIntegrationTest;
+import org.apache.pdfbox.pdmodel.PDDocument;
+import org.apache.pdfbox.pdmodel.PDDocumentInformation;
+import org.apache.pdfbox.pdmodel.PDPage;
+import org.apache.pdfbox.pdmodel.PDPageContentStream;
+import org.apache.pdfbox.pdmodel.font.PDType1Font;
+import org.apache.pdfbox.pdmodel.font.Standard14Fonts;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.http.HttpHeaders;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.test.web.servlet.MockMvc;
+import org.springframework.test.web.servlet.setup.MockMvcBuilders;
+import org.springframework.web.context.WebApplicationContext;
+
+import java.io.ByteArrayInputStream;
+import java.io.ByteArrayOutputStream;
+import java.io.IOException;
+import java.nio.charset.StandardCharsets;
+import java.util.Map;
+import java.util.UUID;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.get;
+import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.content;
+import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.jsonPath;
+import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.status;
+
+/**
+ * Background processing of stored documents against PostgreSQL: extraction from a generated PDF,
+ * artifact reuse between documents with the same content, skipped non-PDFs, and conditional
+ * requests on the artifacts. Processing is off in the test profile, so jobs are queued and
+ * dispatched here.
+ */
+class DocumentProcessingTest extends PostgresIntegrationTest {
+
+    @Autowired
+    private DocumentProcessingService documentProcessingService;
+
+    @Autowired
+    private DocumentProcessingRepository documentProcessingRepository;
+
+    @Autowired
+    private DocumentService documentService;
+
+    @Autowired
+    private ContentAddressedStore contentAddressedStore;
+
+    @Autowired
+    private CaseRepository caseRepository;
+
+    @Autowired
+    private UserRepository userRepository;
+
+    @Autowired
+    private JdbcTemplate jdbcTemplate;
+
+    @Autowired
+    private WebApplicationContext webApplicationContext;
+
+    private MockMvc mockMvc;
+    private String key;
+    private String userEmail;
+    private Long caseId;
+
+    @BeforeEach
+    void createCase() {
+        mockMvc = MockMvcBuilders.webAppContextSetup(webApplicationContext).build();
+        key = UUID.randomUUID().toString().substring(0, 8);
+        userEmail = userRepository.save(User.builder()
+                .fullName("Clerk " + key)
+                .email("clerk-" + key + "@example.com")
+                .password("x")
+                .role(UserRole.ADVOCATE)
+                .build()).getEmail();
+        caseId = caseRepository.save(CaseEntity.builder()
+                .caseTitle("Processing case " + key)
+                .caseType("CWJC")
+                .caseNumber("P-" + key)
+                .courtName("Processing Court")
+                .build()).getId();
+    }
+
+    @Test
+    void extractsPdfAndCopiesItToTwins() throws Exception {
+        byte[] pdf = pdf("Interim order " + key, "Stay granted in " + key, "Listed again after vacation");
+        Long original = store(pdf, "order.pdf");
+
+        assertThat(process(original)).isEqualTo(DocumentProcessingStatus.COMPLETED);
+        Map<String, Object> processed = documentRow(original);
+        assertThat(processed.get("page_count")).isEqualTo(2);
+        assertThat(processed.get("has_thumbnail")).isEqualTo(true);
+        assertThat(processed.get("processed_at")).isNotNull();
+        Map<String, Object> text = textRow(original);
+        assertThat(text.get("title")).isEqualTo("Interim order " + key);
+        assertThat((String) text.get("content")).contains("Stay granted in " + key, "Listed again after vacation");
+
+        // A copy proves the twin was not parsed: parsing would bring back the PDF's own text
+        jdbcTemplate.update("UPDATE document_texts SET content = 'copied from the twin' WHERE document_id = ?", original);
+        Long twin = store(pdf, "order-copy.pdf");
+
+        assertThat(process(twin)).isEqualTo(DocumentProcessingStatus.COMPLETED);
+        assertThat(documentRow(twin)).containsEntry("page_count", 2).containsEntry("has_thumbnail", true);
+        assertThat(textRow(twin)).containsEntry("content", "copied from the twin")
+                .containsEntry("title", "Interim order " + key);
+    }
+
+    @Test
+    void skipsDocumentsThatAreNotPdfs() {
+        Long document = store(("Plain text note " + key).getBytes(StandardCharsets.UTF_8), "note.txt");
+
+        assertThat(process(document)).isEqualTo(DocumentProcessingStatus.SKIPPED);
+        Map<String, Object> row = documentRow(document);
+        assertThat(row.get("page_count")).isNull();
+        assertThat(row.get("has_thumbnail")).isEqualTo(false);
+        assertThat(row.get("processed_at")).isNotNull();
+        assertThat(jdbcTemplate.queryForObject("SELECT count(*) FROM document_texts WHERE document_id = ?",
+                Integer.class, document)).isZero();
+    }
+
+    @Test
+    void artifactsAnswerNotModifiedToAMatchingETag() throws Exception {
+        Long document = store(pdf("Order " + key, "Disposed of"), "order.pdf");
+        assertThat(process(document)).isEqualTo(DocumentProcessingStatus.COMPLETED);
+
+        String metadataUrl = "/api/documents/" + document + "/metadata";
+        String metadataETag = mockMvc.perform(get(metadataUrl))
+                .andExpect(status().isOk())
+                .andExpect(jsonPath("$.processingStatus").value("COMPLETED"))
+                .andExpect(jsonPath("$.pageCount").value(1))
+                .andReturn().getResponse().getHeader(HttpHeaders.ETAG);
+        assertThat(metadataETag).isNotBlank();
+        mockMvc.perform(get(metadataUrl).header(HttpHeaders.IF_NONE_MATCH, metadataETag))
+                .andExpect(status().isNotModified())
+                .andExpect(content().string(""));
+
+        String thumbnailUrl = "/api/documents/" + document + "/thumbnail";
+        String thumbnailETag = mockMvc.perform(get(thumbnailUrl))
+                .andExpect(status().isOk())
+                .andExpect(content().contentType("image/jpeg"))
+                .andReturn().getResponse().getHeader(HttpHeaders.ETAG);
+        assertThat(thumbnailETag).isNotBlank();
+        mockMvc.perform(get(thumbnailUrl).header(HttpHeaders.IF_NONE_MATCH, thumbnailETag))
+                .andExpect(status().isNotModified())
+                .andExpect(content().string(""));
+    }
+
+    private Long store(byte[] content, String fileName) {
+        try (ContentAddressedStore.StagedBlob staged = contentAddressedStore.stage(new ByteArrayInputStream(content))) {
+            return documentService.storeStagedDocument(caseId, staged, fileName, DocumentType.ORDER, userEmail).getId();
+        } catch (IOException e) {
+            throw new IllegalStateException(e);
+        }
+    }
+
+    // Queues the document and dispatches until its job has finished
+    private DocumentProcessingStatus process(Long documentId) {
+        documentProcessingRepository.enqueue(documentId);
+        long deadline = System.nanoTime() + 30_000_000_000L;
+        while (System.nanoTime() < deadline) {
+            DocumentProcessingStatus status = documentProcessingRepository.findStatus(documentId).orElseThrow();
+            if (status != DocumentProcessingStatus.PENDING) {
+                return status;
+            }
+            documentProcessingService.dispatchDueJobs();
+            try {
+                Thread.sleep(50);
+            } catch (InterruptedException e) {
+                Thread.currentThread().interrupt();
+                break;
+            }
+        }
+        return documentProcessingRepository.findStatus(documentId).orElseThrow();
+    }
+
+    private Map<String, Object> documentRow(Long documentId) {
+        return jdbcTemplate.queryForMap(
+                "SELECT page_count, has_thumbnail, processed_at FROM documents WHERE id = ?", documentId);
+    }
+
+    private Map<String, Object> textRow(Long documentId) {
+        return jdbcTemplate.queryForMap("SELECT content, title FROM document_texts WHERE document_id = ?", documentId);
+    }
+
+    // One page per line of text, titled
+    private static byte[] pdf(String title, String... pages) throws IOException {
+        try (PDDocument document = new PDDocument(); ByteArrayOutputStream out = new ByteArrayOutputStream()) {
+            PDDocumentInformation information = new PDDocumentInformation();
+            information.setTitle(title);
+            information.setAuthor("Registrar");
+            document.setDocumentInformation(information);
+            for (String text : pages) {
+                PDPage page = new PDPage();
+                document.addPage(page);
+                try (PDPageContentStream stream = new PDPageContentStream(document, page)) {
+                    stream.beginText();
+                    stream.setFont(new PDType1Font(Standard14Fonts.FontName.HELVETICA), 14);
+                    stream.newLineAtOffset(72, 700);
+                    stream.showText(text);
+                    stream.endText();
+                }
+            }
+            document.save(out);
+            return out.toByteArray();
+        }
+    }
+}
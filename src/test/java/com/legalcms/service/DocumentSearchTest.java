@@ -0,0 +1,211 @@
+package com.legalcms.service;
+
+import com.legalcms.dto.CursorPageResponse;
+import com.legalcms.dto.DocumentSearchResult;
+import com.legalcms.model.CaseEntity;
+import com.legalcms.model.Document;
+import com.legalcms.model.DocumentType;
+import com.legalcms.model.User;
+import com.legalcms.model.UserRole;
+import com.legalcms.repository.CaseRepository;
+import com.legalcms.repository.DocumentArtifactRepository;
+import com.legalcms.repository.UserRepository;
+import com.legalcms.storage.ContentAddressedStore;
+import com.legalcms.support.PostgresIntegrationTest;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.security.access.AccessDeniedException;
+
+import java.io.ByteArrayInputStream;
+import java.io.IOException;
+import java.io.UncheckedIOException;
+import java.nio.charset.StandardCharsets;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Random;
+import java.util.UUID;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.assertThatThrownBy;
+
+/**
+ * Full-text document search run against PostgreSQL: the generated tsvector column, its GIN index,
+ * ranking, visibility per role, snippets and keyset pages.
+ */
+class DocumentSearchTest extends PostgresIntegrationTest {
+
+    @Autowired
+    private DocumentService documentService;
+
+    @Autowired
+    private DocumentArtifactRepository documentArtifactRepository;
+
+    @Autowired
+    private ContentAddressedStore contentAddressedStore;
+
+    @Autowired
+    private CaseRepository caseRepository;
+
+    @Autowired
+    private UserRepository userRepository;
+
+    @Autowired
+    private JdbcTemplate jdbcTemplate;
+
+    // A made-up word, so documents of other tests cannot match
+    private String term;
+    private String adminEmail;
+    private String advocateEmail;
+    private String clientEmail;
+    private Long assignedCaseId;
+    private Long otherCaseId;
+
+    @BeforeEach
+    void createCases() {
+        String key = UUID.randomUUID().toString().substring(0, 8);
+        StringBuilder word = new StringBuilder("zq");
+        Random random = new Random();
+        for (int i = 0; i < 10; i++) {
+            word.append((char) ('a' + random.nextInt(26)));
+        }
+        term = word.toString();
+
+        adminEmail = createUser("admin-" + key, UserRole.ADMIN).getEmail();
+        User advocate = createUser("advocate-" + key, UserRole.ADVOCATE);
+        advocateEmail = advocate.getEmail();
+        clientEmail = createUser("client-" + key, UserRole.CLIENT).getEmail();
+        assignedCaseId = createCase("S-" + key + "-1", advocate);
+        otherCaseId = createCase("S-" + key + "-2", null);
+    }
+
+    @Test
+    void startupIndexesTheSearchVector() {
+        assertThat(jdbcTemplate.queryForObject(
+                "SELECT is_generated FROM information_schema.columns " +
+                "WHERE table_name = 'document_texts' AND column_name = 'search_vector'", String.class))
+                .isEqualTo("ALWAYS");
+        List<Boolean> valid = jdbcTemplate.queryForList(
+                "SELECT i.indisvalid FROM pg_class c JOIN pg_index i ON i.indexrelid = c.oid " +
+                "WHERE c.relname IN ('idx_document_texts_search', 'idx_documents_unprocessed')", Boolean.class);
+        assertThat(valid).containsExactly(true, true);
+    }
+
+    @Test
+    void ranksTitleMatchesFirstAndStemsTheQuery() {
+        Long inBody = index(assignedCaseId, "Order sheet", "The petitioners filed " + term + " applications today.");
+        Long inTitle = index(assignedCaseId, "Interim " + term, "Hearing adjourned, " + term + " to follow.");
+        index(assignedCaseId, "Unrelated order", "Nothing to see in this order.");
+
+        List<DocumentSearchResult> results = documentService.searchDocuments(
+                term + " application", null, null, adminEmail, null, 10).getItems();
+
+        assertThat(results).extracting(DocumentSearchResult::getDocumentId).containsExactly(inBody);
+        results = documentService.searchDocuments(term, null, null, adminEmail, null, 10).getItems();
+        assertThat(results).extracting(DocumentSearchResult::getDocumentId).containsExactly(inTitle, inBody);
+        assertThat(results.get(0).getScore()).isGreaterThan(results.get(1).getScore());
+        assertThat(results.get(0).getCaseNumber()).endsWith("-1");
+
+        // websearch syntax: excluded words
+        assertThat(documentService.searchDocuments(term + " -interim", null, null, adminEmail, null, 10).getItems())
+                .extracting(DocumentSearchResult::getDocumentId).containsExactly(inBody);
+    }
+
+    @Test
+    void advocatesOnlySeeTheirAssignedCases() {
+        Long assigned = index(assignedCaseId, "Order", "Stay granted on " + term + ".");
+        Long other = index(otherCaseId, "Order", "Stay refused on " + term + ".");
+
+        assertThat(searchAll(term, adminEmail, null)).containsExactlyInAnyOrder(assigned, other);
+        assertThat(searchAll(term, advocateEmail, null)).containsExactly(assigned);
+        assertThat(searchAll(term, adminEmail, otherCaseId)).containsExactly(other);
+        assertThatThrownBy(() -> documentService.searchDocuments(term, null, null, clientEmail, null, 10))
+                .isInstanceOf(AccessDeniedException.class);
+    }
+
+    @Test
+    void escapesDocumentTextInSnippets() {
+        index(assignedCaseId, null, "Annexure <script>alert('x')</script> marked " + term + " & filed.");
+
+        String snippet = documentService.searchDocuments(term, null, null, adminEmail, null, 10)
+                .getItems().get(0).getSnippet();
+
+        // ts_headline drops what parses as tags; the rest of the text is escaped
+        assertThat(snippet).contains("<mark>" + term + "</mark>", "alert(&#39;x&#39;)", "&amp; filed");
+        assertThat(snippet.replace("<mark>", "").replace("</mark>", "")).doesNotContain("<", ">", "'");
+    }
+
+    @Test
+    void pagesThroughEveryMatchOnce() {
+        List<Long> expected = new ArrayList<>();
+        for (int i = 0; i < 5; i++) {
+            // Same rank for several documents: ties are broken by document ID
+            expected.add(index(i % 2 == 0 ? assignedCaseId : otherCaseId, "Order " + i,
+                    "Listed for " + term + " hearing" + " again".repeat(i % 3)));
+        }
+
+        List<Long> seen = new ArrayList<>();
+        String cursor = null;
+        int pages = 0;
+        do {
+            CursorPageResponse<DocumentSearchResult> page =
+                    documentService.searchDocuments(term, null, null, adminEmail, cursor, 2);
+            page.getItems().forEach(result -> seen.add(result.getDocumentId()));
+            cursor = page.getNextCursor();
+            pages++;
+        } while (cursor != null);
+
+        assertThat(pages).isEqualTo(3);
+        assertThat(seen).doesNotHaveDuplicates().containsExactlyInAnyOrderElementsOf(expected);
+    }
+
+    @Test
+    void rejectsEmptyQueries() {
+        assertThatThrownBy(() -> documentService.searchDocuments("  ", null, null, adminEmail, null, 10))
+                .isInstanceOf(IllegalArgumentException.class);
+    }
+
+    private List<Long> searchAll(String query, String userEmail, Long caseId) {
+        return documentService.searchDocuments(query, caseId, null, userEmail, null, 50).getItems().stream()
+                .map(DocumentSearchResult::getDocumentId)
+                .toList();
+    }
+
+    // A stored document with extracted text, as the processing pipeline leaves it
+    private Long index(Long caseId, String title, String text) {
+        Document document;
+        try {
+            ContentAddressedStore.StagedBlob staged = contentAddressedStore.stage(
+                    new ByteArrayInputStream((text + UUID.randomUUID()).getBytes(StandardCharsets.UTF_8)));
+            try (staged) {
+                document = documentService.storeStagedDocument(caseId, staged, "order.pdf", DocumentType.ORDER,
+                        adminEmail);
+            }
+        } catch (IOException e) {
+            throw new UncheckedIOException(e);
+        }
+        documentArtifactRepository.save(document.getId(), new DocumentArtifactRepository.ExtractedContent(
+                1, text, false, title, null, null, 0, 0));
+        return document.getId();
+    }
+
+    private User createUser(String name, UserRole role) {
+        return userRepository.save(User.builder()
+                .fullName(name)
+                .email(name + "@example.com")
+                .password("x")
+                .role(role)
+                .build());
+    }
+
+    private Long createCase(String caseNumber, User advocate) {
+        return caseRepository.save(CaseEntity.builder()
+                .caseTitle("Search case " + caseNumber)
+                .caseType("CWJC")
+                .caseNumber(caseNumber)
+                .courtName("Search Court")
+                .assignedAdvocate(advocate)
+                .build()).getId();
+    }
+}
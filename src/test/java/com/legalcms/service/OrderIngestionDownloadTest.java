@@ -0,0 +1,194 @@
+package com.legalcms.service;
+
+import com.legalcms.config.OrderIngestionProperties;
+import com.sun.net.httpserver.HttpServer;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+
+import java.io.IOException;
+import java.io.OutputStream;
+import java.net.InetAddress;
+import java.net.InetSocketAddress;
+import java.net.URI;
+import java.net.http.HttpTimeoutException;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.security.MessageDigest;
+import java.time.Duration;
+import java.util.HexFormat;
+import java.util.List;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.atomic.AtomicInteger;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.assertThatThrownBy;
+
+/**
+ * Downloads against a stub court server; which hosts and addresses may be fetched.
+ */
+class OrderIngestionDownloadTest {
+
+    private static final byte[] ORDER = "%PDF-1.4 order of the court".getBytes(StandardCharsets.US_ASCII);
+
+    private final OrderIngestionProperties properties = new OrderIngestionProperties();
+    private final AtomicInteger requests = new AtomicInteger();
+    private ExecutorService serverExecutor;
+    private HttpServer server;
+    private String baseUrl;
+    private OrderIngestionService service;
+    private Path target;
+
+    @BeforeEach
+    void setUp() throws IOException {
+        serverExecutor = Executors.newCachedThreadPool();
+        server = HttpServer.create(new InetSocketAddress(InetAddress.getLoopbackAddress(), 0), 0);
+        server.setExecutor(serverExecutor);
+        server.createContext("/orders/order.pdf", exchange -> {
+            requests.incrementAndGet();
+            exchange.sendResponseHeaders(200, ORDER.length);
+            try (OutputStream out = exchange.getResponseBody()) {
+                out.write(ORDER);
+            }
+        });
+        server.createContext("/moved", exchange -> {
+            requests.incrementAndGet();
+            exchange.getResponseHeaders().set("Location", "/orders/order.pdf");
+            exchange.sendResponseHeaders(302, -1);
+            exchange.close();
+        });
+        server.createContext("/to-metadata", exchange -> {
+            requests.incrementAndGet();
+            exchange.getResponseHeaders().set("Location", "http://169.254.169.254/latest/meta-data/");
+            exchange.sendResponseHeaders(302, -1);
+            exchange.close();
+        });
+        server.createContext("/loop", exchange -> {
+            requests.incrementAndGet();
+            exchange.getResponseHeaders().set("Location", "/loop");
+            exchange.sendResponseHeaders(302, -1);
+            exchange.close();
+        });
+        server.createContext("/slow", exchange -> {
+            requests.incrementAndGet();
+            exchange.sendResponseHeaders(200, 0);
+            try (OutputStream out = exchange.getResponseBody()) {
+                for (int i = 0; i < 50; i++) {
+                    out.write(ORDER);
+                    out.flush();
+                    Thread.sleep(100);
+                }
+            } catch (InterruptedException e) {
+                Thread.currentThread().interrupt();
+            } catch (IOException ignored) {
+                // The client gave up
+            }
+        });
+        server.start();
+        baseUrl = "http://127.0.0.1:" + server.getAddress().getPort();
+
+        properties.setAllowedHosts(List.of("127.0.0.1", "*.courts.example"));
+        properties.setAllowPrivateNetworks(true);
+        properties.setRequestTimeout(Duration.ofSeconds(5));
+        target = Files.createTempFile("order", ".pdf");
+    }
+
+    @AfterEach
+    void tearDown() throws IOException {
+        if (service != null) {
+            service.shutdown();
+        }
+        server.stop(0);
+        serverExecutor.shutdownNow();
+        Files.deleteIfExists(target);
+    }
+
+    @Test
+    void downloadsAndHashesTheOrder() throws Exception {
+        String hash = service().download(URI.create(baseUrl + "/orders/order.pdf"), target);
+
+        assertThat(Files.readAllBytes(target)).isEqualTo(ORDER);
+        assertThat(hash).isEqualTo(HexFormat.of().formatHex(MessageDigest.getInstance("SHA-256").digest(ORDER)));
+    }
+
+    @Test
+    void followsRedirectsWithinAllowedHosts() throws Exception {
+        service().download(URI.create(baseUrl + "/moved"), target);
+
+        assertThat(Files.readAllBytes(target)).isEqualTo(ORDER);
+        assertThat(requests).hasValue(2);
+    }
+
+    @Test
+    void rejectsHostsThatAreNotAllowed() {
+        assertThatThrownBy(() -> service().download(URI.create("http://internal.example/order.pdf"), target))
+                .isInstanceOf(OrderIngestionService.PermanentIngestionException.class)
+                .hasMessageContaining("not an allowed court host");
+        // Suffix patterns need a dot boundary
+        assertThatThrownBy(() -> service().download(URI.create("http://evilcourts.example/order.pdf"), target))
+                .isInstanceOf(OrderIngestionService.PermanentIngestionException.class);
+    }
+
+    @Test
+    void checksRedirectTargets() {
+        properties.setAllowedHosts(List.of("127.0.0.1", "169.254.169.254"));
+        properties.setAllowPrivateNetworks(false);
+
+        // The stub itself is on loopback, so nothing is requested at all
+        assertThatThrownBy(() -> service().download(URI.create(baseUrl + "/to-metadata"), target))
+                .isInstanceOf(OrderIngestionService.PermanentIngestionException.class)
+                .hasMessageContaining("non-public address 127.0.0.1");
+        assertThat(requests).hasValue(0);
+
+        properties.setAllowedHosts(List.of("127.0.0.1"));
+        properties.setAllowPrivateNetworks(true);
+        assertThatThrownBy(() -> service().download(URI.create(baseUrl + "/to-metadata"), target))
+                .isInstanceOf(OrderIngestionService.PermanentIngestionException.class)
+                .hasMessageContaining("169.254.169.254");
+        assertThat(requests).hasValue(1);
+    }
+
+    @Test
+    void rejectsNonPublicAddresses() {
+        properties.setAllowedHosts(List.of("127.0.0.1", "localhost", "169.254.169.254", "10.1.2.3", "[::1]"));
+        properties.setAllowPrivateNetworks(false);
+
+        for (String url : List.of("http://127.0.0.1/order.pdf", "http://localhost/order.pdf",
+                "http://169.254.169.254/latest/meta-data/", "http://10.1.2.3/order.pdf", "http://[::1]/order.pdf")) {
+            assertThatThrownBy(() -> service().download(URI.create(url), target))
+                    .as(url)
+                    .isInstanceOf(OrderIngestionService.PermanentIngestionException.class)
+                    .hasMessageContaining("non-public address");
+        }
+    }
+
+    @Test
+    void limitsRedirects() {
+        properties.setMaxRedirects(2);
+
+        assertThatThrownBy(() -> service().download(URI.create(baseUrl + "/loop"), target))
+                .isInstanceOf(OrderIngestionService.PermanentIngestionException.class)
+                .hasMessageContaining("redirected more than 2 times");
+        assertThat(requests).hasValue(3);
+    }
+
+    @Test
+    void deadlineCoversTheWholeBody() {
+        properties.setRequestTimeout(Duration.ofMillis(800));
+
+        long start = System.nanoTime();
+        assertThatThrownBy(() -> service().download(URI.create(baseUrl + "/slow"), target))
+                .isInstanceOf(HttpTimeoutException.class);
+        assertThat(Duration.ofNanos(System.nanoTime() - start)).isLessThan(Duration.ofSeconds(3));
+    }
+
+    private OrderIngestionService service() {
+        if (service == null) {
+            service = new OrderIngestionService(null, null, null, null, properties, null, new SimpleMeterRegistry());
+        }
+        return service;
+    }
+}
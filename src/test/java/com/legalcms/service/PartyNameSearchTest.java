@@ -0,0 +1,77 @@
+package com.legalcms.service;
+
+import com.legalcms.dto.CaseResponse;
+import com.legalcms.dto.CursorPageResponse;
+import com.legalcms.model.CaseEntity;
+import com.legalcms.model.Party;
+import com.legalcms.repository.CaseRepository;
+import com.legalcms.support.PostgresIntegrationTest;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.jdbc.core.JdbcTemplate;
+
+import java.util.List;
+import java.util.UUID;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+/**
+ * Party-name search on a database the application set up itself (ddl-auto plus
+ * PostgresSchemaInitializer), without database/schema.sql.
+ */
+class PartyNameSearchTest extends PostgresIntegrationTest {
+
+    @Autowired
+    private CaseService caseService;
+
+    @Autowired
+    private CaseRepository caseRepository;
+
+    @Autowired
+    private JdbcTemplate jdbcTemplate;
+
+    @Test
+    void startupCreatesTrigramExtensionAndIndexes() {
+        assertThat(jdbcTemplate.queryForList("SELECT extname FROM pg_extension", String.class))
+                .contains("pg_trgm");
+        List<Boolean> valid = jdbcTemplate.queryForList(
+                "SELECT i.indisvalid FROM pg_class c JOIN pg_index i ON i.indexrelid = c.oid " +
+                "WHERE c.relname IN ('idx_parties_petitioner_trgm', 'idx_parties_respondent_trgm')", Boolean.class);
+        assertThat(valid).containsExactly(true, true);
+    }
+
+    @Test
+    void partyNameSearchRanksCloserNamesFirstAndPaginates() {
+        String key = UUID.randomUUID().toString().substring(0, 8);
+        // Distinctive name fragment, so other tests' cases cannot match
+        String name = "Zyxw" + key;
+        Long exact = createCase(key + "-1", name, "State of Bihar");
+        Long longer = createCase(key + "-2", "Smt. " + name + " Devi and others", "Union of India");
+        Long respondent = createCase(key + "-3", "Ram Kumar", name + " Enterprises");
+        createCase(key + "-4", "Unrelated Petitioner", "Unrelated Respondent");
+
+        CursorPageResponse<CaseResponse> first = caseService.searchCases(null, null, name.toLowerCase(), null, 2);
+        assertThat(first.getItems()).extracting(CaseResponse::getId).first().isEqualTo(exact);
+        assertThat(first.isHasMore()).isTrue();
+
+        CursorPageResponse<CaseResponse> second = caseService.searchCases(null, null, name, first.getNextCursor(), 2);
+        assertThat(second.isHasMore()).isFalse();
+        assertThat(List.of(first.getItems(), second.getItems()).stream().flatMap(List::stream).map(CaseResponse::getId))
+                .containsExactlyInAnyOrder(exact, longer, respondent);
+    }
+
+    private Long createCase(String caseNumber, String petitioner, String respondent) {
+        CaseEntity caseEntity = CaseEntity.builder()
+                .caseTitle(petitioner + " v " + respondent)
+                .caseType("CWJC")
+                .caseNumber(caseNumber)
+                .courtName("Patna High Court")
+                .build();
+        caseEntity.getParties().add(Party.builder()
+                .caseEntity(caseEntity)
+                .petitionerName(petitioner)
+                .respondentName(respondent)
+                .build());
+        return caseRepository.save(caseEntity).getId();
+    }
+}
@@ -0,0 +1,211 @@
+package com.legalcms.util;
+
+import jakarta.servlet.Servlet;
+import jakarta.servlet.http.HttpServlet;
+import jakarta.servlet.http.HttpServletRequest;
+import jakarta.servlet.http.HttpServletResponse;
+import org.apache.catalina.Context;
+import org.apache.catalina.LifecycleException;
+import org.apache.catalina.startup.Tomcat;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.condition.EnabledIfSystemProperty;
+import org.junit.jupiter.api.io.TempDir;
+import org.springframework.context.annotation.Configuration;
+import org.springframework.core.io.Resource;
+import org.springframework.core.io.UrlResource;
+import org.springframework.http.HttpHeaders;
+import org.springframework.http.MediaType;
+import org.springframework.http.ResponseEntity;
+import org.springframework.web.bind.annotation.GetMapping;
+import org.springframework.web.bind.annotation.RestController;
+import org.springframework.web.context.support.AnnotationConfigWebApplicationContext;
+import org.springframework.web.servlet.DispatcherServlet;
+import org.springframework.web.servlet.config.annotation.EnableWebMvc;
+
+import java.io.IOException;
+import java.io.InputStream;
+import java.net.URI;
+import java.net.http.HttpClient;
+import java.net.http.HttpRequest;
+import java.net.http.HttpResponse;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.List;
+import java.util.Random;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import java.util.function.Supplier;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+/**
+ * Throughput of serving a 50 MB document through Tomcat, whole and in 1 MB ranges, with sendfile,
+ * with the transferTo fallback, and the way documents were served before: a Spring MVC controller
+ * returning {@code ResponseEntity<Resource>} for a {@code UrlResource}. Prints its figures and checks
+ * the bytes served; run with {@code mvn test -Dtest=FileRangeServingBenchmarkTest -Dbenchmark=true}.
+ */
+@EnabledIfSystemProperty(named = "benchmark", matches = "true")
+class FileRangeServingBenchmarkTest {
+
+    private static final int FILE_SIZE = 50 * 1024 * 1024;
+    private static final int RANGE_SIZE = 1024 * 1024;
+    private static final int FULL_DOWNLOADS = 10;
+    private static final int RANGE_REQUESTS = 400;
+    private static final int CLIENTS = 4;
+
+    @TempDir
+    Path tempDir;
+
+    @Test
+    void serveFiftyMegabyteDocument() throws Exception {
+        byte[] content = new byte[FILE_SIZE];
+        new Random(42).nextBytes(content);
+        Path path = Files.write(tempDir.resolve("judgment.pdf"), content);
+        FileRangeStreamer.StoredFile file = new FileRangeStreamer.StoredFile(path, null, "judgment.pdf", FILE_SIZE,
+                LocalDateTime.now(), "\"bench\"");
+
+        List<Mode> modes = List.of(
+                new Mode("sendfile", true, () -> new RangeServlet(file)),
+                new Mode("transferTo", false, () -> new RangeServlet(file)),
+                new Mode("baseline", false, () -> baselineServlet(path)));
+        for (Mode mode : modes) {
+            Tomcat tomcat = start(mode);
+            try {
+                run(tomcat.getConnector().getLocalPort(), content, mode.name());
+            } finally {
+                tomcat.stop();
+                tomcat.destroy();
+            }
+        }
+    }
+
+    private void run(int port, byte[] content, String mode) throws Exception {
+        HttpClient client = HttpClient.newBuilder().version(HttpClient.Version.HTTP_1_1).build();
+        URI uri = URI.create("http://127.0.0.1:" + port + "/document");
+
+        // Warm up connections and JIT
+        for (int i = 0; i < 3; i++) {
+            drain(client.send(HttpRequest.newBuilder(uri).build(), HttpResponse.BodyHandlers.ofInputStream()).body());
+        }
+
+        long start = System.nanoTime();
+        for (int i = 0; i < FULL_DOWNLOADS; i++) {
+            HttpResponse<InputStream> response =
+                    client.send(HttpRequest.newBuilder(uri).build(), HttpResponse.BodyHandlers.ofInputStream());
+            assertThat(response.statusCode()).isEqualTo(200);
+            assertThat(drain(response.body())).isEqualTo(FILE_SIZE);
+        }
+        double fullSeconds = (System.nanoTime() - start) / 1e9;
+
+        long rangeBytes = 0;
+        ExecutorService clients = Executors.newFixedThreadPool(CLIENTS);
+        try {
+            Random random = new Random(7);
+            List<Future<Integer>> requests = new ArrayList<>();
+            start = System.nanoTime();
+            for (int i = 0; i < RANGE_REQUESTS; i++) {
+                int offset = random.nextInt(FILE_SIZE - RANGE_SIZE);
+                requests.add(clients.submit(() -> {
+                    HttpResponse<byte[]> response = client.send(HttpRequest.newBuilder(uri)
+                            .header("Range", "bytes=" + offset + "-" + (offset + RANGE_SIZE - 1))
+                            .build(), HttpResponse.BodyHandlers.ofByteArray());
+                    // A server without range support answers with the whole file
+                    assertThat(response.statusCode()).isIn(200, 206);
+                    assertThat(response.body()).isEqualTo(response.statusCode() == 206
+                            ? Arrays.copyOfRange(content, offset, offset + RANGE_SIZE) : content);
+                    return response.body().length;
+                }));
+            }
+            for (Future<Integer> request : requests) {
+                rangeBytes += request.get();
+            }
+        } finally {
+            clients.shutdown();
+        }
+        double rangeSeconds = (System.nanoTime() - start) / 1e9;
+
+        System.out.printf("%-10s full: %6.0f MB/s (%d x 50 MB)   ranges: %6.0f req/s, %6.0f MB/s sent "
+                        + "(%d x 1 MB, %d clients, answered %s)%n",
+                mode, FULL_DOWNLOADS * 50 / fullSeconds, FULL_DOWNLOADS,
+                RANGE_REQUESTS / rangeSeconds, rangeBytes / 1048576.0 / rangeSeconds, RANGE_REQUESTS, CLIENTS,
+                rangeBytes == (long) RANGE_REQUESTS * RANGE_SIZE ? "206" : "200 with the whole file");
+    }
+
+    private Tomcat start(Mode mode) throws LifecycleException, IOException {
+        Tomcat tomcat = new Tomcat();
+        tomcat.setBaseDir(Files.createTempDirectory(tempDir, "tomcat").toString());
+        tomcat.setPort(0);
+        tomcat.getConnector().setProperty("useSendfile", String.valueOf(mode.sendfile()));
+        Context context = tomcat.addContext("", null);
+        Tomcat.addServlet(context, "document", mode.servlet().get());
+        context.addServletMappingDecoded("/document", "document");
+        tomcat.start();
+        return tomcat;
+    }
+
+    private record Mode(String name, boolean sendfile, Supplier<Servlet> servlet) {
+    }
+
+    private static class RangeServlet extends HttpServlet {
+
+        private final FileRangeStreamer.StoredFile file;
+
+        RangeServlet(FileRangeStreamer.StoredFile file) {
+            this.file = file;
+        }
+
+        @Override
+        protected void doGet(HttpServletRequest request, HttpServletResponse response) throws IOException {
+            FileRangeStreamer.stream(file, request, response);
+        }
+    }
+
+    private static DispatcherServlet baselineServlet(Path path) {
+        AnnotationConfigWebApplicationContext context = new AnnotationConfigWebApplicationContext();
+        context.register(BaselineConfig.class);
+        context.addBeanFactoryPostProcessor(beanFactory ->
+                beanFactory.registerSingleton("baselineController", new BaselineController(path)));
+        return new DispatcherServlet(context);
+    }
+
+    @Configuration
+    @EnableWebMvc
+    static class BaselineConfig {
+    }
+
+    // The document view endpoint as it was before ranges and sendfile
+    @RestController
+    static class BaselineController {
+
+        private final Path path;
+
+        BaselineController(Path path) {
+            this.path = path;
+        }
+
+        @GetMapping("/document")
+        ResponseEntity<Resource> view() throws IOException {
+            Resource resource = new UrlResource(path.toUri());
+            return ResponseEntity.ok()
+                    .contentType(MediaType.APPLICATION_PDF)
+                    .header(HttpHeaders.CONTENT_DISPOSITION, "inline; filename=\"judgment.pdf\"")
+                    .body(resource);
+        }
+    }
+
+    private static long drain(InputStream in) throws IOException {
+        try (in) {
+            byte[] buffer = new byte[256 * 1024];
+            long total = 0;
+            int read;
+            while ((read = in.read(buffer)) != -1) {
+                total += read;
+            }
+            return total;
+        }
+    }
+}
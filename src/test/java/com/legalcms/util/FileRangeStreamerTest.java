@@ -0,0 +1,173 @@
+package com.legalcms.util;
+
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.io.TempDir;
+import org.springframework.http.HttpHeaders;
+import org.springframework.mock.web.MockHttpServletRequest;
+import org.springframework.mock.web.MockHttpServletResponse;
+
+import java.io.ByteArrayInputStream;
+import java.io.IOException;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.time.LocalDateTime;
+import java.time.ZoneId;
+import java.time.temporal.ChronoUnit;
+import java.util.Arrays;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+class FileRangeStreamerTest {
+
+    private static final int LENGTH = 100_000;
+    private static final String ETAG = "\"v1\"";
+    private static final LocalDateTime LAST_MODIFIED = LocalDateTime.now().minusDays(1).truncatedTo(ChronoUnit.SECONDS);
+
+    @TempDir
+    Path tempDir;
+
+    private final byte[] content = new byte[LENGTH];
+    private FileRangeStreamer.StoredFile file;
+
+    @BeforeEach
+    void writeFile() throws IOException {
+        for (int i = 0; i < LENGTH; i++) {
+            content[i] = (byte) (i * 31);
+        }
+        Path path = Files.write(tempDir.resolve("judgment.pdf"), content);
+        file = new FileRangeStreamer.StoredFile(path, null, "judgment.pdf", LENGTH, LAST_MODIFIED, ETAG);
+    }
+
+    @Test
+    void servesTheWholeFileWithoutARange() throws IOException {
+        MockHttpServletResponse response = stream(request(null));
+
+        assertThat(response.getStatus()).isEqualTo(200);
+        assertThat(response.getContentAsByteArray()).isEqualTo(content);
+        assertThat(response.getContentLengthLong()).isEqualTo(LENGTH);
+        assertThat(response.getContentType()).isEqualTo("application/pdf");
+        assertThat(response.getHeader(HttpHeaders.ACCEPT_RANGES)).isEqualTo("bytes");
+        assertThat(response.getHeader(HttpHeaders.ETAG)).isEqualTo(ETAG);
+        assertThat(response.getHeader(HttpHeaders.CONTENT_DISPOSITION)).startsWith("inline");
+    }
+
+    @Test
+    void servesASingleRange() throws IOException {
+        MockHttpServletResponse response = stream(request("bytes=10-19"));
+
+        assertThat(response.getStatus()).isEqualTo(206);
+        assertThat(response.getHeader(HttpHeaders.CONTENT_RANGE)).isEqualTo("bytes 10-19/" + LENGTH);
+        assertThat(response.getContentAsByteArray()).isEqualTo(Arrays.copyOfRange(content, 10, 20));
+    }
+
+    @Test
+    void servesSuffixAndOpenEndedRanges() throws IOException {
+        MockHttpServletResponse suffix = stream(request("bytes=-5"));
+        assertThat(suffix.getStatus()).isEqualTo(206);
+        assertThat(suffix.getHeader(HttpHeaders.CONTENT_RANGE)).isEqualTo("bytes 99995-99999/" + LENGTH);
+        assertThat(suffix.getContentAsByteArray()).isEqualTo(Arrays.copyOfRange(content, LENGTH - 5, LENGTH));
+
+        MockHttpServletResponse openEnded = stream(request("bytes=99990-"));
+        assertThat(openEnded.getContentAsByteArray()).isEqualTo(Arrays.copyOfRange(content, 99_990, LENGTH));
+
+        // A range running past the end is clipped to it
+        MockHttpServletResponse clipped = stream(request("bytes=99998-200000"));
+        assertThat(clipped.getHeader(HttpHeaders.CONTENT_RANGE)).isEqualTo("bytes 99998-99999/" + LENGTH);
+    }
+
+    @Test
+    void rejectsRangesStartingPastTheEnd() throws IOException {
+        MockHttpServletResponse response = stream(request("bytes=200000-"));
+
+        assertThat(response.getStatus()).isEqualTo(416);
+        assertThat(response.getHeader(HttpHeaders.CONTENT_RANGE)).isEqualTo("bytes */" + LENGTH);
+        assertThat(response.getContentAsByteArray()).isEmpty();
+    }
+
+    @Test
+    void servesTheWholeFileForMultipleOrMalformedRanges() throws IOException {
+        assertThat(stream(request("bytes=0-1,5-6")).getStatus()).isEqualTo(200);
+        assertThat(stream(request("pages=1-2")).getStatus()).isEqualTo(200);
+    }
+
+    @Test
+    void honoursIfRange() throws IOException {
+        MockHttpServletRequest stale = request("bytes=0-9");
+        stale.addHeader(HttpHeaders.IF_RANGE, "\"v0\"");
+        assertThat(stream(stale).getStatus()).isEqualTo(200);
+
+        MockHttpServletRequest current = request("bytes=0-9");
+        current.addHeader(HttpHeaders.IF_RANGE, ETAG);
+        assertThat(stream(current).getStatus()).isEqualTo(206);
+
+        MockHttpServletRequest byDate = request("bytes=0-9");
+        byDate.addHeader(HttpHeaders.IF_RANGE, LAST_MODIFIED.atZone(ZoneId.systemDefault()).toInstant().toEpochMilli());
+        assertThat(stream(byDate).getStatus()).isEqualTo(206);
+
+        MockHttpServletRequest olderDate = request("bytes=0-9");
+        olderDate.addHeader(HttpHeaders.IF_RANGE,
+                LAST_MODIFIED.minusHours(1).atZone(ZoneId.systemDefault()).toInstant().toEpochMilli());
+        assertThat(stream(olderDate).getStatus()).isEqualTo(200);
+    }
+
+    @Test
+    void headSendsHeadersOnly() throws IOException {
+        MockHttpServletRequest request = request("bytes=0-99");
+        request.setMethod("HEAD");
+        MockHttpServletResponse response = stream(request);
+
+        assertThat(response.getStatus()).isEqualTo(206);
+        assertThat(response.getContentLengthLong()).isEqualTo(100);
+        assertThat(response.getContentAsByteArray()).isEmpty();
+    }
+
+    @Test
+    void handsLargeRangesToSendfile() throws IOException {
+        MockHttpServletRequest request = request("bytes=1000-99999");
+        request.setAttribute("org.apache.tomcat.sendfile.support", true);
+        MockHttpServletResponse response = stream(request);
+
+        assertThat(response.getStatus()).isEqualTo(206);
+        assertThat(response.getContentAsByteArray()).isEmpty();
+        assertThat(request.getAttribute("org.apache.tomcat.sendfile.filename"))
+                .isEqualTo(file.path().toAbsolutePath().toString());
+        assertThat(request.getAttribute("org.apache.tomcat.sendfile.start")).isEqualTo(1000L);
+        assertThat(request.getAttribute("org.apache.tomcat.sendfile.end")).isEqualTo((long) LENGTH);
+
+        // Small ranges are cheaper to copy
+        MockHttpServletRequest small = request("bytes=0-99");
+        small.setAttribute("org.apache.tomcat.sendfile.support", true);
+        assertThat(stream(small).getContentAsByteArray()).hasSize(100);
+        assertThat(small.getAttribute("org.apache.tomcat.sendfile.filename")).isNull();
+    }
+
+    @Test
+    void streamsRemoteContentFromTheRangeStart() throws IOException {
+        long[] openedAt = new long[1];
+        FileRangeStreamer.StoredFile remote = new FileRangeStreamer.StoredFile(null, offset -> {
+            openedAt[0] = offset;
+            return new ByteArrayInputStream(content, (int) offset, LENGTH - (int) offset);
+        }, "judgment.pdf", LENGTH, LAST_MODIFIED, ETAG);
+
+        MockHttpServletResponse response = new MockHttpServletResponse();
+        FileRangeStreamer.stream(remote, request("bytes=50000-50009"), response);
+
+        assertThat(openedAt[0]).isEqualTo(50_000);
+        assertThat(response.getContentAsByteArray()).isEqualTo(Arrays.copyOfRange(content, 50_000, 50_010));
+    }
+
+    private static MockHttpServletRequest request(String range) {
+        MockHttpServletRequest request = new MockHttpServletRequest("GET", "/api/documents/view/1");
+        if (range != null) {
+            request.addHeader(HttpHeaders.RANGE, range);
+        }
+        return request;
+    }
+
+    private MockHttpServletResponse stream(MockHttpServletRequest request) throws IOException {
+        MockHttpServletResponse response = new MockHttpServletResponse();
+        FileRangeStreamer.stream(file, request, response);
+        return response;
+    }
+}